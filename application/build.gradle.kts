@@ -1,4 +1,12 @@
 dependencies {
     implementation(project(":domain"))
     implementation(libs.algoutils.student)
+    testImplementation(libs.junit.core)
+    testImplementation(testFixtures(project(":domain")))
+}
+
+tasks {
+    test {
+        useJUnitPlatform()
+    }
 }
@@ -0,0 +1,211 @@
+package projekt.runner;
+
+import projekt.base.Location;
+import projekt.delivery.archetype.ProblemArchetype;
+import projekt.delivery.archetype.ProblemGroup;
+import projekt.delivery.generator.EmptyOrderGenerator;
+import projekt.delivery.generator.FridayOrderGenerator;
+import projekt.delivery.generator.OrderGenerator;
+import projekt.delivery.rating.AmountDeliveredRater;
+import projekt.delivery.rating.InTimeRater;
+import projekt.delivery.rating.Rater;
+import projekt.delivery.rating.RatingCriteria;
+import projekt.delivery.rating.TravelDistanceRater;
+import projekt.delivery.routing.Region;
+import projekt.delivery.routing.Vehicle;
+import projekt.delivery.service.DeliveryService;
+import projekt.delivery.simulation.Simulation;
+import projekt.delivery.simulation.SimulationConfig;
+import projekt.runner.handler.ResultHandler;
+import projekt.runner.handler.SimulationFinishedHandler;
+import projekt.runner.handler.SimulationSetupHandler;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * A {@link Runner} that returns the stored average ratings of a previous execution with the same fingerprint instead
+ * of simulating the {@link ProblemGroup} again.<p>
+ *
+ * The fingerprint covers the {@link Region}, the vehicles, the fields of the order generator and rater factories and
+ * the simulation length of every problem, the rating criteria, the number of runs, the seed of the delegate and the
+ * name of the {@link DeliveryService.Factory}. The delegate has to be deterministic for a given seed, e.g. a
+ * {@link ParallelRunnerImpl}. Executions whose delivery service or factories are unknown are always simulated.<p>
+ *
+ * On a hit, the {@link SimulationSetupHandler} and {@link SimulationFinishedHandler} are not called. The cache does not
+ * notice changes to the simulation code, so it has to be cleared by deleting its file after such a change.
+ */
+public class CachingRunner implements Runner {
+
+    /**
+     * The version of the fingerprint format. Changing it invalidates all stored entries.
+     */
+    private static final int FINGERPRINT_VERSION = 1;
+
+    private final Runner delegate;
+    private final long seed;
+    private final Map<String, DeliveryService.Factory> deliveryServices;
+    private final ResultCache cache;
+
+    /**
+     * Creates a new {@link CachingRunner} instance.
+     * @param delegate The {@link Runner} executing the simulations on a miss.
+     * @param seed The seed of the delegate.
+     * @param deliveryServices The {@link DeliveryService.Factory}s that can be cached, mapped by their names.
+     * @param cache The {@link ResultCache} storing the ratings.
+     */
+    public CachingRunner(Runner delegate,
+                         long seed,
+                         Map<String, DeliveryService.Factory> deliveryServices,
+                         ResultCache cache) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate");
+        this.seed = seed;
+        this.deliveryServices = Map.copyOf(deliveryServices);
+        this.cache = Objects.requireNonNull(cache, "cache");
+    }
+
+    @Override
+    public void run(ProblemGroup problemGroup,
+                    SimulationConfig simulationConfig,
+                    int simulationRuns,
+                    DeliveryService.Factory deliveryServiceFactory,
+                    SimulationSetupHandler simulationSetupHandler,
+                    SimulationFinishedHandler simulationFinishedHandler,
+                    ResultHandler resultHandler) {
+
+        String fingerprint = fingerprint(problemGroup, simulationRuns, deliveryServiceFactory);
+        if (fingerprint == null) {
+            delegate.run(problemGroup, simulationConfig, simulationRuns, deliveryServiceFactory,
+                simulationSetupHandler, simulationFinishedHandler, resultHandler);
+            return;
+        }
+
+        Map<RatingCriteria, Double> cachedResult = cache.get(fingerprint);
+        if (cachedResult != null && cachedResult.keySet().containsAll(problemGroup.ratingCriteria())) {
+            resultHandler.accept(cachedResult);
+            return;
+        }
+
+        // the result handler is only called if the execution has not been interrupted
+        delegate.run(problemGroup, simulationConfig, simulationRuns, deliveryServiceFactory,
+            simulationSetupHandler, simulationFinishedHandler, result -> {
+                cache.put(fingerprint, result);
+                resultHandler.accept(result);
+            });
+    }
+
+    @Override
+    public Map<ProblemArchetype, Simulation> createSimulations(ProblemGroup problemGroup,
+                                                                SimulationConfig simulationConfig,
+                                                                DeliveryService.Factory deliveryServiceFactory) {
+        return delegate.createSimulations(problemGroup, simulationConfig, deliveryServiceFactory);
+    }
+
+    /**
+     * Returns the fingerprint of an execution of the given {@link ProblemGroup} by this runner.
+     * @param problemGroup The executed {@link ProblemGroup}.
+     * @param simulationRuns The number of runs.
+     * @param deliveryServiceFactory The simulated {@link DeliveryService.Factory}.
+     * @return The hex encoded SHA-256 hash of the description of the execution or {@code null} if the execution
+     * contains a {@link DeliveryService.Factory}, {@link OrderGenerator.Factory} or {@link Rater.Factory} whose
+     * results can not be identified.
+     */
+    String fingerprint(ProblemGroup problemGroup, int simulationRuns, DeliveryService.Factory deliveryServiceFactory) {
+        String deliveryService = deliveryServices.entrySet().stream()
+            .filter(entry -> entry.getValue() == deliveryServiceFactory)
+            .map(Map.Entry::getKey)
+            .min(Comparator.naturalOrder())
+            .orElse(null);
+        if (deliveryService == null) {
+            return null;
+        }
+
+        StringBuilder description = new StringBuilder();
+        description.append("version ").append(FINGERPRINT_VERSION).append('\n');
+        description.append("service ").append(deliveryService).append('\n');
+        description.append("runs ").append(simulationRuns).append('\n');
+        description.append("seed ").append(seed).append('\n');
+        description.append("criteria ").append(problemGroup.ratingCriteria()).append('\n');
+        for (ProblemArchetype problem : problemGroup.problems()) {
+            if (!describeProblem(description, problem)) {
+                return null;
+            }
+        }
+        return sha256(description.toString());
+    }
+
+    private static boolean describeProblem(StringBuilder description, ProblemArchetype problem) {
+        description.append("problem ").append(problem.simulationLength()).append('\n');
+
+        Region region = problem.vehicleManager().getRegion();
+        description.append("distance ").append(region.getDistanceCalculator().getClass().getName()).append('\n');
+        for (Region.Node node : new TreeSet<>(region.getNodes())) {
+            description.append("node ").append(node.getName()).append(' ').append(location(node.getLocation()));
+            if (node instanceof Region.Restaurant restaurant) {
+                description.append(" restaurant ").append(restaurant.getAvailableFood());
+            } else if (node instanceof Region.Neighborhood) {
+                description.append(" neighborhood");
+            }
+            description.append('\n');
+        }
+        for (Region.Edge edge : new TreeSet<>(region.getEdges())) {
+            description.append("edge ").append(edge.getName())
+                .append(' ').append(location(edge.getNodeA().getLocation()))
+                .append(' ').append(location(edge.getNodeB().getLocation()))
+                .append(' ').append(edge.getDuration()).append('\n');
+        }
+
+        List<Vehicle> vehicles = new ArrayList<>(problem.vehicleManager().getAllVehicles());
+        vehicles.sort(Comparator.comparingInt(Vehicle::getId));
+        for (Vehicle vehicle : vehicles) {
+            description.append("vehicle ").append(vehicle.getId())
+                .append(' ').append(location(vehicle.getStartingNode().getComponent().getLocation()))
+                .append(' ').append(vehicle.getCapacity()).append('\n');
+        }
+
+        OrderGenerator.Factory orderGeneratorFactory = problem.orderGeneratorFactory();
+        if (orderGeneratorFactory instanceof FridayOrderGenerator.Factory factory) {
+            description.append("friday ").append(factory.orderCount)
+                .append(' ').append(factory.deliveryInterval)
+                .append(' ').append(factory.maxWeight)
+                .append(' ').append(factory.standardDeviation)
+                .append(' ').append(factory.lastTick)
+                .append(' ').append(factory.seed).append('\n');
+        } else if (orderGeneratorFactory instanceof EmptyOrderGenerator.Factory) {
+            description.append("empty\n");
+        } else {
+            return false;
+        }
+
+        for (Map.Entry<RatingCriteria, Rater.Factory> entry : new TreeMap<>(problem.raterFactoryMap()).entrySet()) {
+            description.append("rater ").append(entry.getKey()).append(' ');
+            if (entry.getValue() instanceof AmountDeliveredRater.Factory factory) {
+                description.append(factory.factor);
+            } else if (entry.getValue() instanceof InTimeRater.Factory factory) {
+                description.append(factory.ignoredTicksOff).append(' ').append(factory.maxTicksOff);
+            } else if (entry.getValue() instanceof TravelDistanceRater.Factory factory) {
+                description.append(factory.factor);
+            } else {
+                return false;
+            }
+            description.append('\n');
+        }
+        return true;
+    }
+
+    private static String location(Location location) {
+        return location.getX() + "," + location.getY();
+    }
+
+    private static String sha256(String description) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(description.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform supports SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+}
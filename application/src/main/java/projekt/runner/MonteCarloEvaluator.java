@@ -0,0 +1,277 @@
+package projekt.runner;
+
+import projekt.delivery.archetype.ProblemArchetype;
+import projekt.delivery.archetype.ProblemGroup;
+import projekt.delivery.rating.RatingCriteria;
+import projekt.delivery.service.DeliveryService;
+import projekt.delivery.simulation.Simulation;
+import projekt.delivery.simulation.SimulationConfig;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Evaluates the problems of a {@link ProblemGroup} with as many seeded runs as needed to estimate the mean rating of
+ * every {@link RatingCriteria} with a given precision.<p>
+ *
+ * The runs of all problems are executed in parallel on an {@link ExecutorService}. After every finished run, the
+ * confidence interval of the mean of every {@link RatingCriteria} is updated. A problem is finished as soon as the
+ * half-width of every confidence interval is at most {@link Config#maxHalfWidth()} or {@link Config#maxRuns()} runs
+ * have been executed. Runs of finished problems that are still in progress are cancelled.<p>
+ *
+ * The results are folded in the order of the run indices and every run uses a seed derived from the seed of the
+ * evaluator, so the number of runs and the estimates do not depend on the number of threads.
+ */
+public class MonteCarloEvaluator {
+
+    private final ExecutorService executor;
+    private final int parallelism;
+    private final long seed;
+    private final Config config;
+
+    /**
+     * Creates a new {@link MonteCarloEvaluator} instance.
+     * @param executor The {@link ExecutorService} executing the runs. It is not shut down by this evaluator.
+     * @param parallelism The maximum number of runs that are executed at the same time.
+     * @param seed The seed the seeds of the runs are derived from.
+     * @param config The {@link Config} containing the stopping criteria.
+     */
+    public MonteCarloEvaluator(ExecutorService executor, int parallelism, long seed, Config config) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("parallelism must be positive");
+        }
+        this.executor = Objects.requireNonNull(executor, "executor");
+        this.parallelism = parallelism;
+        this.seed = seed;
+        this.config = Objects.requireNonNull(config, "config");
+    }
+
+    /**
+     * The stopping criteria of a {@link MonteCarloEvaluator}.
+     *
+     * @param confidenceLevel The confidence level of the confidence intervals, e.g. 0.95.
+     * @param maxHalfWidth The maximum half-width of the confidence intervals.
+     * @param minRuns The minimum number of runs of every problem. It has to be at least 2.
+     * @param maxRuns The maximum number of runs of every problem.
+     */
+    public record Config(double confidenceLevel, double maxHalfWidth, int minRuns, int maxRuns) {
+
+        public Config {
+            if (confidenceLevel <= 0 || confidenceLevel >= 1) {
+                throw new IllegalArgumentException("confidenceLevel must be between 0 and 1");
+            }
+            if (maxHalfWidth <= 0) {
+                throw new IllegalArgumentException("maxHalfWidth must be positive");
+            }
+            // the sample variance needs at least two runs
+            if (minRuns < 2) {
+                throw new IllegalArgumentException("minRuns must be at least 2");
+            }
+            if (maxRuns < minRuns) {
+                throw new IllegalArgumentException("maxRuns must not be less than minRuns");
+            }
+        }
+    }
+
+    /**
+     * The estimated mean rating of a {@link RatingCriteria}.
+     *
+     * @param mean The mean rating.
+     * @param variance The sample variance of the ratings.
+     * @param halfWidth The half-width of the confidence interval of the mean.
+     */
+    public record Estimate(double mean, double variance, double halfWidth) {
+    }
+
+    /**
+     * The result of the evaluation of a single problem.
+     *
+     * @param runs The number of runs that were needed.
+     * @param converged True, if all confidence intervals are narrow enough, false if the run budget was exhausted.
+     * @param estimates The {@link Estimate} of every {@link RatingCriteria}.
+     */
+    public record ProblemResult(int runs, boolean converged, Map<RatingCriteria, Estimate> estimates) {
+    }
+
+    /**
+     * Evaluates all problems of the given {@link ProblemGroup}.
+     *
+     * @param problemGroup The {@link ProblemGroup} to evaluate.
+     * @param simulationConfig The {@link SimulationConfig} of the simulations. It should not delay the ticks.
+     * @param deliveryServiceFactory The {@link DeliveryService.Factory} used to create the simulated {@link DeliveryService}s.
+     * @return The {@link ProblemResult} of every problem in the order of the {@link ProblemGroup}.
+     * @throws RuntimeException If a run failed.
+     */
+    public Map<ProblemArchetype, ProblemResult> evaluate(ProblemGroup problemGroup,
+                                                         SimulationConfig simulationConfig,
+                                                         DeliveryService.Factory deliveryServiceFactory) {
+        List<ProblemArchetype> problems = problemGroup.problems();
+        List<RatingCriteria> criteria = problemGroup.ratingCriteria();
+        List<ProblemState> states = new ArrayList<>(problems.size());
+        for (int i = 0; i < problems.size(); i++) {
+            states.add(new ProblemState(problems.get(i), i, criteria.size()));
+        }
+
+        CompletionService<RunResult> completionService = new ExecutorCompletionService<>(executor);
+        int inFlight = 0;
+        try {
+            while (true) {
+                inFlight += submitRuns(states, completionService, parallelism - inFlight, criteria,
+                    simulationConfig, deliveryServiceFactory);
+                if (inFlight == 0) {
+                    break;
+                }
+
+                Future<RunResult> future = completionService.take();
+                inFlight--;
+                if (future.isCancelled()) {
+                    continue;
+                }
+                RunResult result = future.get();
+                if (result == null) {
+                    continue;
+                }
+                ProblemState state = states.get(result.problemIndex());
+                if (!state.finished) {
+                    state.add(result);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        } finally {
+            for (ProblemState state : states) {
+                state.cancelAll();
+            }
+        }
+
+        Map<ProblemArchetype, ProblemResult> results = new LinkedHashMap<>();
+        for (ProblemState state : states) {
+            results.put(state.problem, state.toResult(criteria));
+        }
+        return results;
+    }
+
+    private int submitRuns(List<ProblemState> states,
+                           CompletionService<RunResult> completionService,
+                           int capacity,
+                           List<RatingCriteria> criteria,
+                           SimulationConfig simulationConfig,
+                           DeliveryService.Factory deliveryServiceFactory) {
+        int submitted = 0;
+        boolean progress = true;
+        // distribute the free slots round-robin, so that no problem has to wait for another one to converge
+        while (submitted < capacity && progress) {
+            progress = false;
+            for (ProblemState state : states) {
+                if (submitted == capacity) {
+                    break;
+                }
+                if (state.finished || state.nextRun >= config.maxRuns()) {
+                    continue;
+                }
+                int run = state.nextRun++;
+                ProblemArchetype problem = state.problem;
+                int runSeed = ParallelRunnerImpl.taskSeed(seed, state.index, run);
+                state.futures.put(run, completionService.submit(() -> {
+                    Simulation simulation = ParallelRunnerImpl.createSimulation(problem, runSeed, simulationConfig,
+                        deliveryServiceFactory);
+                    if (!state.running.run(simulation, problem.simulationLength())) {
+                        // the problem has finished and ended this run, possibly before its future is cancelled
+                        return null;
+                    }
+                    double[] ratings = new double[criteria.size()];
+                    for (int i = 0; i < criteria.size(); i++) {
+                        ratings[i] = simulation.getRatingForCriterion(criteria.get(i));
+                    }
+                    return new RunResult(state.index, run, ratings);
+                }));
+                submitted++;
+                progress = true;
+            }
+        }
+        return submitted;
+    }
+
+    private record RunResult(int problemIndex, int run, double[] ratings) {
+    }
+
+    private class ProblemState {
+
+        final ProblemArchetype problem;
+        final int index;
+        final RunningStatistics[] statistics;
+        final Map<Integer, Future<RunResult>> futures = new HashMap<>();
+        final RunningSimulations running = new RunningSimulations();
+        /**
+         * Finished runs that cannot be folded yet, because a run with a lower index is still in progress.
+         */
+        final Map<Integer, double[]> pending = new HashMap<>();
+        int nextRun = 0;
+        int foldedRuns = 0;
+        boolean finished = false;
+        boolean converged = false;
+
+        ProblemState(ProblemArchetype problem, int index, int criteria) {
+            this.problem = problem;
+            this.index = index;
+            statistics = new RunningStatistics[criteria];
+            for (int i = 0; i < criteria; i++) {
+                statistics[i] = new RunningStatistics();
+            }
+        }
+
+        void add(RunResult result) {
+            futures.remove(result.run());
+            pending.put(result.run(), result.ratings());
+
+            double[] ratings;
+            while (!finished && (ratings = pending.remove(foldedRuns)) != null) {
+                for (int i = 0; i < ratings.length; i++) {
+                    statistics[i].add(ratings[i]);
+                }
+                foldedRuns++;
+                if (foldedRuns >= config.minRuns() && isPrecise()) {
+                    converged = true;
+                    finished = true;
+                } else if (foldedRuns >= config.maxRuns()) {
+                    finished = true;
+                }
+            }
+            if (finished) {
+                cancelAll();
+            }
+        }
+
+        boolean isPrecise() {
+            for (RunningStatistics statistic : statistics) {
+                if (statistic.getHalfWidth(config.confidenceLevel()) > config.maxHalfWidth()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        void cancelAll() {
+            running.endAll();
+            futures.values().forEach(future -> future.cancel(true));
+            futures.clear();
+            pending.clear();
+        }
+
+        ProblemResult toResult(List<RatingCriteria> criteria) {
+            Map<RatingCriteria, Estimate> estimates = new LinkedHashMap<>();
+            for (int i = 0; i < criteria.size(); i++) {
+                RunningStatistics statistic = statistics[i];
+                estimates.put(criteria.get(i), new Estimate(
+                    statistic.getMean(),
+                    statistic.getVariance(),
+                    statistic.getHalfWidth(config.confidenceLevel())
+                ));
+            }
+            return new ProblemResult(foldedRuns, converged, Collections.unmodifiableMap(estimates));
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package projekt.runner;
+
+import projekt.delivery.archetype.ProblemArchetype;
+import projekt.delivery.archetype.ProblemGroup;
+import projekt.delivery.rating.RatingCriteria;
+import projekt.delivery.service.DeliveryService;
+import projekt.delivery.simulation.BasicDeliverySimulation;
+import projekt.delivery.simulation.Simulation;
+import projekt.delivery.simulation.SimulationConfig;
+import projekt.runner.handler.ResultHandler;
+import projekt.runner.handler.SimulationFinishedHandler;
+import projekt.runner.handler.SimulationSetupHandler;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A {@link Runner} that executes every run of every problem as a separate task on an {@link ExecutorService}.<p>
+ *
+ * Every task simulates its own {@link projekt.delivery.routing.VehicleManager} created by
+ * {@link ProblemArchetype#vehicleManagerFactory()}, so the read-only routing data of a problem is shared between all
+ * tasks. Unseeded {@link projekt.delivery.generator.OrderGenerator.Factory}s get a seed derived from the seed of this
+ * runner, the index of the problem and the run, so the results do not depend on the number of threads.
+ * The average ratings are summed up in the same order as in a sequential execution.<p>
+ *
+ * The handlers are called from the worker threads, but never concurrently.
+ */
+public class ParallelRunnerImpl implements Runner, AutoCloseable {
+
+    private final ExecutorService executor;
+    private final boolean ownsExecutor;
+    private final long seed;
+    private final Object handlerLock = new Object();
+
+    /**
+     * Creates a new {@link ParallelRunnerImpl} instance.
+     * @param executor The {@link ExecutorService} executing the simulations. It is not shut down by this runner.
+     * @param seed The seed used to derive the seeds of the unseeded order generators.
+     */
+    public ParallelRunnerImpl(ExecutorService executor, long seed) {
+        this(executor, false, seed);
+    }
+
+    private ParallelRunnerImpl(ExecutorService executor, boolean ownsExecutor, long seed) {
+        this.executor = Objects.requireNonNull(executor, "executor");
+        this.ownsExecutor = ownsExecutor;
+        this.seed = seed;
+    }
+
+    /**
+     * Creates a new {@link ParallelRunnerImpl} that executes the simulations on the given number of daemon threads.
+     * The threads are stopped when the runner is {@link #close() closed}.
+     * @param threads The number of threads.
+     * @param seed The seed used to derive the seeds of the unseeded order generators.
+     * @return The created {@link ParallelRunnerImpl}.
+     */
+    public static ParallelRunnerImpl withThreads(int threads, long seed) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("threads must be positive");
+        }
+        AtomicInteger threadCount = new AtomicInteger();
+        return new ParallelRunnerImpl(Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "simulation-runner-" + threadCount.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }), true, seed);
+    }
+
+    /**
+     * Shuts down the {@link ExecutorService} of this runner if it has been created by {@link #withThreads(int, long)}.
+     * An {@link ExecutorService} passed to the constructor is left running.
+     */
+    @Override
+    public void close() {
+        if (ownsExecutor) {
+            executor.shutdown();
+        }
+    }
+
+    @Override
+    public void run(ProblemGroup problemGroup,
+                    SimulationConfig simulationConfig,
+                    int simulationRuns,
+                    DeliveryService.Factory deliveryServiceFactory,
+                    SimulationSetupHandler simulationSetupHandler,
+                    SimulationFinishedHandler simulationFinishedHandler,
+                    ResultHandler resultHandler) {
+
+        List<ProblemArchetype> problems = problemGroup.problems();
+        List<RatingCriteria> criteria = problemGroup.ratingCriteria();
+        double[][][] ratings = new double[simulationRuns][problems.size()][];
+        AtomicBoolean interrupted = new AtomicBoolean(false);
+        RunningSimulations running = new RunningSimulations();
+
+        List<Future<?>> futures = new ArrayList<>(simulationRuns * problems.size());
+        for (int run = 0; run < simulationRuns; run++) {
+            for (int problemIndex = 0; problemIndex < problems.size(); problemIndex++) {
+                int finalRun = run;
+                int finalProblemIndex = problemIndex;
+                ProblemArchetype problem = problems.get(problemIndex);
+                futures.add(executor.submit(() -> {
+                    if (interrupted.get()) {
+                        return;
+                    }
+                    Simulation simulation = createSimulation(problem, finalProblemIndex, finalRun,
+                        simulationConfig, deliveryServiceFactory);
+                    synchronized (handlerLock) {
+                        simulationSetupHandler.accept(simulation, problem, finalRun);
+                    }
+
+                    try {
+                        if (!running.run(simulation, problem.simulationLength())) {
+                            return;
+                        }
+                    } catch (RuntimeException e) {
+                        // the failure is only reported once the future is reached, so the other runs are ended now
+                        interrupted.set(true);
+                        running.endAll();
+                        throw e;
+                    }
+
+                    synchronized (handlerLock) {
+                        if (interrupted.get() || simulationFinishedHandler.accept(simulation, problem)) {
+                            interrupted.set(true);
+                            running.endAll();
+                            return;
+                        }
+                    }
+                    double[] result = new double[criteria.size()];
+                    for (int i = 0; i < criteria.size(); i++) {
+                        result[i] = simulation.getRatingForCriterion(criteria.get(i));
+                    }
+                    ratings[finalRun][finalProblemIndex] = result;
+                }));
+            }
+        }
+
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            interrupted.set(true);
+        } catch (ExecutionException e) {
+            interrupted.set(true);
+            throw new RuntimeException(e.getCause());
+        } finally {
+            if (interrupted.get()) {
+                running.endAll();
+                futures.forEach(future -> future.cancel(true));
+            }
+        }
+
+        if (interrupted.get()) {
+            return;
+        }
+
+        Map<RatingCriteria, Double> result = new HashMap<>();
+        for (int i = 0; i < criteria.size(); i++) {
+            double sum = 0;
+            for (double[][] run : ratings) {
+                for (double[] problemRatings : run) {
+                    sum += problemRatings[i];
+                }
+            }
+            result.put(criteria.get(i), sum / (simulationRuns * problems.size()));
+        }
+        resultHandler.accept(result);
+    }
+
+    @Override
+    public Map<ProblemArchetype, Simulation> createSimulations(ProblemGroup problemGroup,
+                                                                SimulationConfig simulationConfig,
+                                                                DeliveryService.Factory deliveryServiceFactory) {
+        Map<ProblemArchetype, Simulation> simulations = new HashMap<>();
+        List<ProblemArchetype> problems = problemGroup.problems();
+        for (int problemIndex = 0; problemIndex < problems.size(); problemIndex++) {
+            ProblemArchetype problem = problems.get(problemIndex);
+            simulations.put(problem, createSimulation(problem, problemIndex, 0, simulationConfig, deliveryServiceFactory));
+        }
+        return simulations;
+    }
+
+    private Simulation createSimulation(ProblemArchetype problem,
+                                        int problemIndex,
+                                        int run,
+                                        SimulationConfig simulationConfig,
+                                        DeliveryService.Factory deliveryServiceFactory) {
+        return createSimulation(problem, taskSeed(seed, problemIndex, run), simulationConfig, deliveryServiceFactory);
+    }
+
+    /**
+     * Creates a {@link BasicDeliverySimulation} of the given problem that does not share any mutable state with
+     * other simulations of the same problem.
+     * @param problem The simulated {@link ProblemArchetype}.
+     * @param seed The seed used if the order generator of the problem is not seeded.
+     * @param simulationConfig The {@link SimulationConfig} of the simulation.
+     * @param deliveryServiceFactory The {@link DeliveryService.Factory} used to create the simulated {@link DeliveryService}.
+     * @return The created {@link BasicDeliverySimulation}.
+     */
+    static BasicDeliverySimulation createSimulation(ProblemArchetype problem,
+                                                    int seed,
+                                                    SimulationConfig simulationConfig,
+                                                    DeliveryService.Factory deliveryServiceFactory) {
+        return new BasicDeliverySimulation(
+            simulationConfig,
+            problem.raterFactoryMap(),
+            deliveryServiceFactory.create(problem.vehicleManagerFactory().create()),
+            problem.orderGeneratorFactory().withDefaultSeed(seed)
+        );
+    }
+
+    /**
+     * Derives the seed of a single run of a problem from the given seed using the SplitMix64 finalizer.
+     * @param seed The base seed.
+     * @param problemIndex The index of the problem.
+     * @param run The index of the run.
+     * @return The derived non-negative seed.
+     */
+    static int taskSeed(long seed, int problemIndex, int run) {
+        long z = seed + 0x9E3779B97F4A7C15L * (((long) problemIndex << 32) + run + 1);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z = z ^ (z >>> 31);
+        return (int) (z >>> 33);
+    }
+}
@@ -0,0 +1,140 @@
+package projekt.runner;
+
+import projekt.delivery.rating.RatingCriteria;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+
+/**
+ * A file backed store of the average ratings of previous executions, identified by a fingerprint.<p>
+ *
+ * The store holds at most a fixed number of entries and evicts the least recently used entry first. The entries are
+ * kept in memory and the file is rewritten after every change, with the least recently used entry first.
+ * Every line of the file contains the fingerprint followed by the ratings, e.g.
+ * {@code 3f2a... AMOUNT_DELIVERED=0.5 IN_TIME=0.25}. Lines that can not be parsed are ignored.
+ */
+public class ResultCache {
+
+    private final Path file;
+    private final int maxEntries;
+    private final LinkedHashMap<String, Map<RatingCriteria, Double>> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Creates a new {@link ResultCache} and reads the entries of the given file, if it exists.
+     * @param file The file the entries are stored in.
+     * @param maxEntries The maximum number of stored entries.
+     * @throws IllegalArgumentException If maxEntries is not positive.
+     * @throws UncheckedIOException If the file can not be read.
+     */
+    public ResultCache(Path file, int maxEntries) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries must be positive");
+        }
+        this.file = Objects.requireNonNull(file, "file");
+        this.maxEntries = maxEntries;
+
+        if (Files.exists(file)) {
+            try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    parseEntry(line);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            evict();
+        }
+    }
+
+    private void parseEntry(String line) {
+        String[] parts = line.trim().split(" ");
+        if (parts.length < 2 || parts[0].isEmpty()) {
+            return;
+        }
+        Map<RatingCriteria, Double> ratings = new EnumMap<>(RatingCriteria.class);
+        for (int i = 1; i < parts.length; i++) {
+            int separator = parts[i].indexOf('=');
+            if (separator < 0) {
+                return;
+            }
+            try {
+                ratings.put(RatingCriteria.valueOf(parts[i].substring(0, separator)),
+                    Double.parseDouble(parts[i].substring(separator + 1)));
+            } catch (IllegalArgumentException e) {
+                return;
+            }
+        }
+        entries.put(parts[0], ratings);
+    }
+
+    /**
+     * Returns the ratings stored for the given fingerprint and marks the entry as recently used.
+     * @param fingerprint The fingerprint of the execution.
+     * @return The stored ratings or {@code null} if no entry exists for the fingerprint.
+     */
+    public synchronized Map<RatingCriteria, Double> get(String fingerprint) {
+        Map<RatingCriteria, Double> ratings = entries.get(fingerprint);
+        return ratings == null ? null : new EnumMap<>(ratings);
+    }
+
+    /**
+     * Stores the ratings of the given fingerprint, evicts the least recently used entries if there are too many and
+     * rewrites the file.
+     * @param fingerprint The fingerprint of the execution. It must not contain whitespace.
+     * @param ratings The average ratings of the execution.
+     * @throws IllegalArgumentException If the fingerprint is empty or contains whitespace.
+     * @throws UncheckedIOException If the file can not be written.
+     */
+    public synchronized void put(String fingerprint, Map<RatingCriteria, Double> ratings) {
+        if (fingerprint.isEmpty() || fingerprint.chars().anyMatch(Character::isWhitespace)) {
+            throw new IllegalArgumentException("Invalid fingerprint: \"%s\"".formatted(fingerprint));
+        }
+        entries.put(fingerprint, ratings.isEmpty() ? new EnumMap<>(RatingCriteria.class) : new EnumMap<>(ratings));
+        evict();
+        write();
+    }
+
+    /**
+     * Returns the number of stored entries.
+     * @return The number of stored entries.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private void evict() {
+        Iterator<String> iterator = entries.keySet().iterator();
+        while (entries.size() > maxEntries) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    private void write() {
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            // written to a temporary file first, so a crash never leaves a truncated cache behind
+            Path temporaryFile = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+            try (BufferedWriter writer = Files.newBufferedWriter(temporaryFile, StandardCharsets.UTF_8)) {
+                for (Map.Entry<String, Map<RatingCriteria, Double>> entry : entries.entrySet()) {
+                    writer.write(entry.getKey());
+                    for (Map.Entry<RatingCriteria, Double> rating : entry.getValue().entrySet()) {
+                        writer.write(" %s=%s".formatted(rating.getKey().name(), Double.toString(rating.getValue())));
+                    }
+                    writer.newLine();
+                }
+            }
+            Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
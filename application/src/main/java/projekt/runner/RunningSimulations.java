@@ -0,0 +1,45 @@
+package projekt.runner;
+
+import projekt.delivery.simulation.Simulation;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The {@link Simulation}s that are currently executed by the tasks of a runner.<p>
+ *
+ * Cancelling the {@link java.util.concurrent.Future} of a task only interrupts the thread executing it, so the
+ * simulations are also ended explicitly by {@link #endAll()} when their tasks are cancelled or another task failed.
+ */
+class RunningSimulations {
+
+    private final Set<Simulation> simulations = ConcurrentHashMap.newKeySet();
+    private volatile boolean ended = false;
+
+    /**
+     * Runs the given {@link Simulation} for the given number of ticks, unless {@link #endAll()} has already been called.
+     * @param simulation The {@link Simulation} to run.
+     * @param simulationLength The number of ticks to simulate.
+     * @return True, if the {@link Simulation} was not ended by {@link #endAll()} or an interrupt of the current thread.
+     */
+    boolean run(Simulation simulation, long simulationLength) {
+        simulations.add(simulation);
+        try {
+            // checked after the registration, so a concurrent endAll() either sees the simulation or is seen here
+            if (!ended) {
+                simulation.runSimulation(simulationLength);
+            }
+        } finally {
+            simulations.remove(simulation);
+        }
+        return !ended && !Thread.currentThread().isInterrupted();
+    }
+
+    /**
+     * Ends all running {@link Simulation}s and prevents further simulations from being started by {@link #run}.
+     */
+    void endAll() {
+        ended = true;
+        simulations.forEach(Simulation::endSimulation);
+    }
+}
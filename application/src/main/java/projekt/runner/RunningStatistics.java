@@ -0,0 +1,180 @@
+package projekt.runner;
+
+/**
+ * Computes the mean and variance of a stream of values with Welford's algorithm.
+ */
+class RunningStatistics {
+
+    /**
+     * The number of degrees of freedom up to which {@link #studentQuantile(double, long)} inverts the exact
+     * distribution function.
+     */
+    static final long EXACT_DEGREES_OF_FREEDOM = 100;
+
+    private long count = 0;
+    private double mean = 0;
+    private double m2 = 0;
+
+    /**
+     * Adds the given value.
+     * @param value The value to add.
+     */
+    void add(double value) {
+        count++;
+        double delta = value - mean;
+        mean += delta / count;
+        m2 += delta * (value - mean);
+    }
+
+    /**
+     * Returns the number of added values.
+     * @return The number of added values.
+     */
+    long getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the mean of the added values.
+     * @return The mean of the added values.
+     */
+    double getMean() {
+        return mean;
+    }
+
+    /**
+     * Returns the sample variance of the added values.
+     * @return The sample variance of the added values or 0 if less than two values have been added.
+     */
+    double getVariance() {
+        return count < 2 ? 0 : m2 / (count - 1);
+    }
+
+    /**
+     * Returns the half-width of the two-sided confidence interval of the mean, based on Student's t-distribution.
+     * @param confidenceLevel The confidence level, e.g. 0.95.
+     * @return The half-width of the confidence interval or {@link Double#POSITIVE_INFINITY} if less than two values have been added.
+     */
+    double getHalfWidth(double confidenceLevel) {
+        if (count < 2) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return studentQuantile(1 - (1 - confidenceLevel) / 2, count - 1) * Math.sqrt(getVariance() / count);
+    }
+
+    /**
+     * Returns the quantile of Student's t-distribution.<p>
+     *
+     * Up to {@link #EXACT_DEGREES_OF_FREEDOM} degrees of freedom, the quantile is found by bisection of the exact
+     * distribution function. For more degrees of freedom, a Cornish-Fisher expansion of the normal quantile up to the
+     * fourth order is used, whose relative error is below 1e-6 there.
+     */
+    static double studentQuantile(double p, long degreesOfFreedom) {
+        if (p <= 0 || p >= 1) {
+            throw new IllegalArgumentException("p must be between 0 and 1");
+        }
+        if (degreesOfFreedom <= 0) {
+            throw new IllegalArgumentException("degreesOfFreedom must be positive");
+        }
+        if (p < 0.5) {
+            return -studentQuantile(1 - p, degreesOfFreedom);
+        }
+        if (degreesOfFreedom > EXACT_DEGREES_OF_FREEDOM) {
+            return cornishFisherQuantile(p, degreesOfFreedom);
+        }
+
+        // the probability of |T| < t increases with t
+        double target = 2 * p - 1;
+        double low = 0;
+        double high = 1;
+        while (centralProbability(high, degreesOfFreedom) < target) {
+            low = high;
+            high *= 2;
+        }
+        for (int i = 0; i < 200 && high - low > 1e-12 * high; i++) {
+            double middle = (low + high) / 2;
+            if (centralProbability(middle, degreesOfFreedom) < target) {
+                low = middle;
+            } else {
+                high = middle;
+            }
+        }
+        return (low + high) / 2;
+    }
+
+    /**
+     * Returns the probability that the absolute value of a t-distributed variable is less than t, using the finite
+     * series of Abramowitz and Stegun (26.7.3 and 26.7.4) for integer degrees of freedom.
+     */
+    static double centralProbability(double t, long degreesOfFreedom) {
+        double theta = Math.atan(t / Math.sqrt(degreesOfFreedom));
+        double cos2 = Math.cos(theta) * Math.cos(theta);
+        if (degreesOfFreedom % 2 == 0) {
+            // sin(theta) * (1 + 1/2 cos^2 + 1*3/(2*4) cos^4 + ... + 1*3*...*(v-3)/(2*4*...*(v-2)) cos^(v-2))
+            double term = 1;
+            double sum = 1;
+            for (long k = 2; k < degreesOfFreedom; k += 2) {
+                term *= cos2 * (k - 1) / k;
+                sum += term;
+            }
+            return Math.sin(theta) * sum;
+        }
+        if (degreesOfFreedom == 1) {
+            return 2 * theta / Math.PI;
+        }
+        // 2/pi * (theta + sin(theta) * (cos + 2/3 cos^3 + ... + 2*4*...*(v-3)/(1*3*...*(v-2)) cos^(v-2)))
+        double term = Math.cos(theta);
+        double sum = term;
+        for (long k = 3; k < degreesOfFreedom; k += 2) {
+            term *= cos2 * (k - 1) / k;
+            sum += term;
+        }
+        return 2 / Math.PI * (theta + Math.sin(theta) * sum);
+    }
+
+    /**
+     * Approximates the quantile of Student's t-distribution with a Cornish-Fisher expansion of the normal quantile.
+     */
+    private static double cornishFisherQuantile(double p, long degreesOfFreedom) {
+        double z = normalQuantile(p);
+        double v = degreesOfFreedom;
+        double z3 = z * z * z;
+        double z5 = z3 * z * z;
+        double z7 = z5 * z * z;
+        double z9 = z7 * z * z;
+        return z
+            + (z3 + z) / (4 * v)
+            + (5 * z5 + 16 * z3 + 3 * z) / (96 * v * v)
+            + (3 * z7 + 19 * z5 + 17 * z3 - 15 * z) / (384 * v * v * v)
+            + (79 * z9 + 776 * z7 + 1482 * z5 - 1920 * z3 - 945 * z) / (92160 * v * v * v * v);
+    }
+
+    /**
+     * Approximates the quantile of the standard normal distribution with Acklam's algorithm.
+     */
+    static double normalQuantile(double p) {
+        if (p <= 0 || p >= 1) {
+            throw new IllegalArgumentException("p must be between 0 and 1");
+        }
+        double[] a = {-3.969683028665376e+01, 2.209460984245205e+02, -2.759285104469687e+02,
+            1.383577518672690e+02, -3.066479806614716e+01, 2.506628277459239e+00};
+        double[] b = {-5.447609879822406e+01, 1.615858368580409e+02, -1.556989798598866e+02,
+            6.680131188771972e+01, -1.328068155288572e+01};
+        double[] c = {-7.784894002430293e-03, -3.223964580411365e-01, -2.400758277161838e+00,
+            -2.549732539343734e+00, 4.374664141464968e+00, 2.938163982698783e+00};
+        double[] d = {7.784695709041462e-03, 3.224671290700398e-01, 2.445134137142996e+00, 3.754408661907416e+00};
+        double low = 0.02425;
+
+        if (p < low) {
+            double q = Math.sqrt(-2 * Math.log(p));
+            return (((((c[0] * q + c[1]) * q + c[2]) * q + c[3]) * q + c[4]) * q + c[5])
+                / ((((d[0] * q + d[1]) * q + d[2]) * q + d[3]) * q + 1);
+        } else if (p > 1 - low) {
+            return -normalQuantile(1 - p);
+        }
+        double q = p - 0.5;
+        double r = q * q;
+        return (((((a[0] * r + a[1]) * r + a[2]) * r + a[3]) * r + a[4]) * r + a[5]) * q
+            / (((((b[0] * r + b[1]) * r + b[2]) * r + b[3]) * r + b[4]) * r + 1);
+    }
+}
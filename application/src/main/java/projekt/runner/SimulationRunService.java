@@ -0,0 +1,268 @@
+package projekt.runner;
+
+import projekt.delivery.archetype.ProblemArchetype;
+import projekt.delivery.event.Event;
+import projekt.delivery.rating.RatingCriteria;
+import projekt.delivery.simulation.Simulation;
+import projekt.delivery.simulation.SimulationListener;
+import projekt.delivery.simulation.SimulationMetrics;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Executes {@link Simulation}s on an {@link ExecutorService} and reports their progress on a callback
+ * {@link Executor}, e.g. {@code Platform::runLater} of a GUI.<p>
+ *
+ * Every submitted simulation runs on its own thread, so several simulations progress side by side and the pacing of one
+ * simulation never delays another one or the callback thread. The progress of a simulation is coalesced: at most one
+ * progress callback per simulation is pending on the callback {@link Executor} at any time and it always reports the
+ * most recent tick.
+ */
+public class SimulationRunService implements AutoCloseable {
+
+    private final ExecutorService executor;
+    private final Executor callbackExecutor;
+    private final Set<Run> runs = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Creates a new {@link SimulationRunService} instance.
+     * @param executor The {@link ExecutorService} executing the simulations. It has to be able to execute all
+     *                 simulations that should progress side by side at the same time.
+     * @param callbackExecutor The {@link Executor} the {@link Listener}s are called on.
+     */
+    public SimulationRunService(ExecutorService executor, Executor callbackExecutor) {
+        this.executor = Objects.requireNonNull(executor, "executor");
+        this.callbackExecutor = Objects.requireNonNull(callbackExecutor, "callbackExecutor");
+    }
+
+    /**
+     * Creates a new {@link SimulationRunService} that executes every simulation on a separate daemon thread.
+     * Idle threads are reused.
+     * @param callbackExecutor The {@link Executor} the {@link Listener}s are called on.
+     * @return The created {@link SimulationRunService}.
+     */
+    public static SimulationRunService withDaemonThreads(Executor callbackExecutor) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return new SimulationRunService(Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "simulation-" + threadCount.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }), callbackExecutor);
+    }
+
+    /**
+     * Executes the given task, e.g. a {@link Runner}, on the {@link ExecutorService} of this service.
+     * @param task The task to execute.
+     * @return A {@link Future} representing the completion of the task.
+     */
+    public Future<?> execute(Runnable task) {
+        return executor.submit(task);
+    }
+
+    /**
+     * Runs the given {@link Simulation} of the given {@link ProblemArchetype} for
+     * {@link ProblemArchetype#simulationLength()} ticks.
+     * @param simulation The {@link Simulation} to run. It must not be running.
+     * @param problem The simulated {@link ProblemArchetype}.
+     * @param listener The {@link Listener} notified on the callback {@link Executor}.
+     * @return The {@link Run} that can be used to cancel the simulation.
+     */
+    public Run submit(Simulation simulation, ProblemArchetype problem, Listener listener) {
+        Run run = new Run(simulation, problem, listener);
+        runs.add(run);
+        run.future = executor.submit(run::execute);
+        return run;
+    }
+
+    /**
+     * Returns the {@link Run}s that have been submitted and are not done yet.
+     * @return The {@link Run}s that are not done yet.
+     */
+    public Collection<Run> getRuns() {
+        return List.copyOf(runs);
+    }
+
+    /**
+     * Cancels all {@link Run}s that are not done yet.
+     */
+    public void cancelAll() {
+        runs.forEach(Run::cancel);
+    }
+
+    /**
+     * Cancels all {@link Run}s and shuts down the {@link ExecutorService} of this service.
+     */
+    @Override
+    public void close() {
+        cancelAll();
+        executor.shutdown();
+    }
+
+    /**
+     * The progress of a running {@link Simulation}.
+     *
+     * @param tick The last executed tick.
+     * @param simulationLength The number of ticks that will be executed.
+     * @param pacing The {@link SimulationMetrics.Pacing} statistics of the simulation or {@code null} if the simulation
+     *               does not collect metrics.
+     */
+    public record Progress(long tick, long simulationLength, SimulationMetrics.Pacing pacing) {
+
+        /**
+         * Returns the executed fraction of the simulation, between 0 and 1.
+         * @return The executed fraction of the simulation.
+         */
+        public double fraction() {
+            return simulationLength <= 0 ? 1 : Math.min(1, (tick + 1) / (double) simulationLength);
+        }
+    }
+
+    /**
+     * Receives the progress and the result of a {@link Run}. All methods are called on the callback {@link Executor}.
+     */
+    public interface Listener {
+
+        /**
+         * Signals that a tick of the simulation has been executed.
+         * @param progress The current {@link Progress} of the simulation.
+         */
+        default void onProgress(Progress progress) {
+        }
+
+        /**
+         * Signals that the simulation has executed all ticks.
+         * @param ratings The ratings of the simulation for every {@link RatingCriteria} of the problem.
+         */
+        default void onFinished(Map<RatingCriteria, Double> ratings) {
+        }
+
+        /**
+         * Signals that the simulation has been cancelled before it executed all ticks.
+         */
+        default void onCancelled() {
+        }
+
+        /**
+         * Signals that the simulation failed with an exception or an {@link Error}.
+         * @param throwable The thrown exception or {@link Error}.
+         */
+        default void onFailed(Throwable throwable) {
+        }
+    }
+
+    /**
+     * A {@link Simulation} submitted to a {@link SimulationRunService}.
+     */
+    public final class Run implements SimulationListener {
+
+        private final Simulation simulation;
+        private final ProblemArchetype problem;
+        private final Listener listener;
+        private final AtomicReference<Progress> pendingProgress = new AtomicReference<>();
+        private volatile boolean cancelled = false;
+        private volatile Future<?> future;
+        private SimulationMetrics metrics;
+
+        private Run(Simulation simulation, ProblemArchetype problem, Listener listener) {
+            this.simulation = Objects.requireNonNull(simulation, "simulation");
+            this.problem = Objects.requireNonNull(problem, "problem");
+            this.listener = Objects.requireNonNull(listener, "listener");
+        }
+
+        private void execute() {
+            try {
+                if (cancelled) {
+                    callbackExecutor.execute(listener::onCancelled);
+                    return;
+                }
+                try {
+                    metrics = simulation.getMetrics();
+                } catch (UnsupportedOperationException e) {
+                    metrics = null;
+                }
+
+                simulation.addListener(this);
+                try {
+                    simulation.runSimulation(problem.simulationLength());
+                } finally {
+                    simulation.removeListener(this);
+                }
+
+                if (cancelled || simulation.getCurrentTick() < problem.simulationLength()) {
+                    callbackExecutor.execute(listener::onCancelled);
+                    return;
+                }
+                Map<RatingCriteria, Double> ratings = new EnumMap<>(RatingCriteria.class);
+                for (RatingCriteria criterion : problem.raterFactoryMap().keySet()) {
+                    ratings.put(criterion, simulation.getRatingForCriterion(criterion));
+                }
+                callbackExecutor.execute(() -> listener.onFinished(ratings));
+            } catch (Throwable throwable) {
+                // errors, e.g. a StackOverflowError of a delivery service, have to end the run for the listener as well
+                callbackExecutor.execute(() -> listener.onFailed(throwable));
+                if (throwable instanceof Error error) {
+                    throw error;
+                }
+            } finally {
+                runs.remove(this);
+            }
+        }
+
+        @Override
+        public void onTick(List<Event> events, long tick) {
+            if (cancelled) {
+                // the simulation may have reset its termination request when it was started
+                simulation.endSimulation();
+                return;
+            }
+            Progress progress = new Progress(tick, problem.simulationLength(), metrics == null ? null : metrics.getPacing());
+            if (pendingProgress.getAndSet(progress) == null) {
+                callbackExecutor.execute(() -> listener.onProgress(pendingProgress.getAndSet(null)));
+            }
+        }
+
+        /**
+         * Cancels this run by ending its {@link Simulation}. Does nothing if this run is already done.
+         */
+        public void cancel() {
+            cancelled = true;
+            simulation.endSimulation();
+        }
+
+        /**
+         * Returns true, if this run has been cancelled.
+         * @return True, if this run has been cancelled.
+         */
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        /**
+         * Returns true, if the simulation of this run has finished, has been cancelled or failed.
+         * @return True, if this run is done.
+         */
+        public boolean isDone() {
+            Future<?> future = this.future;
+            return future != null && future.isDone();
+        }
+
+        /**
+         * Returns the simulated {@link Simulation}.
+         * @return The simulated {@link Simulation}.
+         */
+        public Simulation getSimulation() {
+            return simulation;
+        }
+
+        /**
+         * Returns the simulated {@link ProblemArchetype}.
+         * @return The simulated {@link ProblemArchetype}.
+         */
+        public ProblemArchetype getProblem() {
+            return problem;
+        }
+    }
+}
@@ -0,0 +1,319 @@
+package projekt.runner;
+
+import projekt.base.Location;
+import projekt.delivery.archetype.ProblemArchetype;
+import projekt.delivery.archetype.ProblemArchetypeImpl;
+import projekt.delivery.generator.FridayOrderGenerator;
+import projekt.delivery.rating.Rater;
+import projekt.delivery.rating.RatingCriteria;
+import projekt.delivery.rating.TravelDistanceRater;
+import projekt.delivery.routing.Region;
+import projekt.delivery.routing.Vehicle;
+import projekt.delivery.routing.VehicleManager;
+import projekt.delivery.service.DeliveryService;
+import projekt.delivery.simulation.Simulation;
+import projekt.delivery.simulation.SimulationConfig;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Executes a parameter sweep over the fleet, the order generator and the delivery service of a base problem.<p>
+ *
+ * Every {@link SweepPoint} is turned into a {@link ProblemArchetype} that shares the {@link Region} and the
+ * {@link projekt.delivery.routing.PathCalculator} of the base problem. The points are executed in parallel and the
+ * averaged ratings are appended to a CSV file as soon as a point is finished. Only a bounded number of points is in
+ * progress at the same time, so the memory usage does not depend on the size of the sweep. The CSV file doubles as a
+ * checkpoint: {@link #resume(Iterator, List, SimulationConfig, Path)} continues an interrupted sweep and only executes
+ * the points that are missing in the file.
+ */
+public class SweepEngine {
+
+    private final ProblemArchetype baseProblem;
+    private final Map<String, DeliveryService.Factory> deliveryServices;
+    private final ExecutorService executor;
+    private final int parallelism;
+    private final int runsPerPoint;
+    private final long seed;
+
+    /**
+     * Creates a new {@link SweepEngine} instance.
+     *
+     * @param baseProblem The problem providing the {@link Region}, the starting locations of the vehicles, the
+     *                    {@link Rater}s and the simulation length.
+     * @param deliveryServices The {@link DeliveryService.Factory}s that can be selected by name.
+     * @param executor The {@link ExecutorService} executing the simulations. It is not shut down by this engine.
+     * @param parallelism The maximum number of simulations that are executed at the same time.
+     * @param runsPerPoint The number of runs whose ratings are averaged for every {@link SweepPoint}.
+     * @param seed The seed the seeds of the order generators are derived from.
+     */
+    public SweepEngine(ProblemArchetype baseProblem,
+                       Map<String, DeliveryService.Factory> deliveryServices,
+                       ExecutorService executor,
+                       int parallelism,
+                       int runsPerPoint,
+                       long seed) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("parallelism must be positive");
+        }
+        if (runsPerPoint <= 0) {
+            throw new IllegalArgumentException("runsPerPoint must be positive");
+        }
+        this.baseProblem = Objects.requireNonNull(baseProblem, "baseProblem");
+        this.deliveryServices = Map.copyOf(deliveryServices);
+        this.executor = Objects.requireNonNull(executor, "executor");
+        this.parallelism = parallelism;
+        this.runsPerPoint = runsPerPoint;
+        this.seed = seed;
+    }
+
+    /**
+     * Creates the {@link ProblemArchetype} described by the given {@link SweepPoint}.
+     *
+     * @param point The {@link SweepPoint} to create the {@link ProblemArchetype} for.
+     * @param orderSeed The seed of the order generator.
+     * @return The created {@link ProblemArchetype}.
+     */
+    public ProblemArchetype toProblem(SweepPoint point, int orderSeed) {
+        VehicleManager baseVehicleManager = baseProblem.vehicleManager();
+        List<Location> startingLocations = getStartingLocations(baseVehicleManager);
+
+        VehicleManager.Builder vehicleManagerBuilder = VehicleManager.builder()
+            .region(baseVehicleManager.getRegion())
+            .pathCalculator(baseVehicleManager.getPathCalculator());
+        for (int i = 0; i < point.vehicleCount(); i++) {
+            vehicleManagerBuilder.addVehicle(startingLocations.get(i % startingLocations.size()), point.capacity());
+        }
+        VehicleManager vehicleManager = vehicleManagerBuilder.build();
+
+        long lastTick = baseProblem.orderGeneratorFactory() instanceof FridayOrderGenerator.Factory friday
+            ? friday.lastTick : baseProblem.simulationLength();
+        FridayOrderGenerator.Factory orderGeneratorFactory = FridayOrderGenerator.Factory.builder()
+            .setVehicleManager(vehicleManager)
+            .setOrderCount(point.orderCount())
+            .setStandardDeviation(point.standardDeviation())
+            .setDeliveryInterval(point.deliveryInterval())
+            .setMaxWeight(point.maxWeight())
+            .setLastTick(lastTick)
+            .setSeed(orderSeed)
+            .build();
+
+        Map<RatingCriteria, Rater.Factory> raterFactoryMap = new EnumMap<>(RatingCriteria.class);
+        baseProblem.raterFactoryMap().forEach((criterion, factory) -> {
+            if (factory instanceof TravelDistanceRater.Factory travelDistanceFactory) {
+                // the travel distance rater has to belong to the vehicle manager of the problem
+                factory = TravelDistanceRater.Factory.builder()
+                    .setVehicleManager(vehicleManager)
+                    .setFactor(travelDistanceFactory.factor)
+                    .build();
+            }
+            raterFactoryMap.put(criterion, factory);
+        });
+
+        return new ProblemArchetypeImpl(orderGeneratorFactory, vehicleManager, raterFactoryMap,
+            baseProblem.simulationLength(), "%s [%s]".formatted(baseProblem.name(), point.toCsv()));
+    }
+
+    private static List<Location> getStartingLocations(VehicleManager vehicleManager) {
+        List<Vehicle> vehicles = new ArrayList<>(vehicleManager.getAllVehicles());
+        vehicles.sort(Comparator.comparingInt(Vehicle::getId));
+        List<Location> locations = vehicles.stream()
+            .map(vehicle -> vehicle.getStartingNode().getComponent().getLocation())
+            .toList();
+        if (locations.isEmpty()) {
+            locations = vehicleManager.getRegion().getNodes().stream()
+                .filter(Region.Restaurant.class::isInstance)
+                .map(Region.Node::getLocation)
+                .sorted()
+                .toList();
+        }
+        if (locations.isEmpty()) {
+            throw new IllegalArgumentException("The base problem neither contains vehicles nor restaurants");
+        }
+        return locations;
+    }
+
+    /**
+     * Executes all points of the given design and writes one CSV line per point to the given file.<p>
+     *
+     * The lines are written in the order the points finish. Every line contains the parameters of the point followed
+     * by the averaged rating of every given {@link RatingCriteria}.
+     *
+     * @param design The points to execute, e.g. {@link SweepSpace#grid()} or {@link SweepSpace#latinHypercube(int, long)}.
+     * @param criteria The {@link RatingCriteria} to report.
+     * @param simulationConfig The {@link SimulationConfig} of the simulations. It should not delay the ticks.
+     * @param output The CSV file to write. An existing file is overwritten.
+     * @return The number of executed points.
+     * @throws UncheckedIOException If the file cannot be written.
+     * @throws RuntimeException If a simulation failed.
+     */
+    public long run(Iterator<SweepPoint> design,
+                    List<RatingCriteria> criteria,
+                    SimulationConfig simulationConfig,
+                    Path output) {
+        try (BufferedWriter writer = Files.newBufferedWriter(output)) {
+            writer.write(header(criteria));
+            writer.newLine();
+            return run(design, Set.of(), criteria, simulationConfig, writer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Continues a sweep that was started by {@link #run(Iterator, List, SimulationConfig, Path)} with the same design
+     * and was interrupted.<p>
+     *
+     * The points whose lines are contained in the given file are skipped, the lines of the remaining points are
+     * appended. An incomplete last line, e.g. of a process that was killed while writing it, is removed first. The
+     * skipped points keep their index in the design, so every executed point uses the same seeds as in an
+     * uninterrupted sweep. If the file does not exist, this method behaves like
+     * {@link #run(Iterator, List, SimulationConfig, Path)}.
+     *
+     * @param design The points of the interrupted sweep in the same order.
+     * @param criteria The {@link RatingCriteria} of the interrupted sweep.
+     * @param simulationConfig The {@link SimulationConfig} of the simulations. It should not delay the ticks.
+     * @param output The CSV file of the interrupted sweep.
+     * @return The number of executed points, excluding the skipped ones.
+     * @throws IllegalArgumentException If the file was written for other {@link RatingCriteria}.
+     * @throws UncheckedIOException If the file cannot be read or written.
+     * @throws RuntimeException If a simulation failed.
+     */
+    public long resume(Iterator<SweepPoint> design,
+                       List<RatingCriteria> criteria,
+                       SimulationConfig simulationConfig,
+                       Path output) {
+        if (!Files.exists(output)) {
+            return run(design, criteria, simulationConfig, output);
+        }
+        try {
+            String header = header(criteria);
+            List<String> lines = readCompleteLines(output);
+            if (lines.isEmpty() || !lines.get(0).equals(header)) {
+                throw new IllegalArgumentException("%s is not the output of a sweep over %s".formatted(output, criteria));
+            }
+            int columns = header.split(",").length;
+            int pointColumns = SweepPoint.CSV_HEADER.split(",").length;
+            List<String> finishedLines = new ArrayList<>();
+            Set<String> finishedPoints = new HashSet<>();
+            for (String line : lines.subList(1, lines.size())) {
+                String[] values = line.split(",");
+                if (values.length == columns) {
+                    finishedLines.add(line);
+                    finishedPoints.add(String.join(",", Arrays.asList(values).subList(0, pointColumns)));
+                }
+            }
+
+            // rewritten, so that the appended lines do not follow an incomplete one
+            finishedLines.add(0, header);
+            Files.write(output, finishedLines);
+            try (BufferedWriter writer = Files.newBufferedWriter(output, StandardOpenOption.APPEND)) {
+                return run(design, finishedPoints, criteria, simulationConfig, writer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String header(List<RatingCriteria> criteria) {
+        StringBuilder header = new StringBuilder(SweepPoint.CSV_HEADER);
+        for (RatingCriteria criterion : criteria) {
+            header.append(',').append(criterion.name());
+        }
+        return header.toString();
+    }
+
+    /**
+     * Reads the lines of the given file without the last one, if it is not terminated by a line separator.
+     */
+    private static List<String> readCompleteLines(Path file) throws IOException {
+        String content = Files.readString(file);
+        List<String> lines = new ArrayList<>(content.lines().toList());
+        if (!content.isEmpty() && !content.endsWith("\n") && !content.endsWith("\r")) {
+            lines.remove(lines.size() - 1);
+        }
+        return lines;
+    }
+
+    private long run(Iterator<SweepPoint> design,
+                     Set<String> finishedPoints,
+                     List<RatingCriteria> criteria,
+                     SimulationConfig simulationConfig,
+                     BufferedWriter writer) throws IOException {
+        CompletionService<String> completionService = new ExecutorCompletionService<>(executor);
+        List<Future<String>> inFlight = new ArrayList<>();
+        RunningSimulations running = new RunningSimulations();
+        long executed = 0;
+        int index = 0;
+
+        try {
+            while (design.hasNext() || !inFlight.isEmpty()) {
+                while (design.hasNext() && inFlight.size() < parallelism) {
+                    SweepPoint point = design.next();
+                    int pointIndex = index++;
+                    if (finishedPoints.contains(point.toCsv())) {
+                        continue;
+                    }
+                    inFlight.add(completionService.submit(() -> execute(point, pointIndex, criteria, simulationConfig,
+                        running)));
+                }
+                if (inFlight.isEmpty()) {
+                    break;
+                }
+
+                Future<String> future = completionService.take();
+                inFlight.remove(future);
+                writer.write(future.get());
+                writer.newLine();
+                writer.flush();
+                executed++;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        } finally {
+            if (!inFlight.isEmpty()) {
+                running.endAll();
+                inFlight.forEach(future -> future.cancel(true));
+            }
+        }
+        return executed;
+    }
+
+    private String execute(SweepPoint point,
+                           int pointIndex,
+                           List<RatingCriteria> criteria,
+                           SimulationConfig simulationConfig,
+                           RunningSimulations running) {
+        DeliveryService.Factory deliveryServiceFactory = deliveryServices.get(point.deliveryService());
+        if (deliveryServiceFactory == null) {
+            throw new IllegalArgumentException("Unknown delivery service: %s".formatted(point.deliveryService()));
+        }
+
+        double[] sums = new double[criteria.size()];
+        for (int run = 0; run < runsPerPoint; run++) {
+            ProblemArchetype problem = toProblem(point, ParallelRunnerImpl.taskSeed(seed, pointIndex, run));
+            Simulation simulation = ParallelRunnerImpl.createSimulation(problem, 0, simulationConfig, deliveryServiceFactory);
+            if (!running.run(simulation, problem.simulationLength())) {
+                throw new CancellationException();
+            }
+            for (int i = 0; i < criteria.size(); i++) {
+                sums[i] += simulation.getRatingForCriterion(criteria.get(i));
+            }
+        }
+
+        StringBuilder line = new StringBuilder(point.toCsv());
+        for (double sum : sums) {
+            line.append(',').append(sum / runsPerPoint);
+        }
+        return line.toString();
+    }
+}
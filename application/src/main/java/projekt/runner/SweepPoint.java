@@ -0,0 +1,41 @@
+package projekt.runner;
+
+import projekt.delivery.generator.FridayOrderGenerator;
+import projekt.delivery.service.DeliveryService;
+
+/**
+ * A single configuration of a parameter sweep.
+ *
+ * @param vehicleCount The number of vehicles.
+ * @param capacity The capacity of every vehicle.
+ * @param orderCount The number of orders created by the {@link FridayOrderGenerator}.
+ * @param standardDeviation The standard deviation of the {@link FridayOrderGenerator}.
+ * @param deliveryInterval The delivery interval of the {@link FridayOrderGenerator}.
+ * @param maxWeight The maximum weight of an order created by the {@link FridayOrderGenerator}.
+ * @param deliveryService The name of the {@link DeliveryService.Factory}.
+ */
+public record SweepPoint(
+    int vehicleCount,
+    double capacity,
+    int orderCount,
+    double standardDeviation,
+    int deliveryInterval,
+    double maxWeight,
+    String deliveryService
+) {
+
+    /**
+     * The names of the parameters in the order of {@link #toCsv()}.
+     */
+    public static final String CSV_HEADER =
+        "vehicleCount,capacity,orderCount,standardDeviation,deliveryInterval,maxWeight,deliveryService";
+
+    /**
+     * Returns the parameters of this {@link SweepPoint} as comma-separated values.
+     * @return The parameters of this {@link SweepPoint} as comma-separated values.
+     */
+    public String toCsv() {
+        return "%d,%s,%d,%s,%d,%s,%s".formatted(vehicleCount, capacity, orderCount, standardDeviation,
+            deliveryInterval, maxWeight, deliveryService);
+    }
+}
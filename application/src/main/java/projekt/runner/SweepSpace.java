@@ -0,0 +1,188 @@
+package projekt.runner;
+
+import java.util.*;
+
+/**
+ * The values of every parameter of a parameter sweep.<p>
+ *
+ * The points of the sweep are created lazily, either as the full grid of all combinations or as a Latin hypercube
+ * sample. Duplicate values of a parameter are ignored, so no configuration is created twice.
+ *
+ * @param vehicleCounts The numbers of vehicles.
+ * @param capacities The capacities of the vehicles.
+ * @param orderCounts The numbers of orders.
+ * @param standardDeviations The standard deviations of the order generator.
+ * @param deliveryIntervals The delivery intervals of the orders.
+ * @param maxWeights The maximum weights of the orders.
+ * @param deliveryServices The names of the delivery services.
+ */
+public record SweepSpace(
+    List<Integer> vehicleCounts,
+    List<Double> capacities,
+    List<Integer> orderCounts,
+    List<Double> standardDeviations,
+    List<Integer> deliveryIntervals,
+    List<Double> maxWeights,
+    List<String> deliveryServices
+) {
+
+    private static final int DIMENSIONS = 7;
+
+    public SweepSpace {
+        vehicleCounts = distinct(vehicleCounts, "vehicleCounts");
+        capacities = distinct(capacities, "capacities");
+        orderCounts = distinct(orderCounts, "orderCounts");
+        standardDeviations = distinct(standardDeviations, "standardDeviations");
+        deliveryIntervals = distinct(deliveryIntervals, "deliveryIntervals");
+        maxWeights = distinct(maxWeights, "maxWeights");
+        deliveryServices = distinct(deliveryServices, "deliveryServices");
+    }
+
+    private static <T> List<T> distinct(List<T> values, String name) {
+        if (values.isEmpty()) {
+            throw new IllegalArgumentException("%s must not be empty".formatted(name));
+        }
+        return List.copyOf(new LinkedHashSet<>(values));
+    }
+
+    /**
+     * Returns the number of points of the full grid.
+     * @return The number of points of the full grid.
+     */
+    public long gridSize() {
+        long size = 1;
+        for (int dimension = 0; dimension < DIMENSIONS; dimension++) {
+            size = Math.multiplyExact(size, values(dimension).size());
+        }
+        return size;
+    }
+
+    /**
+     * Returns an {@link Iterator} over all combinations of the parameter values.
+     * @return An {@link Iterator} over the full grid.
+     */
+    public Iterator<SweepPoint> grid() {
+        long size = gridSize();
+        return new Iterator<>() {
+
+            private long next = 0;
+
+            @Override
+            public boolean hasNext() {
+                return next < size;
+            }
+
+            @Override
+            public SweepPoint next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                // decode the index as a mixed radix number with one digit per parameter
+                long index = next++;
+                int[] indices = new int[DIMENSIONS];
+                for (int dimension = DIMENSIONS - 1; dimension >= 0; dimension--) {
+                    int radix = values(dimension).size();
+                    indices[dimension] = (int) (index % radix);
+                    index /= radix;
+                }
+                return point(indices);
+            }
+        };
+    }
+
+    /**
+     * Returns an {@link Iterator} over a Latin hypercube sample of the parameter values.<p>
+     *
+     * The range of every parameter is divided into {@code samples} strata and every stratum is used exactly once.
+     * Since the parameters are discrete, multiple strata can map to the same value. Such duplicate points are skipped,
+     * so the returned {@link Iterator} may return less than {@code samples} points.
+     *
+     * @param samples The number of samples.
+     * @param seed The seed of the random permutations.
+     * @return An {@link Iterator} over the sampled points.
+     */
+    public Iterator<SweepPoint> latinHypercube(int samples, long seed) {
+        if (samples <= 0) {
+            throw new IllegalArgumentException("samples must be positive");
+        }
+        Random random = new Random(seed);
+        int[][] strata = new int[DIMENSIONS][samples];
+        for (int dimension = 0; dimension < DIMENSIONS; dimension++) {
+            for (int i = 0; i < samples; i++) {
+                strata[dimension][i] = i;
+            }
+            shuffle(strata[dimension], random);
+        }
+
+        Set<SweepPoint> seen = new HashSet<>();
+        return new Iterator<>() {
+
+            private int next = 0;
+            private SweepPoint nextPoint = advance();
+
+            private SweepPoint advance() {
+                while (next < samples) {
+                    int sample = next++;
+                    int[] indices = new int[DIMENSIONS];
+                    for (int dimension = 0; dimension < DIMENSIONS; dimension++) {
+                        indices[dimension] = (int) ((long) strata[dimension][sample] * values(dimension).size() / samples);
+                    }
+                    SweepPoint point = point(indices);
+                    if (seen.add(point)) {
+                        return point;
+                    }
+                }
+                return null;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return nextPoint != null;
+            }
+
+            @Override
+            public SweepPoint next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                SweepPoint point = nextPoint;
+                nextPoint = advance();
+                return point;
+            }
+        };
+    }
+
+    private static void shuffle(int[] array, Random random) {
+        for (int i = array.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = array[i];
+            array[i] = array[j];
+            array[j] = tmp;
+        }
+    }
+
+    private List<?> values(int dimension) {
+        return switch (dimension) {
+            case 0 -> vehicleCounts;
+            case 1 -> capacities;
+            case 2 -> orderCounts;
+            case 3 -> standardDeviations;
+            case 4 -> deliveryIntervals;
+            case 5 -> maxWeights;
+            case 6 -> deliveryServices;
+            default -> throw new AssertionError(dimension);
+        };
+    }
+
+    private SweepPoint point(int[] indices) {
+        return new SweepPoint(
+            vehicleCounts.get(indices[0]),
+            capacities.get(indices[1]),
+            orderCounts.get(indices[2]),
+            standardDeviations.get(indices[3]),
+            deliveryIntervals.get(indices[4]),
+            maxWeights.get(indices[5]),
+            deliveryServices.get(indices[6])
+        );
+    }
+}
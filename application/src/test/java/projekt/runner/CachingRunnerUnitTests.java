@@ -0,0 +1,201 @@
+package projekt.runner;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import projekt.delivery.archetype.ProblemArchetype;
+import projekt.delivery.archetype.ProblemArchetypeImpl;
+import projekt.delivery.archetype.ProblemGroup;
+import projekt.delivery.archetype.ProblemGroupImpl;
+import projekt.delivery.generator.EmptyOrderGenerator;
+import projekt.delivery.rating.AmountDeliveredRater;
+import projekt.delivery.rating.RatingCriteria;
+import projekt.delivery.routing.VehicleManager;
+import projekt.delivery.service.DeliveryService;
+import projekt.delivery.simulation.Simulation;
+import projekt.delivery.simulation.SimulationConfig;
+import projekt.runner.handler.ResultHandler;
+import projekt.runner.handler.SimulationFinishedHandler;
+import projekt.runner.handler.SimulationSetupHandler;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static projekt.TestProxies.proxy;
+import static projekt.runner.TestProblems.*;
+
+public class CachingRunnerUnitTests {
+
+    private static final DeliveryService.Factory OTHER_DELIVERY_SERVICE = vehicleManager -> {
+        throw new UnsupportedOperationException();
+    };
+    private static final Map<String, DeliveryService.Factory> DELIVERY_SERVICES = Map.of(
+        "receiving", DELIVERY_SERVICE,
+        "other", OTHER_DELIVERY_SERVICE
+    );
+
+    private final CountingRunner delegate = new CountingRunner();
+    private Path directory;
+    private ResultCache cache;
+    private CachingRunner runner;
+
+    @BeforeEach
+    public void initialize() throws IOException {
+        directory = Files.createTempDirectory("cache");
+        cache = new ResultCache(directory.resolve("results.txt"), 10);
+        runner = new CachingRunner(delegate, 42, DELIVERY_SERVICES, cache);
+    }
+
+    @AfterEach
+    public void cleanUp() throws IOException {
+        try (var files = Files.list(directory)) {
+            for (Path path : files.toList()) {
+                Files.delete(path);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Test
+    public void testHitSkipsDelegate() {
+        ProblemGroup problemGroup = group(cacheableProblem(100, 0.5));
+
+        Map<RatingCriteria, Double> first = run(runner, problemGroup, 3, DELIVERY_SERVICE);
+        Map<RatingCriteria, Double> second = run(runner, problemGroup, 3, DELIVERY_SERVICE);
+
+        assertEquals(1, delegate.runs);
+        assertEquals(first, second);
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testHitSurvivesRestart() {
+        ProblemGroup problemGroup = group(cacheableProblem(100, 0.5));
+        Map<RatingCriteria, Double> first = run(runner, problemGroup, 3, DELIVERY_SERVICE);
+
+        CachingRunner restarted = new CachingRunner(delegate, 42,
+            DELIVERY_SERVICES, new ResultCache(directory.resolve("results.txt"), 10));
+
+        assertEquals(first, run(restarted, problemGroup, 3, DELIVERY_SERVICE));
+        assertEquals(1, delegate.runs);
+    }
+
+    @Test
+    public void testChangedExecutionMisses() {
+        ProblemGroup problemGroup = group(cacheableProblem(100, 0.5));
+        String fingerprint = runner.fingerprint(problemGroup, 3, DELIVERY_SERVICE);
+
+        assertNotNull(fingerprint);
+        assertEquals(fingerprint, runner.fingerprint(group(cacheableProblem(100, 0.5)), 3, DELIVERY_SERVICE));
+        assertNotEquals(fingerprint, runner.fingerprint(problemGroup, 4, DELIVERY_SERVICE));
+        assertNotEquals(fingerprint, runner.fingerprint(problemGroup, 3, OTHER_DELIVERY_SERVICE));
+        assertNotEquals(fingerprint, runner.fingerprint(group(cacheableProblem(101, 0.5)), 3, DELIVERY_SERVICE));
+        assertNotEquals(fingerprint, runner.fingerprint(group(cacheableProblem(100, 0.25)), 3, DELIVERY_SERVICE));
+        assertNotEquals(fingerprint, new CachingRunner(delegate, 43, DELIVERY_SERVICES, cache)
+            .fingerprint(problemGroup, 3, DELIVERY_SERVICE));
+
+        run(runner, problemGroup, 3, DELIVERY_SERVICE);
+        run(runner, problemGroup, 4, DELIVERY_SERVICE);
+        run(runner, group(cacheableProblem(100, 0.25)), 3, DELIVERY_SERVICE);
+
+        assertEquals(3, delegate.runs);
+        assertEquals(3, cache.size());
+    }
+
+    @Test
+    public void testUnknownFactoriesBypassCache() {
+        // the order generator of the test problems is not known to the fingerprint
+        ProblemGroup unknownGenerator = group(problem("unknown", 100));
+        assertNull(runner.fingerprint(unknownGenerator, 3, DELIVERY_SERVICE));
+        ProblemGroup problemGroup = group(cacheableProblem(100, 0.5));
+        DeliveryService.Factory unknownService = vehicleManager -> {
+            throw new UnsupportedOperationException();
+        };
+        assertNull(runner.fingerprint(problemGroup, 3, unknownService));
+
+        run(runner, unknownGenerator, 3, DELIVERY_SERVICE);
+        run(runner, unknownGenerator, 3, DELIVERY_SERVICE);
+        run(runner, problemGroup, 3, unknownService);
+        run(runner, problemGroup, 3, unknownService);
+
+        assertEquals(4, delegate.runs);
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testInterruptedExecutionIsNotCached() {
+        ProblemGroup problemGroup = group(cacheableProblem(100, 0.5));
+        delegate.interrupted = true;
+
+        assertNull(run(runner, problemGroup, 3, DELIVERY_SERVICE));
+        assertEquals(0, cache.size());
+
+        delegate.interrupted = false;
+        assertNotNull(run(runner, problemGroup, 3, DELIVERY_SERVICE));
+        assertEquals(2, delegate.runs);
+    }
+
+    private static Map<RatingCriteria, Double> run(Runner runner,
+                                                   ProblemGroup problemGroup,
+                                                   int simulationRuns,
+                                                   DeliveryService.Factory deliveryServiceFactory) {
+        List<Map<RatingCriteria, Double>> results = new ArrayList<>();
+        runner.run(problemGroup, new SimulationConfig(0), simulationRuns, deliveryServiceFactory,
+            (simulation, problem, run) -> {}, (simulation, problem) -> false, results::add);
+        assertTrue(results.size() <= 1);
+        return results.isEmpty() ? null : results.get(0);
+    }
+
+    private static ProblemGroup group(ProblemArchetype problem) {
+        return new ProblemGroupImpl(List.of(problem), List.of(RatingCriteria.AMOUNT_DELIVERED));
+    }
+
+    private static ProblemArchetype cacheableProblem(long simulationLength, double factor) {
+        VehicleManager vehicleManager = proxy(VehicleManager.class, Map.of(
+            "getRegion", REGION,
+            "getAllVehicles", List.of()
+        ));
+        return new ProblemArchetypeImpl(
+            new EmptyOrderGenerator.FactoryBuilder().build(),
+            vehicleManager,
+            Map.of(RatingCriteria.AMOUNT_DELIVERED, AmountDeliveredRater.Factory.builder().setFactor(factor).build()),
+            simulationLength,
+            "cacheable"
+        );
+    }
+
+    /**
+     * A {@link Runner} that counts its executions and reports a rating that differs for every execution.
+     */
+    private static class CountingRunner implements Runner {
+
+        int runs = 0;
+        boolean interrupted = false;
+
+        @Override
+        public void run(ProblemGroup problemGroup,
+                        SimulationConfig simulationConfig,
+                        int simulationRuns,
+                        DeliveryService.Factory deliveryServiceFactory,
+                        SimulationSetupHandler simulationSetupHandler,
+                        SimulationFinishedHandler simulationFinishedHandler,
+                        ResultHandler resultHandler) {
+            runs++;
+            if (!interrupted) {
+                resultHandler.accept(Map.of(RatingCriteria.AMOUNT_DELIVERED, runs / 10.0));
+            }
+        }
+
+        @Override
+        public Map<ProblemArchetype, Simulation> createSimulations(ProblemGroup problemGroup,
+                                                                    SimulationConfig simulationConfig,
+                                                                    DeliveryService.Factory deliveryServiceFactory) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package projekt.runner;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import projekt.delivery.archetype.ProblemArchetype;
+import projekt.delivery.archetype.ProblemGroup;
+import projekt.delivery.simulation.SimulationConfig;
+
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static projekt.runner.TestProblems.*;
+
+public class MonteCarloEvaluatorUnitTests {
+
+    private static final long SEED = 7;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testStopsEarlyOnceIntervalIsNarrow() {
+        ProblemArchetype problem = problem("uniform", 100);
+        MonteCarloEvaluator.Config config = new MonteCarloEvaluator.Config(0.95, 0.01, 4, 1000);
+
+        MonteCarloEvaluator.ProblemResult result = evaluate(4, config, group(problem)).get(problem);
+
+        assertTrue(result.converged());
+        assertTrue(result.runs() >= config.minRuns() && result.runs() < config.maxRuns());
+        MonteCarloEvaluator.Estimate estimate = result.estimates().get(CRITERION);
+        assertTrue(estimate.halfWidth() <= config.maxHalfWidth());
+
+        // the estimate is folded from the first runs in the order of their indices
+        RunningStatistics statistics = new RunningStatistics();
+        for (int run = 0; run < result.runs(); run++) {
+            statistics.add(rating(problem, ParallelRunnerImpl.taskSeed(SEED, 0, run)));
+            if (run + 1 < result.runs() && run + 1 >= config.minRuns()) {
+                assertTrue(statistics.getHalfWidth(config.confidenceLevel()) > config.maxHalfWidth(),
+                    "the evaluation did not stop at the first precise run");
+            }
+        }
+        assertEquals(statistics.getMean(), estimate.mean(), 1e-12);
+        assertEquals(statistics.getVariance(), estimate.variance(), 1e-12);
+    }
+
+    @Test
+    public void testResultDoesNotDependOnParallelism() {
+        ProblemGroup problemGroup = group(problem("short", 50), problem("long", 200));
+        MonteCarloEvaluator.Config config = new MonteCarloEvaluator.Config(0.99, 0.01, 4, 1000);
+
+        Map<ProblemArchetype, MonteCarloEvaluator.ProblemResult> sequential = evaluate(1, config, problemGroup);
+        Map<ProblemArchetype, MonteCarloEvaluator.ProblemResult> parallel = evaluate(4, config, problemGroup);
+
+        assertEquals(sequential, parallel);
+        assertTrue(sequential.get(problemGroup.problems().get(0)).runs()
+            > sequential.get(problemGroup.problems().get(1)).runs());
+    }
+
+    @Test
+    public void testBudgetIsNotExceeded() {
+        ProblemArchetype problem = problem("uniform", 10);
+        MonteCarloEvaluator.Config config = new MonteCarloEvaluator.Config(0.95, 1e-6, 2, 10);
+
+        MonteCarloEvaluator.ProblemResult result = evaluate(4, config, group(problem)).get(problem);
+
+        assertFalse(result.converged());
+        assertEquals(10, result.runs());
+    }
+
+    @Test
+    public void testFailureIsPropagated() {
+        ProblemArchetype problem = failingProblem("failing", 100, 5);
+        MonteCarloEvaluator.Config config = new MonteCarloEvaluator.Config(0.95, 0.01, 4, 100);
+
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> evaluate(4, config, group(problem)));
+        assertTrue(exception.getCause() instanceof IllegalStateException);
+    }
+
+    private Map<ProblemArchetype, MonteCarloEvaluator.ProblemResult> evaluate(int parallelism,
+                                                                            MonteCarloEvaluator.Config config,
+                                                                            ProblemGroup problemGroup) {
+        return new MonteCarloEvaluator(executor, parallelism, SEED, config)
+            .evaluate(problemGroup, new SimulationConfig(0), DELIVERY_SERVICE);
+    }
+}
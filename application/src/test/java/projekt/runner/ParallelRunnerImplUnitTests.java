@@ -0,0 +1,111 @@
+package projekt.runner;
+
+import org.junit.jupiter.api.Test;
+import projekt.delivery.archetype.ProblemGroup;
+import projekt.delivery.rating.RatingCriteria;
+import projekt.delivery.simulation.Simulation;
+import projekt.delivery.simulation.SimulationConfig;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static projekt.runner.TestProblems.*;
+
+public class ParallelRunnerImplUnitTests {
+
+    private static final long SEED = 42;
+
+    @Test
+    public void testResultMatchesSequentialRunsForAnyThreadCount() {
+        ProblemGroup problemGroup = group(problem("short", 20), problem("long", 30));
+        int runs = 3;
+
+        // the reference sums the ratings in the order of a sequential execution
+        double sum = 0;
+        for (int run = 0; run < runs; run++) {
+            for (int problemIndex = 0; problemIndex < problemGroup.problems().size(); problemIndex++) {
+                sum += rating(problemGroup.problems().get(problemIndex), ParallelRunnerImpl.taskSeed(SEED, problemIndex, run));
+            }
+        }
+        double expected = sum / (runs * problemGroup.problems().size());
+
+        for (int threads : new int[] {1, 4}) {
+            AtomicReference<Map<RatingCriteria, Double>> result = new AtomicReference<>();
+            try (ParallelRunnerImpl runner = ParallelRunnerImpl.withThreads(threads, SEED)) {
+                runner.run(problemGroup, new SimulationConfig(0), runs, DELIVERY_SERVICE, (simulation, problem, run) -> {},
+                    (simulation, problem) -> false, result::set);
+            }
+
+            assertEquals(expected, result.get().get(CRITERION), 0);
+        }
+    }
+
+    @Test
+    public void testFailureEndsRunningSimulations() {
+        ProblemGroup problemGroup = group(problem("endless", Long.MAX_VALUE), failingProblem("failing", 100, 10));
+        List<Simulation> simulations = Collections.synchronizedList(new ArrayList<>());
+        List<Map<RatingCriteria, Double>> results = new ArrayList<>();
+
+        RuntimeException exception;
+        try (ParallelRunnerImpl runner = ParallelRunnerImpl.withThreads(2, SEED)) {
+            exception = assertThrows(RuntimeException.class, () -> runner.run(problemGroup, new SimulationConfig(0), 1,
+                DELIVERY_SERVICE, (simulation, problem, run) -> simulations.add(simulation), (simulation, problem) -> false,
+                results::add));
+        }
+
+        assertTrue(exception.getCause() instanceof IllegalStateException);
+        assertTrue(results.isEmpty());
+        awaitEnded(simulations);
+    }
+
+    @Test
+    public void testInterruptEndsRunningSimulations() throws InterruptedException {
+        ProblemGroup problemGroup = group(problem("endless", Long.MAX_VALUE), problem("also endless", Long.MAX_VALUE));
+        List<Simulation> simulations = Collections.synchronizedList(new ArrayList<>());
+        List<Map<RatingCriteria, Double>> results = new ArrayList<>();
+
+        Thread runnerThread = new Thread(() -> {
+            try (ParallelRunnerImpl runner = ParallelRunnerImpl.withThreads(2, SEED)) {
+                runner.run(problemGroup, new SimulationConfig(0), 1, DELIVERY_SERVICE,
+                    (simulation, problem, run) -> simulations.add(simulation), (simulation, problem) -> false, results::add);
+            }
+        });
+        runnerThread.start();
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (simulations.size() < 2 || !simulations.stream().allMatch(Simulation::isRunning)) {
+            assertTrue(System.currentTimeMillis() < deadline, "the simulations were not started");
+            Thread.sleep(1);
+        }
+
+        runnerThread.interrupt();
+        runnerThread.join(10_000);
+
+        assertFalse(runnerThread.isAlive());
+        assertTrue(results.isEmpty());
+        awaitEnded(simulations);
+    }
+
+    @Test
+    public void testCloseShutsDownOwnThreadsOnly() {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            new ParallelRunnerImpl(executor, SEED).close();
+            assertFalse(executor.isShutdown());
+        } finally {
+            executor.shutdown();
+        }
+
+        ParallelRunnerImpl runner = ParallelRunnerImpl.withThreads(1, SEED);
+        runner.close();
+        assertThrows(RejectedExecutionException.class, () -> runner.run(group(problem("short", 20)),
+            new SimulationConfig(0), 1, DELIVERY_SERVICE, (simulation, problem, run) -> {}, (simulation, problem) -> false,
+            result -> fail("the runner must not execute runs after it has been closed")));
+    }
+}
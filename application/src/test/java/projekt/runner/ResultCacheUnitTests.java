@@ -0,0 +1,104 @@
+package projekt.runner;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import projekt.delivery.rating.RatingCriteria;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResultCacheUnitTests {
+
+    private Path directory;
+    private Path file;
+
+    @BeforeEach
+    public void initialize() throws IOException {
+        directory = Files.createTempDirectory("cache");
+        file = directory.resolve("results.txt");
+    }
+
+    @AfterEach
+    public void cleanUp() throws IOException {
+        try (var files = Files.list(directory)) {
+            for (Path path : files.toList()) {
+                Files.delete(path);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Test
+    public void testEntriesArePersisted() {
+        new ResultCache(file, 2).put("a", ratings(0.5, 0.25));
+
+        ResultCache cache = new ResultCache(file, 2);
+
+        assertEquals(1, cache.size());
+        assertEquals(ratings(0.5, 0.25), cache.get("a"));
+        assertNull(cache.get("b"));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEntryIsEvicted() {
+        ResultCache cache = new ResultCache(file, 2);
+        cache.put("a", ratings(1, 1));
+        cache.put("b", ratings(2, 2));
+        // reading "a" makes "b" the least recently used entry
+        assertNotNull(cache.get("a"));
+        cache.put("c", ratings(3, 3));
+
+        assertEquals(2, cache.size());
+        assertNull(cache.get("b"));
+        assertEquals(ratings(1, 1), cache.get("a"));
+        assertEquals(ratings(3, 3), cache.get("c"));
+
+        // the file keeps the order of use, so a smaller cache keeps the most recently used entries
+        ResultCache smallerCache = new ResultCache(file, 1);
+        assertEquals(1, smallerCache.size());
+        assertEquals(ratings(3, 3), smallerCache.get("c"));
+    }
+
+    @Test
+    public void testCorruptLinesAreIgnored() throws IOException {
+        Files.write(file, List.of(
+            "a AMOUNT_DELIVERED=0.5 IN_TIME=0.25",
+            "garbage",
+            "b AMOUNT_DELIVERED=not-a-number",
+            "c UNKNOWN_CRITERION=1.0",
+            "d AMOUNT_DELIVERED",
+            "",
+            "e AMOUNT_DELIVERED=0.75 IN_TIME=1.0"
+        ));
+
+        ResultCache cache = new ResultCache(file, 10);
+
+        assertEquals(2, cache.size());
+        assertEquals(ratings(0.5, 0.25), cache.get("a"));
+        assertEquals(ratings(0.75, 1.0), cache.get("e"));
+
+        // the next write drops the corrupt lines
+        cache.put("f", ratings(0, 0));
+        assertEquals(3, Files.readAllLines(file).size());
+        assertEquals(3, new ResultCache(file, 10).size());
+    }
+
+    @Test
+    public void testInvalidArgumentsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new ResultCache(file, 0));
+        ResultCache cache = new ResultCache(file, 1);
+        assertThrows(IllegalArgumentException.class, () -> cache.put("", ratings(0, 0)));
+        assertThrows(IllegalArgumentException.class, () -> cache.put("a b", ratings(0, 0)));
+        assertEquals(0, cache.size());
+    }
+
+    private static Map<RatingCriteria, Double> ratings(double amountDelivered, double inTime) {
+        return Map.of(RatingCriteria.AMOUNT_DELIVERED, amountDelivered, RatingCriteria.IN_TIME, inTime);
+    }
+}
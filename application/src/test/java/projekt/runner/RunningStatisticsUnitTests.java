@@ -0,0 +1,55 @@
+package projekt.runner;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RunningStatisticsUnitTests {
+
+    @Test
+    public void testStudentQuantileMatchesTable() {
+        // degrees of freedom, p and the quantile of a t-table
+        double[][] table = {
+            {1, 0.975, 12.7062},
+            {2, 0.975, 4.3027},
+            {3, 0.995, 5.8409},
+            {3, 0.9995, 12.9240},
+            {5, 0.975, 2.5706},
+            {10, 0.95, 1.8125},
+            {30, 0.975, 2.0423},
+            {100, 0.995, 2.6259},
+            {120, 0.995, 2.6174},
+            {1000, 0.975, 1.9623},
+        };
+        for (double[] row : table) {
+            double quantile = RunningStatistics.studentQuantile(row[1], (long) row[0]);
+            assertEquals(row[2], quantile, 1e-4, "t(%s, %s)".formatted(row[1], (long) row[0]));
+            assertEquals(-row[2], RunningStatistics.studentQuantile(1 - row[1], (long) row[0]), 1e-4);
+        }
+    }
+
+    @Test
+    public void testStudentQuantileIsContinuousAtApproximation() {
+        long degreesOfFreedom = RunningStatistics.EXACT_DEGREES_OF_FREEDOM;
+        for (double p : new double[] {0.9, 0.975, 0.9995}) {
+            double exact = RunningStatistics.studentQuantile(p, degreesOfFreedom);
+            double approximated = RunningStatistics.studentQuantile(p, degreesOfFreedom + 1);
+            assertTrue(approximated < exact);
+            assertEquals(exact, approximated, exact * 1e-3);
+        }
+    }
+
+    @Test
+    public void testMeanVarianceAndHalfWidth() {
+        RunningStatistics statistics = new RunningStatistics();
+        assertEquals(Double.POSITIVE_INFINITY, statistics.getHalfWidth(0.95), 0);
+        for (double value : new double[] {2, 4, 4, 4, 5, 5, 7, 9}) {
+            statistics.add(value);
+        }
+
+        assertEquals(8, statistics.getCount());
+        assertEquals(5, statistics.getMean(), 1e-12);
+        assertEquals(32.0 / 7, statistics.getVariance(), 1e-12);
+        assertEquals(2.3646 * Math.sqrt(32.0 / 7 / 8), statistics.getHalfWidth(0.95), 1e-4);
+    }
+}
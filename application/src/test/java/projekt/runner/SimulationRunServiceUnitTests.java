@@ -0,0 +1,201 @@
+package projekt.runner;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import projekt.TestProxies.Answer;
+import projekt.delivery.archetype.ProblemArchetype;
+import projekt.delivery.rating.RatingCriteria;
+import projekt.delivery.simulation.Simulation;
+import projekt.delivery.simulation.SimulationConfig;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static projekt.TestProxies.proxy;
+import static projekt.runner.TestProblems.*;
+
+public class SimulationRunServiceUnitTests {
+
+    private static final int SEED = 7;
+
+    private final ExecutorService callbackExecutor = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "callback"));
+    private final SimulationRunService service = SimulationRunService.withDaemonThreads(callbackExecutor);
+
+    @AfterEach
+    public void cleanUp() {
+        service.close();
+        callbackExecutor.shutdownNow();
+    }
+
+    @Test
+    public void testProgressAndRatingsAreDeliveredOnCallbackExecutor() throws InterruptedException {
+        ProblemArchetype problem = seededProblem("finite", 200, SEED);
+        RecordingListener listener = new RecordingListener();
+
+        SimulationRunService.Run run = service.submit(simulation(problem), problem, listener);
+        listener.awaitDone();
+
+        assertEquals(List.of("finished"), listener.outcomes);
+        assertEquals(rating(problem, SEED), listener.ratings.get(CRITERION), 1e-12);
+        assertFalse(listener.progress.isEmpty());
+        // the progress is coalesced, but always increasing and the last tick is reported before the result
+        for (int i = 1; i < listener.progress.size(); i++) {
+            assertTrue(listener.progress.get(i).tick() > listener.progress.get(i - 1).tick());
+        }
+        SimulationRunService.Progress last = listener.progress.get(listener.progress.size() - 1);
+        assertEquals(problem.simulationLength() - 1, last.tick());
+        assertEquals(1, last.fraction(), 0);
+        assertEquals(List.of("callback"), listener.threads.stream().distinct().toList());
+        awaitDone(run);
+        assertFalse(run.isCancelled());
+    }
+
+    @Test
+    public void testCancelEndsSimulation() throws InterruptedException {
+        ProblemArchetype problem = seededProblem("endless", Long.MAX_VALUE, SEED);
+        RecordingListener listener = new RecordingListener();
+        Simulation simulation = simulation(problem);
+
+        SimulationRunService.Run run = service.submit(simulation, problem, listener);
+        assertTrue(listener.firstProgress.await(10, TimeUnit.SECONDS), "no progress was reported");
+        run.cancel();
+        listener.awaitDone();
+
+        assertEquals(List.of("cancelled"), listener.outcomes);
+        assertTrue(run.isCancelled());
+        awaitEnded(List.of(simulation));
+        awaitDone(run);
+        assertTrue(service.getRuns().isEmpty());
+    }
+
+    @Test
+    public void testCancelAllEndsEverySimulation() throws InterruptedException {
+        List<RecordingListener> listeners = new ArrayList<>();
+        List<Simulation> simulations = Collections.synchronizedList(new ArrayList<>());
+        for (int i = 0; i < 3; i++) {
+            ProblemArchetype problem = seededProblem("endless " + i, Long.MAX_VALUE, SEED + i);
+            RecordingListener listener = new RecordingListener();
+            Simulation simulation = simulation(problem);
+            service.submit(simulation, problem, listener);
+            listeners.add(listener);
+            simulations.add(simulation);
+        }
+        for (RecordingListener listener : listeners) {
+            assertTrue(listener.firstProgress.await(10, TimeUnit.SECONDS), "no progress was reported");
+        }
+        assertEquals(3, service.getRuns().size());
+
+        service.cancelAll();
+
+        for (RecordingListener listener : listeners) {
+            listener.awaitDone();
+            assertEquals(List.of("cancelled"), listener.outcomes);
+        }
+        awaitEnded(simulations);
+    }
+
+    @Test
+    public void testFailureIsReported() throws InterruptedException {
+        ProblemArchetype problem = failingProblem("failing", 100, 10);
+        RecordingListener listener = new RecordingListener();
+
+        SimulationRunService.Run run = service.submit(simulation(problem), problem, listener);
+        listener.awaitDone();
+
+        assertEquals(List.of("failed"), listener.outcomes);
+        assertTrue(listener.failure instanceof IllegalStateException);
+        assertEquals("Order generation failed in tick 10", listener.failure.getMessage());
+        assertTrue(listener.ratings.isEmpty());
+        awaitDone(run);
+        assertTrue(service.getRuns().isEmpty());
+    }
+
+    @Test
+    public void testErrorIsReported() throws InterruptedException {
+        ProblemArchetype problem = seededProblem("finite", 200, SEED);
+        Map<String, Object> results = new HashMap<>();
+        results.put("addListener", null);
+        results.put("removeListener", true);
+        results.put("runSimulation", (Answer) args -> {
+            throw new StackOverflowError("the delivery service recursed");
+        });
+        RecordingListener listener = new RecordingListener();
+
+        SimulationRunService.Run run = service.submit(proxy(Simulation.class, results), problem, listener);
+        listener.awaitDone();
+
+        assertEquals(List.of("failed"), listener.outcomes);
+        assertTrue(listener.failure instanceof StackOverflowError, String.valueOf(listener.failure));
+        awaitDone(run);
+        assertTrue(service.getRuns().isEmpty());
+    }
+
+    private static Simulation simulation(ProblemArchetype problem) {
+        return ParallelRunnerImpl.createSimulation(problem, SEED, new SimulationConfig(0), DELIVERY_SERVICE);
+    }
+
+    private static void awaitDone(SimulationRunService.Run run) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!run.isDone()) {
+            assertTrue(System.currentTimeMillis() < deadline, "the run is not done");
+            Thread.sleep(1);
+        }
+    }
+
+    /**
+     * Records the callbacks of a single run. The fields are only written by the callback thread and read after
+     * {@link #awaitDone()}.
+     */
+    private static class RecordingListener implements SimulationRunService.Listener {
+
+        final CountDownLatch firstProgress = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(1);
+        final List<SimulationRunService.Progress> progress = Collections.synchronizedList(new ArrayList<>());
+        final List<String> outcomes = Collections.synchronizedList(new ArrayList<>());
+        final List<String> threads = Collections.synchronizedList(new ArrayList<>());
+        Map<RatingCriteria, Double> ratings = Map.of();
+        Throwable failure;
+
+        @Override
+        public void onProgress(SimulationRunService.Progress progress) {
+            threads.add(Thread.currentThread().getName());
+            this.progress.add(progress);
+            firstProgress.countDown();
+        }
+
+        @Override
+        public void onFinished(Map<RatingCriteria, Double> ratings) {
+            threads.add(Thread.currentThread().getName());
+            this.ratings = ratings;
+            outcomes.add("finished");
+            done.countDown();
+        }
+
+        @Override
+        public void onCancelled() {
+            threads.add(Thread.currentThread().getName());
+            outcomes.add("cancelled");
+            done.countDown();
+        }
+
+        @Override
+        public void onFailed(Throwable throwable) {
+            threads.add(Thread.currentThread().getName());
+            failure = throwable;
+            outcomes.add("failed");
+            done.countDown();
+        }
+
+        void awaitDone() throws InterruptedException {
+            assertTrue(done.await(10, TimeUnit.SECONDS), "the run did not report its outcome");
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package projekt.runner;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import projekt.delivery.archetype.ProblemArchetype;
+import projekt.delivery.simulation.SimulationConfig;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static projekt.runner.TestProblems.*;
+
+public class SweepEngineUnitTests {
+
+    private static final List<SweepPoint> DESIGN = List.of(
+        new SweepPoint(1, 10, 20, 0.5, 5, 1, "receiving"),
+        new SweepPoint(2, 10, 30, 0.5, 5, 1, "receiving"),
+        new SweepPoint(3, 10, 40, 0.5, 5, 1, "receiving"),
+        new SweepPoint(4, 10, 50, 0.5, 5, 1, "receiving"),
+        new SweepPoint(5, 10, 60, 0.5, 5, 1, "receiving"),
+        new SweepPoint(6, 10, 70, 0.5, 5, 1, "receiving")
+    );
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(3);
+    private final Set<SweepPoint> executedPoints = ConcurrentHashMap.newKeySet();
+    private SweepEngine engine;
+    private Path directory;
+
+    @BeforeEach
+    public void initialize() throws IOException {
+        directory = Files.createTempDirectory("sweep");
+        // the problems do not depend on the routing and generator implementations, but on the point and its seed
+        engine = new SweepEngine(problem("base", 10), Map.of("receiving", DELIVERY_SERVICE), executor, 3, 2, 11) {
+            @Override
+            public ProblemArchetype toProblem(SweepPoint point, int orderSeed) {
+                executedPoints.add(point);
+                return seededProblem(point.toCsv(), point.orderCount(), orderSeed);
+            }
+        };
+    }
+
+    @AfterEach
+    public void cleanUp() throws IOException {
+        executor.shutdownNow();
+        try (var files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Test
+    public void testResumeExecutesOnlyMissingPoints() throws IOException {
+        Path complete = directory.resolve("complete.csv");
+        assertEquals(DESIGN.size(), run(complete));
+        List<String> expected = Files.readAllLines(complete);
+
+        // an interrupted sweep finished two points and was killed while writing the third line
+        Path interrupted = directory.resolve("interrupted.csv");
+        String partialLine = expected.get(3).substring(0, expected.get(3).length() - 3);
+        Files.writeString(interrupted, String.join("\n", expected.subList(0, 3)) + "\n" + partialLine);
+        executedPoints.clear();
+
+        long executed = engine.resume(DESIGN.iterator(), List.of(CRITERION), new SimulationConfig(0), interrupted);
+
+        assertEquals(DESIGN.size() - 2, executed);
+        assertEquals(DESIGN.size() - 2, executedPoints.size());
+        List<String> resumed = Files.readAllLines(interrupted);
+        assertEquals(expected.get(0), resumed.get(0));
+        assertEquals(sorted(expected), sorted(resumed));
+    }
+
+    @Test
+    public void testResumeOfFinishedSweepExecutesNothing() throws IOException {
+        Path output = directory.resolve("sweep.csv");
+        run(output);
+        List<String> expected = Files.readAllLines(output);
+        executedPoints.clear();
+
+        assertEquals(0, engine.resume(DESIGN.iterator(), List.of(CRITERION), new SimulationConfig(0), output));
+        assertTrue(executedPoints.isEmpty());
+        assertEquals(expected, Files.readAllLines(output));
+    }
+
+    @Test
+    public void testResumeWithoutCheckpointRunsEverything() throws IOException {
+        Path output = directory.resolve("sweep.csv");
+
+        assertEquals(DESIGN.size(), engine.resume(DESIGN.iterator(), List.of(CRITERION), new SimulationConfig(0), output));
+        assertEquals(DESIGN.size() + 1, Files.readAllLines(output).size());
+    }
+
+    @Test
+    public void testResumeRejectsOtherCriteria() throws IOException {
+        Path output = directory.resolve("sweep.csv");
+        Files.writeString(output, SweepPoint.CSV_HEADER + ",IN_TIME\n");
+
+        assertThrows(IllegalArgumentException.class,
+            () -> engine.resume(DESIGN.iterator(), List.of(CRITERION), new SimulationConfig(0), output));
+    }
+
+    private long run(Path output) {
+        return engine.run(DESIGN.iterator(), List.of(CRITERION), new SimulationConfig(0), output);
+    }
+
+    private static List<String> sorted(List<String> lines) {
+        List<String> sorted = new ArrayList<>(lines);
+        Collections.sort(sorted);
+        return sorted;
+    }
+}
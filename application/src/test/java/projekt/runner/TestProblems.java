@@ -0,0 +1,266 @@
+package projekt.runner;
+
+import projekt.base.EuclideanDistanceCalculator;
+import projekt.base.Location;
+import projekt.base.TickInterval;
+import projekt.delivery.archetype.ProblemArchetype;
+import projekt.delivery.archetype.ProblemGroup;
+import projekt.delivery.archetype.ProblemGroupImpl;
+import projekt.delivery.event.Event;
+import projekt.delivery.event.OrderReceivedEvent;
+import projekt.delivery.generator.OrderGenerator;
+import projekt.delivery.rating.Rater;
+import projekt.delivery.rating.RatingCriteria;
+import projekt.delivery.routing.ConfirmedOrder;
+import projekt.delivery.routing.PathCalculator;
+import projekt.delivery.routing.Region;
+import projekt.delivery.routing.VehicleManager;
+import projekt.delivery.service.DeliveryService;
+import projekt.delivery.simulation.Simulation;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static projekt.TestProxies.proxy;
+
+/**
+ * Problems for the runner tests that do not depend on the routing, rating and delivery implementations.<p>
+ *
+ * Every tick, the order generator of a problem creates one order whose weight is drawn from a generator seeded with
+ * the seed of the run and the tick. The delivery service only receives the orders and the rater averages their
+ * weights, so the rating of a run only depends on its seed and its length.
+ */
+final class TestProblems {
+
+    static final RatingCriteria CRITERION = RatingCriteria.AMOUNT_DELIVERED;
+    static final DeliveryService.Factory DELIVERY_SERVICE = ReceivingDeliveryService::new;
+    static final Location RESTAURANT = new Location(0, 0);
+    static final Region REGION = Region.builder()
+        .distanceCalculator(new EuclideanDistanceCalculator())
+        .addRestaurant(RESTAURANT, Region.Restaurant.JAVA_HUT)
+        .build();
+
+    private TestProblems() {
+    }
+
+    /**
+     * Returns a problem whose order generator is seeded by the runner.
+     */
+    static ProblemArchetype problem(String name, long simulationLength) {
+        return new TestProblem(name, simulationLength, -1, -1);
+    }
+
+    /**
+     * Returns a problem whose order generator uses the given seed.
+     */
+    static ProblemArchetype seededProblem(String name, long simulationLength, int seed) {
+        return new TestProblem(name, simulationLength, seed, -1);
+    }
+
+    /**
+     * Returns a problem whose order generator throws an {@link IllegalStateException} in the given tick.
+     */
+    static ProblemArchetype failingProblem(String name, long simulationLength, long failingTick) {
+        return new TestProblem(name, simulationLength, -1, failingTick);
+    }
+
+    static ProblemGroup group(ProblemArchetype... problems) {
+        return new ProblemGroupImpl(List.of(problems), List.of(CRITERION));
+    }
+
+    /**
+     * Returns the rating of a single run of the given problem with the given seed.
+     */
+    static double rating(ProblemArchetype problem, int seed) {
+        double sum = 0;
+        for (long tick = 0; tick < problem.simulationLength(); tick++) {
+            sum += weight(seed, tick);
+        }
+        return sum / problem.simulationLength();
+    }
+
+    private static double weight(int seed, long tick) {
+        return new SplittableRandom(seed * 1_000_003L + tick).nextDouble();
+    }
+
+    /**
+     * Waits until none of the given simulations is running anymore and fails after ten seconds.
+     */
+    static void awaitEnded(List<Simulation> simulations) {
+        long deadline = System.currentTimeMillis() + 10_000;
+        synchronized (simulations) {
+            assertFalse(simulations.isEmpty());
+            for (Simulation simulation : simulations) {
+                while (simulation.isRunning()) {
+                    assertTrue(System.currentTimeMillis() < deadline, "a cancelled simulation is still running");
+                    Thread.onSpinWait();
+                }
+            }
+        }
+    }
+
+    private static class TestProblem implements ProblemArchetype {
+
+        private final String name;
+        private final long simulationLength;
+        private final VehicleManager vehicleManager;
+        private final OrderGenerator.Factory orderGeneratorFactory;
+
+        TestProblem(String name, long simulationLength, int seed, long failingTick) {
+            this.name = name;
+            this.simulationLength = simulationLength;
+            Map<String, Object> results = new HashMap<>();
+            results.put("getRegion", REGION);
+            results.put("getAllVehicles", List.of());
+            results.put("setTickObserver", null);
+            vehicleManager = proxy(VehicleManager.class, results);
+            VehicleManager.OccupiedRestaurant restaurant = proxy(VehicleManager.OccupiedRestaurant.class, Map.of(
+                "getComponent", REGION.getNode(RESTAURANT),
+                "getVehicleManager", vehicleManager
+            ));
+            results.put("getOccupiedRestaurant", restaurant);
+            orderGeneratorFactory = new WeightGenerator.Factory(restaurant, seed, failingTick);
+        }
+
+        @Override
+        public OrderGenerator.Factory orderGeneratorFactory() {
+            return orderGeneratorFactory;
+        }
+
+        @Override
+        public VehicleManager vehicleManager() {
+            return vehicleManager;
+        }
+
+        @Override
+        public long simulationLength() {
+            return simulationLength;
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public VehicleManager.Factory vehicleManagerFactory() {
+            // the vehicle manager is stateless, so all runs can share it
+            return new VehicleManager.Factory() {
+                @Override
+                public VehicleManager create() {
+                    return vehicleManager;
+                }
+
+                @Override
+                public Region getRegion() {
+                    return REGION;
+                }
+
+                @Override
+                public PathCalculator getPathCalculator() {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+
+        @Override
+        public Map<RatingCriteria, Rater.Factory> raterFactoryMap() {
+            return Map.of(CRITERION, WeightRater::new);
+        }
+    }
+
+    private record WeightGenerator(VehicleManager.OccupiedRestaurant restaurant, int seed, long failingTick)
+        implements OrderGenerator {
+
+        @Override
+        public List<ConfirmedOrder> generateOrders(long tick) {
+            if (tick == failingTick) {
+                throw new IllegalStateException("Order generation failed in tick " + tick);
+            }
+            return List.of(new ConfirmedOrder(RESTAURANT, restaurant, new TickInterval(tick, tick + 1), List.of(),
+                weight(seed, tick)));
+        }
+
+        record Factory(VehicleManager.OccupiedRestaurant restaurant, int seed, long failingTick)
+            implements OrderGenerator.Factory {
+
+            @Override
+            public OrderGenerator create() {
+                return new WeightGenerator(restaurant, seed < 0 ? new Random().nextInt(Integer.MAX_VALUE) : seed,
+                    failingTick);
+            }
+
+            @Override
+            public OrderGenerator.Factory withDefaultSeed(int seed) {
+                return this.seed < 0 ? new Factory(restaurant, seed, failingTick) : this;
+            }
+        }
+    }
+
+    private static class WeightRater implements Rater {
+
+        private double sum = 0;
+        private long ticks = 0;
+
+        @Override
+        public void onTick(List<Event> events, long tick) {
+            for (Event event : events) {
+                if (event instanceof OrderReceivedEvent receivedEvent) {
+                    sum += receivedEvent.getOrder().getWeight();
+                }
+            }
+            ticks++;
+        }
+
+        @Override
+        public double getScore() {
+            return ticks == 0 ? 0 : sum / ticks;
+        }
+
+        @Override
+        public RatingCriteria getRatingCriteria() {
+            return CRITERION;
+        }
+    }
+
+    private static class ReceivingDeliveryService implements DeliveryService {
+
+        private final VehicleManager vehicleManager;
+        private final List<ConfirmedOrder> pendingOrders = new ArrayList<>();
+
+        ReceivingDeliveryService(VehicleManager vehicleManager) {
+            this.vehicleManager = vehicleManager;
+        }
+
+        @Override
+        public void deliver(List<ConfirmedOrder> confirmedOrders) {
+            pendingOrders.addAll(confirmedOrders);
+        }
+
+        @Override
+        public List<Event> tick(long currentTick) {
+            List<Event> events = new ArrayList<>();
+            for (ConfirmedOrder order : pendingOrders) {
+                events.add(OrderReceivedEvent.of(currentTick, order));
+            }
+            pendingOrders.clear();
+            return events;
+        }
+
+        @Override
+        public VehicleManager getVehicleManager() {
+            return vehicleManager;
+        }
+
+        @Override
+        public List<ConfirmedOrder> getPendingOrders() {
+            return pendingOrders;
+        }
+
+        @Override
+        public void reset() {
+            pendingOrders.clear();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package projekt.benchmark;
+
+import projekt.base.EuclideanDistanceCalculator;
+import projekt.base.Location;
+import projekt.delivery.archetype.ProblemArchetype;
+import projekt.delivery.archetype.ProblemArchetypeImpl;
+import projekt.delivery.generator.FridayOrderGenerator;
+import projekt.delivery.rating.AmountDeliveredRater;
+import projekt.delivery.rating.InTimeRater;
+import projekt.delivery.rating.Rater;
+import projekt.delivery.rating.RatingCriteria;
+import projekt.delivery.rating.TravelDistanceRater;
+import projekt.delivery.routing.PathCalculator;
+import projekt.delivery.routing.Region;
+import projekt.delivery.routing.VehicleManager;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Creates the problems simulated by the benchmarks.
+ */
+final class BenchmarkProblems {
+
+    private BenchmarkProblems() {
+    }
+
+    /**
+     * Creates a square grid {@link Region} with side * side nodes connected to their horizontal and vertical neighbors.
+     * The node at (0, 0) is a {@link Region.Restaurant} and every third node is a {@link Region.Neighborhood}.
+     *
+     * @param side The number of nodes on each side of the grid.
+     * @return The created {@link Region}.
+     */
+    static Region grid(int side) {
+        Region.Builder builder = Region.builder().distanceCalculator(new EuclideanDistanceCalculator());
+        for (int x = 0; x < side; x++) {
+            for (int y = 0; y < side; y++) {
+                Location location = new Location(x, y);
+                if (x == 0 && y == 0) {
+                    builder.addRestaurant(location, Region.Restaurant.LOS_FOPBOTS_HERMANOS);
+                } else if ((x + y) % 3 == 0) {
+                    builder.addNeighborhood("H %d,%d".formatted(x, y), location);
+                } else {
+                    builder.addNode("N %d,%d".formatted(x, y), location);
+                }
+            }
+        }
+        for (int x = 0; x < side; x++) {
+            for (int y = 0; y < side; y++) {
+                if (x + 1 < side) {
+                    builder.addEdge("E %d,%d-%d,%d".formatted(x, y, x + 1, y), new Location(x, y), new Location(x + 1, y));
+                }
+                if (y + 1 < side) {
+                    builder.addEdge("E %d,%d-%d,%d".formatted(x, y, x, y + 1), new Location(x, y), new Location(x, y + 1));
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Creates a {@link VehicleManager} whose {@link projekt.delivery.routing.Vehicle}s start at the restaurant at (0, 0).
+     *
+     * @param region The {@link Region} of the {@link VehicleManager}.
+     * @param pathCalculator The {@link PathCalculator} of the {@link VehicleManager}.
+     * @param fleetSize The number of {@link projekt.delivery.routing.Vehicle}s.
+     * @return The created {@link VehicleManager}.
+     */
+    static VehicleManager vehicleManager(Region region, PathCalculator pathCalculator, int fleetSize) {
+        VehicleManager.Builder builder = VehicleManager.builder()
+            .region(region)
+            .pathCalculator(pathCalculator);
+        for (int i = 0; i < fleetSize; i++) {
+            builder.addVehicle(new Location(0, 0), 2);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Creates a seeded {@link ProblemArchetype} on the given {@link VehicleManager} with the raters of the presets.
+     *
+     * @param vehicleManager The {@link VehicleManager} of the problem.
+     * @param orderCount The number of generated orders.
+     * @param simulationLength The length of the simulation.
+     * @return The created {@link ProblemArchetype}.
+     */
+    static ProblemArchetype problem(VehicleManager vehicleManager, int orderCount, int simulationLength) {
+        Map<RatingCriteria, Rater.Factory> raterFactoryMap = new EnumMap<>(RatingCriteria.class);
+        raterFactoryMap.put(RatingCriteria.IN_TIME, InTimeRater.Factory.builder()
+            .setIgnoredTicksOff(5)
+            .setMaxTicksOff(25)
+            .build());
+        raterFactoryMap.put(RatingCriteria.TRAVEL_DISTANCE, TravelDistanceRater.Factory.builder()
+            .setFactor(0.75)
+            .setVehicleManager(vehicleManager)
+            .build());
+        raterFactoryMap.put(RatingCriteria.AMOUNT_DELIVERED, AmountDeliveredRater.Factory.builder()
+            .setFactor(0.99)
+            .build());
+
+        FridayOrderGenerator.Factory orderGeneratorFactory = FridayOrderGenerator.Factory.builder()
+            .setOrderCount(orderCount)
+            .setDeliveryInterval(15)
+            .setStandardDeviation(0.5)
+            .setMaxWeight(0.5)
+            .setVehicleManager(vehicleManager)
+            .setLastTick(simulationLength / 2)
+            .setSeed(42)
+            .build();
+
+        return new ProblemArchetypeImpl(orderGeneratorFactory, vehicleManager, raterFactoryMap, simulationLength,
+            "benchmark");
+    }
+}
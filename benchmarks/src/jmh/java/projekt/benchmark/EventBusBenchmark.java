@@ -0,0 +1,55 @@
+package projekt.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import projekt.delivery.event.Event;
+import projekt.delivery.event.EventBus;
+import projekt.delivery.event.EventRetention;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures posting the {@link Event}s of a tick to an {@link EventBus} and popping them again.<p>
+ *
+ * The log of the bus only retains the last tick, otherwise it would grow by one tick per invocation and the
+ * measurement would include the growing heap.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EventBusBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int eventsPerTick;
+
+    private EventBus eventBus;
+    private Event[] events;
+    private List<Event> eventList;
+    private long tick;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        eventBus = new EventBus();
+        eventBus.setRetention(EventRetention.dropping(1));
+        events = new Event[eventsPerTick];
+        for (int i = 0; i < eventsPerTick; i++) {
+            events[i] = Event.of(i);
+        }
+        eventList = List.of(events);
+        tick = 0;
+    }
+
+    @Benchmark
+    public List<Event> queuePostSingle() {
+        for (Event event : events) {
+            eventBus.queuePost(event);
+        }
+        return eventBus.popEvents(tick++);
+    }
+
+    @Benchmark
+    public List<Event> queuePostCollection() {
+        eventBus.queuePost(eventList);
+        return eventBus.popEvents(tick++);
+    }
+}
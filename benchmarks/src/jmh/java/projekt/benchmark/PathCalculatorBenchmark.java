@@ -0,0 +1,68 @@
+package projekt.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import projekt.base.Location;
+import projekt.delivery.routing.CachedPathCalculator;
+import projekt.delivery.routing.DijkstraPathCalculator;
+import projekt.delivery.routing.Region;
+
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the {@link DijkstraPathCalculator} and the hit and miss paths of the {@link CachedPathCalculator}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PathCalculatorBenchmark {
+
+    @Param({"8", "32", "128"})
+    public int side;
+
+    private DijkstraPathCalculator dijkstra;
+    private CachedPathCalculator cached;
+    private CachedPathCalculator singleEntryCache;
+    private Region.Node start;
+    private Region.Node end;
+    private Region.Node otherEnd;
+    private boolean alternate;
+
+    @Setup
+    public void setup() {
+        Region region = BenchmarkProblems.grid(side);
+        start = region.getNode(new Location(0, 0));
+        end = region.getNode(new Location(side - 1, side - 1));
+        otherEnd = region.getNode(new Location(side - 1, 0));
+
+        dijkstra = new DijkstraPathCalculator();
+        cached = new CachedPathCalculator(new DijkstraPathCalculator());
+        cached.getPath(start, end);
+        singleEntryCache = new CachedPathCalculator(new DijkstraPathCalculator(), 1);
+    }
+
+    @Benchmark
+    public Deque<Region.Node> dijkstraGetPath() {
+        return dijkstra.getPath(start, end);
+    }
+
+    @Benchmark
+    public Map<Region.Node, Deque<Region.Node>> dijkstraGetAllPathsTo() {
+        return dijkstra.getAllPathsTo(end);
+    }
+
+    @Benchmark
+    public Deque<Region.Node> cachedHit() {
+        return cached.getPath(start, end);
+    }
+
+    /**
+     * Alternates between two destinations on a cache that holds a single entry, so every call misses.
+     */
+    @Benchmark
+    public Deque<Region.Node> cachedMiss() {
+        alternate = !alternate;
+        return singleEntryCache.getPath(start, alternate ? end : otherEnd);
+    }
+}
@@ -0,0 +1,43 @@
+package projekt.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import projekt.delivery.routing.Region;
+import projekt.io.RegionIO;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures parsing a serialized {@link Region} with {@link RegionIO#readRegion(BufferedReader)}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class RegionIOBenchmark {
+
+    @Param({"8", "32", "128"})
+    public int side;
+
+    private String serializedRegion;
+
+    @Setup
+    public void setup() {
+        StringWriter stringWriter = new StringWriter();
+        try (BufferedWriter writer = new BufferedWriter(stringWriter)) {
+            RegionIO.writeRegion(writer, BenchmarkProblems.grid(side));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        serializedRegion = stringWriter.toString();
+    }
+
+    @Benchmark
+    public Region readRegion() {
+        return RegionIO.readRegion(new BufferedReader(new StringReader(serializedRegion)));
+    }
+}
@@ -0,0 +1,56 @@
+package projekt.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import projekt.delivery.archetype.ProblemArchetype;
+import projekt.delivery.rating.RatingCriteria;
+import projekt.delivery.routing.CachedPathCalculator;
+import projekt.delivery.routing.DijkstraPathCalculator;
+import projekt.delivery.routing.VehicleManager;
+import projekt.delivery.service.DeliveryService;
+import projekt.delivery.simulation.BasicDeliverySimulation;
+import projekt.delivery.simulation.SimulationConfig;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the average duration of a full {@link BasicDeliverySimulation} tick, including order generation, dispatching,
+ * moving the vehicles and rating.<p>
+ *
+ * Every invocation simulates {@link #TICKS} unpaced ticks of a new run, since a run can only be set up by starting it.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SimulationTickBenchmark {
+
+    private static final int TICKS = 500;
+
+    @Param({"8", "32", "128"})
+    public int side;
+
+    @Param({"10", "100"})
+    public int fleetSize;
+
+    private ProblemArchetype problem;
+    private BasicDeliverySimulation simulation;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        VehicleManager vehicleManager = BenchmarkProblems.vehicleManager(BenchmarkProblems.grid(side),
+            new CachedPathCalculator(new DijkstraPathCalculator()), fleetSize);
+        problem = BenchmarkProblems.problem(vehicleManager, fleetSize * 20, TICKS);
+        simulation = new BasicDeliverySimulation(
+            new SimulationConfig(0),
+            problem.raterFactoryMap(),
+            DeliveryService.BASIC.create(vehicleManager),
+            problem.orderGeneratorFactory()
+        );
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TICKS)
+    public double tick() {
+        simulation.runSimulation(problem.simulationLength());
+        return simulation.getRatingForCriterion(RatingCriteria.AMOUNT_DELIVERED);
+    }
+}
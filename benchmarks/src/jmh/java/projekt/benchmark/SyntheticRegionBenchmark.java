@@ -0,0 +1,37 @@
+package projekt.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import projekt.delivery.archetype.SyntheticProblemGenerator;
+import projekt.delivery.routing.Region;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures building large {@link Region}s with a {@link SyntheticProblemGenerator}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SyntheticRegionBenchmark {
+
+    @Param({"GRID", "RANDOM_GEOMETRIC", "HUB_AND_SPOKE"})
+    public SyntheticProblemGenerator.Topology topology;
+
+    @Param({"1000", "10000", "100000"})
+    public int nodeCount;
+
+    private SyntheticProblemGenerator generator;
+
+    @Setup
+    public void setup() {
+        generator = SyntheticProblemGenerator.builder()
+            .setTopology(topology)
+            .setNodeCount(nodeCount)
+            .build();
+    }
+
+    @Benchmark
+    public Region generateRegion() {
+        return generator.generateRegion();
+    }
+}
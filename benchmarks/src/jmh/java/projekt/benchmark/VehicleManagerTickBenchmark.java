@@ -0,0 +1,64 @@
+package projekt.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import projekt.base.Location;
+import projekt.delivery.event.Event;
+import projekt.delivery.routing.CachedPathCalculator;
+import projekt.delivery.routing.DijkstraPathCalculator;
+import projekt.delivery.routing.Region;
+import projekt.delivery.routing.Vehicle;
+import projekt.delivery.routing.VehicleManager;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a single {@link VehicleManager#tick(long)} with a fleet that keeps moving between two corners of the region.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class VehicleManagerTickBenchmark {
+
+    @Param({"8", "32", "128"})
+    public int side;
+
+    @Param({"1", "10", "100"})
+    public int fleetSize;
+
+    private VehicleManager vehicleManager;
+    private Region.Node home;
+    private Region.Node corner;
+    private long tick;
+
+    @Setup(Level.Trial)
+    public void setupTrial() {
+        Region region = BenchmarkProblems.grid(side);
+        vehicleManager = BenchmarkProblems.vehicleManager(region,
+            new CachedPathCalculator(new DijkstraPathCalculator()), fleetSize);
+        home = region.getNode(new Location(0, 0));
+        corner = region.getNode(new Location(side - 1, side - 1));
+    }
+
+    @Setup(Level.Iteration)
+    public void setupIteration() {
+        vehicleManager.reset();
+        tick = 0;
+        for (Vehicle vehicle : vehicleManager.getAllVehicles()) {
+            shuttle(vehicle, corner);
+        }
+    }
+
+    /**
+     * Moves the given {@link Vehicle} to the given node and back again as soon as it arrives.
+     */
+    private void shuttle(Vehicle vehicle, Region.Node destination) {
+        Region.Node next = destination == corner ? home : corner;
+        vehicle.moveQueued(destination, (arrived, arrivalTick) -> shuttle(arrived, next));
+    }
+
+    @Benchmark
+    public List<Event> tick() {
+        return vehicleManager.tick(tick++);
+    }
+}
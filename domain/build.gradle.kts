@@ -1,3 +1,7 @@
+plugins {
+    `java-test-fixtures`
+}
+
 dependencies {
     implementation(libs.annotations)
     implementation(libs.algoutils.student)
@@ -30,7 +30,10 @@ public final class Location implements Comparable<Location> {
     public Location(int x, int y) {
         this.x = x;
         this.y = y;
-        hashcode = (x << 16) | (0xFFFF & y);
+        // both steps are bijective, so the hash codes of 16 bit coordinates stay unique, but all bits depend on
+        // both coordinates and hash maps of large regions do not degenerate
+        int mixed = ((x << 16) | (0xFFFF & y)) * 0x9E3779B9;
+        hashcode = mixed ^ (mixed >>> 15);
     }
 
     /**
@@ -87,9 +90,9 @@ public final class Location implements Comparable<Location> {
     }
 
     /**
-     * Returns a hash code value for this Location based on its x and y coordinates. The hash code is calculated
-     * using the formula (31 * xHash + 23 * yHash), where xHash is the hash code for the x-coordinate and yHash
-     * is the hash code for the y-coordinate.
+     * Returns a hash code value for this Location based on its x and y coordinates. The hash code is computed once
+     * in the constructor by packing the lower 16 bits of both coordinates into one int, multiplying it with the
+     * golden ratio constant {@code 0x9E3779B9} and xor-ing the upper bits into the lower ones.
      *
      * @return the hash code value for this Location
      */
@@ -34,6 +34,20 @@ public interface ProblemArchetype {
      */
     VehicleManager vehicleManager();
 
+    /**
+     * Returns a {@link VehicleManager.Factory} that creates independent copies of {@link #vehicleManager()} in their
+     * start state.<p>
+     *
+     * The copies share the read-only {@link projekt.delivery.routing.Region} and
+     * {@link projekt.delivery.routing.PathCalculator} of {@link #vehicleManager()}, so multiple runs of this problem
+     * can be simulated concurrently without copying the region.
+     *
+     * @return A {@link VehicleManager.Factory} for independent runs of this problem.
+     */
+    default VehicleManager.Factory vehicleManagerFactory() {
+        return vehicleManager().toFactory();
+    }
+
     /**
      * Returns the used {@link Map} for evaluating the simulation.
      * @return The used {@link Map} for evaluating the simulation.
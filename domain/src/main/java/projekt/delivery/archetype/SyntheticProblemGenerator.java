@@ -0,0 +1,565 @@
+package projekt.delivery.archetype;
+
+import projekt.base.EuclideanDistanceCalculator;
+import projekt.base.Location;
+import projekt.delivery.generator.FridayOrderGenerator;
+import projekt.delivery.rating.AmountDeliveredRater;
+import projekt.delivery.rating.InTimeRater;
+import projekt.delivery.rating.Rater;
+import projekt.delivery.rating.RatingCriteria;
+import projekt.delivery.rating.TravelDistanceRater;
+import projekt.delivery.routing.CachedPathCalculator;
+import projekt.delivery.routing.DijkstraPathCalculator;
+import projekt.delivery.routing.Region;
+import projekt.delivery.routing.VehicleManager;
+
+import java.util.*;
+
+/**
+ * Generates seeded synthetic {@link ProblemArchetype}s with large {@link Region}s, e.g. to measure how the simulation
+ * scales with the size of the {@link Region}.<p>
+ *
+ * The same configuration always generates the same {@link Region}. Every generated {@link Region} is connected.
+ */
+public class SyntheticProblemGenerator {
+
+    private static final List<Region.Restaurant.Preset> PRESETS = List.of(
+        Region.Restaurant.LOS_FOPBOTS_HERMANOS,
+        Region.Restaurant.JAVA_HUT,
+        Region.Restaurant.PASTAFAR,
+        Region.Restaurant.PALPAPIZZA,
+        Region.Restaurant.ISENJAR,
+        Region.Restaurant.MIDDLE_FOP,
+        Region.Restaurant.MOUNT_DOOM_PIZZA
+    );
+
+    /**
+     * The number of nearest neighbors every node of a {@link Topology#RANDOM_GEOMETRIC} region is connected to.
+     */
+    private static final int NEAREST_NEIGHBORS = 3;
+
+    /**
+     * The side length of the cells used to find the nearest neighbors.
+     */
+    private static final int CELL_SIZE = 4;
+
+    /**
+     * The layout of the road network of a generated {@link Region}.
+     */
+    public enum Topology {
+
+        /**
+         * The nodes form a square grid and every node is connected to its horizontal and vertical neighbors.
+         */
+        GRID,
+
+        /**
+         * The nodes are placed randomly and every node is connected to its nearest neighbors.
+         */
+        RANDOM_GEOMETRIC,
+
+        /**
+         * A few hubs are connected by long roads and the other nodes form chains that start at a hub.
+         */
+        HUB_AND_SPOKE
+    }
+
+    public final Topology topology;
+    public final int nodeCount;
+    public final double restaurantRatio;
+    public final double neighborhoodRatio;
+    public final int vehiclesPerRestaurant;
+    public final double vehicleCapacity;
+    public final double ordersPerNeighborhood;
+    public final int deliveryInterval;
+    public final int simulationLength;
+    public final long seed;
+
+    private SyntheticProblemGenerator(Builder builder) {
+        topology = builder.topology;
+        nodeCount = builder.nodeCount;
+        restaurantRatio = builder.restaurantRatio;
+        neighborhoodRatio = builder.neighborhoodRatio;
+        vehiclesPerRestaurant = builder.vehiclesPerRestaurant;
+        vehicleCapacity = builder.vehicleCapacity;
+        ordersPerNeighborhood = builder.ordersPerNeighborhood;
+        deliveryInterval = builder.deliveryInterval;
+        simulationLength = builder.simulationLength;
+        seed = builder.seed;
+    }
+
+    /**
+     * Returns a new {@link SyntheticProblemGenerator.Builder}.
+     * @return A new {@link SyntheticProblemGenerator.Builder}.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Generates the {@link Region} described by this configuration.
+     * @return The generated {@link Region}.
+     */
+    public Region generateRegion() {
+        Random random = new Random(seed);
+        Layout layout = switch (topology) {
+            case GRID -> grid();
+            case RANDOM_GEOMETRIC -> randomGeometric(random);
+            case HUB_AND_SPOKE -> hubAndSpoke(random);
+        };
+
+        Region.Builder builder = Region.builder().distanceCalculator(new EuclideanDistanceCalculator());
+        char[] types = assignTypes(random);
+        int restaurants = 0;
+        for (int i = 0; i < nodeCount; i++) {
+            Location location = new Location(layout.xs[i], layout.ys[i]);
+            switch (types[i]) {
+                case 'R' -> {
+                    Region.Restaurant.Preset preset = PRESETS.get(restaurants++ % PRESETS.size());
+                    builder.addRestaurant("R %d %s".formatted(i, preset.name()), location, preset.availableFoods());
+                }
+                case 'H' -> builder.addNeighborhood("H %d".formatted(i), location);
+                default -> builder.addNode("N %d".formatted(i), location);
+            }
+        }
+        for (int i = 0; i < layout.edgeCount; i++) {
+            int a = layout.edgesA[i];
+            int b = layout.edgesB[i];
+            builder.addEdge("E %d".formatted(i), new Location(layout.xs[a], layout.ys[a]),
+                new Location(layout.xs[b], layout.ys[b]));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Creates a {@link VehicleManager} with {@link #vehiclesPerRestaurant} vehicles at every {@link Region.Restaurant}
+     * of the given {@link Region}. The paths are calculated by a {@link CachedPathCalculator}.
+     * @param region The {@link Region} of the {@link VehicleManager}.
+     * @return The created {@link VehicleManager}.
+     */
+    public VehicleManager createVehicleManager(Region region) {
+        VehicleManager.Builder builder = VehicleManager.builder()
+            .region(region)
+            .pathCalculator(new CachedPathCalculator(new DijkstraPathCalculator()));
+        region.getNodes().stream()
+            .filter(Region.Restaurant.class::isInstance)
+            .map(Region.Node::getLocation)
+            .sorted()
+            .forEach(location -> {
+                for (int i = 0; i < vehiclesPerRestaurant; i++) {
+                    builder.addVehicle(location, vehicleCapacity);
+                }
+            });
+        return builder.build();
+    }
+
+    /**
+     * Creates a seeded {@link FridayOrderGenerator.Factory} that generates {@link #ordersPerNeighborhood} orders per
+     * {@link Region.Neighborhood} during the first half of the simulation.
+     * @param vehicleManager The {@link VehicleManager} the orders are generated for.
+     * @return The created {@link FridayOrderGenerator.Factory}.
+     */
+    public FridayOrderGenerator.Factory createOrderGeneratorFactory(VehicleManager vehicleManager) {
+        long neighborhoods = vehicleManager.getRegion().getNodes().stream()
+            .filter(Region.Neighborhood.class::isInstance)
+            .count();
+        return FridayOrderGenerator.Factory.builder()
+            .setOrderCount((int) Math.max(1, Math.round(neighborhoods * ordersPerNeighborhood)))
+            .setDeliveryInterval(deliveryInterval)
+            .setStandardDeviation(0.5)
+            .setMaxWeight(Math.min(0.5, vehicleCapacity))
+            .setVehicleManager(vehicleManager)
+            .setLastTick(simulationLength / 2)
+            .setSeed((int) (seed & Integer.MAX_VALUE))
+            .build();
+    }
+
+    /**
+     * Generates the {@link ProblemArchetype} described by this configuration, rated like the problem presets.
+     * @return The generated {@link ProblemArchetype}.
+     */
+    public ProblemArchetype generate() {
+        VehicleManager vehicleManager = createVehicleManager(generateRegion());
+
+        Map<RatingCriteria, Rater.Factory> raterFactoryMap = new EnumMap<>(RatingCriteria.class);
+        raterFactoryMap.put(RatingCriteria.IN_TIME, InTimeRater.Factory.builder()
+            .setIgnoredTicksOff(5)
+            .setMaxTicksOff(25)
+            .build());
+        raterFactoryMap.put(RatingCriteria.TRAVEL_DISTANCE, TravelDistanceRater.Factory.builder()
+            .setFactor(0.75)
+            .setVehicleManager(vehicleManager)
+            .build());
+        raterFactoryMap.put(RatingCriteria.AMOUNT_DELIVERED, AmountDeliveredRater.Factory.builder()
+            .setFactor(0.99)
+            .build());
+
+        return new ProblemArchetypeImpl(createOrderGeneratorFactory(vehicleManager), vehicleManager, raterFactoryMap,
+            simulationLength, "%s-%d-%d".formatted(topology.name().toLowerCase(Locale.ROOT), nodeCount, seed));
+    }
+
+    /**
+     * Decides for every node whether it is a restaurant ('R'), a neighborhood ('H') or a plain node ('N').
+     * There is always at least one restaurant and one neighborhood.
+     */
+    private char[] assignTypes(Random random) {
+        char[] types = new char[nodeCount];
+        int restaurants = 0;
+        for (int i = 0; i < nodeCount; i++) {
+            double value = random.nextDouble();
+            if (value < restaurantRatio) {
+                types[i] = 'R';
+                restaurants++;
+            } else if (value < restaurantRatio + neighborhoodRatio) {
+                types[i] = 'H';
+            } else {
+                types[i] = 'N';
+            }
+        }
+        if (restaurants == 0) {
+            types[0] = 'R';
+            restaurants++;
+        }
+        boolean neighborhood = false;
+        for (char type : types) {
+            neighborhood |= type == 'H';
+        }
+        if (!neighborhood) {
+            // the last node that is not the only restaurant
+            int index = nodeCount - 1;
+            while (types[index] == 'R' && restaurants == 1) {
+                index--;
+            }
+            types[index] = 'H';
+        }
+        return types;
+    }
+
+    private Layout grid() {
+        int side = (int) Math.ceil(Math.sqrt(nodeCount));
+        Layout layout = new Layout(nodeCount);
+        for (int i = 0; i < nodeCount; i++) {
+            layout.xs[i] = i % side;
+            layout.ys[i] = i / side;
+            if (i % side != 0) {
+                layout.addEdge(i - 1, i);
+            }
+            if (i >= side) {
+                layout.addEdge(i - side, i);
+            }
+        }
+        return layout;
+    }
+
+    private Layout randomGeometric(Random random) {
+        // about every second point of the area is occupied
+        int side = (int) Math.ceil(Math.sqrt(2.0 * nodeCount));
+        Layout layout = new Layout(nodeCount);
+        Set<Long> occupied = new HashSet<>();
+        for (int i = 0; i < nodeCount; ) {
+            int x = random.nextInt(side);
+            int y = random.nextInt(side);
+            if (occupied.add((long) x * side + y)) {
+                layout.xs[i] = x;
+                layout.ys[i] = y;
+                i++;
+            }
+        }
+
+        // sort the points into cells, so that the nearest neighbors are searched in the surrounding cells only
+        int cells = side / CELL_SIZE + 1;
+        int[] cellStart = new int[cells * cells + 1];
+        for (int i = 0; i < nodeCount; i++) {
+            cellStart[cellOf(layout, i, cells) + 1]++;
+        }
+        for (int c = 0; c < cells * cells; c++) {
+            cellStart[c + 1] += cellStart[c];
+        }
+        int[] cellItems = new int[nodeCount];
+        int[] fill = Arrays.copyOf(cellStart, cells * cells);
+        for (int i = 0; i < nodeCount; i++) {
+            cellItems[fill[cellOf(layout, i, cells)]++] = i;
+        }
+
+        Set<Long> edges = new HashSet<>();
+        UnionFind components = new UnionFind(nodeCount);
+        int[] nearest = new int[NEAREST_NEIGHBORS];
+        long[] nearestDistances = new long[NEAREST_NEIGHBORS];
+        for (int i = 0; i < nodeCount; i++) {
+            int found = findNearest(layout, i, cells, cellStart, cellItems, nearest, nearestDistances);
+            for (int k = 0; k < found; k++) {
+                int a = Math.min(i, nearest[k]);
+                int b = Math.max(i, nearest[k]);
+                if (edges.add((long) a * nodeCount + b)) {
+                    layout.addEdge(a, b);
+                    components.union(a, b);
+                }
+            }
+        }
+
+        // connect the remaining components, ordered from left to right to keep the additional roads short
+        List<Integer> representatives = new ArrayList<>();
+        for (int i = 0; i < nodeCount; i++) {
+            if (components.find(i) == i) {
+                representatives.add(i);
+            }
+        }
+        representatives.sort(Comparator.<Integer>comparingInt(i -> layout.xs[i]).thenComparingInt(i -> layout.ys[i]));
+        for (int r = 1; r < representatives.size(); r++) {
+            layout.addEdge(representatives.get(r - 1), representatives.get(r));
+        }
+        return layout;
+    }
+
+    private static int cellOf(Layout layout, int node, int cells) {
+        return (layout.xs[node] / CELL_SIZE) * cells + layout.ys[node] / CELL_SIZE;
+    }
+
+    /**
+     * Finds the nearest neighbors of the given node by searching rings of cells of increasing distance.
+     * @return The number of neighbors found.
+     */
+    private static int findNearest(Layout layout, int node, int cells, int[] cellStart, int[] cellItems,
+                                   int[] nearest, long[] nearestDistances) {
+        int cellX = layout.xs[node] / CELL_SIZE;
+        int cellY = layout.ys[node] / CELL_SIZE;
+        int found = 0;
+        for (int ring = 0; ring <= cells; ring++) {
+            for (int cx = cellX - ring; cx <= cellX + ring; cx++) {
+                for (int cy = cellY - ring; cy <= cellY + ring; cy++) {
+                    boolean onRing = Math.abs(cx - cellX) == ring || Math.abs(cy - cellY) == ring;
+                    if (!onRing || cx < 0 || cy < 0 || cx >= cells || cy >= cells) {
+                        continue;
+                    }
+                    int cell = cx * cells + cy;
+                    for (int j = cellStart[cell]; j < cellStart[cell + 1]; j++) {
+                        int other = cellItems[j];
+                        if (other == node) {
+                            continue;
+                        }
+                        long dx = layout.xs[other] - layout.xs[node];
+                        long dy = layout.ys[other] - layout.ys[node];
+                        long distance = dx * dx + dy * dy;
+                        // insertion into the sorted list of the nearest neighbors
+                        int k = found < nearest.length ? found++ : nearest.length;
+                        while (k > 0 && nearestDistances[k - 1] > distance) {
+                            if (k < nearest.length) {
+                                nearest[k] = nearest[k - 1];
+                                nearestDistances[k] = nearestDistances[k - 1];
+                            }
+                            k--;
+                        }
+                        if (k < nearest.length) {
+                            nearest[k] = other;
+                            nearestDistances[k] = distance;
+                        }
+                    }
+                }
+            }
+            // all points outside the searched rings are at least ring * CELL_SIZE away
+            long bound = (long) ring * CELL_SIZE;
+            if (found == nearest.length && nearestDistances[found - 1] <= bound * bound) {
+                break;
+            }
+        }
+        return found;
+    }
+
+    private Layout hubAndSpoke(Random random) {
+        int[][] directions = {{1, 0}, {1, 1}, {0, 1}, {-1, 1}, {-1, 0}, {-1, -1}, {0, -1}, {1, -1}};
+        int hubs = Math.max(1, Math.min(nodeCount, (int) Math.round(Math.sqrt(nodeCount) / 4)));
+        int spokeLength = (int) Math.ceil((double) (nodeCount - hubs) / (hubs * directions.length));
+        // the spokes of neighboring hubs must not overlap
+        int spacing = 2 * spokeLength + 2;
+        int hubSide = (int) Math.ceil(Math.sqrt(hubs));
+
+        Layout layout = new Layout(nodeCount);
+        for (int h = 0; h < hubs; h++) {
+            layout.xs[h] = (h % hubSide) * spacing;
+            layout.ys[h] = (h / hubSide) * spacing;
+            if (h % hubSide != 0) {
+                layout.addEdge(h - 1, h);
+            }
+            if (h >= hubSide) {
+                layout.addEdge(h - hubSide, h);
+            }
+        }
+
+        int[][] order = new int[hubs][];
+        for (int h = 0; h < hubs; h++) {
+            List<Integer> shuffled = new ArrayList<>(List.of(0, 1, 2, 3, 4, 5, 6, 7));
+            Collections.shuffle(shuffled, random);
+            order[h] = shuffled.stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        // the chains grow evenly, so that all spokes have about the same length
+        int[][] tips = new int[hubs][directions.length];
+        for (int h = 0; h < hubs; h++) {
+            Arrays.fill(tips[h], h);
+        }
+        int next = hubs;
+        for (int step = 1; next < nodeCount; step++) {
+            for (int h = 0; h < hubs && next < nodeCount; h++) {
+                for (int d = 0; d < directions.length && next < nodeCount; d++) {
+                    int direction = order[h][d];
+                    layout.xs[next] = layout.xs[h] + step * directions[direction][0];
+                    layout.ys[next] = layout.ys[h] + step * directions[direction][1];
+                    layout.addEdge(tips[h][direction], next);
+                    tips[h][direction] = next++;
+                }
+            }
+        }
+        return layout;
+    }
+
+    /**
+     * The positions of the nodes and the edges between them, identified by the indices of the nodes.
+     */
+    private static final class Layout {
+
+        final int[] xs;
+        final int[] ys;
+        int[] edgesA;
+        int[] edgesB;
+        int edgeCount;
+
+        Layout(int nodeCount) {
+            xs = new int[nodeCount];
+            ys = new int[nodeCount];
+            edgesA = new int[nodeCount * 2];
+            edgesB = new int[nodeCount * 2];
+        }
+
+        void addEdge(int a, int b) {
+            if (edgeCount == edgesA.length) {
+                edgesA = Arrays.copyOf(edgesA, edgeCount * 2);
+                edgesB = Arrays.copyOf(edgesB, edgeCount * 2);
+            }
+            edgesA[edgeCount] = a;
+            edgesB[edgeCount] = b;
+            edgeCount++;
+        }
+    }
+
+    private static final class UnionFind {
+
+        private final int[] parents;
+
+        UnionFind(int size) {
+            parents = new int[size];
+            for (int i = 0; i < size; i++) {
+                parents[i] = i;
+            }
+        }
+
+        int find(int element) {
+            while (parents[element] != element) {
+                parents[element] = parents[parents[element]];
+                element = parents[element];
+            }
+            return element;
+        }
+
+        void union(int a, int b) {
+            parents[find(a)] = find(b);
+        }
+    }
+
+    /**
+     * A {@link Builder} for constructing a new {@link SyntheticProblemGenerator}.
+     */
+    public static class Builder {
+
+        public Topology topology = Topology.GRID;
+        public int nodeCount = 1000;
+        public double restaurantRatio = 0.01;
+        public double neighborhoodRatio = 0.3;
+        public int vehiclesPerRestaurant = 5;
+        public double vehicleCapacity = 2;
+        public double ordersPerNeighborhood = 1;
+        public int deliveryInterval = 15;
+        public int simulationLength = 1000;
+        public long seed = 0;
+
+        private Builder() {
+        }
+
+        public Builder setTopology(Topology topology) {
+            this.topology = topology;
+            return this;
+        }
+
+        public Builder setNodeCount(int nodeCount) {
+            this.nodeCount = nodeCount;
+            return this;
+        }
+
+        public Builder setRestaurantRatio(double restaurantRatio) {
+            this.restaurantRatio = restaurantRatio;
+            return this;
+        }
+
+        public Builder setNeighborhoodRatio(double neighborhoodRatio) {
+            this.neighborhoodRatio = neighborhoodRatio;
+            return this;
+        }
+
+        public Builder setVehiclesPerRestaurant(int vehiclesPerRestaurant) {
+            this.vehiclesPerRestaurant = vehiclesPerRestaurant;
+            return this;
+        }
+
+        public Builder setVehicleCapacity(double vehicleCapacity) {
+            this.vehicleCapacity = vehicleCapacity;
+            return this;
+        }
+
+        public Builder setOrdersPerNeighborhood(double ordersPerNeighborhood) {
+            this.ordersPerNeighborhood = ordersPerNeighborhood;
+            return this;
+        }
+
+        public Builder setDeliveryInterval(int deliveryInterval) {
+            this.deliveryInterval = deliveryInterval;
+            return this;
+        }
+
+        public Builder setSimulationLength(int simulationLength) {
+            this.simulationLength = simulationLength;
+            return this;
+        }
+
+        public Builder setSeed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        /**
+         * Constructs the {@link SyntheticProblemGenerator}.
+         * @return The constructed {@link SyntheticProblemGenerator}.
+         * @throws IllegalArgumentException If the configuration is invalid.
+         */
+        public SyntheticProblemGenerator build() {
+            Objects.requireNonNull(topology, "topology");
+            if (nodeCount < 2) {
+                throw new IllegalArgumentException("nodeCount must be at least 2");
+            }
+            if (restaurantRatio < 0 || neighborhoodRatio < 0 || restaurantRatio + neighborhoodRatio > 1) {
+                throw new IllegalArgumentException("the ratios must not be negative and their sum must not exceed 1");
+            }
+            if (vehiclesPerRestaurant < 0) {
+                throw new IllegalArgumentException("vehiclesPerRestaurant must not be negative");
+            }
+            if (vehicleCapacity <= 0) {
+                throw new IllegalArgumentException("vehicleCapacity must be positive");
+            }
+            if (ordersPerNeighborhood < 0) {
+                throw new IllegalArgumentException("ordersPerNeighborhood must not be negative");
+            }
+            if (deliveryInterval <= 0 || simulationLength <= 0) {
+                throw new IllegalArgumentException("deliveryInterval and simulationLength must be positive");
+            }
+            return new SyntheticProblemGenerator(this);
+        }
+    }
+}
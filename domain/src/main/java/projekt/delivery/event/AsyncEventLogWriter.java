@@ -0,0 +1,222 @@
+package projekt.delivery.event;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An {@link EventSink} that writes the {@link Event}s of every tick to a {@link Writer} on a separate daemon thread.<p>
+ *
+ * The simulating thread filters the {@link Event}s by their {@link Level}, formats them and enqueues the text, but it
+ * never waits for the {@link Writer}. The {@link Event}s have to be formatted by the simulating thread, because many of
+ * them refer to mutable objects, e.g. vehicles, that are changed by the following ticks. If the writer thread falls
+ * behind by more than the capacity of the queue, the {@link Event}s of the following ticks are dropped without being
+ * formatted and the number of dropped ticks is written instead. The writer thread writes all queued ticks as one batch
+ * and flushes the {@link Writer} once per batch.<p>
+ *
+ * If the {@link Writer} fails, all following ticks are ignored and the failure is thrown by {@link #close()}.
+ */
+public class AsyncEventLogWriter implements EventSink, AutoCloseable {
+
+    /**
+     * The default number of ticks that can be queued before ticks are dropped.
+     */
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    private static final Batch END = new Batch(-1, "");
+
+    private final Writer writer;
+    private final Level level;
+    private final BlockingQueue<Batch> queue;
+    private final AtomicLong droppedTicks = new AtomicLong();
+    private final Thread thread;
+    private volatile boolean closed = false;
+    private boolean closeRequested = false;
+    private volatile Exception failure;
+
+    /**
+     * The verbosity of an {@link AsyncEventLogWriter}. Every level includes the {@link Event}s of the lower levels.
+     */
+    public enum Level {
+
+        /**
+         * No {@link Event}s are written.
+         */
+        OFF,
+
+        /**
+         * {@link OrderReceivedEvent}s, {@link LoadOrderEvent}s and {@link DeliverOrderEvent}s are written.
+         */
+        INFO,
+
+        /**
+         * {@link SpawnEvent}s, {@link ArrivedAtRestaurantEvent}s and {@link ArrivedAtNeighborhoodEvent}s are written
+         * as well.
+         */
+        DEBUG,
+
+        /**
+         * All {@link Event}s are written, including the ticks without any {@link Event}.
+         */
+        TRACE;
+
+        /**
+         * Returns the lowest {@link Level} that includes the given {@link Event}.
+         * @param event The {@link Event} to return the {@link Level} of.
+         * @return The lowest {@link Level} that includes the given {@link Event}.
+         */
+        public static Level of(Event event) {
+            if (event instanceof OrderReceivedEvent || event instanceof LoadOrderEvent
+                || event instanceof DeliverOrderEvent) {
+                return INFO;
+            }
+            if (event instanceof SpawnEvent || event instanceof ArrivedAtRestaurantEvent
+                || event instanceof ArrivedAtNeighborhoodEvent) {
+                return DEBUG;
+            }
+            return TRACE;
+        }
+    }
+
+    /**
+     * Creates a new {@link AsyncEventLogWriter} with a capacity of {@link #DEFAULT_CAPACITY} ticks and starts its
+     * writer thread.
+     * @param writer The {@link Writer} to write to. It is flushed, but not closed by this writer.
+     * @param level The {@link Level} of the written {@link Event}s.
+     */
+    public AsyncEventLogWriter(Writer writer, Level level) {
+        this(writer, level, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a new {@link AsyncEventLogWriter} and starts its writer thread.
+     * @param writer The {@link Writer} to write to. It is flushed, but not closed by this writer.
+     * @param level The {@link Level} of the written {@link Event}s.
+     * @param capacity The number of ticks that can be queued before ticks are dropped.
+     * @throws IllegalArgumentException If the capacity is not positive.
+     */
+    public AsyncEventLogWriter(Writer writer, Level level, int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.writer = Objects.requireNonNull(writer, "writer");
+        this.level = Objects.requireNonNull(level, "level");
+        // one additional slot, so that END can always be enqueued
+        queue = new ArrayBlockingQueue<>(capacity + 1);
+        thread = new Thread(this::write, "event-log-writer");
+        thread.setDaemon(true);
+        if (level != Level.OFF) {
+            thread.start();
+        }
+    }
+
+    @Override
+    public void accept(long tick, List<Event> events) {
+        if (closed || level == Level.OFF) {
+            return;
+        }
+        List<Event> included = events;
+        if (level != Level.TRACE) {
+            included = new ArrayList<>();
+            for (Event event : events) {
+                if (Level.of(event).compareTo(level) <= 0) {
+                    included.add(event);
+                }
+            }
+            if (included.isEmpty()) {
+                return;
+            }
+        }
+        // formatted now, the events show the state of their objects in this tick
+        if (queue.remainingCapacity() <= 1 || !queue.offer(new Batch(tick, included.toString()))) {
+            droppedTicks.incrementAndGet();
+        }
+    }
+
+    /**
+     * Returns the number of ticks whose {@link Event}s have been dropped because the queue was full.
+     * @return The number of dropped ticks.
+     */
+    public long getDroppedTicks() {
+        return droppedTicks.get();
+    }
+
+    /**
+     * Returns true, if this writer has been closed or its {@link Writer} failed.
+     * @return True, if following ticks are ignored.
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Writes all queued ticks, stops the writer thread and waits for it to terminate. Ticks accepted afterwards are
+     * ignored.
+     * @throws UncheckedIOException If the {@link Writer} failed.
+     * @throws IllegalStateException If the {@link Writer} failed with another exception.
+     */
+    @Override
+    public void close() {
+        if (closeRequested) {
+            return;
+        }
+        closeRequested = true;
+        closed = true;
+        if (!queue.offer(END)) {
+            // several simulations have filled the reserved slot concurrently, the queued ticks are given up
+            thread.interrupt();
+        }
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (failure instanceof IOException ioException) {
+            throw new UncheckedIOException("Writing the event log failed", ioException);
+        }
+        if (failure != null) {
+            throw new IllegalStateException("Writing the event log failed", failure);
+        }
+    }
+
+    private void write() {
+        List<Batch> batches = new ArrayList<>();
+        long reportedDroppedTicks = 0;
+        try {
+            while (true) {
+                batches.add(queue.take());
+                queue.drainTo(batches);
+
+                long droppedTicks = this.droppedTicks.get();
+                if (droppedTicks != reportedDroppedTicks) {
+                    writer.write("Dropped the events of %d ticks%n".formatted(droppedTicks - reportedDroppedTicks));
+                    reportedDroppedTicks = droppedTicks;
+                }
+                for (Batch batch : batches) {
+                    if (batch == END) {
+                        writer.flush();
+                        return;
+                    }
+                    writer.write("Tick: %s - %s%n".formatted(batch.tick(), batch.events()));
+                }
+                writer.flush();
+                batches.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException | RuntimeException e) {
+            // the simulations must not be affected, so the failure is only reported when this writer is closed
+            failure = e;
+            closed = true;
+            queue.clear();
+        }
+    }
+
+    private record Batch(long tick, String events) {}
+}
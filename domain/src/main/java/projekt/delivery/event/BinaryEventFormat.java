@@ -0,0 +1,106 @@
+package projekt.delivery.event;
+
+import java.io.*;
+
+/**
+ * The constants and variable-length integer encoding of the format written by {@link BinaryEventWriter}.<p>
+ *
+ * A log starts with the {@link #MAGIC} number, the {@link #VERSION}, the number of nodes and edges and the fingerprint
+ * of the {@link EventDictionary}, the flags of the log, e.g. {@link #DEFLATE}, and the number of ticks per segment.
+ * It is followed by segments of consecutive ticks. Every segment starts with its first tick, its number of ticks, the
+ * length of its frames and the number of bytes stored, followed by the frames, compressed with a
+ * {@link java.util.zip.Deflater} if the log is deflated. Segments can be decoded independently, so a reader can skip
+ * to the segment containing a tick by reading only the headers of the segments before it.<p>
+ *
+ * A frame consists of the difference to the previous tick, the number of {@link Event}s and the {@link Event}s. Every
+ * {@link Event} starts with its type and the difference of its tick to the tick of the frame. Vehicle IDs are written
+ * as the difference to the previous written vehicle ID of the segment. References to nodes and edges are written as
+ * their ID plus one, so zero encodes {@code null}. Every arrival at a node or an edge that already occurred in the
+ * segment with the same vehicle, component and previous component is written as a {@link #TRANSITION} referring to
+ * the index of the first occurrence among the distinct arrivals of the segment. Orders and food names are written in
+ * full when they occur in a segment for the first time and as their ID afterwards.<p>
+ *
+ * Integers are written as unsigned LEB128 varints, signed integers are zigzag encoded first.
+ */
+final class BinaryEventFormat {
+
+    static final int MAGIC = 0x464F5045;
+    static final byte VERSION = 2;
+
+    static final byte DEFLATE = 1;
+
+    static final byte EVENT = 0;
+    static final byte ORDER_RECEIVED = 1;
+    static final byte SPAWN = 2;
+    static final byte ARRIVED_AT_RESTAURANT = 3;
+    static final byte ARRIVED_AT_NEIGHBORHOOD = 4;
+    static final byte ARRIVED_AT_NODE = 5;
+    static final byte ARRIVED_AT_EDGE = 6;
+    static final byte LOAD_ORDER = 7;
+    static final byte DELIVER_ORDER = 8;
+    static final byte TRANSITION = 9;
+
+    private BinaryEventFormat() {
+    }
+
+    /**
+     * An arrival of a vehicle at a component, identified by the encoded IDs written for it.
+     *
+     * @param type The type of the arrival.
+     * @param vehicle The ID of the vehicle.
+     * @param component The encoded ID of the node or edge.
+     * @param previous The encoded ID of the previous edge or node.
+     */
+    record Transition(byte type, int vehicle, int component, int previous) {}
+
+    static void writeVarLong(DataOutput output, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            output.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        output.writeByte((int) value);
+    }
+
+    static void writeVarInt(DataOutput output, int value) throws IOException {
+        writeVarLong(output, value & 0xFFFFFFFFL);
+    }
+
+    static void writeSignedVarLong(DataOutput output, long value) throws IOException {
+        writeVarLong(output, (value << 1) ^ (value >> 63));
+    }
+
+    static long readVarLong(DataInput input) throws IOException {
+        return readVarLong(input, input.readUnsignedByte());
+    }
+
+    /**
+     * Reads a varint whose first byte has already been read, e.g. to detect the end of the input.
+     */
+    static long readVarLong(DataInput input, int first) throws IOException {
+        long value = first & 0x7F;
+        for (int shift = 7; (first & 0x80) != 0; shift += 7) {
+            if (shift >= 64) {
+                throw new StreamCorruptedException("Malformed varint");
+            }
+            first = input.readUnsignedByte();
+            value |= (long) (first & 0x7F) << shift;
+        }
+        return value;
+    }
+
+    static int readVarInt(DataInput input) throws IOException {
+        long value = readVarLong(input);
+        if (value >>> 32 != 0) {
+            throw new StreamCorruptedException("Malformed varint");
+        }
+        return (int) value;
+    }
+
+    static long readSignedVarLong(DataInput input) throws IOException {
+        return decodeSigned(readVarLong(input));
+    }
+
+    static long decodeSigned(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
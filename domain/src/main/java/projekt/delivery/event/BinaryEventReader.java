@@ -0,0 +1,400 @@
+package projekt.delivery.event;
+
+import org.jetbrains.annotations.Nullable;
+import projekt.base.Location;
+import projekt.base.TickInterval;
+import projekt.delivery.routing.ConfirmedOrder;
+import projekt.delivery.routing.Region;
+import projekt.delivery.routing.Vehicle;
+import projekt.delivery.simulation.SimulationListener;
+
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import static projekt.delivery.event.BinaryEventFormat.*;
+
+/**
+ * Reads a log written by a {@link BinaryEventWriter} and replays its ticks to {@link SimulationListener}s without
+ * simulating them again.<p>
+ *
+ * The {@link Event}s refer to the {@link Region.Node}s, {@link Region.Edge}s and {@link Vehicle}s of the given
+ * {@link EventDictionary}, which has to describe the same {@link Region} as the dictionary the log was written with.
+ * The recorded {@link ConfirmedOrder}s are recreated with their original IDs and their actual delivery tick is set when
+ * their {@link DeliverOrderEvent} is read. The state of the {@link Vehicle}s is not changed.<p>
+ *
+ * The log is decoded one segment at a time. A reader {@link #open(Path, EventDictionary) opened} from a file can
+ * {@link #seek(long) seek} to any tick by decoding only the segment containing it.
+ */
+public class BinaryEventReader implements Closeable {
+
+    private final @Nullable FileChannel channel;
+    private final EventDictionary dictionary;
+    private final Map<Integer, ConfirmedOrder> orders = new HashMap<>();
+    private final List<String> foods = new ArrayList<>();
+    private final List<Transition> transitions = new ArrayList<>();
+    private final @Nullable Inflater inflater;
+    private final long dataStart;
+    private DataInputStream input;
+    private DataInputStream frames;
+    private int remainingTicks = 0;
+    private long previousTick;
+    private int previousVehicle;
+    private List<Event> frameEvents;
+    private long frameTick;
+    private boolean pending = false;
+    private long[] segmentFirstTicks;
+    private long[] segmentOffsets;
+    private int segmentCount;
+
+    /**
+     * Creates a new {@link BinaryEventReader} instance and reads the header of the log.
+     * @param input The {@link InputStream} the log is read from.
+     * @param dictionary The {@link EventDictionary} of the replayed simulation.
+     * @throws UncheckedIOException If the header can not be read or is not a header of a log.
+     * @throws IllegalArgumentException If the log was recorded in another {@link Region}.
+     */
+    public BinaryEventReader(InputStream input, EventDictionary dictionary) {
+        this(new DataInputStream(new BufferedInputStream(input)), null, dictionary);
+    }
+
+    private BinaryEventReader(DataInputStream header, @Nullable FileChannel channel, EventDictionary dictionary) {
+        this.channel = channel;
+        this.dictionary = dictionary;
+        try {
+            if (header.readInt() != MAGIC) {
+                throw new StreamCorruptedException("Not an event log");
+            }
+            byte version = header.readByte();
+            if (version != VERSION) {
+                throw new StreamCorruptedException("Unsupported event log version: %d".formatted(version));
+            }
+            int nodeCount = readVarInt(header);
+            int edgeCount = readVarInt(header);
+            long fingerprint = header.readLong();
+            if (nodeCount != dictionary.getNodeCount() || edgeCount != dictionary.getEdgeCount()
+                || fingerprint != dictionary.getFingerprint()) {
+                throw new IllegalArgumentException("The event log was recorded in another region");
+            }
+            byte flags = header.readByte();
+            if ((flags & ~DEFLATE) != 0) {
+                throw new StreamCorruptedException("Unknown event log flags: %d".formatted(flags));
+            }
+            inflater = (flags & DEFLATE) != 0 ? new Inflater() : null;
+            // the number of ticks per segment is only needed by the writer
+            readVarInt(header);
+            if (channel == null) {
+                dataStart = -1;
+                input = header;
+            } else {
+                dataStart = channel.position();
+                input = bufferedInput(channel);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Opens the log in the given file and reads its header. The returned {@link BinaryEventReader} supports
+     * {@link #seek(long) seeking}.
+     * @param file The file containing the log.
+     * @param dictionary The {@link EventDictionary} of the replayed simulation.
+     * @return The {@link BinaryEventReader} reading the file.
+     * @throws UncheckedIOException If the file can not be opened or does not contain a log.
+     * @throws IllegalArgumentException If the log was recorded in another {@link Region}.
+     */
+    public static BinaryEventReader open(Path file, EventDictionary dictionary) {
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(file, StandardOpenOption.READ);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        try {
+            // the header is read unbuffered, so the position of the channel is the start of the first segment
+            return new BinaryEventReader(new DataInputStream(Channels.newInputStream(channel)), channel, dictionary);
+        } catch (RuntimeException e) {
+            try {
+                channel.close();
+            } catch (IOException closeException) {
+                e.addSuppressed(closeException);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Reads the next tick and passes its {@link Event}s to the given {@link SimulationListener}s.
+     * @param listeners The {@link SimulationListener}s to notify.
+     * @return True, if a tick has been read, false if the end of the log has been reached.
+     * @throws UncheckedIOException If the log can not be read or is corrupted.
+     */
+    public boolean replayTick(List<? extends SimulationListener> listeners) {
+        if (!pending && !readFrame()) {
+            return false;
+        }
+        pending = false;
+        List<Event> unmodifiableEvents = Collections.unmodifiableList(frameEvents);
+        for (SimulationListener listener : listeners) {
+            listener.onTick(unmodifiableEvents, frameTick);
+        }
+        return true;
+    }
+
+    /**
+     * Replays all remaining ticks of the log to the given {@link SimulationListener}s as fast as they can be read.
+     * @param listeners The {@link SimulationListener}s to notify.
+     * @return The number of replayed ticks.
+     * @throws UncheckedIOException If the log can not be read or is corrupted.
+     */
+    public long replay(List<? extends SimulationListener> listeners) {
+        long ticks = 0;
+        while (replayTick(listeners)) {
+            ticks++;
+        }
+        return ticks;
+    }
+
+    /**
+     * Positions this reader at the first recorded tick that is not before the given tick, so it is replayed by the next
+     * call of {@link #replayTick(List)}. The segments before it are skipped using a sparse index of the first tick of
+     * every segment, which is built from the segment headers on the first call.<p>
+     *
+     * The {@link ConfirmedOrder}s read after a seek are new instances, so they do not keep the actual delivery tick of
+     * a {@link DeliverOrderEvent} that has been read before the seek.
+     * @param tick The tick to continue the replay at.
+     * @throws IllegalStateException If this reader has not been {@link #open(Path, EventDictionary) opened} from a
+     *                               file.
+     * @throws UncheckedIOException If the log can not be read or is corrupted.
+     */
+    public void seek(long tick) {
+        if (channel == null) {
+            throw new IllegalStateException("Only event logs opened from a file support seeking");
+        }
+        try {
+            if (segmentFirstTicks == null) {
+                buildIndex();
+            }
+            int segment = Arrays.binarySearch(segmentFirstTicks, 0, segmentCount, tick);
+            if (segment < 0) {
+                segment = Math.max(0, -segment - 2);
+            }
+            channel.position(segmentCount == 0 ? dataStart : segmentOffsets[segment]);
+            input = bufferedInput(channel);
+            remainingTicks = 0;
+            pending = false;
+            // every segment writes its orders in full, so they can be recreated from the segment of the tick
+            orders.clear();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        while (readFrame()) {
+            if (frameTick >= tick) {
+                pending = true;
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            input.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            if (inflater != null) {
+                inflater.end();
+            }
+        }
+    }
+
+    private static DataInputStream bufferedInput(FileChannel channel) {
+        return new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+    }
+
+    private void buildIndex() throws IOException {
+        assert channel != null;
+        segmentFirstTicks = new long[16];
+        segmentOffsets = new long[16];
+        DataInputStream headers = new DataInputStream(Channels.newInputStream(channel));
+        long size = channel.size();
+        for (long offset = dataStart; offset < size; ) {
+            channel.position(offset);
+            if (segmentCount == segmentFirstTicks.length) {
+                segmentFirstTicks = Arrays.copyOf(segmentFirstTicks, segmentCount * 2);
+                segmentOffsets = Arrays.copyOf(segmentOffsets, segmentCount * 2);
+            }
+            segmentFirstTicks[segmentCount] = readSignedVarLong(headers);
+            segmentOffsets[segmentCount++] = offset;
+            // the number of ticks and the length of the frames are not needed to skip the segment
+            readVarInt(headers);
+            readVarInt(headers);
+            int storedLength = readVarInt(headers);
+            offset = channel.position() + storedLength;
+        }
+    }
+
+    private boolean readFrame() {
+        try {
+            while (remainingTicks == 0) {
+                if (!readSegment()) {
+                    return false;
+                }
+            }
+            remainingTicks--;
+            frameTick = previousTick + readSignedVarLong(frames);
+            previousTick = frameTick;
+            int count = readVarInt(frames);
+            frameEvents = new ArrayList<>(Math.min(count, 1024));
+            for (int i = 0; i < count; i++) {
+                frameEvents.add(readEvent(frameTick));
+            }
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (IndexOutOfBoundsException e) {
+            throw new UncheckedIOException(new StreamCorruptedException("Invalid reference: %s".formatted(e.getMessage())));
+        }
+    }
+
+    private boolean readSegment() throws IOException {
+        // the first byte of the segment is read separately to detect the end of the log
+        int first = input.read();
+        if (first < 0) {
+            return false;
+        }
+        long firstTick = decodeSigned(readVarLong(input, first));
+        int tickCount = readVarInt(input);
+        int length = readVarInt(input);
+        byte[] stored = new byte[readVarInt(input)];
+        input.readFully(stored);
+        byte[] bytes = stored;
+        if (inflater != null) {
+            bytes = new byte[length];
+            inflater.reset();
+            inflater.setInput(stored);
+            try {
+                int inflated = 0;
+                int read;
+                while (inflated < length && (read = inflater.inflate(bytes, inflated, length - inflated)) > 0) {
+                    inflated += read;
+                }
+                if (inflated != length) {
+                    throw new StreamCorruptedException("Invalid segment length");
+                }
+            } catch (DataFormatException e) {
+                throw new StreamCorruptedException("Invalid deflated segment: %s".formatted(e.getMessage()));
+            }
+        } else if (length != stored.length) {
+            throw new StreamCorruptedException("Invalid segment length");
+        }
+
+        frames = new DataInputStream(new ByteArrayInputStream(bytes));
+        remainingTicks = tickCount;
+        previousTick = firstTick;
+        previousVehicle = 0;
+        foods.clear();
+        transitions.clear();
+        return true;
+    }
+
+    private Event readEvent(long frameTick) throws IOException {
+        byte type = frames.readByte();
+        long tick = frameTick + readSignedVarLong(frames);
+        return switch (type) {
+            case EVENT -> Event.of(tick);
+            case ORDER_RECEIVED -> OrderReceivedEvent.of(tick, readOrder());
+            case SPAWN -> SpawnEvent.of(tick, readVehicle(), readNode());
+            case ARRIVED_AT_RESTAURANT, ARRIVED_AT_NEIGHBORHOOD, ARRIVED_AT_NODE, ARRIVED_AT_EDGE -> {
+                Transition transition = new Transition(type, readVehicleId(), readVarInt(frames), readVarInt(frames));
+                transitions.add(transition);
+                yield arrival(transition, tick);
+            }
+            case TRANSITION -> arrival(transitions.get(readVarInt(frames)), tick);
+            case LOAD_ORDER -> LoadOrderEvent.of(tick, readVehicle(), readOrder(), (Region.Restaurant) readNode());
+            case DELIVER_ORDER -> {
+                Vehicle vehicle = readVehicle();
+                Region.Neighborhood node = (Region.Neighborhood) readNode();
+                ConfirmedOrder order = readOrder();
+                order.setActualDeliveryTick(tick);
+                yield DeliverOrderEvent.of(tick, vehicle, node, order);
+            }
+            default -> throw new StreamCorruptedException("Unknown event type: %d".formatted(type));
+        };
+    }
+
+    private Event arrival(Transition transition, long tick) {
+        Vehicle vehicle = dictionary.vehicle(transition.vehicle());
+        return switch (transition.type()) {
+            case ARRIVED_AT_RESTAURANT -> ArrivedAtRestaurantEvent.of(tick, vehicle,
+                dictionary.restaurant(node(transition.component())), edge(transition.previous()));
+            case ARRIVED_AT_NEIGHBORHOOD -> ArrivedAtNeighborhoodEvent.of(tick, vehicle,
+                (Region.Neighborhood) node(transition.component()), edge(transition.previous()));
+            case ARRIVED_AT_NODE -> ArrivedAtNodeEvent.of(tick, vehicle, node(transition.component()),
+                edge(transition.previous()));
+            default -> ArrivedAtEdgeEvent.of(tick, vehicle, edge(transition.component()), node(transition.previous()));
+        };
+    }
+
+    private int readVehicleId() throws IOException {
+        previousVehicle = (int) (previousVehicle + readSignedVarLong(frames));
+        return previousVehicle;
+    }
+
+    private Vehicle readVehicle() throws IOException {
+        return dictionary.vehicle(readVehicleId());
+    }
+
+    private Region.Node readNode() throws IOException {
+        return node(readVarInt(frames));
+    }
+
+    private Region.Node node(int code) {
+        return code == 0 ? null : dictionary.node(code - 1);
+    }
+
+    private Region.Edge edge(int code) {
+        return code == 0 ? null : dictionary.edge(code - 1);
+    }
+
+    private ConfirmedOrder readOrder() throws IOException {
+        long value = readVarLong(frames);
+        int orderID = (int) (value >>> 1);
+        if ((value & 1) == 0) {
+            ConfirmedOrder order = orders.get(orderID);
+            if (order == null) {
+                throw new StreamCorruptedException("Unknown order ID: %d".formatted(orderID));
+            }
+            return order;
+        }
+        Location location = new Location((int) readSignedVarLong(frames), (int) readSignedVarLong(frames));
+        Region.Node restaurant = readNode();
+        long start = readVarLong(frames);
+        TickInterval deliveryInterval = new TickInterval(start, start + readVarLong(frames));
+        int foodCount = readVarInt(frames);
+        List<String> foodList = new ArrayList<>(Math.min(foodCount, 64));
+        for (int i = 0; i < foodCount; i++) {
+            int id = readVarInt(frames);
+            if (id == foods.size()) {
+                foods.add(frames.readUTF());
+            }
+            foodList.add(foods.get(id));
+        }
+        double weight = frames.readDouble();
+        // orders are written again in every segment, but have to stay the same instance
+        ConfirmedOrder order = orders.get(orderID);
+        if (order == null) {
+            order = ConfirmedOrder.restore(orderID, location, dictionary.restaurant(restaurant), deliveryInterval,
+                List.copyOf(foodList), weight);
+            orders.put(orderID, order);
+        }
+        return order;
+    }
+}
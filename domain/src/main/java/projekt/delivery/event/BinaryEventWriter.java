@@ -0,0 +1,266 @@
+package projekt.delivery.event;
+
+import projekt.delivery.routing.ConfirmedOrder;
+import projekt.delivery.routing.Region;
+import projekt.delivery.simulation.SimulationListener;
+
+import java.io.*;
+import java.util.*;
+import java.util.zip.Deflater;
+
+import static projekt.delivery.event.BinaryEventFormat.*;
+
+/**
+ * A {@link SimulationListener} that records the {@link Event}s of every tick in a compact binary form, which can be
+ * replayed with a {@link BinaryEventReader}.<p>
+ *
+ * {@link Region.Node}s, {@link Region.Edge}s and vehicles are written as their ID in the given {@link EventDictionary}
+ * and ticks and vehicle IDs as the difference to the previous one, so most values take a single byte. Repeated
+ * arrivals of a vehicle on the same route are written as a reference to their first occurrence and every
+ * {@link ConfirmedOrder} is written in full once per segment. The ticks are written in segments of a fixed number of
+ * ticks that can be decoded independently and are optionally compressed with a {@link Deflater}. The format is
+ * described in {@link BinaryEventFormat}.<p>
+ *
+ * The output is buffered and only complete when this writer is closed.
+ */
+public class BinaryEventWriter implements SimulationListener, Closeable {
+
+    /**
+     * The default number of ticks per segment.
+     */
+    public static final int DEFAULT_SEGMENT_TICKS = 256;
+
+    private final DataOutputStream output;
+    private final EventDictionary dictionary;
+    private final int segmentTicks;
+    private final Deflater deflater;
+    private final ByteArrayOutputStream segmentBytes = new ByteArrayOutputStream();
+    private final DataOutputStream segment = new DataOutputStream(segmentBytes);
+    private final Set<Integer> writtenOrders = new HashSet<>();
+    private final Map<String, Integer> foods = new HashMap<>();
+    private final Map<Transition, Integer> transitions = new HashMap<>();
+    private int segmentTickCount = 0;
+    private long segmentFirstTick;
+    private long previousTick;
+    private int previousVehicle;
+
+    /**
+     * Creates a new {@link BinaryEventWriter} instance that writes deflated segments of
+     * {@link #DEFAULT_SEGMENT_TICKS} ticks and writes the header of the log.
+     * @param output The {@link OutputStream} the log is written to.
+     * @param dictionary The {@link EventDictionary} of the recorded simulation.
+     * @throws UncheckedIOException If the header can not be written.
+     */
+    public BinaryEventWriter(OutputStream output, EventDictionary dictionary) {
+        this(output, dictionary, DEFAULT_SEGMENT_TICKS, true);
+    }
+
+    /**
+     * Creates a new {@link BinaryEventWriter} instance and writes the header of the log.
+     * @param output The {@link OutputStream} the log is written to.
+     * @param dictionary The {@link EventDictionary} of the recorded simulation.
+     * @param segmentTicks The number of ticks per segment.
+     * @param deflate True, if the segments are compressed with a {@link Deflater}.
+     * @throws IllegalArgumentException If the number of ticks per segment is not positive.
+     * @throws UncheckedIOException If the header can not be written.
+     */
+    public BinaryEventWriter(OutputStream output, EventDictionary dictionary, int segmentTicks, boolean deflate) {
+        if (segmentTicks <= 0) {
+            throw new IllegalArgumentException("segmentTicks must be positive");
+        }
+        this.output = new DataOutputStream(new BufferedOutputStream(output));
+        this.dictionary = dictionary;
+        this.segmentTicks = segmentTicks;
+        this.deflater = deflate ? new Deflater(Deflater.BEST_SPEED) : null;
+        try {
+            this.output.writeInt(MAGIC);
+            this.output.writeByte(VERSION);
+            writeVarInt(this.output, dictionary.getNodeCount());
+            writeVarInt(this.output, dictionary.getEdgeCount());
+            this.output.writeLong(dictionary.getFingerprint());
+            this.output.writeByte(deflate ? DEFLATE : 0);
+            writeVarInt(this.output, segmentTicks);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes the {@link Event}s of the given tick.
+     * @param events All {@link Event}s that occurred during the tick.
+     * @param tick The executed tick.
+     * @throws UncheckedIOException If the {@link Event}s can not be written.
+     * @throws IllegalArgumentException If an {@link Event} can not be encoded.
+     */
+    @Override
+    public void onTick(List<Event> events, long tick) {
+        try {
+            if (segmentTickCount == 0) {
+                segmentFirstTick = tick;
+                previousTick = tick;
+            }
+            writeSignedVarLong(segment, tick - previousTick);
+            previousTick = tick;
+            writeVarInt(segment, events.size());
+            for (Event event : events) {
+                writeEvent(event, tick);
+            }
+            if (++segmentTickCount == segmentTicks) {
+                writeSegment();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Returns the number of bytes written so far, excluding the ticks of the segment that has not been completed yet.
+     * @return The number of bytes written so far.
+     */
+    public long size() {
+        return output.size();
+    }
+
+    @Override
+    public void close() {
+        try (output) {
+            writeSegment();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            if (deflater != null) {
+                deflater.end();
+            }
+        }
+    }
+
+    private void writeSegment() throws IOException {
+        if (segmentTickCount == 0) {
+            return;
+        }
+        byte[] frames = segmentBytes.toByteArray();
+        byte[] stored = frames;
+        if (deflater != null) {
+            ByteArrayOutputStream deflated = new ByteArrayOutputStream(frames.length / 2 + 16);
+            byte[] buffer = new byte[8192];
+            deflater.reset();
+            deflater.setInput(frames);
+            deflater.finish();
+            while (!deflater.finished()) {
+                deflated.write(buffer, 0, deflater.deflate(buffer));
+            }
+            stored = deflated.toByteArray();
+        }
+        writeSignedVarLong(output, segmentFirstTick);
+        writeVarInt(output, segmentTickCount);
+        writeVarInt(output, frames.length);
+        writeVarInt(output, stored.length);
+        output.write(stored);
+
+        // every segment can be decoded on its own
+        segmentBytes.reset();
+        segmentTickCount = 0;
+        previousVehicle = 0;
+        writtenOrders.clear();
+        foods.clear();
+        transitions.clear();
+    }
+
+    private void writeEvent(Event event, long tick) throws IOException {
+        long offset = event.getTick() - tick;
+        // the subtypes have to be checked before their supertypes
+        if (event instanceof ArrivedAtRestaurantEvent arrivedEvent) {
+            writeArrival(ARRIVED_AT_RESTAURANT, offset, dictionary.vehicleId(arrivedEvent.getVehicle()),
+                nodeCode(arrivedEvent.getRestaurant().getComponent()), edgeCode(arrivedEvent.getLastEdge()));
+        } else if (event instanceof ArrivedAtNeighborhoodEvent arrivedEvent) {
+            writeArrival(ARRIVED_AT_NEIGHBORHOOD, offset, dictionary.vehicleId(arrivedEvent.getVehicle()),
+                nodeCode(arrivedEvent.getNode()), edgeCode(arrivedEvent.getLastEdge()));
+        } else if (event instanceof ArrivedAtNodeEvent arrivedEvent) {
+            writeArrival(ARRIVED_AT_NODE, offset, dictionary.vehicleId(arrivedEvent.getVehicle()),
+                nodeCode(arrivedEvent.getNode()), edgeCode(arrivedEvent.getLastEdge()));
+        } else if (event instanceof ArrivedAtEdgeEvent arrivedEvent) {
+            writeArrival(ARRIVED_AT_EDGE, offset, dictionary.vehicleId(arrivedEvent.getVehicle()),
+                edgeCode(arrivedEvent.getEdge()), nodeCode(arrivedEvent.getLastNode()));
+        } else if (event instanceof SpawnEvent spawnEvent) {
+            writeHeader(SPAWN, offset);
+            writeVehicle(dictionary.vehicleId(spawnEvent.getVehicle()));
+            writeVarInt(segment, nodeCode(spawnEvent.getNode()));
+        } else if (event instanceof LoadOrderEvent loadEvent) {
+            writeHeader(LOAD_ORDER, offset);
+            writeVehicle(dictionary.vehicleId(loadEvent.getVehicle()));
+            writeOrder(loadEvent.getOrder());
+            writeVarInt(segment, nodeCode(loadEvent.getRestaurant()));
+        } else if (event instanceof DeliverOrderEvent deliverEvent) {
+            writeHeader(DELIVER_ORDER, offset);
+            writeVehicle(dictionary.vehicleId(deliverEvent.getVehicle()));
+            writeVarInt(segment, nodeCode(deliverEvent.getNode()));
+            writeOrder(deliverEvent.getOrder());
+        } else if (event instanceof OrderReceivedEvent receivedEvent) {
+            writeHeader(ORDER_RECEIVED, offset);
+            writeOrder(receivedEvent.getOrder());
+        } else if (event.getClass() == EventImpl.class) {
+            writeHeader(EVENT, offset);
+        } else {
+            throw new IllegalArgumentException("Unsupported event type: %s".formatted(event.getClass().getName()));
+        }
+    }
+
+    private void writeHeader(byte type, long offset) throws IOException {
+        segment.writeByte(type);
+        writeSignedVarLong(segment, offset);
+    }
+
+    private void writeArrival(byte type, long offset, int vehicle, int component, int previous) throws IOException {
+        Transition transition = new Transition(type, vehicle, component, previous);
+        Integer index = transitions.get(transition);
+        if (index != null) {
+            writeHeader(TRANSITION, offset);
+            writeVarInt(segment, index);
+            return;
+        }
+        transitions.put(transition, transitions.size());
+        writeHeader(type, offset);
+        writeVehicle(vehicle);
+        writeVarInt(segment, component);
+        writeVarInt(segment, previous);
+    }
+
+    private void writeVehicle(int id) throws IOException {
+        writeSignedVarLong(segment, (long) id - previousVehicle);
+        previousVehicle = id;
+    }
+
+    private int nodeCode(Region.Node node) {
+        return node == null ? 0 : dictionary.nodeId(node) + 1;
+    }
+
+    private int edgeCode(Region.Edge edge) {
+        return edge == null ? 0 : dictionary.edgeId(edge) + 1;
+    }
+
+    private void writeOrder(ConfirmedOrder order) throws IOException {
+        boolean written = !writtenOrders.add(order.getOrderID());
+        writeVarLong(segment, (order.getOrderID() & 0xFFFFFFFFL) << 1 | (written ? 0 : 1));
+        if (written) {
+            return;
+        }
+        writeSignedVarLong(segment, order.getX());
+        writeSignedVarLong(segment, order.getY());
+        writeVarInt(segment, nodeCode(order.getRestaurant().getComponent()));
+        writeVarLong(segment, order.getDeliveryInterval().start());
+        writeVarLong(segment, order.getDeliveryInterval().end() - order.getDeliveryInterval().start());
+        writeVarInt(segment, order.getFoodList().size());
+        for (String food : order.getFoodList()) {
+            Integer id = foods.get(food);
+            if (id == null) {
+                // the next free ID announces a new food name
+                writeVarInt(segment, foods.size());
+                segment.writeUTF(food);
+                foods.put(food, foods.size());
+            } else {
+                writeVarInt(segment, id);
+            }
+        }
+        segment.writeDouble(order.getWeight());
+    }
+}
@@ -0,0 +1,399 @@
+package projekt.delivery.event;
+
+import projekt.delivery.routing.Region;
+import projekt.delivery.routing.Vehicle;
+import projekt.delivery.simulation.SimulationListener;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A reusable batch of {@link Event}s stored as primitive columns: the type code, tick, vehicle ID, component ID,
+ * previous component ID and order ID of every {@link Event}.<p>
+ *
+ * Components are identified by their ID in an {@link EventDictionary}. The component of an {@link Event} is the
+ * {@link Region.Node} or {@link Region.Edge} it refers to, the previous component is the last {@link Region.Edge} of an
+ * arrival at a {@link Region.Node} or the last {@link Region.Node} of an arrival at a {@link Region.Edge}. Columns that
+ * do not apply to an {@link Event} contain -1. The columns grow as needed and are reused after {@link #clear()}, so
+ * filling and reading a batch does not allocate once it has reached its largest size. {@link #cursor()} returns a
+ * flyweight that can be moved over the {@link Event}s of the batch.<p>
+ *
+ * This class is not thread-safe.
+ */
+public class EventBatch {
+
+    /**
+     * The type code of an {@link Event} that only has a tick. The type codes are shared with the binary event log.
+     */
+    public static final byte EVENT = BinaryEventFormat.EVENT;
+    /**
+     * The type code of an {@link OrderReceivedEvent}. The component is the restaurant of the order.
+     */
+    public static final byte ORDER_RECEIVED = BinaryEventFormat.ORDER_RECEIVED;
+    /**
+     * The type code of a {@link SpawnEvent}. The component is the {@link Region.Node} the vehicle spawned at.
+     */
+    public static final byte SPAWN = BinaryEventFormat.SPAWN;
+    /**
+     * The type code of an {@link ArrivedAtRestaurantEvent}. The previous component is the last {@link Region.Edge}.
+     */
+    public static final byte ARRIVED_AT_RESTAURANT = BinaryEventFormat.ARRIVED_AT_RESTAURANT;
+    /**
+     * The type code of an {@link ArrivedAtNeighborhoodEvent}. The previous component is the last {@link Region.Edge}.
+     */
+    public static final byte ARRIVED_AT_NEIGHBORHOOD = BinaryEventFormat.ARRIVED_AT_NEIGHBORHOOD;
+    /**
+     * The type code of any other {@link ArrivedAtNodeEvent}. The previous component is the last {@link Region.Edge}.
+     */
+    public static final byte ARRIVED_AT_NODE = BinaryEventFormat.ARRIVED_AT_NODE;
+    /**
+     * The type code of an {@link ArrivedAtEdgeEvent}. The component is an {@link Region.Edge} and the previous
+     * component is the last {@link Region.Node}.
+     */
+    public static final byte ARRIVED_AT_EDGE = BinaryEventFormat.ARRIVED_AT_EDGE;
+    /**
+     * The type code of a {@link LoadOrderEvent}. The component is the restaurant the order was loaded at.
+     */
+    public static final byte LOAD_ORDER = BinaryEventFormat.LOAD_ORDER;
+    /**
+     * The type code of a {@link DeliverOrderEvent}. The component is the {@link Region.Node} the order was delivered to.
+     */
+    public static final byte DELIVER_ORDER = BinaryEventFormat.DELIVER_ORDER;
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final EventDictionary dictionary;
+    private byte[] types = new byte[INITIAL_CAPACITY];
+    private long[] ticks = new long[INITIAL_CAPACITY];
+    private int[] vehicles = new int[INITIAL_CAPACITY];
+    private int[] components = new int[INITIAL_CAPACITY];
+    private int[] previousComponents = new int[INITIAL_CAPACITY];
+    private int[] orders = new int[INITIAL_CAPACITY];
+    private int size = 0;
+
+    /**
+     * Creates a new, empty {@link EventBatch} instance.
+     * @param dictionary The {@link EventDictionary} identifying the components of the {@link Event}s.
+     */
+    public EventBatch(EventDictionary dictionary) {
+        this.dictionary = dictionary;
+    }
+
+    /**
+     * Returns a {@link SimulationListener} that encodes the {@link Event}s of every tick into a single reused
+     * {@link EventBatch} and passes it to the given {@link Listener}.
+     * @param dictionary The {@link EventDictionary} of the simulation.
+     * @param listener The {@link Listener} receiving the {@link EventBatch} of every tick.
+     * @return The created {@link SimulationListener}.
+     */
+    public static SimulationListener listener(EventDictionary dictionary, Listener listener) {
+        EventBatch batch = new EventBatch(dictionary);
+        return (events, tick) -> {
+            batch.clear();
+            batch.addAll(events);
+            listener.onTick(batch, tick);
+        };
+    }
+
+    /**
+     * Appends an {@link Event} given by its columns, e.g. to compare a batch with the expected columns.
+     * @param type The type code of the {@link Event}.
+     * @param tick The tick of the {@link Event}.
+     * @param vehicleId The ID of the {@link Vehicle} or -1.
+     * @param componentId The ID of the component or -1.
+     * @param previousComponentId The ID of the previous component or -1.
+     * @param orderId The ID of the order or -1.
+     */
+    public void add(byte type, long tick, int vehicleId, int componentId, int previousComponentId, int orderId) {
+        if (size == types.length) {
+            int capacity = 2 * size;
+            types = Arrays.copyOf(types, capacity);
+            ticks = Arrays.copyOf(ticks, capacity);
+            vehicles = Arrays.copyOf(vehicles, capacity);
+            components = Arrays.copyOf(components, capacity);
+            previousComponents = Arrays.copyOf(previousComponents, capacity);
+            orders = Arrays.copyOf(orders, capacity);
+        }
+        types[size] = type;
+        ticks[size] = tick;
+        vehicles[size] = vehicleId;
+        components[size] = componentId;
+        previousComponents[size] = previousComponentId;
+        orders[size] = orderId;
+        size++;
+    }
+
+    /**
+     * Appends the given {@link Event}s.
+     * @param events The {@link Event}s to append.
+     * @throws IllegalArgumentException If an {@link Event} is not one of the {@link Event}s of this package.
+     */
+    public void addAll(List<? extends Event> events) {
+        for (Event event : events) {
+            add(event);
+        }
+    }
+
+    /**
+     * Appends the given {@link Event}.
+     * @param event The {@link Event} to append.
+     * @throws IllegalArgumentException If the {@link Event} is not one of the {@link Event}s of this package.
+     */
+    public void add(Event event) {
+        // the subtypes have to be checked before their supertypes
+        if (event instanceof ArrivedAtRestaurantEvent arrivedEvent) {
+            add(ARRIVED_AT_RESTAURANT, event.getTick(), dictionary.vehicleId(arrivedEvent.getVehicle()),
+                dictionary.nodeId(arrivedEvent.getRestaurant().getComponent()), edgeId(arrivedEvent.getLastEdge()), -1);
+        } else if (event instanceof ArrivedAtNeighborhoodEvent arrivedEvent) {
+            add(ARRIVED_AT_NEIGHBORHOOD, event.getTick(), dictionary.vehicleId(arrivedEvent.getVehicle()),
+                dictionary.nodeId(arrivedEvent.getNode()), edgeId(arrivedEvent.getLastEdge()), -1);
+        } else if (event instanceof ArrivedAtNodeEvent arrivedEvent) {
+            add(ARRIVED_AT_NODE, event.getTick(), dictionary.vehicleId(arrivedEvent.getVehicle()),
+                dictionary.nodeId(arrivedEvent.getNode()), edgeId(arrivedEvent.getLastEdge()), -1);
+        } else if (event instanceof ArrivedAtEdgeEvent arrivedEvent) {
+            add(ARRIVED_AT_EDGE, event.getTick(), dictionary.vehicleId(arrivedEvent.getVehicle()),
+                dictionary.edgeId(arrivedEvent.getEdge()), nodeId(arrivedEvent.getLastNode()), -1);
+        } else if (event instanceof SpawnEvent spawnEvent) {
+            add(SPAWN, event.getTick(), dictionary.vehicleId(spawnEvent.getVehicle()),
+                dictionary.nodeId(spawnEvent.getNode()), -1, -1);
+        } else if (event instanceof LoadOrderEvent loadEvent) {
+            add(LOAD_ORDER, event.getTick(), dictionary.vehicleId(loadEvent.getVehicle()),
+                dictionary.nodeId(loadEvent.getRestaurant()), -1, loadEvent.getOrder().getOrderID());
+        } else if (event instanceof DeliverOrderEvent deliverEvent) {
+            add(DELIVER_ORDER, event.getTick(), dictionary.vehicleId(deliverEvent.getVehicle()),
+                dictionary.nodeId(deliverEvent.getNode()), -1, deliverEvent.getOrder().getOrderID());
+        } else if (event instanceof OrderReceivedEvent receivedEvent) {
+            add(ORDER_RECEIVED, event.getTick(), -1,
+                dictionary.nodeId(receivedEvent.getOrder().getRestaurant().getComponent()), -1,
+                receivedEvent.getOrder().getOrderID());
+        } else if (event.getClass() == EventImpl.class) {
+            add(EVENT, event.getTick(), -1, -1, -1, -1);
+        } else {
+            throw new IllegalArgumentException("Unsupported event type: %s".formatted(event.getClass().getName()));
+        }
+    }
+
+    /**
+     * Removes all {@link Event}s. The columns keep their capacity.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Returns the number of {@link Event}s in this batch.
+     * @return The number of {@link Event}s in this batch.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the type code of the {@link Event} at the given index.
+     * @param index The index of the {@link Event}.
+     * @return The type code of the {@link Event}.
+     */
+    public byte getType(int index) {
+        return types[checkIndex(index)];
+    }
+
+    /**
+     * Returns the tick of the {@link Event} at the given index.
+     * @param index The index of the {@link Event}.
+     * @return The tick of the {@link Event}.
+     */
+    public long getTick(int index) {
+        return ticks[checkIndex(index)];
+    }
+
+    /**
+     * Returns the vehicle ID of the {@link Event} at the given index.
+     * @param index The index of the {@link Event}.
+     * @return The vehicle ID of the {@link Event} or -1.
+     */
+    public int getVehicleId(int index) {
+        return vehicles[checkIndex(index)];
+    }
+
+    /**
+     * Returns the component ID of the {@link Event} at the given index.
+     * @param index The index of the {@link Event}.
+     * @return The component ID of the {@link Event} or -1.
+     */
+    public int getComponentId(int index) {
+        return components[checkIndex(index)];
+    }
+
+    /**
+     * Returns the previous component ID of the {@link Event} at the given index.
+     * @param index The index of the {@link Event}.
+     * @return The previous component ID of the {@link Event} or -1.
+     */
+    public int getPreviousComponentId(int index) {
+        return previousComponents[checkIndex(index)];
+    }
+
+    /**
+     * Returns the order ID of the {@link Event} at the given index.
+     * @param index The index of the {@link Event}.
+     * @return The order ID of the {@link Event} or -1.
+     */
+    public int getOrderId(int index) {
+        return orders[checkIndex(index)];
+    }
+
+    /**
+     * Returns a new {@link Cursor} that is positioned before the first {@link Event} of this batch.
+     * @return A new {@link Cursor}.
+     */
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    private int checkIndex(int index) {
+        return Objects.checkIndex(index, size);
+    }
+
+    private int nodeId(Region.Node node) {
+        return node == null ? -1 : dictionary.nodeId(node);
+    }
+
+    private int edgeId(Region.Edge edge) {
+        return edge == null ? -1 : dictionary.edgeId(edge);
+    }
+
+    /**
+     * A flyweight view of a single {@link Event} of an {@link EventBatch} that can be moved over its {@link Event}s.
+     */
+    public class Cursor {
+
+        private int index = -1;
+
+        private Cursor() {
+        }
+
+        /**
+         * Moves this cursor to the next {@link Event}.
+         * @return True, if this cursor points to an {@link Event}, false if the end of the batch has been reached.
+         */
+        public boolean next() {
+            if (index < size) {
+                index++;
+            }
+            return index < size;
+        }
+
+        /**
+         * Moves this cursor to the {@link Event} at the given index.
+         * @param index The index of the {@link Event}.
+         * @return This {@link Cursor}.
+         * @throws IndexOutOfBoundsException If the index is not an index of the batch.
+         */
+        public Cursor moveTo(int index) {
+            this.index = checkIndex(index);
+            return this;
+        }
+
+        /**
+         * Moves this cursor before the first {@link Event}.
+         */
+        public void reset() {
+            index = -1;
+        }
+
+        /**
+         * Returns the type code of the current {@link Event}.
+         * @return The type code of the current {@link Event}.
+         */
+        public byte getType() {
+            return types[checkIndex(index)];
+        }
+
+        /**
+         * Returns the tick of the current {@link Event}.
+         * @return The tick of the current {@link Event}.
+         */
+        public long getTick() {
+            return ticks[checkIndex(index)];
+        }
+
+        /**
+         * Returns the vehicle ID of the current {@link Event}.
+         * @return The vehicle ID of the current {@link Event} or -1.
+         */
+        public int getVehicleId() {
+            return vehicles[checkIndex(index)];
+        }
+
+        /**
+         * Returns the component ID of the current {@link Event}.
+         * @return The component ID of the current {@link Event} or -1.
+         */
+        public int getComponentId() {
+            return components[checkIndex(index)];
+        }
+
+        /**
+         * Returns the previous component ID of the current {@link Event}.
+         * @return The previous component ID of the current {@link Event} or -1.
+         */
+        public int getPreviousComponentId() {
+            return previousComponents[checkIndex(index)];
+        }
+
+        /**
+         * Returns the order ID of the current {@link Event}.
+         * @return The order ID of the current {@link Event} or -1.
+         */
+        public int getOrderId() {
+            return orders[checkIndex(index)];
+        }
+
+        /**
+         * Returns the {@link Vehicle} of the current {@link Event}.
+         * @return The {@link Vehicle} of the current {@link Event} or null.
+         */
+        public Vehicle getVehicle() {
+            int id = getVehicleId();
+            return id == -1 ? null : dictionary.vehicle(id);
+        }
+
+        /**
+         * Returns the {@link Region.Node} or {@link Region.Edge} of the current {@link Event}.
+         * @return The {@link Region.Node} or {@link Region.Edge} of the current {@link Event} or null.
+         */
+        public Region.Component<?> getComponent() {
+            return component(getComponentId(), getType() == ARRIVED_AT_EDGE);
+        }
+
+        /**
+         * Returns the previous {@link Region.Node} or {@link Region.Edge} of the current {@link Event}.
+         * @return The previous {@link Region.Node} or {@link Region.Edge} of the current {@link Event} or null.
+         */
+        public Region.Component<?> getPreviousComponent() {
+            return component(getPreviousComponentId(), getType() != ARRIVED_AT_EDGE);
+        }
+
+        private Region.Component<?> component(int id, boolean isEdge) {
+            if (id == -1) {
+                return null;
+            }
+            return isEdge ? dictionary.edge(id) : dictionary.node(id);
+        }
+    }
+
+    /**
+     * A listener receiving the {@link EventBatch} of every tick of a simulation.
+     */
+    @FunctionalInterface
+    public interface Listener {
+
+        /**
+         * Signals this {@link Listener} that a tick has been executed.
+         * @param batch The {@link Event}s of the tick. The batch is reused for the next tick.
+         * @param tick The executed tick.
+         */
+        void onTick(EventBatch batch, long tick);
+    }
+}
@@ -1,29 +1,134 @@
 package projekt.delivery.event;
 
+import org.jetbrains.annotations.Nullable;
+
 import java.util.*;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
 /**
- * A class for storing all {@link Event}s that occurred during a tick.
+ * A class for storing all {@link Event}s that occurred during a tick.<p>
+ *
+ * {@link Event}s can be posted concurrently by any number of threads without locking. The posted {@link Event}s are
+ * kept in a linked queue (a multi-producer single-consumer queue as described by Dmitry Vyukov): a producer appends
+ * its node by atomically exchanging the tail and linking the previous tail to it afterwards.
+ * {@link #popEvents(long)} returns the {@link Event}s in the order in which their posts took effect, so the
+ * {@link Event}s of a single thread keep their order and the {@link Event}s posted with
+ * {@link #queuePost(Collection)} stay contiguous. If all {@link Event}s are posted by a single thread or by threads
+ * that are ordered, e.g. by joining them in a fixed order, the order is deterministic.<p>
+ *
+ * The popped {@link Event}s of every tick are passed to an {@link EventSink}, e.g. an {@link AsyncEventLogWriter}.
+ * New buses use the sink set by {@link #setDefaultSink(EventSink)}, which is {@link EventSink#NONE} unless changed.
+ * The {@link #getLog() log} keeps the popped {@link Event}s according to an {@link EventRetention}, which is
+ * {@link EventRetention#unbounded()} unless changed with {@link #setDefaultRetention(EventRetention)}.
+ * Handlers can {@link #subscribe(Class, Consumer) subscribe} to a type of {@link Event}s and are called with the
+ * popped {@link Event}s of this type through an {@link EventSubscriptions} index. If {@link EventStatistics} are
+ * {@link #setStatistics(EventStatistics) set}, they are updated with every popped tick before the handlers are called.
  */
 public class EventBus {
 
-    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
-    private final List<Event> queuedEvents = new ArrayList<>();
-    private final Map<Long, List<Event>> log = new HashMap<>();
+    private static volatile EventSink defaultSink = EventSink.NONE;
+    private static volatile EventRetention defaultRetention = EventRetention.unbounded();
+
+    private final Node stub = new Node(null, null);
+    private final AtomicReference<Node> tail = new AtomicReference<>(stub);
+    /**
+     * The last consumed node. Only accessed while holding the monitor of this bus.
+     */
+    private Node head = stub;
+    private final EventLog log = new EventLog();
     private final Map<Long, List<Event>> unmodifiableLog = Collections.unmodifiableMap(log);
+    private volatile EventSink sink = defaultSink;
+    /**
+     * Only accessed while holding the monitor of this bus.
+     */
+    private final EventSubscriptions subscriptions = new EventSubscriptions();
+    /**
+     * Only accessed while holding the monitor of this bus.
+     */
+    private @Nullable EventStatistics statistics;
+
+    /**
+     * Creates a new {@link EventBus} using the default {@link EventSink} and {@link EventRetention}.
+     */
+    public EventBus() {
+        log.setRetention(defaultRetention);
+    }
+
+    /**
+     * Sets the {@link EventSink} used by the buses created afterwards.
+     * @param sink The {@link EventSink} used by new buses.
+     */
+    public static void setDefaultSink(EventSink sink) {
+        defaultSink = Objects.requireNonNull(sink, "sink");
+    }
+
+    /**
+     * Sets the {@link EventRetention} used by the buses created afterwards.
+     * @param retention The {@link EventRetention} used by new buses.
+     */
+    public static void setDefaultRetention(EventRetention retention) {
+        defaultRetention = Objects.requireNonNull(retention, "retention");
+    }
+
+    /**
+     * Sets the {@link EventRetention} of the log of this bus. It is applied when the next tick is popped.
+     * @param retention The {@link EventRetention} of the log.
+     */
+    public void setRetention(EventRetention retention) {
+        log.setRetention(retention);
+    }
+
+    /**
+     * Sets the {@link EventSink} receiving the popped {@link Event}s of this bus.
+     * @param sink The {@link EventSink} receiving the popped {@link Event}s.
+     */
+    public void setSink(EventSink sink) {
+        this.sink = Objects.requireNonNull(sink, "sink");
+    }
+
+    /**
+     * Subscribes the given handler to the popped {@link Event}s of the given type. The handler is called by
+     * {@link #popEvents(long)} after the {@link Event}s have been passed to the {@link EventSink}.
+     * @param type The type of the {@link Event}s the handler receives.
+     * @param handler The handler receiving the {@link Event}s.
+     * @param <E> The type of the {@link Event}s.
+     */
+    public synchronized <E extends Event> void subscribe(Class<E> type, Consumer<? super E> handler) {
+        subscriptions.subscribe(type, handler);
+    }
+
+    /**
+     * Removes all subscriptions of the given handler.
+     * @param handler The handler to unsubscribe.
+     * @return True, if the handler has been subscribed.
+     */
+    public synchronized boolean unsubscribe(Consumer<?> handler) {
+        return subscriptions.unsubscribe(handler);
+    }
+
+    /**
+     * Sets the {@link EventStatistics} updated with the popped {@link Event}s of every tick.
+     * @param statistics The {@link EventStatistics} to update or null to stop updating them.
+     */
+    public synchronized void setStatistics(@Nullable EventStatistics statistics) {
+        this.statistics = statistics;
+    }
+
+    /**
+     * Returns the {@link EventStatistics} updated with the popped {@link Event}s of every tick.
+     * @return The {@link EventStatistics} or null if none have been set.
+     */
+    public synchronized @Nullable EventStatistics getStatistics() {
+        return statistics;
+    }
 
     /**
      * Adds an {@link Event} to the bus.
      * @param event The {@link Event} to add.
      */
     public void queuePost(Event event) {
-        lock.readLock().lock();
-        try {
-            queuedEvents.add(event);
-        } finally {
-            lock.readLock().unlock();
-        }
+        append(new Node(event, null));
     }
 
     /**
@@ -31,45 +136,103 @@ public class EventBus {
      * @param events The {@link Event}s to add.
      */
     public void queuePost(Collection<Event> events) {
-        lock.readLock().lock();
-        try {
-            queuedEvents.addAll(events);
-        } finally {
-            lock.readLock().unlock();
+        Event[] batch = events.toArray(Event[]::new);
+        if (batch.length > 0) {
+            append(new Node(null, batch));
         }
     }
 
+    private void append(Node node) {
+        Node previous = tail.getAndSet(node);
+        // the node is reachable from the tail already, but the consumer only sees it once the previous node links it
+        previous.next = node;
+    }
+
     /**
      * Returns all {@link Event}s that have been added since the last time this bus has been cleared and clears this bus.
+     * Posts that take effect while the {@link Event}s are popped are returned by the next call.
      * @param tick The current Tick.
      * @return All {@link Event}s that have been added since the last time this bus has been cleared
      */
-    public List<Event> popEvents(long tick) {
-        // is not a read lock because the queue has to be cleared too
-        lock.writeLock().lock();
-        try {
-            log.put(tick, queuedEvents);
-            System.out.printf("Tick: %s - %s\n", tick, queuedEvents);
-            List<Event> copy = new ArrayList<>(queuedEvents);
-            clear();
-            return copy;
-        } finally {
-            lock.writeLock().unlock();
+    public synchronized List<Event> popEvents(long tick) {
+        List<Event> events = Collections.unmodifiableList(drain());
+        log.add(tick, events);
+        sink.accept(tick, events);
+        if (statistics != null) {
+            statistics.update(events, tick);
         }
+        subscriptions.dispatch(events);
+        return new ArrayList<>(events);
     }
 
     /**
      * Removes all added {@link Event}s.
      */
-    public void clear() {
-        queuedEvents.clear();
+    public synchronized void clear() {
+        drain();
     }
 
     /**
-     * Returns a log of this bus.
+     * Removes all added {@link Event}s and the {@link #getLog() log} and resets the
+     * {@link #setStatistics(EventStatistics) statistics}, so that a restarted simulation starts with an empty log and
+     * statistics. The subscriptions, the {@link EventSink} and the {@link EventRetention} are kept.
+     */
+    public synchronized void reset() {
+        drain();
+        log.reset();
+        if (statistics != null) {
+            statistics.reset();
+        }
+    }
+
+    /**
+     * Removes all nodes up to the current tail and returns their {@link Event}s.
+     * @return The {@link Event}s of the removed nodes.
+     */
+    private List<Event> drain() {
+        Node last = tail.get();
+        List<Event> events = new ArrayList<>();
+        Node node = head;
+        while (node != last) {
+            Node next = node.next;
+            while (next == null) {
+                // a producer has exchanged the tail, but not linked its node yet
+                Thread.onSpinWait();
+                next = node.next;
+            }
+            node.next = null;
+            node = next;
+            if (node.batch != null) {
+                Collections.addAll(events, node.batch);
+            } else {
+                events.add(node.event);
+            }
+            // the node is the new head and must not keep its events alive
+            node.event = null;
+            node.batch = null;
+        }
+        head = node;
+        return events;
+    }
+
+    /**
+     * Returns a log of this bus. Ticks that have been spilled by the {@link EventRetention} are read back on demand,
+     * ticks that have been dropped are not contained.
      * @return A log of this bus containing all {@link Event}s popped at a specific tick.
      */
     public Map<Long, List<Event>> getLog() {
         return unmodifiableLog;
     }
+
+    private static final class Node {
+
+        private Event event;
+        private Event[] batch;
+        private volatile Node next;
+
+        private Node(Event event, Event[] batch) {
+            this.event = event;
+            this.batch = batch;
+        }
+    }
 }
@@ -0,0 +1,172 @@
+package projekt.delivery.event;
+
+import projekt.base.Location;
+import projekt.delivery.routing.Region;
+import projekt.delivery.routing.Vehicle;
+import projekt.delivery.routing.VehicleManager;
+
+import java.util.*;
+
+/**
+ * The dictionary of a {@link Region} and its {@link Vehicle}s that is shared by a {@link BinaryEventWriter} and a
+ * {@link BinaryEventReader} and used by an {@link EventTimeline}.<p>
+ *
+ * {@link Region.Node}s and {@link Region.Edge}s are identified by their index in the order of their {@link Location}s,
+ * {@link Vehicle}s by their ID. Since only the {@link Region} and the {@link Vehicle}s determine the dictionary, a
+ * recorded log can be read with the dictionary of any {@link VehicleManager} that was created from the same problem.
+ */
+public final class EventDictionary {
+
+    private final Region.Node[] nodes;
+    private final Region.Edge[] edges;
+    private final Map<Location, Integer> nodeIds = new HashMap<>();
+    private final Map<Location, Map<Location, Integer>> edgeIds = new HashMap<>();
+    private final Map<Integer, Vehicle> vehicles = new HashMap<>();
+    private final Vehicle[] sortedVehicles;
+    private final Map<Integer, Integer> vehicleIndices = new HashMap<>();
+    private final Map<Location, VehicleManager.OccupiedRestaurant> restaurants = new HashMap<>();
+    private final long fingerprint;
+
+    /**
+     * Creates a new {@link EventDictionary} instance.
+     * @param region The {@link Region} the {@link Event}s occur in.
+     * @param vehicles All {@link Vehicle}s, including the ones that haven't been spawned yet.
+     * @param restaurants The {@link VehicleManager.OccupiedRestaurant}s of the {@link Region}.
+     * @throws IllegalArgumentException If two {@link Vehicle}s have the same ID.
+     */
+    public EventDictionary(
+        Region region,
+        Collection<Vehicle> vehicles,
+        Collection<? extends VehicleManager.OccupiedRestaurant> restaurants
+    ) {
+        nodes = region.getNodes().stream()
+            .sorted(Comparator.comparing(Region.Node::getLocation))
+            .toArray(Region.Node[]::new);
+        edges = region.getEdges().stream()
+            .sorted(Comparator.<Region.Edge, Location>comparing(edge -> edge.getNodeA().getLocation())
+                .thenComparing(edge -> edge.getNodeB().getLocation()))
+            .toArray(Region.Edge[]::new);
+
+        long fingerprint = 17;
+        for (int i = 0; i < nodes.length; i++) {
+            Location location = nodes[i].getLocation();
+            nodeIds.put(location, i);
+            fingerprint = 31 * fingerprint + location.hashCode();
+        }
+        for (int i = 0; i < edges.length; i++) {
+            Location locationA = edges[i].getNodeA().getLocation();
+            Location locationB = edges[i].getNodeB().getLocation();
+            edgeIds.computeIfAbsent(locationA, location -> new HashMap<>()).put(locationB, i);
+            fingerprint = 31 * (31 * fingerprint + locationA.hashCode()) + locationB.hashCode();
+        }
+        this.fingerprint = 31 * fingerprint + nodes.length;
+
+        for (Vehicle vehicle : vehicles) {
+            if (this.vehicles.put(vehicle.getId(), vehicle) != null) {
+                throw new IllegalArgumentException("Duplicate vehicle ID: %d".formatted(vehicle.getId()));
+            }
+        }
+        sortedVehicles = this.vehicles.values().stream()
+            .sorted(Comparator.comparingInt(Vehicle::getId))
+            .toArray(Vehicle[]::new);
+        for (int i = 0; i < sortedVehicles.length; i++) {
+            vehicleIndices.put(sortedVehicles[i].getId(), i);
+        }
+        for (VehicleManager.OccupiedRestaurant restaurant : restaurants) {
+            this.restaurants.put(restaurant.getComponent().getLocation(), restaurant);
+        }
+    }
+
+    /**
+     * Returns the {@link EventDictionary} of the given {@link VehicleManager}.
+     * @param vehicleManager The {@link VehicleManager} the {@link Event}s occur in.
+     * @return The {@link EventDictionary} of the given {@link VehicleManager}.
+     */
+    public static EventDictionary of(VehicleManager vehicleManager) {
+        return new EventDictionary(
+            vehicleManager.getRegion(),
+            vehicleManager.getAllVehicles(),
+            vehicleManager.getOccupiedRestaurants()
+        );
+    }
+
+    /**
+     * Returns a fingerprint of the {@link Region}, used to detect logs that were recorded in another {@link Region}.
+     * @return A fingerprint of the {@link Region}.
+     */
+    long getFingerprint() {
+        return fingerprint;
+    }
+
+    int getNodeCount() {
+        return nodes.length;
+    }
+
+    int getEdgeCount() {
+        return edges.length;
+    }
+
+    int nodeId(Region.Node node) {
+        Integer id = nodeIds.get(node.getLocation());
+        if (id == null) {
+            throw new IllegalArgumentException("Unknown node: %s".formatted(node.getLocation()));
+        }
+        return id;
+    }
+
+    int edgeId(Region.Edge edge) {
+        Integer id = edgeIds.getOrDefault(edge.getNodeA().getLocation(), Map.of()).get(edge.getNodeB().getLocation());
+        if (id == null) {
+            throw new IllegalArgumentException("Unknown edge: %s".formatted(edge.getName()));
+        }
+        return id;
+    }
+
+    int vehicleId(Vehicle vehicle) {
+        if (!vehicles.containsKey(vehicle.getId())) {
+            throw new IllegalArgumentException("Unknown vehicle ID: %d".formatted(vehicle.getId()));
+        }
+        return vehicle.getId();
+    }
+
+    int getVehicleCount() {
+        return sortedVehicles.length;
+    }
+
+    // the index of the vehicle in the order of the IDs of all vehicles
+    int vehicleIndex(Vehicle vehicle) {
+        Integer index = vehicleIndices.get(vehicle.getId());
+        if (index == null) {
+            throw new IllegalArgumentException("Unknown vehicle ID: %d".formatted(vehicle.getId()));
+        }
+        return index;
+    }
+
+    Vehicle vehicleAt(int index) {
+        return sortedVehicles[index];
+    }
+
+    Region.Node node(int id) {
+        return nodes[id];
+    }
+
+    Region.Edge edge(int id) {
+        return edges[id];
+    }
+
+    Vehicle vehicle(int id) {
+        Vehicle vehicle = vehicles.get(id);
+        if (vehicle == null) {
+            throw new IllegalArgumentException("Unknown vehicle ID: %d".formatted(id));
+        }
+        return vehicle;
+    }
+
+    VehicleManager.OccupiedRestaurant restaurant(Region.Node node) {
+        VehicleManager.OccupiedRestaurant restaurant = restaurants.get(node.getLocation());
+        if (restaurant == null) {
+            throw new IllegalArgumentException("Unknown restaurant: %s".formatted(node.getLocation()));
+        }
+        return restaurant;
+    }
+}
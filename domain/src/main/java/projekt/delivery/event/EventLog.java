@@ -0,0 +1,165 @@
+package projekt.delivery.event;
+
+import java.io.UncheckedIOException;
+import java.util.*;
+
+/**
+ * The log of an {@link EventBus} that keeps the most recent ticks in memory according to an {@link EventRetention}.<p>
+ *
+ * The log is a read-only {@link Map} view. Spilled ticks are paged back in on demand, one segment at a time, and the
+ * most recently read segment is cached. If a segment cannot be spilled, a warning is printed once and all ticks from
+ * then on are kept in memory. All methods are synchronized on the log.
+ */
+class EventLog extends AbstractMap<Long, List<Event>> {
+
+    private final LinkedHashMap<Long, List<Event>> retained = new LinkedHashMap<>();
+    private EventRetention retention = EventRetention.unbounded();
+    private EventSegmentFile segmentFile;
+    private int cachedSegment = -1;
+    private Map<Long, List<Event>> cachedTicks = Map.of();
+    private int size = 0;
+    private boolean spillFailed = false;
+
+    /**
+     * Sets the {@link EventRetention} applied when the next tick is added.
+     * @param retention The {@link EventRetention} to apply.
+     */
+    synchronized void setRetention(EventRetention retention) {
+        this.retention = Objects.requireNonNull(retention, "retention");
+        spillFailed = false;
+    }
+
+    /**
+     * Adds the {@link Event}s of the given tick and evicts the oldest ticks if more ticks than retained are in memory.
+     * @param tick The tick the {@link Event}s occurred in.
+     * @param events The unmodifiable {@link List} of {@link Event}s of the tick.
+     */
+    synchronized void add(long tick, List<Event> events) {
+        if (!containsKey(tick)) {
+            size++;
+        }
+        retained.put(tick, events);
+
+        if (!retention.isSpilling()) {
+            while (retained.size() > retention.retainedTicks()) {
+                Iterator<Long> iterator = retained.keySet().iterator();
+                long evictedTick = iterator.next();
+                iterator.remove();
+                if (!containsKey(evictedTick)) {
+                    size--;
+                }
+            }
+        } else if (!spillFailed
+            && (long) retained.size() >= (long) retention.retainedTicks() + retention.segmentTicks()) {
+            spill();
+        }
+    }
+
+    private void spill() {
+        if (segmentFile == null) {
+            segmentFile = new EventSegmentFile(retention.spillDirectory());
+        }
+        SortedMap<Long, List<Event>> segment = new TreeMap<>();
+        Iterator<Map.Entry<Long, List<Event>>> iterator = retained.entrySet().iterator();
+        while (segment.size() < retention.segmentTicks()) {
+            Map.Entry<Long, List<Event>> entry = iterator.next();
+            segment.put(entry.getKey(), entry.getValue());
+        }
+        try {
+            segmentFile.append(segment);
+        } catch (IllegalArgumentException | UncheckedIOException e) {
+            // a tick that cannot be spilled must not end the simulation, so spilling is given up instead of retried
+            spillFailed = true;
+            System.err.println("Could not spill the event log, keeping all further ticks in memory: " + e.getMessage());
+            return;
+        }
+        retained.keySet().removeAll(segment.keySet());
+    }
+
+    /**
+     * Removes all ticks of this log and deletes the segment file.
+     */
+    synchronized void reset() {
+        retained.clear();
+        if (segmentFile != null) {
+            segmentFile.close();
+            segmentFile = null;
+        }
+        cachedSegment = -1;
+        cachedTicks = Map.of();
+        size = 0;
+        spillFailed = false;
+    }
+
+    @Override
+    public synchronized List<Event> get(Object key) {
+        if (!(key instanceof Long tick)) {
+            return null;
+        }
+        List<Event> events = retained.get(tick);
+        if (events != null || segmentFile == null) {
+            return events;
+        }
+        int segment = segmentFile.findSegment(tick);
+        if (segment == -1) {
+            return null;
+        }
+        if (segment != cachedSegment) {
+            cachedTicks = segmentFile.read(segment);
+            cachedSegment = segment;
+        }
+        return cachedTicks.get(tick);
+    }
+
+    @Override
+    public synchronized boolean containsKey(Object key) {
+        return key instanceof Long tick
+            && (retained.containsKey(tick) || segmentFile != null && segmentFile.findSegment(tick) != -1);
+    }
+
+    @Override
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of bytes written to the segment file.
+     * @return The number of bytes written to the segment file.
+     */
+    synchronized long getSpilledBytes() {
+        return segmentFile == null ? 0 : segmentFile.size();
+    }
+
+    /**
+     * Returns the ticks of this log in ascending order, mapped lazily to their {@link Event}s.
+     * @return An unmodifiable {@link Set} view of the entries of this log.
+     */
+    @Override
+    public synchronized Set<Entry<Long, List<Event>>> entrySet() {
+        SortedSet<Long> ticks = segmentFile == null ? new TreeSet<>() : segmentFile.getTicks();
+        ticks.addAll(retained.keySet());
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<Long, List<Event>>> iterator() {
+                Iterator<Long> iterator = ticks.iterator();
+                return new Iterator<>() {
+                    @Override
+                    public boolean hasNext() {
+                        return iterator.hasNext();
+                    }
+
+                    @Override
+                    public Entry<Long, List<Event>> next() {
+                        long tick = iterator.next();
+                        return new SimpleImmutableEntry<>(tick, get(tick));
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return ticks.size();
+            }
+        };
+    }
+}
@@ -0,0 +1,72 @@
+package projekt.delivery.event;
+
+import java.nio.file.Path;
+
+/**
+ * Describes how many ticks the log of an {@link EventBus} keeps in memory and what happens to older ticks.<p>
+ *
+ * Older ticks are either dropped or spilled to an append-only segment file in the given directory. Spilled ticks are
+ * written in segments of {@code segmentTicks} ticks and are paged back in, one segment at a time, when they are read
+ * from {@link EventBus#getLog()}. Paged in ticks refer to copies of their orders with the state the orders had when
+ * they were spilled. Only the {@link Event} implementations of this package can be spilled. If a segment contains
+ * another {@link Event} or cannot be written, a warning is printed and the log keeps all further ticks in memory.
+ * {@link projekt.delivery.simulation.Simulation#snapshot()} reads every tick of the log, so it requires a retention
+ * that does not drop ticks.
+ *
+ * @param retainedTicks The number of most recent ticks that are kept in memory.
+ * @param segmentTicks The number of ticks that are spilled together.
+ * @param spillDirectory The directory of the segment file or {@code null} if older ticks are dropped.
+ */
+public record EventRetention(int retainedTicks, int segmentTicks, Path spillDirectory) {
+
+    private static final EventRetention UNBOUNDED = new EventRetention(Integer.MAX_VALUE, 1, null);
+
+    /**
+     * Creates a new {@link EventRetention} instance.
+     * @throws IllegalArgumentException If retainedTicks or segmentTicks is not positive.
+     */
+    public EventRetention {
+        if (retainedTicks <= 0) {
+            throw new IllegalArgumentException("retainedTicks must be positive");
+        }
+        if (segmentTicks <= 0) {
+            throw new IllegalArgumentException("segmentTicks must be positive");
+        }
+    }
+
+    /**
+     * Returns an {@link EventRetention} that keeps every tick in memory.
+     * @return An {@link EventRetention} that keeps every tick in memory.
+     */
+    public static EventRetention unbounded() {
+        return UNBOUNDED;
+    }
+
+    /**
+     * Returns an {@link EventRetention} that keeps the given number of ticks in memory and drops older ticks.
+     * @param retainedTicks The number of most recent ticks that are kept in memory.
+     * @return The created {@link EventRetention}.
+     */
+    public static EventRetention dropping(int retainedTicks) {
+        return new EventRetention(retainedTicks, 1, null);
+    }
+
+    /**
+     * Returns an {@link EventRetention} that keeps the given number of ticks in memory and spills older ticks to a
+     * segment file in the given directory, in segments of as many ticks as are retained.
+     * @param retainedTicks The number of most recent ticks that are kept in memory.
+     * @param spillDirectory The directory of the segment file.
+     * @return The created {@link EventRetention}.
+     */
+    public static EventRetention spilling(int retainedTicks, Path spillDirectory) {
+        return new EventRetention(retainedTicks, retainedTicks, spillDirectory);
+    }
+
+    /**
+     * Returns true, if older ticks are spilled to a segment file.
+     * @return True, if older ticks are spilled to a segment file.
+     */
+    public boolean isSpilling() {
+        return spillDirectory != null;
+    }
+}
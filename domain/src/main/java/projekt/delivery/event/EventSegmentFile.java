@@ -0,0 +1,379 @@
+package projekt.delivery.event;
+
+import projekt.base.Location;
+import projekt.base.TickInterval;
+import projekt.delivery.routing.ConfirmedOrder;
+import projekt.delivery.routing.Region;
+import projekt.delivery.routing.Vehicle;
+import projekt.delivery.routing.VehicleManager;
+
+import java.io.*;
+import java.lang.ref.Cleaner;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * An append-only file containing segments of spilled ticks of an {@link EventLog}.<p>
+ *
+ * The {@link Event}s are written in a compact binary form. {@link Vehicle}s, {@link Region.Component}s and
+ * {@link VehicleManager.OccupiedRestaurant}s are written as the index of the object in a reference table that is kept
+ * in memory, so read {@link Event}s refer to the same instances as the written ones. The table only grows with the
+ * size of the simulated region and its vehicles. {@link ConfirmedOrder}s are written by value, like in
+ * {@link BinaryEventFormat}: in full when they occur in a segment for the first time and as their ID afterwards. They
+ * are read as new instances with the state they had when they were spilled, so spilled orders are not kept reachable.
+ * {@link Event}s of unknown implementations can not be written and are rejected.<p>
+ *
+ * The file is created in the given directory when the first segment is written and deleted when this object is closed,
+ * becomes unreachable or the JVM terminates.
+ */
+class EventSegmentFile implements Closeable {
+
+    private static final Cleaner CLEANER = Cleaner.create();
+
+    private static final byte EVENT = 1;
+    private static final byte ORDER_RECEIVED = 2;
+    private static final byte SPAWN = 3;
+    private static final byte ARRIVED_AT_RESTAURANT = 4;
+    private static final byte ARRIVED_AT_NEIGHBORHOOD = 5;
+    private static final byte ARRIVED_AT_NODE = 6;
+    private static final byte ARRIVED_AT_EDGE = 7;
+    private static final byte LOAD_ORDER = 8;
+    private static final byte DELIVER_ORDER = 9;
+
+    private final Path directory;
+    private final List<Object> references = new ArrayList<>();
+    private final Map<Object, Integer> referenceIndices = new IdentityHashMap<>();
+    /**
+     * The IDs of the {@link ConfirmedOrder}s written in full in the current segment.
+     */
+    private final Set<Integer> writtenOrders = new HashSet<>();
+    /**
+     * The {@link ConfirmedOrder}s read from the current segment, mapped by their ID.
+     */
+    private final Map<Integer, ConfirmedOrder> readOrders = new HashMap<>();
+    private final List<Segment> segments = new ArrayList<>();
+    private FileState state;
+    private Cleaner.Cleanable cleanable;
+    private long size = 0;
+
+    /**
+     * Creates a new {@link EventSegmentFile} instance. The file is not created yet.
+     * @param directory The directory the file is created in.
+     */
+    EventSegmentFile(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Appends a segment containing the given ticks.
+     * @param ticks The {@link Event}s of the spilled ticks, mapped by their tick.
+     * @throws IllegalArgumentException If an {@link Event} is of an unknown implementation. Nothing is written then.
+     * @throws UncheckedIOException If the segment can not be written.
+     */
+    void append(SortedMap<Long, List<Event>> ticks) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        long[] segmentTicks = new long[ticks.size()];
+        int i = 0;
+        writtenOrders.clear();
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            for (Map.Entry<Long, List<Event>> entry : ticks.entrySet()) {
+                segmentTicks[i++] = entry.getKey();
+                output.writeInt(entry.getValue().size());
+                for (Event event : entry.getValue()) {
+                    writeEvent(output, event);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+        long position = size;
+        try {
+            FileChannel channel = channel();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer, size);
+                size = position + buffer.position();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        segments.add(new Segment(segmentTicks, position, buffer.capacity()));
+    }
+
+    /**
+     * Returns the index of the newest segment containing the given tick.
+     * @param tick The tick to search for.
+     * @return The index of the newest segment containing the tick or -1 if no segment contains it.
+     */
+    int findSegment(long tick) {
+        for (int i = segments.size() - 1; i >= 0; i--) {
+            if (Arrays.binarySearch(segments.get(i).ticks(), tick) >= 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the spilled ticks of all segments in ascending order. A tick contained in several segments is returned
+     * once.
+     * @return The spilled ticks.
+     */
+    SortedSet<Long> getTicks() {
+        SortedSet<Long> ticks = new TreeSet<>();
+        for (Segment segment : segments) {
+            for (long tick : segment.ticks()) {
+                ticks.add(tick);
+            }
+        }
+        return ticks;
+    }
+
+    /**
+     * Reads the segment with the given index.
+     * @param index The index of the segment.
+     * @return The {@link Event}s of the ticks of the segment, mapped by their tick.
+     * @throws UncheckedIOException If the segment can not be read.
+     */
+    Map<Long, List<Event>> read(int index) {
+        Segment segment = segments.get(index);
+        ByteBuffer buffer = ByteBuffer.allocate(segment.length());
+        try {
+            FileChannel channel = channel();
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, segment.position() + buffer.position()) < 0) {
+                    throw new EOFException("segment %d is truncated".formatted(index));
+                }
+            }
+            Map<Long, List<Event>> ticks = new HashMap<>();
+            readOrders.clear();
+            DataInputStream input = new DataInputStream(new ByteArrayInputStream(buffer.array()));
+            for (long tick : segment.ticks()) {
+                int count = input.readInt();
+                List<Event> events = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    events.add(readEvent(input));
+                }
+                ticks.put(tick, Collections.unmodifiableList(events));
+            }
+            return ticks;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Returns the number of written bytes.
+     * @return The number of written bytes.
+     */
+    long size() {
+        return size;
+    }
+
+    @Override
+    public void close() {
+        if (cleanable != null) {
+            cleanable.clean();
+        }
+    }
+
+    private FileChannel channel() throws IOException {
+        if (state == null) {
+            Files.createDirectories(directory);
+            Path file = Files.createTempFile(directory, "events-", ".segments");
+            file.toFile().deleteOnExit();
+            state = new FileState(FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                StandardOpenOption.DELETE_ON_CLOSE));
+            cleanable = CLEANER.register(this, state);
+        }
+        return state.channel;
+    }
+
+    private void writeEvent(DataOutput output, Event event) throws IOException {
+        Class<?> type = event.getClass();
+        if (type == EventImpl.class) {
+            output.writeByte(EVENT);
+            output.writeLong(event.getTick());
+        } else if (type == OrderReceivedEventImpl.class) {
+            output.writeByte(ORDER_RECEIVED);
+            output.writeLong(event.getTick());
+            writeOrder(output, ((OrderReceivedEvent) event).getOrder());
+        } else if (type == SpawnEventImpl.class) {
+            SpawnEvent spawnEvent = (SpawnEvent) event;
+            output.writeByte(SPAWN);
+            output.writeLong(event.getTick());
+            writeReference(output, spawnEvent.getVehicle());
+            writeReference(output, spawnEvent.getNode());
+        } else if (type == ArrivedAtRestaurantEventImpl.class) {
+            ArrivedAtRestaurantEvent arrivedEvent = (ArrivedAtRestaurantEvent) event;
+            output.writeByte(ARRIVED_AT_RESTAURANT);
+            output.writeLong(event.getTick());
+            writeReference(output, arrivedEvent.getVehicle());
+            writeReference(output, arrivedEvent.getRestaurant());
+            writeReference(output, arrivedEvent.getLastEdge());
+        } else if (type == ArrivedAtNeighborhoodEventImpl.class) {
+            ArrivedAtNeighborhoodEvent arrivedEvent = (ArrivedAtNeighborhoodEvent) event;
+            output.writeByte(ARRIVED_AT_NEIGHBORHOOD);
+            output.writeLong(event.getTick());
+            writeReference(output, arrivedEvent.getVehicle());
+            writeReference(output, arrivedEvent.getNode());
+            writeReference(output, arrivedEvent.getLastEdge());
+        } else if (type == ArrivedAtNodeEventImpl.class) {
+            ArrivedAtNodeEvent arrivedEvent = (ArrivedAtNodeEvent) event;
+            output.writeByte(ARRIVED_AT_NODE);
+            output.writeLong(event.getTick());
+            writeReference(output, arrivedEvent.getVehicle());
+            writeReference(output, arrivedEvent.getNode());
+            writeReference(output, arrivedEvent.getLastEdge());
+        } else if (type == ArrivedAtEdgeEventImpl.class) {
+            ArrivedAtEdgeEvent arrivedEvent = (ArrivedAtEdgeEvent) event;
+            output.writeByte(ARRIVED_AT_EDGE);
+            output.writeLong(event.getTick());
+            writeReference(output, arrivedEvent.getVehicle());
+            writeReference(output, arrivedEvent.getEdge());
+            writeReference(output, arrivedEvent.getLastNode());
+        } else if (type == LoadOrderEventImpl.class) {
+            LoadOrderEvent loadEvent = (LoadOrderEvent) event;
+            output.writeByte(LOAD_ORDER);
+            output.writeLong(event.getTick());
+            writeReference(output, loadEvent.getVehicle());
+            writeOrder(output, loadEvent.getOrder());
+            writeReference(output, loadEvent.getRestaurant());
+        } else if (type == DeliverOrderEventImpl.class) {
+            DeliverOrderEvent deliverEvent = (DeliverOrderEvent) event;
+            output.writeByte(DELIVER_ORDER);
+            output.writeLong(event.getTick());
+            writeReference(output, deliverEvent.getVehicle());
+            writeReference(output, deliverEvent.getNode());
+            writeOrder(output, deliverEvent.getOrder());
+        } else {
+            throw new IllegalArgumentException("Events of type %s can not be spilled".formatted(type.getName()));
+        }
+    }
+
+    private Event readEvent(DataInput input) throws IOException {
+        byte type = input.readByte();
+        long tick = input.readLong();
+        return switch (type) {
+            case EVENT -> Event.of(tick);
+            case ORDER_RECEIVED -> OrderReceivedEvent.of(tick, readOrder(input));
+            case SPAWN -> SpawnEvent.of(tick, readReference(input), readReference(input));
+            case ARRIVED_AT_RESTAURANT -> ArrivedAtRestaurantEvent.of(tick, readReference(input),
+                this.<VehicleManager.OccupiedRestaurant>readReference(input), readReference(input));
+            case ARRIVED_AT_NEIGHBORHOOD -> ArrivedAtNeighborhoodEvent.of(tick, readReference(input),
+                this.<Region.Neighborhood>readReference(input), readReference(input));
+            case ARRIVED_AT_NODE -> ArrivedAtNodeEvent.of(tick, readReference(input),
+                this.<Region.Node>readReference(input), readReference(input));
+            case ARRIVED_AT_EDGE -> ArrivedAtEdgeEvent.of(tick, readReference(input),
+                this.<Region.Edge>readReference(input), readReference(input));
+            case LOAD_ORDER -> LoadOrderEvent.of(tick, readReference(input),
+                readOrder(input), readReference(input));
+            case DELIVER_ORDER -> DeliverOrderEvent.of(tick, readReference(input),
+                this.<Region.Neighborhood>readReference(input), readOrder(input));
+            default -> throw new StreamCorruptedException("Unknown event type %d".formatted(type));
+        };
+    }
+
+    private void writeReference(DataOutput output, Object object) throws IOException {
+        if (object == null) {
+            output.writeInt(-1);
+            return;
+        }
+        Integer index = referenceIndices.get(object);
+        if (index == null) {
+            index = references.size();
+            references.add(object);
+            referenceIndices.put(object, index);
+        }
+        output.writeInt(index);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T readReference(DataInput input) throws IOException {
+        int index = input.readInt();
+        return index == -1 ? null : (T) references.get(index);
+    }
+
+    private void writeOrder(DataOutput output, ConfirmedOrder order) throws IOException {
+        if (order == null) {
+            output.writeBoolean(false);
+            return;
+        }
+        output.writeBoolean(true);
+        output.writeInt(order.getOrderID());
+        if (!writtenOrders.add(order.getOrderID())) {
+            return;
+        }
+        output.writeInt(order.getX());
+        output.writeInt(order.getY());
+        writeReference(output, order.getRestaurant());
+        output.writeLong(order.getDeliveryInterval().start());
+        output.writeLong(order.getDeliveryInterval().end());
+        output.writeInt(order.getFoodList().size());
+        for (String food : order.getFoodList()) {
+            output.writeUTF(food);
+        }
+        output.writeDouble(order.getWeight());
+        output.writeLong(order.getActualDeliveryTick());
+    }
+
+    private ConfirmedOrder readOrder(DataInput input) throws IOException {
+        if (!input.readBoolean()) {
+            return null;
+        }
+        int orderID = input.readInt();
+        ConfirmedOrder order = readOrders.get(orderID);
+        if (order != null) {
+            return order;
+        }
+        Location location = new Location(input.readInt(), input.readInt());
+        VehicleManager.OccupiedRestaurant restaurant = readReference(input);
+        TickInterval deliveryInterval = new TickInterval(input.readLong(), input.readLong());
+        int foodCount = input.readInt();
+        List<String> foodList = new ArrayList<>(foodCount);
+        for (int i = 0; i < foodCount; i++) {
+            foodList.add(input.readUTF());
+        }
+        order = ConfirmedOrder.restore(orderID, location, restaurant, deliveryInterval, List.copyOf(foodList),
+            input.readDouble());
+        order.setActualDeliveryTick(input.readLong());
+        readOrders.put(orderID, order);
+        return order;
+    }
+
+    /**
+     * The ticks of a segment and its location in the file.
+     *
+     * @param ticks The ticks of the segment in ascending order.
+     * @param position The position of the segment in the file.
+     * @param length The length of the segment in bytes.
+     */
+    private record Segment(long[] ticks, long position, int length) {}
+
+    /**
+     * The open channel of the file. It does not refer to the {@link EventSegmentFile}, so it can close the channel
+     * after the {@link EventSegmentFile} became unreachable.
+     */
+    private static final class FileState implements Runnable {
+
+        private final FileChannel channel;
+
+        private FileState(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        @Override
+        public void run() {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+                // the file is deleted on exit anyway
+            }
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package projekt.delivery.event;
+
+import java.util.List;
+
+/**
+ * Receives the {@link Event}s popped from an {@link EventBus}, e.g. to log them.<p>
+ *
+ * A sink is called on the simulating thread after every tick, so it must return quickly and must not block.
+ */
+@FunctionalInterface
+public interface EventSink {
+
+    /**
+     * A {@link EventSink} that ignores all {@link Event}s.
+     */
+    EventSink NONE = (tick, events) -> {
+    };
+
+    /**
+     * Receives the {@link Event}s that occurred during the given tick.
+     * @param tick The tick the {@link Event}s occurred in.
+     * @param events The unmodifiable {@link List} of {@link Event}s that occurred during the tick.
+     */
+    void accept(long tick, List<Event> events);
+}
@@ -0,0 +1,343 @@
+package projekt.delivery.event;
+
+import projekt.base.TickInterval;
+import projekt.delivery.routing.ConfirmedOrder;
+import projekt.delivery.routing.Region;
+import projekt.delivery.routing.Vehicle;
+import projekt.delivery.routing.VehicleManager;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Counters and running sums of the {@link Event}s popped from an {@link EventBus}, aggregated per {@link Vehicle},
+ * {@link Region.Edge}, restaurant and neighborhood.<p>
+ *
+ * The statistics are updated once per tick by {@link EventBus#popEvents(long)}, before the subscribed handlers are
+ * called, so every consumer can query them instead of scanning the {@link Event}s again. They are kept in primitive
+ * arrays indexed by the IDs of an {@link EventDictionary} and can only be read from outside this package. Since the
+ * arrays are updated without synchronization, they should be queried by the thread popping the {@link Event}s, e.g.
+ * by a {@link projekt.delivery.simulation.SimulationListener}. They are reset together with the log of the
+ * {@link EventBus} by {@link EventBus#reset()}, e.g. when the simulation is restarted.<p>
+ *
+ * The distance of an {@link Region.Edge} is counted when a {@link Vehicle} arrives at it. A delivery is in time if its
+ * tick is in the delivery interval of its {@link ConfirmedOrder}, otherwise the number of ticks it is off is summed up.
+ */
+public final class EventStatistics {
+
+    private final EventDictionary dictionary;
+
+    private final int[] vehicleEdges;
+    private final long[] vehicleDistances;
+    private final int[] vehicleLoads;
+    private final int[] vehicleDeliveries;
+    private final int[] edgeTraversals;
+    private final int[] nodeArrivals;
+    private final int[] nodeOrdersReceived;
+    private final int[] nodeOrdersLoaded;
+    private final int[] nodeDeliveries;
+    private final int[] nodeDeliveriesInTime;
+    private final long[] nodeTicksOff;
+
+    private long tickCount = 0;
+    private long lastTick = -1;
+    private long eventCount = 0;
+    private long ordersReceived = 0;
+    private long ordersLoaded = 0;
+    private long deliveries = 0;
+    private long deliveriesInTime = 0;
+    private long ticksOff = 0;
+    private long distance = 0;
+
+    /**
+     * Creates a new {@link EventStatistics} instance without any aggregated {@link Event}s.
+     * @param dictionary The {@link EventDictionary} of the {@link Region} and {@link Vehicle}s the {@link Event}s
+     *                   occur in.
+     */
+    public EventStatistics(EventDictionary dictionary) {
+        this.dictionary = dictionary;
+        int vehicleCount = dictionary.getVehicleCount();
+        vehicleEdges = new int[vehicleCount];
+        vehicleDistances = new long[vehicleCount];
+        vehicleLoads = new int[vehicleCount];
+        vehicleDeliveries = new int[vehicleCount];
+        edgeTraversals = new int[dictionary.getEdgeCount()];
+        int nodeCount = dictionary.getNodeCount();
+        nodeArrivals = new int[nodeCount];
+        nodeOrdersReceived = new int[nodeCount];
+        nodeOrdersLoaded = new int[nodeCount];
+        nodeDeliveries = new int[nodeCount];
+        nodeDeliveriesInTime = new int[nodeCount];
+        nodeTicksOff = new long[nodeCount];
+    }
+
+    /**
+     * Creates new {@link EventStatistics} for the given {@link VehicleManager} and lets its {@link EventBus} update
+     * them from now on.
+     * @param vehicleManager The {@link VehicleManager} whose {@link Event}s are aggregated.
+     * @return The created {@link EventStatistics}.
+     */
+    public static EventStatistics attach(VehicleManager vehicleManager) {
+        EventStatistics statistics = new EventStatistics(EventDictionary.of(vehicleManager));
+        vehicleManager.getEventBus().setStatistics(statistics);
+        return statistics;
+    }
+
+    /**
+     * Adds the {@link Event}s of the given tick to the statistics.
+     * @param events The {@link Event}s of the tick.
+     * @param tick The tick.
+     */
+    void update(List<Event> events, long tick) {
+        tickCount++;
+        lastTick = tick;
+        eventCount += events.size();
+        for (Event event : events) {
+            if (event instanceof ArrivedAtEdgeEvent arrivedEvent) {
+                long duration = arrivedEvent.getEdge().getDuration();
+                int vehicle = dictionary.vehicleIndex(arrivedEvent.getVehicle());
+                vehicleEdges[vehicle]++;
+                vehicleDistances[vehicle] += duration;
+                edgeTraversals[dictionary.edgeId(arrivedEvent.getEdge())]++;
+                distance += duration;
+            } else if (event instanceof ArrivedAtNodeEvent arrivedEvent) {
+                nodeArrivals[dictionary.nodeId(arrivedEvent.getNode())]++;
+            } else if (event instanceof OrderReceivedEvent receivedEvent) {
+                nodeOrdersReceived[dictionary.nodeId(receivedEvent.getOrder().getRestaurant().getComponent())]++;
+                ordersReceived++;
+            } else if (event instanceof LoadOrderEvent loadEvent) {
+                vehicleLoads[dictionary.vehicleIndex(loadEvent.getVehicle())]++;
+                nodeOrdersLoaded[dictionary.nodeId(loadEvent.getRestaurant())]++;
+                ordersLoaded++;
+            } else if (event instanceof DeliverOrderEvent deliverEvent) {
+                int node = dictionary.nodeId(deliverEvent.getNode());
+                long off = ticksOff(deliverEvent.getOrder().getDeliveryInterval(), deliverEvent.getTick());
+                vehicleDeliveries[dictionary.vehicleIndex(deliverEvent.getVehicle())]++;
+                nodeDeliveries[node]++;
+                deliveries++;
+                if (off == 0) {
+                    nodeDeliveriesInTime[node]++;
+                    deliveriesInTime++;
+                } else {
+                    nodeTicksOff[node] += off;
+                    ticksOff += off;
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes all aggregated {@link Event}s.
+     */
+    void reset() {
+        Arrays.fill(vehicleEdges, 0);
+        Arrays.fill(vehicleDistances, 0);
+        Arrays.fill(vehicleLoads, 0);
+        Arrays.fill(vehicleDeliveries, 0);
+        Arrays.fill(edgeTraversals, 0);
+        Arrays.fill(nodeArrivals, 0);
+        Arrays.fill(nodeOrdersReceived, 0);
+        Arrays.fill(nodeOrdersLoaded, 0);
+        Arrays.fill(nodeDeliveries, 0);
+        Arrays.fill(nodeDeliveriesInTime, 0);
+        Arrays.fill(nodeTicksOff, 0);
+        tickCount = 0;
+        lastTick = -1;
+        eventCount = 0;
+        ordersReceived = 0;
+        ordersLoaded = 0;
+        deliveries = 0;
+        deliveriesInTime = 0;
+        ticksOff = 0;
+        distance = 0;
+    }
+
+    private static long ticksOff(TickInterval deliveryInterval, long tick) {
+        if (tick < deliveryInterval.start()) {
+            return deliveryInterval.start() - tick;
+        }
+        return Math.max(0, tick - deliveryInterval.end());
+    }
+
+    /**
+     * Returns the number of aggregated ticks.
+     * @return The number of aggregated ticks.
+     */
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    /**
+     * Returns the last aggregated tick.
+     * @return The last aggregated tick or -1 if no tick has been aggregated.
+     */
+    public long getLastTick() {
+        return lastTick;
+    }
+
+    /**
+     * Returns the number of aggregated {@link Event}s.
+     * @return The number of aggregated {@link Event}s.
+     */
+    public long getEventCount() {
+        return eventCount;
+    }
+
+    /**
+     * Returns the number of received {@link ConfirmedOrder}s.
+     * @return The number of received {@link ConfirmedOrder}s.
+     */
+    public long getOrdersReceived() {
+        return ordersReceived;
+    }
+
+    /**
+     * Returns the number of loaded {@link ConfirmedOrder}s.
+     * @return The number of loaded {@link ConfirmedOrder}s.
+     */
+    public long getOrdersLoaded() {
+        return ordersLoaded;
+    }
+
+    /**
+     * Returns the number of delivered {@link ConfirmedOrder}s.
+     * @return The number of delivered {@link ConfirmedOrder}s.
+     */
+    public long getDeliveries() {
+        return deliveries;
+    }
+
+    /**
+     * Returns the number of {@link ConfirmedOrder}s delivered in their delivery interval.
+     * @return The number of {@link ConfirmedOrder}s delivered in time.
+     */
+    public long getDeliveriesInTime() {
+        return deliveriesInTime;
+    }
+
+    /**
+     * Returns the sum of the ticks all deliveries have been too early or too late.
+     * @return The sum of the ticks all deliveries have been off.
+     */
+    public long getTicksOff() {
+        return ticksOff;
+    }
+
+    /**
+     * Returns the distance traveled by all {@link Vehicle}s.
+     * @return The distance traveled by all {@link Vehicle}s.
+     */
+    public long getDistance() {
+        return distance;
+    }
+
+    /**
+     * Returns the number of {@link Region.Edge}s the given {@link Vehicle} has arrived at.
+     * @param vehicle The {@link Vehicle}.
+     * @return The number of {@link Region.Edge}s the {@link Vehicle} has arrived at.
+     * @throws IllegalArgumentException If the {@link Vehicle} is unknown.
+     */
+    public int getEdgeCount(Vehicle vehicle) {
+        return vehicleEdges[dictionary.vehicleIndex(vehicle)];
+    }
+
+    /**
+     * Returns the distance traveled by the given {@link Vehicle}.
+     * @param vehicle The {@link Vehicle}.
+     * @return The distance traveled by the {@link Vehicle}.
+     * @throws IllegalArgumentException If the {@link Vehicle} is unknown.
+     */
+    public long getDistance(Vehicle vehicle) {
+        return vehicleDistances[dictionary.vehicleIndex(vehicle)];
+    }
+
+    /**
+     * Returns the number of {@link ConfirmedOrder}s loaded by the given {@link Vehicle}.
+     * @param vehicle The {@link Vehicle}.
+     * @return The number of {@link ConfirmedOrder}s loaded by the {@link Vehicle}.
+     * @throws IllegalArgumentException If the {@link Vehicle} is unknown.
+     */
+    public int getOrdersLoaded(Vehicle vehicle) {
+        return vehicleLoads[dictionary.vehicleIndex(vehicle)];
+    }
+
+    /**
+     * Returns the number of {@link ConfirmedOrder}s delivered by the given {@link Vehicle}.
+     * @param vehicle The {@link Vehicle}.
+     * @return The number of {@link ConfirmedOrder}s delivered by the {@link Vehicle}.
+     * @throws IllegalArgumentException If the {@link Vehicle} is unknown.
+     */
+    public int getDeliveries(Vehicle vehicle) {
+        return vehicleDeliveries[dictionary.vehicleIndex(vehicle)];
+    }
+
+    /**
+     * Returns the number of times a {@link Vehicle} has arrived at the given {@link Region.Edge}.
+     * @param edge The {@link Region.Edge}.
+     * @return The number of times a {@link Vehicle} has arrived at the {@link Region.Edge}.
+     * @throws IllegalArgumentException If the {@link Region.Edge} is unknown.
+     */
+    public int getTraversals(Region.Edge edge) {
+        return edgeTraversals[dictionary.edgeId(edge)];
+    }
+
+    /**
+     * Returns the number of times a {@link Vehicle} has arrived at the given {@link Region.Node}.
+     * @param node The {@link Region.Node}.
+     * @return The number of times a {@link Vehicle} has arrived at the {@link Region.Node}.
+     * @throws IllegalArgumentException If the {@link Region.Node} is unknown.
+     */
+    public int getArrivals(Region.Node node) {
+        return nodeArrivals[dictionary.nodeId(node)];
+    }
+
+    /**
+     * Returns the number of received {@link ConfirmedOrder}s of the given {@link Region.Restaurant}.
+     * @param restaurant The {@link Region.Restaurant}.
+     * @return The number of received {@link ConfirmedOrder}s of the {@link Region.Restaurant}.
+     * @throws IllegalArgumentException If the {@link Region.Restaurant} is unknown.
+     */
+    public int getOrdersReceived(Region.Restaurant restaurant) {
+        return nodeOrdersReceived[dictionary.nodeId(restaurant)];
+    }
+
+    /**
+     * Returns the number of {@link ConfirmedOrder}s loaded at the given {@link Region.Restaurant}.
+     * @param restaurant The {@link Region.Restaurant}.
+     * @return The number of {@link ConfirmedOrder}s loaded at the {@link Region.Restaurant}.
+     * @throws IllegalArgumentException If the {@link Region.Restaurant} is unknown.
+     */
+    public int getOrdersLoaded(Region.Restaurant restaurant) {
+        return nodeOrdersLoaded[dictionary.nodeId(restaurant)];
+    }
+
+    /**
+     * Returns the number of {@link ConfirmedOrder}s delivered to the given {@link Region.Neighborhood}.
+     * @param neighborhood The {@link Region.Neighborhood}.
+     * @return The number of {@link ConfirmedOrder}s delivered to the {@link Region.Neighborhood}.
+     * @throws IllegalArgumentException If the {@link Region.Neighborhood} is unknown.
+     */
+    public int getDeliveries(Region.Neighborhood neighborhood) {
+        return nodeDeliveries[dictionary.nodeId(neighborhood)];
+    }
+
+    /**
+     * Returns the number of {@link ConfirmedOrder}s delivered to the given {@link Region.Neighborhood} in time.
+     * @param neighborhood The {@link Region.Neighborhood}.
+     * @return The number of {@link ConfirmedOrder}s delivered to the {@link Region.Neighborhood} in time.
+     * @throws IllegalArgumentException If the {@link Region.Neighborhood} is unknown.
+     */
+    public int getDeliveriesInTime(Region.Neighborhood neighborhood) {
+        return nodeDeliveriesInTime[dictionary.nodeId(neighborhood)];
+    }
+
+    /**
+     * Returns the sum of the ticks the deliveries to the given {@link Region.Neighborhood} have been off.
+     * @param neighborhood The {@link Region.Neighborhood}.
+     * @return The sum of the ticks the deliveries to the {@link Region.Neighborhood} have been off.
+     * @throws IllegalArgumentException If the {@link Region.Neighborhood} is unknown.
+     */
+    public long getTicksOff(Region.Neighborhood neighborhood) {
+        return nodeTicksOff[dictionary.nodeId(neighborhood)];
+    }
+}
@@ -0,0 +1,148 @@
+package projekt.delivery.event;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * An index of typed subscriptions that routes every dispatched {@link Event} once to the handlers subscribed to its
+ * type, instead of filtering the whole {@link List} of {@link Event}s for every type.<p>
+ *
+ * A handler subscribed to a type receives all {@link Event}s that are instances of this type, including subtypes.
+ * For every concrete {@link Event} class, the matching subscriptions are computed once and cached in a table.
+ * {@link #dispatch(List)} first routes the {@link Event}s and then calls the handlers in the order they have been
+ * subscribed. Every handler receives its {@link Event}s in their original order, so a dispatch behaves like filtering
+ * the {@link Event}s once per subscription, in the order of the subscriptions.<p>
+ *
+ * Handlers may subscribe and unsubscribe while {@link Event}s are dispatched. The subscriptions are replaced instead of
+ * modified, so a new subscription receives the {@link Event}s of the next dispatch and an unsubscribed handler does
+ * not receive any further {@link Event}s, also not the remaining ones of the current dispatch.<p>
+ *
+ * This class is not thread-safe.
+ */
+public class EventSubscriptions {
+
+    /**
+     * The current subscriptions. The list is immutable and replaced on every change, so a dispatch can iterate it while
+     * handlers change the subscriptions.
+     */
+    private List<Subscription<?>> subscriptions = List.of();
+    private final Map<Class<?>, int[]> routes = new HashMap<>();
+    private boolean dispatching = false;
+
+    /**
+     * Subscribes the given handler to all {@link Event}s of the given type.
+     * @param type The type of the {@link Event}s the handler receives.
+     * @param handler The handler receiving the {@link Event}s.
+     * @param <E> The type of the {@link Event}s.
+     * @return This {@link EventSubscriptions}.
+     */
+    public <E extends Event> EventSubscriptions subscribe(Class<E> type, Consumer<? super E> handler) {
+        Subscription<E> subscription = new Subscription<>(Objects.requireNonNull(type, "type"),
+            Objects.requireNonNull(handler, "handler"));
+        List<Subscription<?>> updated = new ArrayList<>(subscriptions);
+        updated.add(subscription);
+        subscriptions = Collections.unmodifiableList(updated);
+        routes.clear();
+        return this;
+    }
+
+    /**
+     * Removes all subscriptions of the given handler.
+     * @param handler The handler to unsubscribe.
+     * @return True, if the handler has been subscribed.
+     */
+    public boolean unsubscribe(Consumer<?> handler) {
+        List<Subscription<?>> updated = new ArrayList<>(subscriptions.size());
+        for (Subscription<?> subscription : subscriptions) {
+            if (subscription.handler == handler) {
+                subscription.removed = true;
+            } else {
+                updated.add(subscription);
+            }
+        }
+        if (updated.size() == subscriptions.size()) {
+            return false;
+        }
+        subscriptions = Collections.unmodifiableList(updated);
+        routes.clear();
+        return true;
+    }
+
+    /**
+     * Returns true, if there are no subscriptions.
+     * @return True, if there are no subscriptions.
+     */
+    public boolean isEmpty() {
+        return subscriptions.isEmpty();
+    }
+
+    /**
+     * Routes the given {@link Event}s to the subscribed handlers.
+     * @param events The {@link Event}s to dispatch.
+     * @throws IllegalStateException If a handler dispatches {@link Event}s to this {@link EventSubscriptions}.
+     */
+    public void dispatch(List<? extends Event> events) {
+        if (subscriptions.isEmpty() || events.isEmpty()) {
+            return;
+        }
+        if (dispatching) {
+            throw new IllegalStateException("Events can not be dispatched by a handler");
+        }
+        dispatching = true;
+        // the handlers may replace the subscriptions, the routes only refer to the current ones
+        List<Subscription<?>> current = subscriptions;
+        try {
+            for (Event event : events) {
+                for (int index : route(event.getClass())) {
+                    current.get(index).routed.add(event);
+                }
+            }
+            for (Subscription<?> subscription : current) {
+                subscription.handleRouted();
+            }
+        } finally {
+            for (Subscription<?> subscription : current) {
+                subscription.routed.clear();
+            }
+            dispatching = false;
+        }
+    }
+
+    private int[] route(Class<?> eventClass) {
+        int[] route = routes.get(eventClass);
+        if (route == null) {
+            route = new int[subscriptions.size()];
+            int length = 0;
+            for (int i = 0; i < subscriptions.size(); i++) {
+                if (subscriptions.get(i).type.isAssignableFrom(eventClass)) {
+                    route[length++] = i;
+                }
+            }
+            route = Arrays.copyOf(route, length);
+            routes.put(eventClass, route);
+        }
+        return route;
+    }
+
+    private static final class Subscription<E extends Event> {
+
+        private final Class<E> type;
+        private final Consumer<? super E> handler;
+        private final List<Event> routed = new ArrayList<>();
+        private boolean removed = false;
+
+        private Subscription(Class<E> type, Consumer<? super E> handler) {
+            this.type = type;
+            this.handler = handler;
+        }
+
+        private void handleRouted() {
+            for (Event event : routed) {
+                if (removed) {
+                    return;
+                }
+                handler.accept(type.cast(event));
+            }
+        }
+    }
+}
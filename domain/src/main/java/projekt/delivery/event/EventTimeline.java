@@ -0,0 +1,315 @@
+package projekt.delivery.event;
+
+import projekt.delivery.routing.Region;
+import projekt.delivery.routing.Vehicle;
+import projekt.delivery.simulation.SimulationListener;
+
+import java.nio.ByteBuffer;
+import java.util.*;
+
+/**
+ * A {@link SimulationListener} that records the positions of all {@link Vehicle}s in a fixed-size ring buffer outside
+ * of the Java heap, so the state of the map can be restored for any recorded tick.<p>
+ *
+ * Every tick in which a {@link Vehicle} spawns or arrives at a {@link Region.Node} or {@link Region.Edge} is recorded
+ * as a delta containing the new positions of these {@link Vehicle}s. Every {@code keyframeInterval} ticks, the positions
+ * of all {@link Vehicle}s are recorded as a keyframe instead. {@link #seek(long)} starts at the last keyframe before the
+ * requested tick and applies the following deltas, so it reads at most {@code keyframeInterval} records. When the ring
+ * is full, the oldest records are overwritten. The offsets of the keyframes are kept in a second ring outside of the
+ * heap, so the heap usage does not depend on the number of recorded ticks.<p>
+ *
+ * The records are written by the simulation thread and can be read concurrently, all methods are synchronized.
+ */
+public class EventTimeline implements SimulationListener {
+
+    /**
+     * The default capacity of the ring in bytes.
+     */
+    public static final int DEFAULT_CAPACITY = 16 << 20;
+    /**
+     * The default number of ticks between two keyframes.
+     */
+    public static final int DEFAULT_KEYFRAME_INTERVAL = 64;
+
+    private static final int WRAP = -1;
+    private static final byte KEYFRAME = 1;
+    private static final byte DELTA = 2;
+    // length, tick and type of a record, followed by the number of positions
+    private static final int HEADER = Integer.BYTES + Long.BYTES + Byte.BYTES + Integer.BYTES;
+    private static final int INDEX_ENTRY = Long.BYTES + Integer.BYTES;
+    private static final int NOT_SPAWNED = -1;
+
+    private final EventDictionary dictionary;
+    private final int keyframeInterval;
+    private final int capacity;
+    private final ByteBuffer ring;
+    private final ByteBuffer keyframes;
+    private final int maxKeyframes;
+    /**
+     * The live position of every {@link Vehicle}, encoded as twice the ID of its node or edge plus one for edges.
+     */
+    private final int[] positions;
+    private final int[] changed;
+    private final boolean[] isChanged;
+    private int head = 0;
+    private int tail = 0;
+    private int records = 0;
+    private int firstKeyframe = 0;
+    private int keyframeCount = 0;
+    private long lastTick = -1;
+    private long lastKeyframeTick = -1;
+
+    /**
+     * Creates a new {@link EventTimeline} instance with the default capacity and keyframe interval.
+     * @param dictionary The {@link EventDictionary} of the recorded simulation.
+     */
+    public EventTimeline(EventDictionary dictionary) {
+        this(dictionary, DEFAULT_CAPACITY, DEFAULT_KEYFRAME_INTERVAL);
+    }
+
+    /**
+     * Creates a new {@link EventTimeline} instance.
+     * @param dictionary The {@link EventDictionary} of the recorded simulation.
+     * @param capacity The capacity of the ring in bytes.
+     * @param keyframeInterval The number of ticks between two keyframes.
+     * @throws IllegalArgumentException If the keyframe interval is not positive or the ring can not hold four keyframes.
+     */
+    public EventTimeline(EventDictionary dictionary, int capacity, int keyframeInterval) {
+        if (keyframeInterval <= 0) {
+            throw new IllegalArgumentException("keyframeInterval must be positive");
+        }
+        int keyframeLength = HEADER + Integer.BYTES * dictionary.getVehicleCount();
+        if (capacity / 4 < keyframeLength) {
+            throw new IllegalArgumentException("The capacity must hold at least four keyframes of %d bytes".formatted(keyframeLength));
+        }
+        this.dictionary = dictionary;
+        this.keyframeInterval = keyframeInterval;
+        this.capacity = capacity;
+        ring = ByteBuffer.allocateDirect(capacity);
+        // every keyframe occupies at least keyframeLength bytes of the ring
+        maxKeyframes = capacity / keyframeLength + 1;
+        keyframes = ByteBuffer.allocateDirect(maxKeyframes * INDEX_ENTRY);
+        positions = new int[dictionary.getVehicleCount()];
+        changed = new int[positions.length];
+        isChanged = new boolean[positions.length];
+        Arrays.fill(positions, NOT_SPAWNED);
+    }
+
+    /**
+     * Records the positions the {@link Vehicle}s have after the given tick. If the tick is not after the last recorded
+     * tick, e.g. because the simulation has been reset, the recorded ticks are cleared first.
+     * @param events All {@link Event}s that occurred during the tick.
+     * @param tick The executed tick.
+     */
+    @Override
+    public synchronized void onTick(List<Event> events, long tick) {
+        if (tick <= lastTick) {
+            clear();
+        }
+        int changes = 0;
+        for (Event event : events) {
+            int position;
+            Vehicle vehicle;
+            if (event instanceof SpawnEvent spawnEvent) {
+                vehicle = spawnEvent.getVehicle();
+                position = dictionary.nodeId(spawnEvent.getNode()) << 1;
+            } else if (event instanceof ArrivedAtNodeEvent arrivedEvent) {
+                vehicle = arrivedEvent.getVehicle();
+                position = dictionary.nodeId(arrivedEvent.getNode()) << 1;
+            } else if (event instanceof ArrivedAtEdgeEvent arrivedEvent) {
+                vehicle = arrivedEvent.getVehicle();
+                position = dictionary.edgeId(arrivedEvent.getEdge()) << 1 | 1;
+            } else {
+                continue;
+            }
+            int index = dictionary.vehicleIndex(vehicle);
+            positions[index] = position;
+            if (!isChanged[index]) {
+                isChanged[index] = true;
+                changed[changes++] = index;
+            }
+        }
+
+        // a delta that changes half of the vehicles is not smaller than a keyframe
+        if (records == 0 || tick - lastKeyframeTick >= keyframeInterval || 2 * changes >= positions.length) {
+            writeKeyframe(tick);
+        } else if (changes > 0) {
+            writeDelta(tick, changes);
+        }
+        for (int i = 0; i < changes; i++) {
+            isChanged[changed[i]] = false;
+        }
+        lastTick = tick;
+    }
+
+    /**
+     * Returns the first tick that can be restored, i.e. the tick of the oldest keyframe.
+     * @return The first tick that can be restored or -1 if nothing has been recorded.
+     */
+    public synchronized long getFirstTick() {
+        return keyframeCount == 0 ? -1 : keyframeTick(firstKeyframe);
+    }
+
+    /**
+     * Returns the last recorded tick.
+     * @return The last recorded tick or -1 if nothing has been recorded.
+     */
+    public synchronized long getLastTick() {
+        return lastTick;
+    }
+
+    /**
+     * Restores the positions of the {@link Vehicle}s after the given tick.
+     * @param tick The tick to restore.
+     * @return The {@link Region.Node} or {@link Region.Edge} of every {@link Vehicle} that has been spawned until the
+     *     given tick, ordered by the IDs of the {@link Vehicle}s.
+     * @throws IllegalArgumentException If the given tick is not between {@link #getFirstTick()} and
+     *     {@link #getLastTick()}.
+     */
+    public synchronized Map<Vehicle, Region.Component<?>> seek(long tick) {
+        if (keyframeCount == 0 || tick < getFirstTick() || tick > lastTick) {
+            throw new IllegalArgumentException("Tick %d has not been recorded".formatted(tick));
+        }
+        // the last keyframe that is not after the tick
+        int low = 0;
+        int high = keyframeCount - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (keyframeTick((firstKeyframe + middle) % maxKeyframes) <= tick) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+
+        int[] restored = new int[positions.length];
+        int position = keyframePosition((firstKeyframe + low) % maxKeyframes);
+        do {
+            readPositions(position, restored);
+            position = next(position);
+        } while (position != head && ring.getLong(position + Integer.BYTES) <= tick);
+
+        Map<Vehicle, Region.Component<?>> components = new LinkedHashMap<>();
+        for (int i = 0; i < restored.length; i++) {
+            if (restored[i] != NOT_SPAWNED) {
+                int id = restored[i] >>> 1;
+                components.put(dictionary.vehicleAt(i), (restored[i] & 1) == 0 ? dictionary.node(id) : dictionary.edge(id));
+            }
+        }
+        return components;
+    }
+
+    /**
+     * Returns the number of bytes of the ring.
+     * @return The number of bytes of the ring.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Removes all recorded ticks. The live positions of the {@link Vehicle}s are kept.
+     */
+    public synchronized void clear() {
+        head = 0;
+        tail = 0;
+        records = 0;
+        firstKeyframe = 0;
+        keyframeCount = 0;
+        lastTick = -1;
+        lastKeyframeTick = -1;
+    }
+
+    private void writeKeyframe(long tick) {
+        int position = reserve(HEADER + Integer.BYTES * positions.length);
+        ring.put(position + Integer.BYTES + Long.BYTES, KEYFRAME);
+        ring.putInt(position + Integer.BYTES + Long.BYTES + Byte.BYTES, positions.length);
+        for (int i = 0; i < positions.length; i++) {
+            ring.putInt(position + HEADER + Integer.BYTES * i, positions[i]);
+        }
+        ring.putLong(position + Integer.BYTES, tick);
+
+        int entry = (firstKeyframe + keyframeCount) % maxKeyframes * INDEX_ENTRY;
+        keyframes.putLong(entry, tick);
+        keyframes.putInt(entry + Long.BYTES, position);
+        keyframeCount++;
+        lastKeyframeTick = tick;
+    }
+
+    private void writeDelta(long tick, int changes) {
+        int position = reserve(HEADER + 2 * Integer.BYTES * changes);
+        ring.put(position + Integer.BYTES + Long.BYTES, DELTA);
+        ring.putInt(position + Integer.BYTES + Long.BYTES + Byte.BYTES, changes);
+        for (int i = 0; i < changes; i++) {
+            ring.putInt(position + HEADER + 2 * Integer.BYTES * i, changed[i]);
+            ring.putInt(position + HEADER + 2 * Integer.BYTES * i + Integer.BYTES, positions[changed[i]]);
+        }
+        ring.putLong(position + Integer.BYTES, tick);
+    }
+
+    private void readPositions(int position, int[] restored) {
+        byte type = ring.get(position + Integer.BYTES + Long.BYTES);
+        int count = ring.getInt(position + Integer.BYTES + Long.BYTES + Byte.BYTES);
+        if (type == KEYFRAME) {
+            for (int i = 0; i < count; i++) {
+                restored[i] = ring.getInt(position + HEADER + Integer.BYTES * i);
+            }
+        } else {
+            for (int i = 0; i < count; i++) {
+                int index = ring.getInt(position + HEADER + 2 * Integer.BYTES * i);
+                restored[index] = ring.getInt(position + HEADER + 2 * Integer.BYTES * i + Integer.BYTES);
+            }
+        }
+    }
+
+    /**
+     * Returns the position of a new record of the given length, overwriting the oldest records if necessary.
+     */
+    private int reserve(int length) {
+        if (head + length > capacity) {
+            evict(head, capacity);
+            if (capacity - head >= Integer.BYTES) {
+                ring.putInt(head, WRAP);
+            }
+            head = 0;
+        }
+        evict(head, head + length);
+        int position = head;
+        ring.putInt(position, length);
+        head += length;
+        if (records++ == 0) {
+            tail = position;
+        }
+        return position;
+    }
+
+    /**
+     * Removes the oldest records as long as they start in the given range.
+     */
+    private void evict(int from, int to) {
+        while (records > 0 && tail >= from && tail < to) {
+            if (ring.get(tail + Integer.BYTES + Long.BYTES) == KEYFRAME) {
+                firstKeyframe = (firstKeyframe + 1) % maxKeyframes;
+                keyframeCount--;
+            }
+            records--;
+            tail = next(tail);
+        }
+    }
+
+    private int next(int position) {
+        int next = position + ring.getInt(position);
+        if (next != head && (capacity - next < Integer.BYTES || ring.getInt(next) == WRAP)) {
+            return 0;
+        }
+        return next;
+    }
+
+    private long keyframeTick(int keyframe) {
+        return keyframes.getLong(keyframe * INDEX_ENTRY);
+    }
+
+    private int keyframePosition(int keyframe) {
+        return keyframes.getInt(keyframe * INDEX_ENTRY + Long.BYTES);
+    }
+}
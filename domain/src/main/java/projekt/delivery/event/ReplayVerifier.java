@@ -0,0 +1,235 @@
+package projekt.delivery.event;
+
+import org.jetbrains.annotations.Nullable;
+import projekt.delivery.simulation.SimulationListener;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A {@link SimulationListener} that compares the {@link Event}s of a simulation tick by tick with a reference log
+ * written by a {@link BinaryEventWriter} and reports the first {@link Divergence}.<p>
+ *
+ * The reference log is read in lockstep with the simulation, so only a single tick of both streams is kept in memory.
+ * Both ticks are encoded into {@link EventBatch}es and hashed. Only if the hashes differ, the {@link Event}s are
+ * compared one by one to find the first divergent {@link Event}. Orders are compared by the order of their first
+ * occurrence instead of their IDs, since the IDs depend on the orders created before the simulation. The hashes of
+ * all verified ticks are combined into a {@link #getDigest() digest} of the whole stream.<p>
+ *
+ * After the first {@link Divergence}, the given callback is run, e.g. to end the simulation, and all further ticks are
+ * ignored.
+ */
+public class ReplayVerifier implements SimulationListener, Closeable {
+
+    /**
+     * The maximum number of {@link Event}s preceding a divergent {@link Event} that are reported as its context.
+     */
+    public static final int CONTEXT_EVENTS = 5;
+
+    private static final long SEED = 0xCBF29CE484222325L;
+
+    private final BinaryEventReader reference;
+    private final Runnable onDivergence;
+    private final EventBatch expectedBatch;
+    private final EventBatch actualBatch;
+    private final Map<Integer, Integer> expectedOrders = new HashMap<>();
+    private final Map<Integer, Integer> actualOrders = new HashMap<>();
+    private final List<SimulationListener> referenceListener = List.of(this::setExpected);
+    private List<Event> expectedEvents;
+    private long expectedTick;
+    private @Nullable Divergence divergence;
+    private long digest = SEED;
+    private long verifiedTicks = 0;
+
+    /**
+     * Creates a new {@link ReplayVerifier} instance.
+     * @param reference The {@link BinaryEventReader} of the reference log.
+     * @param dictionary The {@link EventDictionary} of the verified simulation.
+     * @param onDivergence The callback that is run when the first {@link Divergence} has been found.
+     */
+    public ReplayVerifier(BinaryEventReader reference, EventDictionary dictionary, Runnable onDivergence) {
+        this.reference = reference;
+        this.onDivergence = onDivergence;
+        expectedBatch = new EventBatch(dictionary);
+        actualBatch = new EventBatch(dictionary);
+    }
+
+    @Override
+    public void onTick(List<Event> events, long tick) {
+        if (divergence != null) {
+            return;
+        }
+        if (!reference.replayTick(referenceListener)) {
+            diverge(new Divergence(tick, -1, 0, null, first(events), List.of()));
+            return;
+        }
+        if (expectedTick != tick) {
+            diverge(new Divergence(tick, expectedTick, 0, first(expectedEvents), first(events), List.of()));
+            return;
+        }
+
+        expectedBatch.clear();
+        expectedBatch.addAll(expectedEvents);
+        actualBatch.clear();
+        actualBatch.addAll(events);
+        long expectedHash = hash(expectedBatch, expectedOrders);
+        long actualHash = hash(actualBatch, actualOrders);
+        if (expectedHash != actualHash) {
+            int index = firstDifference();
+            diverge(new Divergence(
+                tick,
+                expectedTick,
+                index,
+                index < expectedEvents.size() ? expectedEvents.get(index) : null,
+                index < events.size() ? events.get(index) : null,
+                List.copyOf(events.subList(Math.max(0, index - CONTEXT_EVENTS), Math.min(index, events.size())))
+            ));
+            return;
+        }
+        digest = mix(digest, actualHash);
+        verifiedTicks++;
+    }
+
+    /**
+     * Checks that the reference log does not contain more ticks than the simulation and returns the first
+     * {@link Divergence}. Called after the simulation has ended.
+     * @return The first {@link Divergence} or null if the simulation reproduced the reference log.
+     */
+    public @Nullable Divergence finish() {
+        if (divergence == null && reference.replayTick(referenceListener)) {
+            diverge(new Divergence(expectedTick, expectedTick, 0, first(expectedEvents), null, List.of()));
+        }
+        return divergence;
+    }
+
+    /**
+     * Returns the first {@link Divergence} found so far.
+     * @return The first {@link Divergence} or null if none has been found so far.
+     */
+    public @Nullable Divergence getDivergence() {
+        return divergence;
+    }
+
+    /**
+     * Returns the number of ticks that matched the reference log.
+     * @return The number of ticks that matched the reference log.
+     */
+    public long getVerifiedTicks() {
+        return verifiedTicks;
+    }
+
+    /**
+     * Returns a hash of all ticks that matched the reference log.
+     * @return A hash of all ticks that matched the reference log.
+     */
+    public long getDigest() {
+        return digest;
+    }
+
+    @Override
+    public void close() {
+        reference.close();
+    }
+
+    private void setExpected(List<Event> events, long tick) {
+        expectedEvents = events;
+        expectedTick = tick;
+    }
+
+    private void diverge(Divergence divergence) {
+        this.divergence = divergence;
+        onDivergence.run();
+    }
+
+    private int firstDifference() {
+        int size = Math.min(expectedBatch.size(), actualBatch.size());
+        for (int i = 0; i < size; i++) {
+            if (expectedBatch.getType(i) != actualBatch.getType(i)
+                || expectedBatch.getTick(i) != actualBatch.getTick(i)
+                || expectedBatch.getVehicleId(i) != actualBatch.getVehicleId(i)
+                || expectedBatch.getComponentId(i) != actualBatch.getComponentId(i)
+                || expectedBatch.getPreviousComponentId(i) != actualBatch.getPreviousComponentId(i)
+                || order(expectedBatch, expectedOrders, i) != order(actualBatch, actualOrders, i)) {
+                return i;
+            }
+        }
+        return size;
+    }
+
+    private static long hash(EventBatch batch, Map<Integer, Integer> orders) {
+        long hash = mix(SEED, batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            int orderId = batch.getOrderId(i);
+            if (orderId != -1) {
+                orders.putIfAbsent(orderId, orders.size());
+            }
+            hash = mix(hash, batch.getType(i));
+            hash = mix(hash, batch.getTick(i));
+            hash = mix(hash, batch.getVehicleId(i));
+            hash = mix(hash, batch.getComponentId(i));
+            hash = mix(hash, batch.getPreviousComponentId(i));
+            hash = mix(hash, order(batch, orders, i));
+        }
+        return hash;
+    }
+
+    private static int order(EventBatch batch, Map<Integer, Integer> orders, int index) {
+        int orderId = batch.getOrderId(index);
+        return orderId == -1 ? -1 : orders.get(orderId);
+    }
+
+    private static long mix(long hash, long value) {
+        hash = (hash ^ value) * 0x9E3779B97F4A7C15L;
+        return hash ^ (hash >>> 29);
+    }
+
+    private static @Nullable Event first(List<Event> events) {
+        return events.isEmpty() ? null : events.get(0);
+    }
+
+    /**
+     * The first {@link Event} of a simulation that differs from its reference log.
+     *
+     * @param tick The tick of the simulation the divergence occurred in.
+     * @param expectedTick The tick of the reference log that was compared or -1 if the reference log has ended.
+     * @param index The index of the divergent {@link Event} in its tick.
+     * @param expected The {@link Event} of the reference log or null if the reference tick has fewer {@link Event}s.
+     * @param actual The {@link Event} of the simulation or null if the simulated tick has fewer {@link Event}s.
+     * @param context The {@link Event}s of the simulation that precede the divergent {@link Event} in its tick.
+     */
+    public record Divergence(
+        long tick,
+        long expectedTick,
+        int index,
+        @Nullable Event expected,
+        @Nullable Event actual,
+        List<Event> context
+    ) {
+
+        /**
+         * Returns a description of this {@link Divergence}.
+         * @return A description of this {@link Divergence}.
+         */
+        @Override
+        public String toString() {
+            if (expectedTick == -1) {
+                return "The simulation continues at tick %d after the reference log has ended".formatted(tick);
+            }
+            if (expectedTick != tick) {
+                return "Expected tick %d of the reference log but the simulation executed tick %d"
+                    .formatted(expectedTick, tick);
+            }
+            List<String> lines = new ArrayList<>();
+            lines.add("First divergence at tick %d, event %d".formatted(tick, index));
+            lines.add("  expected: %s".formatted(expected == null ? "no further event" : expected));
+            lines.add("  actual:   %s".formatted(actual == null ? "no further event" : actual));
+            for (Event event : context) {
+                lines.add("  after:    %s".formatted(event));
+            }
+            return String.join(System.lineSeparator(), lines);
+        }
+    }
+}
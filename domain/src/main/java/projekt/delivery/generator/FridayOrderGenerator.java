@@ -68,6 +68,17 @@ public class FridayOrderGenerator implements OrderGenerator {
             return new FridayOrderGenerator(orderCount, vehicleManager, deliveryInterval, maxWeight, standardDeviation, lastTick, seed);
         }
 
+        @Override
+        public Factory withDefaultSeed(int seed) {
+            if (seed < 0) {
+                throw new IllegalArgumentException("seed must not be negative");
+            }
+            if (this.seed >= 0) {
+                return this;
+            }
+            return new Factory(orderCount, vehicleManager, deliveryInterval, maxWeight, standardDeviation, lastTick, seed);
+        }
+
         /**
          * Creates a new {@link FridayOrderGenerator.FactoryBuilder}.
          * @return The created {@link FridayOrderGenerator.FactoryBuilder}.
@@ -33,6 +33,20 @@ public interface OrderGenerator {
          * @return The new {@link OrderGenerator}.
          */
         OrderGenerator create();
+
+        /**
+         * Returns a {@link Factory} that creates {@link OrderGenerator}s using the given seed, if the
+         * {@link OrderGenerator}s created by this {@link Factory} would otherwise use a random seed.
+         * Otherwise, this {@link Factory} is returned.<p>
+         *
+         * This allows a caller to make repeated runs reproducible without changing explicitly seeded problems.
+         *
+         * @param seed The non-negative seed to use.
+         * @return A {@link Factory} creating reproducible {@link OrderGenerator}s.
+         */
+        default Factory withDefaultSeed(int seed) {
+            return this;
+        }
     }
 
     /**
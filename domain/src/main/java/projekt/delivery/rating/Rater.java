@@ -1,8 +1,13 @@
 package projekt.delivery.rating;
 
+import org.jetbrains.annotations.Nullable;
 import projekt.delivery.generator.OrderGenerator;
+import projekt.delivery.routing.ConfirmedOrder;
 import projekt.delivery.simulation.Simulation;
 import projekt.delivery.simulation.SimulationListener;
+import projekt.delivery.simulation.SimulationSnapshot;
+
+import java.util.function.UnaryOperator;
 
 /**
  * A {@link SimulationListener} that calculates a score in the range [0,1] for the observed {@link Simulation}.<p>
@@ -24,6 +29,21 @@ public interface Rater extends SimulationListener {
      */
     RatingCriteria getRatingCriteria();
 
+    /**
+     * Creates an independent copy of this {@link Rater} in its current state.<p>
+     *
+     * The copy is used to take and fork a {@link SimulationSnapshot} without replaying all recorded events.
+     * It must not share mutable state with this {@link Rater} and may only refer to {@link ConfirmedOrder}s mapped by
+     * {@code orderMapper}. A {@link Rater} that cannot be copied returns null in every state and is restored by
+     * replaying the recorded events instead.
+     *
+     * @param orderMapper Maps the {@link ConfirmedOrder}s referenced by this {@link Rater} to the instances the copy refers to.
+     * @return The copy or null if this {@link Rater} cannot be copied.
+     */
+    default @Nullable Rater copy(UnaryOperator<ConfirmedOrder> orderMapper) {
+        return null;
+    }
+
     /**
      * A factory for creating a new {@link Rater}.
      */
@@ -2,10 +2,12 @@ package projekt.delivery.routing;
 
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.BiConsumer;
 
 /**
  * An abstract class combining basic functionality of all {@link VehicleManager.Occupied} implementations.
@@ -19,6 +21,22 @@ abstract class AbstractOccupied<C extends Region.Component<? super C>> implement
     private final Collection<Vehicle> unmodifiableVehicles =
         Collections.unmodifiableCollection(vehicles.keySet());
 
+    /**
+     * Reusable buffer holding the vehicles that are moved during the current tick.
+     * Only the first {@link #movingCount} entries are valid.
+     */
+    private VehicleImpl[] moving = new VehicleImpl[0];
+    private int movingCount;
+    private long collectTick;
+    private final BiConsumer<VehicleImpl, VehicleStats> movingCollector = (vehicle, stats) -> {
+        if (canMove(vehicle, stats, collectTick)) {
+            if (movingCount == moving.length) {
+                moving = Arrays.copyOf(moving, Math.max(4, movingCount * 2));
+            }
+            moving[movingCount++] = vehicle;
+        }
+    };
+
     AbstractOccupied(C component, VehicleManager vehicleManager) {
         this.component = component;
         this.vehicleManager = vehicleManager;
@@ -39,18 +57,64 @@ abstract class AbstractOccupied<C extends Region.Component<? super C>> implement
         return unmodifiableVehicles;
     }
 
+    @Override
+    public void tick(long currentTick) {
+        // the vehicles have to be collected first because the move method in vehicle will probably modify the map
+        collectTick = currentTick;
+        vehicles.forEach(movingCollector);
+        try {
+            for (int i = 0; i < movingCount; i++) {
+                moving[i].move(currentTick);
+            }
+        } finally {
+            Arrays.fill(moving, 0, movingCount, null);
+            movingCount = 0;
+        }
+    }
+
+    /**
+     * Checks whether the given {@link VehicleImpl} has to be moved during the given tick.
+     * @param vehicle The {@link VehicleImpl} to check.
+     * @param stats The {@link VehicleStats} of the {@link VehicleImpl} on this component.
+     * @param currentTick The current tick.
+     * @return True, if {@link VehicleImpl#move(long)} has to be called for the given {@link VehicleImpl}.
+     */
+    protected abstract boolean canMove(VehicleImpl vehicle, VehicleStats stats, long currentTick);
+
+    /**
+     * Adds the given {@link VehicleImpl} to this component, reusing the {@link VehicleStats} slot of the vehicle.
+     * @param vehicle The added {@link VehicleImpl}.
+     * @param currentTick The tick the {@link VehicleImpl} arrived at.
+     * @param previous The component the {@link VehicleImpl} occupied before or null if it just spawned.
+     */
+    void putVehicle(VehicleImpl vehicle, long currentTick, @Nullable VehicleManager.Occupied<?> previous) {
+        vehicles.put(vehicle, vehicle.getStats().update(currentTick, previous));
+    }
+
     @Override
     public void reset() {
         vehicles.clear();
     }
 
+    /**
+     * The state of a {@link Vehicle} on an occupied component.<p>
+     *
+     * Every {@link VehicleImpl} owns exactly one instance that is moved from component to component, so moving a
+     * vehicle does not create new instances.
+     */
     protected static class VehicleStats {
-        final long arrived;
-        final @Nullable VehicleManager.Occupied<?> previous;
+        long arrived;
+        @Nullable VehicleManager.Occupied<?> previous;
 
         public VehicleStats(long arrived, @Nullable VehicleManager.Occupied<?> previous) {
             this.arrived = arrived;
             this.previous = previous;
         }
+
+        VehicleStats update(long arrived, @Nullable VehicleManager.Occupied<?> previous) {
+            this.arrived = arrived;
+            this.previous = previous;
+            return this;
+        }
     }
 }
@@ -6,7 +6,10 @@ import java.util.*;
 import java.util.stream.Collectors;
 
 /**
- * A {@link PathCalculator} that is based on another {@link PathCalculator} and caches its result for later use.
+ * A {@link PathCalculator} that is based on another {@link PathCalculator} and caches its result for later use.<p>
+ *
+ * The cached paths are never modified, every caller receives its own copy. If the delegate is thread-safe,
+ * a {@link CachedPathCalculator} can therefore be shared by simulations running on different threads.
  */
 public class CachedPathCalculator implements PathCalculator {
 
@@ -46,31 +49,43 @@ public class CachedPathCalculator implements PathCalculator {
 
     @Override
     public Map<Region.Node, Deque<Region.Node>> getAllPathsTo(Region.Node end) {
-        @Nullable Map<Region.Node, Deque<Region.Node>> path = cache.get(end);
+        @Nullable Map<Region.Node, Deque<Region.Node>> path;
+        synchronized (cache) {
+            path = cache.get(end);
+        }
         if (path != null) {
             return copyPath(path);
         }
 
+        // Calculated without holding the lock, so that simulations sharing this cache do not wait for each other
         path = delegate.getAllPathsTo(end);
 
-        // Limit cache size
-        if (accessOrder.size() >= size) {
-            Iterator<Region.Node> iterator = accessOrder.iterator();
-            cache.remove(iterator.next());
-            iterator.remove();
-        }
+        synchronized (cache) {
+            @Nullable Map<Region.Node, Deque<Region.Node>> cached = cache.get(end);
+            if (cached != null) {
+                // another thread calculated the same paths in the meantime
+                path = cached;
+            } else {
+                // Limit cache size
+                if (accessOrder.size() >= size) {
+                    Iterator<Region.Node> iterator = accessOrder.iterator();
+                    cache.remove(iterator.next());
+                    iterator.remove();
+                }
 
-        // Update access order if the element already exists
-        accessOrder.remove(end);
-        accessOrder.add(end);
-        cache.put(end, path);
+                // Update access order if the element already exists
+                accessOrder.remove(end);
+                accessOrder.add(end);
+                cache.put(end, path);
+            }
+        }
 
         return copyPath(path);
     }
 
     private Map<Region.Node, Deque<Region.Node>> copyPath(Map<Region.Node, Deque<Region.Node>> path) {
         return path.entrySet().stream()
-            .map(entry -> Map.entry(entry.getKey(), new LinkedList<>(entry.getValue())))
+            .map(entry -> Map.entry(entry.getKey(), new ArrayDeque<>(entry.getValue())))
             .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
     }
 
@@ -5,6 +5,7 @@ import projekt.base.TickInterval;
 
 import java.io.Serializable;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * A class representing an order that contains a {@link List} of foods, was placed at an {@link VehicleManager.OccupiedRestaurant} and should be delivered to a {@link Location} during a given {@link TickInterval}.
@@ -18,7 +19,7 @@ public class ConfirmedOrder implements Serializable {
     private final VehicleManager.OccupiedRestaurant restaurant;
     private long actualDeliveryTick;
 
-    private static int nextOrderID;
+    private static final AtomicInteger nextOrderID = new AtomicInteger();
 
     /**
      * Creates a new {@link ConfirmedOrder} instance.
@@ -41,7 +42,40 @@ public class ConfirmedOrder implements Serializable {
         this.deliveryInterval = deliveryInterval;
         this.foodList = foodList;
         this.weight = weight;
-        orderID = nextOrderID++;
+        orderID = nextOrderID.getAndIncrement();
+    }
+
+    /**
+     * Creates a copy of the given {@link ConfirmedOrder} that keeps its ID but was placed at the given restaurant.
+     * @param other The {@link ConfirmedOrder} to copy.
+     * @param restaurant The {@link VehicleManager.OccupiedRestaurant} the copy was placed at.
+     */
+    private ConfirmedOrder(ConfirmedOrder other, VehicleManager.OccupiedRestaurant restaurant) {
+        this.location = other.location;
+        this.orderID = other.orderID;
+        this.deliveryInterval = other.deliveryInterval;
+        this.foodList = other.foodList;
+        this.weight = other.weight;
+        this.restaurant = restaurant;
+        this.actualDeliveryTick = other.actualDeliveryTick;
+    }
+
+    /**
+     * Creates a new {@link ConfirmedOrder} instance with the given ID without validating the ordered food.
+     * @param orderID The ID of the {@link ConfirmedOrder}.
+     * @param location The {@link Location} to deliver the {@link ConfirmedOrder} to.
+     * @param restaurant The {@link VehicleManager.OccupiedRestaurant} the {@link ConfirmedOrder} was placed at.
+     * @param deliveryInterval The {@link TickInterval} in which the {@link ConfirmedOrder} should be delivered.
+     * @param foodList A {@link List} containing the ordered food.
+     * @param weight The weight of the {@link ConfirmedOrder}.
+     */
+    private ConfirmedOrder(int orderID, Location location, VehicleManager.OccupiedRestaurant restaurant, TickInterval deliveryInterval, List<String> foodList, double weight) {
+        this.location = location;
+        this.orderID = orderID;
+        this.deliveryInterval = deliveryInterval;
+        this.foodList = foodList;
+        this.weight = weight;
+        this.restaurant = restaurant;
     }
 
     /**
@@ -137,6 +171,36 @@ public class ConfirmedOrder implements Serializable {
         this.actualDeliveryTick = actualDeliveryTick;
     }
 
+    /**
+     * Returns a copy of this {@link ConfirmedOrder} with the same ID that was placed at the given restaurant.<p>
+     *
+     * Used to move an order into another {@link VehicleManager} that manages the same {@link Region}, e.g. when a
+     * simulation is forked. The copy does not share any mutable state with this {@link ConfirmedOrder}.
+     *
+     * @param restaurant The {@link VehicleManager.OccupiedRestaurant} the copy was placed at.
+     * @return The created copy.
+     */
+    public ConfirmedOrder copy(VehicleManager.OccupiedRestaurant restaurant) {
+        return new ConfirmedOrder(this, restaurant);
+    }
+
+    /**
+     * Recreates a {@link ConfirmedOrder} that keeps the given ID, e.g. when reading a recorded event log.<p>
+     *
+     * The ordered food is not validated again and the IDs of new {@link ConfirmedOrder}s are not affected.
+     *
+     * @param orderID The ID of the recorded {@link ConfirmedOrder}.
+     * @param location The {@link Location} to deliver the {@link ConfirmedOrder} to.
+     * @param restaurant The {@link VehicleManager.OccupiedRestaurant} the {@link ConfirmedOrder} was placed at.
+     * @param deliveryInterval The {@link TickInterval} in which the {@link ConfirmedOrder} should be delivered.
+     * @param foodList A {@link List} containing the ordered food.
+     * @param weight The weight of the {@link ConfirmedOrder}.
+     * @return The recreated {@link ConfirmedOrder}.
+     */
+    public static ConfirmedOrder restore(int orderID, Location location, VehicleManager.OccupiedRestaurant restaurant, TickInterval deliveryInterval, List<String> foodList, double weight) {
+        return new ConfirmedOrder(orderID, location, restaurant, deliveryInterval, foodList, weight);
+    }
+
     @Override
     public String toString() {
         return "ConfirmedOrder{" +
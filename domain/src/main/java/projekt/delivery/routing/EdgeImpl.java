@@ -79,18 +79,12 @@ class EdgeImpl implements Region.Edge {
 
     @Override
     public Region.Node getNodeA() {
-        return region.getNodes().stream()
-            .filter(node -> node.getLocation().equals(locationA))
-            .findFirst()
-            .orElse(null);
+        return region.getNode(locationA);
     }
 
     @Override
     public Region.Node getNodeB() {
-        return region.getNodes().stream()
-            .filter(node -> node.getLocation().equals(locationB))
-            .findFirst()
-            .orElse(null);
+        return region.getNode(locationB);
     }
 
     @Override
@@ -56,11 +56,12 @@ class NodeImpl implements Region.Node {
 
     @Override
     public @Nullable Region.Edge getEdge(Region.Node other) {
-        return (!connections.contains(other.getLocation())) ? null : region.getEdges().stream()
-            .filter(edge -> (edge.getNodeA() == this && edge.getNodeB() == other) ||
-                (edge.getNodeA() == other && edge.getNodeB() == this))
-            .findFirst()
-            .orElse(null);
+        // the edge has to connect exactly these node instances, not just their locations
+        if (!connections.contains(other.getLocation()) || region.getNode(location) != this
+            || region.getNode(other.getLocation()) != other) {
+            return null;
+        }
+        return region.getEdge(location, other.getLocation());
     }
 
     @Override
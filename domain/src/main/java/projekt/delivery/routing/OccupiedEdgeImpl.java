@@ -2,9 +2,6 @@ package projekt.delivery.routing;
 
 import projekt.delivery.event.ArrivedAtEdgeEvent;
 
-import java.util.List;
-import java.util.Map;
-
 class OccupiedEdgeImpl extends AbstractOccupied<Region.Edge> {
 
     /**
@@ -17,13 +14,8 @@ class OccupiedEdgeImpl extends AbstractOccupied<Region.Edge> {
     }
 
     @Override
-    public void tick(long currentTick) {
-        // it is important to create a copy here. The move method in vehicle will probably modify this map
-        for (Map.Entry<VehicleImpl, VehicleStats> entry : List.copyOf(vehicles.entrySet())) {
-            if (currentTick >= entry.getValue().arrived + component.getDuration()) {
-                entry.getKey().move(currentTick);
-            }
-        }
+    protected boolean canMove(VehicleImpl vehicle, VehicleStats stats, long currentTick) {
+        return currentTick >= stats.arrived + component.getDuration();
     }
 
     @Override
@@ -39,7 +31,7 @@ class OccupiedEdgeImpl extends AbstractOccupied<Region.Edge> {
         if (previousNode.vehicles.remove(vehicle) == null) {
             throw new AssertionError("Vehicle " + vehicle.getId() + " was not found in previous node");
         }
-        vehicles.put(vehicle, new VehicleStats(currentTick, previous));
+        putVehicle(vehicle, currentTick, previous);
         vehicle.setOccupied(this);
         vehicleManager.getEventBus().queuePost(ArrivedAtEdgeEvent.of(
                 currentTick,
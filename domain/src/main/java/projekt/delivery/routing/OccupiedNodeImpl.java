@@ -2,9 +2,6 @@ package projekt.delivery.routing;
 
 import projekt.delivery.event.ArrivedAtNodeEvent;
 
-import java.util.List;
-import java.util.Map;
-
 class OccupiedNodeImpl<C extends Region.Node> extends AbstractOccupied<C> {
 
     /**
@@ -17,12 +14,8 @@ class OccupiedNodeImpl<C extends Region.Node> extends AbstractOccupied<C> {
     }
 
     @Override
-    public void tick(long currentTick) {
-        // it is important to create a copy here. The move method in vehicle will probably modify this map
-        // TODO: Only move things that can be moved
-        for (Map.Entry<VehicleImpl, VehicleStats> entry : List.copyOf(vehicles.entrySet())) {
-            entry.getKey().move(currentTick);
-        }
+    protected boolean canMove(VehicleImpl vehicle, VehicleStats stats, long currentTick) {
+        return vehicle.hasQueuedMoves();
     }
 
     @Override
@@ -38,7 +31,7 @@ class OccupiedNodeImpl<C extends Region.Node> extends AbstractOccupied<C> {
         if (previousEdge.vehicles.remove(vehicle) == null) {
             throw new AssertionError("Vehicle " + vehicle.getId() + " was not found in previous edge");
         }
-        vehicles.put(vehicle, new VehicleStats(currentTick, previous));
+        putVehicle(vehicle, currentTick, previous);
         vehicle.setOccupied(this);
         emitArrivedEvent(vehicle, previousEdge, currentTick);
     }
@@ -12,6 +12,13 @@ import static org.tudalgo.algoutils.student.Student.crash;
 
 public interface Vehicle extends Comparable<Vehicle> {
 
+    /**
+     * The arrival action of moves that do nothing on arrival. It does not capture any state, so unlike other arrival
+     * actions it can be copied into a {@link VehicleManagerSnapshot}.
+     */
+    BiConsumer<Vehicle, Long> NO_ARRIVAL_ACTION = (v, t) -> {
+    };
+
     /**
      * The current {@link Region.Component} that this entity is on.
      *
@@ -40,8 +47,7 @@ public interface Vehicle extends Comparable<Vehicle> {
      * Deletes the entire move queue and moves directly to the provided {@link Region.Node}.
      */
     default void moveDirect(Region.Node node) {
-        moveDirect(node, (v, t) -> {
-        });
+        moveDirect(node, NO_ARRIVAL_ACTION);
     }
 
     void moveDirect(Region.Node node, BiConsumer<? super Vehicle, Long> arrivalAction);
@@ -50,8 +56,7 @@ public interface Vehicle extends Comparable<Vehicle> {
      * Adds the provided {@link Region.Node} to the move queue.
      */
     default void moveQueued(Region.Node node) {
-        moveQueued(node, (v, t) -> {
-        });
+        moveQueued(node, NO_ARRIVAL_ACTION);
     }
 
     /**
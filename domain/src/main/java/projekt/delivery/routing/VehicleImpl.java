@@ -4,6 +4,7 @@ import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
 import java.util.function.BiConsumer;
+import java.util.function.UnaryOperator;
 
 import static org.tudalgo.algoutils.student.Student.crash;
 
@@ -12,15 +13,16 @@ class VehicleImpl implements Vehicle {
     private final int id;
     private final double capacity;
     private final List<ConfirmedOrder> orders = new ArrayList<>();
-    private final VehicleManagerImpl vehicleManager;
-    private final Deque<PathImpl> moveQueue = new LinkedList<>();
+    private final VehicleManager vehicleManager;
+    private final Deque<PathImpl> moveQueue = new ArrayDeque<>();
     private final VehicleManager.OccupiedRestaurant startingNode;
+    private final AbstractOccupied.VehicleStats stats = new AbstractOccupied.VehicleStats(0, null);
     private AbstractOccupied<?> occupied;
 
     public VehicleImpl(
         int id,
         double capacity,
-        VehicleManagerImpl vehicleManager,
+        VehicleManager vehicleManager,
         VehicleManager.OccupiedRestaurant startingNode) {
         this.id = id;
         this.capacity = capacity;
@@ -42,13 +44,30 @@ class VehicleImpl implements Vehicle {
 
     @Override
     public List<? extends Path> getPaths() {
-        return new LinkedList<>(moveQueue);
+        return new ArrayList<>(moveQueue);
     }
 
     void setOccupied(AbstractOccupied<?> occupied) {
         this.occupied = occupied;
     }
 
+    /**
+     * Returns the {@link AbstractOccupied.VehicleStats} slot owned by this vehicle.
+     * The slot is reused whenever this vehicle moves to another component.
+     * @return The {@link AbstractOccupied.VehicleStats} slot owned by this vehicle.
+     */
+    AbstractOccupied.VehicleStats getStats() {
+        return stats;
+    }
+
+    /**
+     * Returns true, if the move queue of this vehicle is not empty.
+     * @return True, if the move queue of this vehicle is not empty.
+     */
+    boolean hasQueuedMoves() {
+        return !moveQueue.isEmpty();
+    }
+
     @Override
     public void moveDirect(Region.Node node, BiConsumer<? super Vehicle, Long> arrivalAction) {
         crash(); // TODO: H5.4 - remove if implemented
@@ -98,12 +117,12 @@ class VehicleImpl implements Vehicle {
     }
 
     void move(long currentTick) {
-        final Region region = vehicleManager.getRegion();
         if (moveQueue.isEmpty()) {
             return;
         }
         final PathImpl path = moveQueue.peek();
-        if (path.nodes().isEmpty()) {
+        final Deque<Region.Node> nodes = path.nodes();
+        if (nodes.isEmpty()) {
             moveQueue.pop();
             final @Nullable BiConsumer<? super Vehicle, Long> action = path.arrivalAction();
             if (action == null) {
@@ -112,18 +131,68 @@ class VehicleImpl implements Vehicle {
                 action.accept(this, currentTick);
             }
         } else {
-            Region.Node next = path.nodes().peek();
+            Region.Node next = nodes.peek();
             if (occupied instanceof OccupiedNodeImpl) {
+                final Region region = vehicleManager.getRegion();
                 vehicleManager.getOccupied(region.getEdge(((OccupiedNodeImpl<?>) occupied).getComponent(), next)).addVehicle(this, currentTick);
             } else if (occupied instanceof OccupiedEdgeImpl) {
                 vehicleManager.getOccupied(next).addVehicle(this, currentTick);
-                path.nodes().pop();
+                nodes.pop();
             } else {
                 throw new AssertionError("Component must be either node or component");
             }
         }
     }
 
+    /**
+     * Captures the current state of this vehicle.
+     * @param spawned True, if this vehicle has already been spawned.
+     * @param orderMapper Maps the loaded {@link ConfirmedOrder}s to the instances stored in the snapshot.
+     * @return The captured state.
+     * @throws IllegalStateException If a path in the move queue has an arrival action other than
+     *                               {@link Vehicle#NO_ARRIVAL_ACTION}.
+     */
+    VehicleManagerSnapshot.VehicleState snapshot(boolean spawned, UnaryOperator<ConfirmedOrder> orderMapper) {
+        final AbstractOccupied.VehicleStats currentStats = occupied.vehicles.get(this);
+        final VehicleManager.Occupied<?> previous = currentStats == null ? null : currentStats.previous;
+        return new VehicleManagerSnapshot.VehicleState(
+            id,
+            startingNode.getComponent().getLocation(),
+            capacity,
+            spawned,
+            occupied.getComponent(),
+            currentStats == null ? 0 : currentStats.arrived,
+            previous == null ? null : previous.getComponent(),
+            moveQueue.stream().map(this::snapshot).toList(),
+            orders.stream().map(orderMapper).toList()
+        );
+    }
+
+    private VehicleManagerSnapshot.PathState snapshot(PathImpl path) {
+        // arrival actions are closures over the original simulation, a restored copy would act on the original
+        if (!VehicleManagerSnapshot.PathState.isCopyable(path.arrivalAction())) {
+            throw new IllegalStateException(
+                "Vehicle " + id + " has a pending arrival action that cannot be copied into a snapshot");
+        }
+        return new VehicleManagerSnapshot.PathState(List.copyOf(path.nodes()), path.arrivalAction());
+    }
+
+    /**
+     * Restores the move queue and the loaded orders of this vehicle.
+     * @param state The state to restore.
+     * @param orderMapper Maps the {@link ConfirmedOrder}s stored in the snapshot to the instances loaded onto this vehicle.
+     */
+    void restore(VehicleManagerSnapshot.VehicleState state, UnaryOperator<ConfirmedOrder> orderMapper) {
+        moveQueue.clear();
+        for (VehicleManagerSnapshot.PathState path : state.paths()) {
+            moveQueue.add(new PathImpl(new ArrayDeque<>(path.nodes()), path.arrivalAction()));
+        }
+        orders.clear();
+        for (ConfirmedOrder order : state.orders()) {
+            orders.add(orderMapper.apply(order));
+        }
+    }
+
     void loadOrder(ConfirmedOrder order) {
         if (getCurrentWeight() + order.getWeight() > capacity || getCurrentWeight() == capacity) {
             throw new VehicleOverloadedException(this, capacity);
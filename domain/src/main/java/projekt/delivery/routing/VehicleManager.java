@@ -1,11 +1,13 @@
 package projekt.delivery.routing;
 
+import org.jetbrains.annotations.Nullable;
 import projekt.base.Location;
 import projekt.delivery.event.Event;
 import projekt.delivery.event.EventBus;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.function.UnaryOperator;
 
 /**
  * Manages all Vehicles on a {@link Region}.
@@ -103,10 +105,96 @@ public interface VehicleManager {
     List<Event> tick(long currentTick);
 
     /**
-     * Resets this {@link VehicleManager} to its start state.
+     * Resets this {@link VehicleManager} to its start state. The log and the statistics of its {@link EventBus} are
+     * reset as well.
      */
     void reset();
 
+    /**
+     * Captures the current state of all {@link Vehicle}s of this {@link VehicleManager}.<p>
+     *
+     * This method must not be called while a tick is executed.
+     *
+     * @param orderMapper Maps the {@link ConfirmedOrder}s loaded onto the {@link Vehicle}s to the instances stored in the snapshot.
+     * @return The created {@link VehicleManagerSnapshot}.
+     * @throws IllegalStateException If a {@link Vehicle} has a pending arrival action other than
+     *                               {@link Vehicle#NO_ARRIVAL_ACTION}.
+     */
+    VehicleManagerSnapshot snapshot(UnaryOperator<ConfirmedOrder> orderMapper);
+
+    /**
+     * Restores the state of all {@link Vehicle}s from the given {@link VehicleManagerSnapshot}.<p>
+     *
+     * This {@link VehicleManager} has to be in its start state and has to be created by
+     * {@link VehicleManagerSnapshot#createVehicleManager()}.
+     *
+     * @param snapshot The {@link VehicleManagerSnapshot} to restore.
+     * @param orderMapper Maps the {@link ConfirmedOrder}s stored in the snapshot to the instances loaded onto the {@link Vehicle}s.
+     */
+    void restore(VehicleManagerSnapshot snapshot, UnaryOperator<ConfirmedOrder> orderMapper);
+
+    /**
+     * Sets the {@link TickObserver} that is notified whenever this {@link VehicleManager} executes a tick.
+     * @param observer The new {@link TickObserver} or null to remove the current one.
+     */
+    void setTickObserver(@Nullable TickObserver observer);
+
+    /**
+     * Returns a {@link Factory} that creates {@link VehicleManager}s with the same {@link Region}, {@link PathCalculator}
+     * and {@link Vehicle}s as this {@link VehicleManager}. The created {@link VehicleManager}s are in their start state.
+     * @return The created {@link Factory}.
+     */
+    Factory toFactory();
+
+    /**
+     * A factory for {@link VehicleManager}s that separates the read-only routing data from the state of a single run.<p>
+     *
+     * The {@link Region} and the {@link PathCalculator} are shared between all created {@link VehicleManager}s, while
+     * every created {@link VehicleManager} has its own occupied components, {@link Vehicle}s and {@link EventBus}.
+     * {@link VehicleManager}s created by the same {@link Factory} can therefore be simulated on different threads,
+     * as long as the shared {@link PathCalculator} is thread-safe.
+     */
+    interface Factory {
+
+        /**
+         * Creates a new {@link VehicleManager} in its start state.
+         * @return The created {@link VehicleManager}.
+         */
+        VehicleManager create();
+
+        /**
+         * Returns the {@link Region} shared by all created {@link VehicleManager}s.
+         * @return The shared {@link Region}.
+         */
+        Region getRegion();
+
+        /**
+         * Returns the {@link PathCalculator} shared by all created {@link VehicleManager}s.
+         * @return The shared {@link PathCalculator}.
+         */
+        PathCalculator getPathCalculator();
+    }
+
+    /**
+     * An observer that is notified before and after a {@link VehicleManager} executes a tick.<p>
+     *
+     * Both methods are called on the thread that executes the tick.
+     */
+    interface TickObserver {
+
+        /**
+         * Signals this {@link TickObserver} that the given tick is about to be executed.
+         * @param currentTick The tick that is executed.
+         */
+        void beforeTick(long currentTick);
+
+        /**
+         * Signals this {@link TickObserver} that the given tick has been executed.
+         * @param currentTick The executed tick.
+         */
+        void afterTick(long currentTick);
+    }
+
     /**
      * Represents an occupied {@link Region.Component} that can be occupied by multiple {@link Vehicle}s.<p>
      * It has a reference to the original {@link Region.Component} which can be accessed via the {@link #getComponent()} method.
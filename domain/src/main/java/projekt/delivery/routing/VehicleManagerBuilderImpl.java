@@ -8,7 +8,7 @@ import java.util.Objects;
 
 class VehicleManagerBuilderImpl implements VehicleManager.Builder {
 
-    private final List<VehicleBuilder> vehicles = new ArrayList<>();
+    private final List<VehicleManagerFactoryImpl.VehicleSpec> vehicles = new ArrayList<>();
     private Region region;
     private PathCalculator pathCalculator;
 
@@ -32,13 +32,13 @@ class VehicleManagerBuilderImpl implements VehicleManager.Builder {
         if (capacity <= 0) {
             throw new IllegalArgumentException("Capacity must be positive");
         }
-        vehicles.add(new VehicleBuilder(startingLocation, capacity));
+        vehicles.add(new VehicleManagerFactoryImpl.VehicleSpec(startingLocation, capacity));
         return this;
     }
 
     @Override
     public VehicleManager.Builder removeVehicle(Location startingLocation) {
-        vehicles.removeIf(vehicleBuilder -> vehicleBuilder.startingLocation.equals(startingLocation));
+        vehicles.removeIf(vehicle -> vehicle.startingLocation().equals(startingLocation));
         return this;
     }
 
@@ -46,12 +46,6 @@ class VehicleManagerBuilderImpl implements VehicleManager.Builder {
     public VehicleManager build() {
         Objects.requireNonNull(region, "region");
         Objects.requireNonNull(pathCalculator, "pathCalculator");
-        VehicleManagerImpl vehicleManager = new VehicleManagerImpl(region, pathCalculator);
-        for (VehicleBuilder vehicleBuilder : vehicles) {
-            vehicleManager.addVehicle(vehicleBuilder.startingLocation, vehicleBuilder.capacity);
-        }
-        return vehicleManager;
+        return new VehicleManagerFactoryImpl(region, pathCalculator, vehicles).create();
     }
-
-    private record VehicleBuilder(Location startingLocation, double capacity) { }
 }
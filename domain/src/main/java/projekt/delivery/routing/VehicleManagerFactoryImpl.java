@@ -0,0 +1,51 @@
+package projekt.delivery.routing;
+
+import projekt.base.Location;
+
+import java.util.List;
+
+/**
+ * An immutable {@link VehicleManager.Factory} that shares its {@link Region} and {@link PathCalculator} with all
+ * created {@link VehicleManager}s.
+ *
+ * @param region The {@link Region} of the created {@link VehicleManager}s.
+ * @param pathCalculator The {@link PathCalculator} of the created {@link VehicleManager}s.
+ * @param vehicles The {@link Vehicle}s of the created {@link VehicleManager}s, ordered by their ID.
+ */
+record VehicleManagerFactoryImpl(
+    Region region,
+    PathCalculator pathCalculator,
+    List<VehicleSpec> vehicles
+) implements VehicleManager.Factory {
+
+    VehicleManagerFactoryImpl {
+        vehicles = List.copyOf(vehicles);
+    }
+
+    @Override
+    public VehicleManager create() {
+        VehicleManagerImpl vehicleManager = new VehicleManagerImpl(region, pathCalculator);
+        for (VehicleSpec vehicle : vehicles) {
+            vehicleManager.addVehicle(vehicle.startingLocation(), vehicle.capacity());
+        }
+        return vehicleManager;
+    }
+
+    @Override
+    public Region getRegion() {
+        return region;
+    }
+
+    @Override
+    public PathCalculator getPathCalculator() {
+        return pathCalculator;
+    }
+
+    /**
+     * The description of a {@link Vehicle} of the created {@link VehicleManager}s.
+     *
+     * @param startingLocation The {@link Location} of the starting node of the {@link Vehicle}.
+     * @param capacity The capacity of the {@link Vehicle}.
+     */
+    record VehicleSpec(Location startingLocation, double capacity) { }
+}
@@ -1,11 +1,13 @@
 package projekt.delivery.routing;
 
+import org.jetbrains.annotations.Nullable;
 import projekt.base.Location;
 import projekt.delivery.event.Event;
 import projekt.delivery.event.EventBus;
 import projekt.delivery.event.SpawnEvent;
 
 import java.util.*;
+import java.util.function.UnaryOperator;
 
 import static org.tudalgo.algoutils.student.Student.crash;
 
@@ -19,6 +21,14 @@ class VehicleManagerImpl implements VehicleManager {
     private final List<VehicleImpl> vehicles = new ArrayList<>();
     private final Collection<Vehicle> unmodifiableVehicles = Collections.unmodifiableCollection(vehicles);
     private final EventBus eventBus = new EventBus();
+    /**
+     * All occupied nodes followed by all occupied edges in the order they are ticked.
+     * Rebuilt whenever {@link #occupiedNodes} or {@link #occupiedEdges} is replaced.
+     */
+    private AbstractOccupied<?>[] tickOrder;
+    private Map<Region.Node, OccupiedNodeImpl<? extends Region.Node>> tickOrderNodes;
+    private Map<Region.Edge, OccupiedEdgeImpl> tickOrderEdges;
+    private @Nullable TickObserver tickObserver;
 
     VehicleManagerImpl(
         Region region,
@@ -119,8 +129,12 @@ class VehicleManagerImpl implements VehicleManager {
 
     @Override
     public List<Event> tick(long currentTick) {
-        for (VehicleImpl vehicle : vehiclesToSpawn) {
-            spawnVehicle(vehicle, currentTick);
+        TickObserver observer = tickObserver;
+        if (observer != null) {
+            observer.beforeTick(currentTick);
+        }
+        for (int i = 0; i < vehiclesToSpawn.size(); i++) {
+            spawnVehicle(vehiclesToSpawn.get(i), currentTick);
         }
         vehiclesToSpawn.clear();
         // It is important that nodes are ticked before edges
@@ -129,9 +143,42 @@ class VehicleManagerImpl implements VehicleManager {
         // For example, a node tick may move a vehicle onto an edge.
         // Ticking this edge afterwards does not move the vehicle further along the edge
         // compared to a vehicle already on the edge.
-        occupiedNodes.values().forEach(occupiedNode -> occupiedNode.tick(currentTick));
-        occupiedEdges.values().forEach(occupiedEdge -> occupiedEdge.tick(currentTick));
-        return eventBus.popEvents(currentTick);
+        for (AbstractOccupied<?> occupied : getTickOrder()) {
+            occupied.tick(currentTick);
+        }
+        List<Event> events = eventBus.popEvents(currentTick);
+        if (observer != null) {
+            observer.afterTick(currentTick);
+        }
+        return events;
+    }
+
+    @Override
+    public void setTickObserver(@Nullable TickObserver observer) {
+        tickObserver = observer;
+    }
+
+    @Override
+    public Factory toFactory() {
+        List<VehicleImpl> allVehicles = new ArrayList<>(vehicles);
+        allVehicles.addAll(vehiclesToSpawn);
+        allVehicles.sort(Comparator.comparingInt(VehicleImpl::getId));
+        return new VehicleManagerFactoryImpl(region, pathCalculator, allVehicles.stream()
+            .map(vehicle -> new VehicleManagerFactoryImpl.VehicleSpec(
+                vehicle.getStartingNode().getComponent().getLocation(), vehicle.getCapacity()))
+            .toList());
+    }
+
+    private AbstractOccupied<?>[] getTickOrder() {
+        if (tickOrder == null || tickOrderNodes != occupiedNodes || tickOrderEdges != occupiedEdges) {
+            List<AbstractOccupied<?>> order = new ArrayList<>(occupiedNodes.size() + occupiedEdges.size());
+            order.addAll(occupiedNodes.values());
+            order.addAll(occupiedEdges.values());
+            tickOrder = order.toArray(AbstractOccupied<?>[]::new);
+            tickOrderNodes = occupiedNodes;
+            tickOrderEdges = occupiedEdges;
+        }
+        return tickOrder;
     }
 
     public void reset() {
@@ -148,6 +195,51 @@ class VehicleManagerImpl implements VehicleManager {
             .toList());
 
         vehicles.clear();
+        eventBus.reset();
+    }
+
+    @Override
+    public VehicleManagerSnapshot snapshot(UnaryOperator<ConfirmedOrder> orderMapper) {
+        List<VehicleManagerSnapshot.VehicleState> states = new ArrayList<>(vehicles.size() + vehiclesToSpawn.size());
+        for (VehicleImpl vehicle : vehicles) {
+            states.add(vehicle.snapshot(true, orderMapper));
+        }
+        for (VehicleImpl vehicle : vehiclesToSpawn) {
+            states.add(vehicle.snapshot(false, orderMapper));
+        }
+        states.sort(Comparator.comparingInt(VehicleManagerSnapshot.VehicleState::id));
+        return new VehicleManagerSnapshot(toFactory(), states);
+    }
+
+    @Override
+    public void restore(VehicleManagerSnapshot snapshot, UnaryOperator<ConfirmedOrder> orderMapper) {
+        if (snapshot.region() != region || !vehicles.isEmpty() || vehiclesToSpawn.size() != snapshot.vehicles().size()) {
+            throw new IllegalStateException("The snapshot can only be restored into a vehicle manager created by the snapshot");
+        }
+        List<VehicleImpl> allVehicles = new ArrayList<>(vehiclesToSpawn);
+        allVehicles.sort(Comparator.comparingInt(VehicleImpl::getId));
+        vehiclesToSpawn.clear();
+
+        for (VehicleManagerSnapshot.VehicleState state : snapshot.vehicles()) {
+            VehicleImpl vehicle = allVehicles.get(state.id());
+            vehicle.restore(state, orderMapper);
+            if (!state.spawned()) {
+                vehiclesToSpawn.add(vehicle);
+                continue;
+            }
+            AbstractOccupied<?> occupied = getOccupiedComponent(state.component());
+            occupied.putVehicle(vehicle, state.arrived(), state.previous() == null ? null : getOccupiedComponent(state.previous()));
+            vehicle.setOccupied(occupied);
+            vehicles.add(vehicle);
+        }
+    }
+
+    private AbstractOccupied<?> getOccupiedComponent(Region.Component<?> component) {
+        AbstractOccupied<?> occupied = component instanceof Region.Node node ? occupiedNodes.get(node) : occupiedEdges.get(component);
+        if (occupied == null) {
+            throw new IllegalArgumentException("Component " + component + " is not part of the region");
+        }
+        return occupied;
     }
 
     @SuppressWarnings("UnusedReturnValue")
@@ -174,7 +266,7 @@ class VehicleManagerImpl implements VehicleManager {
     private void spawnVehicle(VehicleImpl vehicle, long currentTick) {
         vehicles.add(vehicle);
         OccupiedRestaurantImpl warehouse = (OccupiedRestaurantImpl) vehicle.getOccupied();
-        warehouse.vehicles.put(vehicle, new AbstractOccupied.VehicleStats(currentTick, null));
+        warehouse.putVehicle(vehicle, currentTick, null);
         getEventBus().queuePost(SpawnEvent.of(currentTick, vehicle, warehouse.getComponent()));
     }
 }
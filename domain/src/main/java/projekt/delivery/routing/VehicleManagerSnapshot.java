@@ -0,0 +1,101 @@
+package projekt.delivery.routing;
+
+import org.jetbrains.annotations.Nullable;
+import projekt.base.Location;
+
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * An immutable copy of the state of all {@link Vehicle}s of a {@link VehicleManager} at a specific tick.<p>
+ *
+ * The {@link VehicleManager.Factory}, and with it the {@link Region} and the {@link PathCalculator}, is not copied
+ * but shared with the original {@link VehicleManager}. A snapshot can be restored into any number of new
+ * {@link VehicleManager}s created by {@link #createVehicleManager()}.
+ *
+ * @param factory The {@link VehicleManager.Factory} creating {@link VehicleManager}s in the start state of the original
+ *                {@link VehicleManager}.
+ * @param vehicles The state of every {@link Vehicle}, ordered by their ID.
+ * @see VehicleManager#snapshot(java.util.function.UnaryOperator)
+ * @see VehicleManager#restore(VehicleManagerSnapshot, java.util.function.UnaryOperator)
+ */
+public record VehicleManagerSnapshot(VehicleManager.Factory factory, List<VehicleState> vehicles) {
+
+    public VehicleManagerSnapshot {
+        vehicles = List.copyOf(vehicles);
+    }
+
+    /**
+     * Returns the {@link Region} managed by the {@link VehicleManager} this snapshot was taken of.
+     * @return The managed {@link Region}.
+     */
+    public Region region() {
+        return factory.getRegion();
+    }
+
+    /**
+     * Creates a new {@link VehicleManager} with the same {@link Region}, {@link PathCalculator} and {@link Vehicle}s
+     * as the {@link VehicleManager} this snapshot was taken of. The created {@link VehicleManager} is in its start state.
+     * @return The created {@link VehicleManager}.
+     */
+    public VehicleManager createVehicleManager() {
+        return factory.create();
+    }
+
+    /**
+     * The state of a single {@link Vehicle}.
+     *
+     * @param id The ID of the {@link Vehicle}.
+     * @param startingLocation The {@link Location} of the starting node of the {@link Vehicle}.
+     * @param capacity The capacity of the {@link Vehicle}.
+     * @param spawned True, if the {@link Vehicle} has already been spawned.
+     * @param component The {@link Region.Component} the {@link Vehicle} occupies.
+     * @param arrived The tick the {@link Vehicle} arrived at its current component.
+     * @param previous The {@link Region.Component} the {@link Vehicle} occupied before or null if it has not moved yet.
+     * @param paths The move queue of the {@link Vehicle}.
+     * @param orders The {@link ConfirmedOrder}s loaded onto the {@link Vehicle}.
+     */
+    public record VehicleState(
+        int id,
+        Location startingLocation,
+        double capacity,
+        boolean spawned,
+        Region.Component<?> component,
+        long arrived,
+        @Nullable Region.Component<?> previous,
+        List<PathState> paths,
+        List<ConfirmedOrder> orders
+    ) {
+
+        public VehicleState {
+            paths = List.copyOf(paths);
+            orders = List.copyOf(orders);
+        }
+    }
+
+    /**
+     * A {@link Vehicle.Path} in the move queue of a {@link Vehicle}.
+     *
+     * @param nodes The remaining {@link Region.Node}s of the path.
+     * @param arrivalAction The action that is executed when the end of the path is reached. Other actions than
+     *                      {@link Vehicle#NO_ARRIVAL_ACTION} would act on the original simulation and are rejected.
+     */
+    public record PathState(List<Region.Node> nodes, @Nullable BiConsumer<? super Vehicle, Long> arrivalAction) {
+
+        public PathState {
+            nodes = List.copyOf(nodes);
+            if (!isCopyable(arrivalAction)) {
+                throw new IllegalArgumentException("Only paths without an arrival action can be copied");
+            }
+        }
+
+        /**
+         * Returns true, if the given arrival action can be shared between a {@link Vehicle} and its copies.
+         * @param arrivalAction The arrival action to check.
+         * @return True, if the arrival action is null or {@link Vehicle#NO_ARRIVAL_ACTION}.
+         */
+        static boolean isCopyable(@Nullable BiConsumer<? super Vehicle, Long> arrivalAction) {
+            return arrivalAction == null || arrivalAction == Vehicle.NO_ARRIVAL_ACTION;
+        }
+    }
+}
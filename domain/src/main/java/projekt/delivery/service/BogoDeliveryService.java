@@ -9,6 +9,7 @@ import projekt.delivery.routing.VehicleManager;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
+import java.util.function.Consumer;
 
 public class BogoDeliveryService extends AbstractDeliveryService {
 
@@ -21,40 +22,30 @@ public class BogoDeliveryService extends AbstractDeliveryService {
         ArrivedAtRestaurantEvent.class,
         ArrivedAtNeighborhoodEvent.class
     );
+    // routes every event of a tick once, the handlers run in the order of the former filter passes
+    private final EventSubscriptions subscriptions = new EventSubscriptions();
+    private long currentTick;
 
     public BogoDeliveryService(
         VehicleManager vehicleManager
     ) {
         super(vehicleManager);
         nodes = vehicleManager.getRegion().getNodes().stream().toList();
-    }
-
-    @Override
-    protected List<Event> tick(long currentTick, List<ConfirmedOrder> newOrders) {
-        List<Event> events = vehicleManager.tick(currentTick);
-        pendingOrders.addAll(newOrders);
 
         // this is probably not a good solution, but it could theoretically be the best solution
 
-        scheduleRandomMove(events, SpawnEvent.class);
-        scheduleRandomMove(events, ArrivedAtNodeEvent.class);
-
-        events.stream()
-            .filter(ArrivedAtRestaurantEvent.class::isInstance)
-            .map(ArrivedAtRestaurantEvent.class::cast)
-            .forEach(e -> {
+        subscriptions
+            .subscribe(SpawnEvent.class, scheduleRandomMove())
+            .subscribe(ArrivedAtNodeEvent.class, scheduleRandomMove())
+            .subscribe(ArrivedAtRestaurantEvent.class, e -> {
                 final Vehicle vehicle = e.getVehicle();
                 if (!pendingOrders.isEmpty()) {
                     final ConfirmedOrder next = pendingOrders.remove(0);
                     e.getRestaurant().loadOrder(vehicle, next, currentTick);
                 }
                 moveToRandomNode(vehicle);
-            });
-
-        events.stream()
-            .filter(ArrivedAtNeighborhoodEvent.class::isInstance)
-            .map(ArrivedAtNeighborhoodEvent.class::cast)
-            .forEach(e -> {
+            })
+            .subscribe(ArrivedAtNeighborhoodEvent.class, e -> {
                 final Vehicle vehicle = e.getVehicle();
                 final VehicleManager.OccupiedNeighborhood neighborhood = vehicleManager.getOccupiedNeighborhood(e.getNode());
                 for (ConfirmedOrder order : new ArrayList<>(vehicle.getOrders())) {
@@ -62,19 +53,25 @@ public class BogoDeliveryService extends AbstractDeliveryService {
                 }
                 moveToRandomNode(e.getVehicle());
             });
+    }
+
+    @Override
+    protected List<Event> tick(long currentTick, List<ConfirmedOrder> newOrders) {
+        List<Event> events = vehicleManager.tick(currentTick);
+        pendingOrders.addAll(newOrders);
+        this.currentTick = currentTick;
+
+        subscriptions.dispatch(events);
 
         return events;
     }
 
-    private void scheduleRandomMove(
-        List<Event> events,
-        Class<? extends VehicleEvent> eventType
-    ) {
-        events.stream()
-            .filter(eventType::isInstance)
-            .filter(e -> !skipInFirstStep.contains(e.getClass()))
-            .map(eventType::cast)
-            .forEach(e -> moveToRandomNode(e.getVehicle()));
+    private Consumer<VehicleEvent> scheduleRandomMove() {
+        return e -> {
+            if (!skipInFirstStep.contains(e.getClass())) {
+                moveToRandomNode(e.getVehicle());
+            }
+        };
     }
 
     private void moveToRandomNode(Vehicle vehicle) {
@@ -0,0 +1,294 @@
+package projekt.delivery.simulation;
+
+import projekt.delivery.event.Event;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A {@link SimulationListener} that forwards the ticks of a {@link Simulation} to other {@link SimulationListener}s,
+ * each of which is notified on its own thread.<p>
+ *
+ * The simulating thread publishes every tick into a preallocated ring buffer. Every registered
+ * {@link SimulationListener} has its own consumer thread and cursor into the buffer, so a slow listener does not stall
+ * the simulation unless it uses {@link Policy#BLOCK}. What happens when a listener falls behind by more than the
+ * capacity of the buffer is decided by its {@link Policy}.<p>
+ *
+ * Only a single thread may call {@link #onTick(List, long)}. If a {@link SimulationListener} throws, its consumer thread
+ * stops and the exception is rethrown on the simulating thread by the next call to {@link #onTick(List, long)} or
+ * {@link #awaitConsumed()}.
+ */
+public class AsyncListenerDispatcher implements SimulationListener {
+
+    /**
+     * The default capacity of the ring buffer.
+     */
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    private static final long PARK_NANOS = 50_000;
+
+    private final Slot[] slots;
+    private final int mask;
+    private final List<Consumer> consumers = new CopyOnWriteArrayList<>();
+    private volatile long published = -1;
+    private final AtomicReference<IllegalStateException> failure = new AtomicReference<>();
+
+    /**
+     * Creates a new {@link AsyncListenerDispatcher} instance.
+     * @param capacity The minimum number of ticks the ring buffer can hold. It is rounded up to the next power of two.
+     * @throws IllegalArgumentException If the capacity is not positive or too large.
+     */
+    public AsyncListenerDispatcher(int capacity) {
+        if (capacity <= 0 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("capacity must be between 1 and 2^30");
+        }
+        int size = Integer.highestOneBit(capacity) == capacity ? capacity : Integer.highestOneBit(capacity) << 1;
+        slots = new Slot[size];
+        for (int i = 0; i < size; i++) {
+            slots[i] = new Slot();
+        }
+        mask = size - 1;
+    }
+
+    /**
+     * Creates a new {@link AsyncListenerDispatcher} with a capacity of {@link #DEFAULT_CAPACITY}.
+     */
+    public AsyncListenerDispatcher() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Determines what happens when a {@link SimulationListener} falls behind by more ticks than the ring buffer can hold.
+     */
+    public enum Policy {
+
+        /**
+         * The simulating thread waits until the {@link SimulationListener} has consumed enough ticks.
+         * The {@link SimulationListener} is notified of every tick, e.g. for a {@link projekt.delivery.rating.Rater}.
+         */
+        BLOCK,
+
+        /**
+         * The oldest ticks the {@link SimulationListener} has not consumed yet are overwritten and skipped.
+         */
+        DROP_OLDEST,
+
+        /**
+         * All ticks that are available when the {@link SimulationListener} is ready are passed to a single call of
+         * {@link SimulationListener#onTick(List, long)} with the latest tick and the concatenated {@link Event}s.
+         * Ticks that have been overwritten before they were consumed are skipped like with {@link #DROP_OLDEST}.
+         */
+        COALESCE
+    }
+
+    /**
+     * Registers the given {@link SimulationListener} and starts its consumer thread.
+     * The {@link SimulationListener} is notified of all ticks that are published after this call.
+     *
+     * @param listener The {@link SimulationListener} to add.
+     * @param policy The {@link Policy} of the {@link SimulationListener}.
+     */
+    public void addListener(SimulationListener listener, Policy policy) {
+        Consumer consumer = new Consumer(listener, policy, published + 1);
+        consumers.add(consumer);
+        consumer.thread.start();
+    }
+
+    /**
+     * Removes the given {@link SimulationListener} and stops its consumer thread after it consumed all published ticks.
+     * @param listener The {@link SimulationListener} to remove.
+     * @return True, if the given {@link SimulationListener} was registered.
+     */
+    public boolean removeListener(SimulationListener listener) {
+        for (Consumer consumer : consumers) {
+            if (consumer.listener == listener) {
+                consumers.remove(consumer);
+                consumer.running = false;
+                LockSupport.unpark(consumer.thread);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the number of ticks the given {@link SimulationListener} was not notified of because it fell behind.
+     * @param listener The registered {@link SimulationListener}.
+     * @return The number of skipped ticks.
+     * @throws IllegalArgumentException If the given {@link SimulationListener} is not registered.
+     */
+    public long getDroppedTicks(SimulationListener listener) {
+        for (Consumer consumer : consumers) {
+            if (consumer.listener == listener) {
+                return consumer.dropped;
+            }
+        }
+        throw new IllegalArgumentException("listener is not registered");
+    }
+
+    /**
+     * Blocks until every registered {@link SimulationListener} has consumed all published ticks.
+     * @throws IllegalStateException If a {@link SimulationListener} threw an exception on its consumer thread.
+     */
+    public void awaitConsumed() {
+        long target = published;
+        for (Consumer consumer : consumers) {
+            while (consumer.running && consumer.cursor <= target) {
+                LockSupport.parkNanos(PARK_NANOS);
+            }
+        }
+        checkFailure();
+    }
+
+    /**
+     * Removes all registered {@link SimulationListener}s and stops their consumer threads.
+     */
+    public void close() {
+        for (Consumer consumer : consumers) {
+            removeListener(consumer.listener);
+        }
+    }
+
+    /**
+     * Publishes the given tick to all registered {@link SimulationListener}s.
+     * @throws IllegalStateException If a {@link SimulationListener} threw an exception on its consumer thread.
+     */
+    @Override
+    public void onTick(List<Event> events, long tick) {
+        checkFailure();
+        long sequence = published + 1;
+        awaitCapacity(sequence);
+
+        Slot slot = slots[(int) (sequence & mask)];
+        slot.sequence = -1;
+        slot.tick = tick;
+        slot.events = events;
+        slot.sequence = sequence;
+        published = sequence;
+
+        for (Consumer consumer : consumers) {
+            LockSupport.unpark(consumer.thread);
+        }
+    }
+
+    private void checkFailure() {
+        IllegalStateException exception = failure.get();
+        if (exception != null) {
+            throw exception;
+        }
+    }
+
+    private void awaitCapacity(long sequence) {
+        long wrapPoint = sequence - slots.length;
+        for (Consumer consumer : consumers) {
+            while (consumer.policy == Policy.BLOCK && consumer.running && consumer.cursor <= wrapPoint) {
+                LockSupport.unpark(consumer.thread);
+                LockSupport.parkNanos(PARK_NANOS);
+            }
+        }
+    }
+
+    /**
+     * An entry of the ring buffer. The sequence is -1 while the entry is written, so readers can detect that the
+     * entry was overwritten while they read it.
+     */
+    private static final class Slot {
+        volatile long sequence = -1;
+        volatile long tick;
+        volatile List<Event> events;
+    }
+
+    private final class Consumer implements Runnable {
+
+        final SimulationListener listener;
+        final Policy policy;
+        final Thread thread;
+        volatile long cursor;
+        volatile boolean running = true;
+        volatile long dropped = 0;
+
+        Consumer(SimulationListener listener, Policy policy, long cursor) {
+            this.listener = listener;
+            this.policy = policy;
+            this.cursor = cursor;
+            thread = new Thread(this, "simulation-listener-" + listener.getClass().getSimpleName());
+            thread.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                long available = published;
+                if (cursor > available) {
+                    if (!running) {
+                        return;
+                    }
+                    LockSupport.park(this);
+                    continue;
+                }
+                try {
+                    if (policy == Policy.COALESCE) {
+                        consumeCoalesced(available);
+                    } else {
+                        consume(available);
+                    }
+                } catch (Throwable e) {
+                    // the consumer stops, so a blocking listener can not stall the simulating thread
+                    failure.compareAndSet(null, new IllegalStateException(
+                        "SimulationListener %s failed".formatted(listener), e));
+                    consumers.remove(this);
+                    // set last, so that awaitConsumed() sees the failure once it stops waiting for this consumer
+                    running = false;
+                    return;
+                }
+            }
+        }
+
+        private long skipOverwritten(long available) {
+            long oldest = available - slots.length + 1;
+            if (cursor < oldest) {
+                dropped += oldest - cursor;
+                cursor = oldest;
+            }
+            return cursor;
+        }
+
+        private void consume(long available) {
+            long sequence = skipOverwritten(available);
+            Slot slot = slots[(int) (sequence & mask)];
+            long tick = slot.tick;
+            List<Event> events = slot.events;
+            if (slot.sequence != sequence) {
+                // overwritten while reading, the next iteration skips it
+                return;
+            }
+            listener.onTick(events, tick);
+            // advanced after the notification, so that awaitConsumed() waits for the listener to return or fail
+            cursor = sequence + 1;
+        }
+
+        private void consumeCoalesced(long available) {
+            long sequence = skipOverwritten(available);
+            List<Event> events = new ArrayList<>();
+            long tick = -1;
+            for (; sequence <= available; sequence++) {
+                Slot slot = slots[(int) (sequence & mask)];
+                long slotTick = slot.tick;
+                List<Event> slotEvents = slot.events;
+                if (slot.sequence != sequence) {
+                    dropped++;
+                    continue;
+                }
+                tick = slotTick;
+                events.addAll(slotEvents);
+            }
+            if (tick != -1) {
+                listener.onTick(events, tick);
+            }
+            cursor = available + 1;
+        }
+    }
+}
@@ -4,9 +4,13 @@ import projekt.delivery.event.Event;
 import projekt.delivery.generator.OrderGenerator;
 import projekt.delivery.rating.Rater;
 import projekt.delivery.rating.RatingCriteria;
+import projekt.delivery.routing.ConfirmedOrder;
+import projekt.delivery.routing.VehicleManager;
+import projekt.delivery.routing.VehicleManagerSnapshot;
 import projekt.delivery.service.DeliveryService;
 
 import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
 
 public class BasicDeliverySimulation implements Simulation {
 
@@ -16,6 +20,10 @@ public class BasicDeliverySimulation implements Simulation {
     protected final Map<RatingCriteria, Rater.Factory> raterFactoryMap;
     protected final Map<RatingCriteria, Rater> currentRaterMap = new HashMap<>();
     private final OrderGenerator.Factory orderGeneratorFactory;
+    /**
+     * The seeded {@link OrderGenerator.Factory} the current {@link OrderGenerator} was created by.
+     */
+    private OrderGenerator.Factory currentOrderGeneratorFactory;
     private OrderGenerator currentOrderGenerator;
     private volatile boolean terminationRequested = false;
     protected long currentTick = 0;
@@ -23,6 +31,29 @@ public class BasicDeliverySimulation implements Simulation {
     protected List<Event> lastEvents;
     protected boolean isRunning = false;
     private SimulationListener endSimulationListener;
+    /**
+     * The {@link Event}s of the ticks that were executed before this simulation was forked from a {@link SimulationSnapshot}.
+     */
+    private List<List<Event>> inheritedHistory = List.of();
+    /**
+     * True, if the next call to {@link #runSimulation()} continues from a {@link SimulationSnapshot}.
+     */
+    private boolean restored = false;
+    private final TickPacer pacer;
+    private final TickProfiler profiler;
+    /**
+     * The {@link Event}s of the ticks {@link FrameListener}s have not been notified of yet.
+     */
+    private List<Event> pendingFrameEvents = new ArrayList<>();
+    /**
+     * The {@link SimulationListener}s that are notified on their own thread, see
+     * {@link #addListener(SimulationListener, AsyncListenerDispatcher.Policy)}.
+     */
+    private final Map<SimulationListener, AsyncListenerDispatcher.Policy> asyncListeners = new LinkedHashMap<>();
+    /**
+     * The {@link AsyncListenerDispatcher} of the current call to {@link #runSimulation()} or {@code null}.
+     */
+    private AsyncListenerDispatcher asyncDispatcher;
 
     /**
      * Creates a new {@link BasicDeliverySimulation} instance.
@@ -37,49 +68,169 @@ public class BasicDeliverySimulation implements Simulation {
                                    DeliveryService deliveryService,
                                    OrderGenerator.Factory orderGeneratorFactory) {
         this.simulationConfig = simulationConfig;
+        this.pacer = new TickPacer(simulationConfig);
+        this.profiler = new TickProfiler(TickProfiler.DEFAULT_WINDOW, pacer);
         this.raterFactoryMap = raterFactoryMap;
         this.orderGeneratorFactory = orderGeneratorFactory;
         this.deliveryService = deliveryService;
+        deliveryService.getVehicleManager().setTickObserver(profiler);
+    }
+
+    /**
+     * Creates a new {@link BasicDeliverySimulation} that continues from the given {@link SimulationSnapshot}.<p>
+     *
+     * The first call to {@link #runSimulation()} resumes at the tick of the snapshot instead of starting a new simulation.
+     * The {@link Rater}s are copied from the snapshot. {@link Rater}s that cannot be copied are restored by replaying
+     * the {@link Event}s recorded in the snapshot.
+     *
+     * @param snapshot The {@link SimulationSnapshot} to continue from.
+     * @param simulationConfig The used {@link SimulationConfig}.
+     * @param deliveryServiceFactory The {@link DeliveryService.Factory} used to create the simulated {@link DeliveryService}.
+     * @see SimulationSnapshot#fork(SimulationConfig, DeliveryService.Factory)
+     */
+    public BasicDeliverySimulation(SimulationSnapshot snapshot,
+                                   SimulationConfig simulationConfig,
+                                   DeliveryService.Factory deliveryServiceFactory) {
+        this.simulationConfig = simulationConfig;
+        this.pacer = new TickPacer(simulationConfig);
+        this.profiler = new TickProfiler(TickProfiler.DEFAULT_WINDOW, pacer);
+        this.raterFactoryMap = snapshot.raterFactoryMap();
+        this.orderGeneratorFactory = snapshot.orderGeneratorFactory();
+
+        VehicleManager vehicleManager = snapshot.vehicleManager().createVehicleManager();
+        OrderTranslator orders = OrderTranslator.restoring(snapshot.orders(), vehicleManager);
+        vehicleManager.restore(snapshot.vehicleManager(), orders);
+        this.deliveryService = deliveryServiceFactory.create(vehicleManager);
+        vehicleManager.setTickObserver(profiler);
+        deliveryService.getPendingOrders().addAll(snapshot.pendingOrders().stream().map(orders).toList());
+
+        currentOrderGeneratorFactory = snapshot.orderGeneratorFactory();
+        startOrderGenerator();
+
+        List<Rater> replayedRaters = new ArrayList<>();
+        for (RatingCriteria criterion : raterFactoryMap.keySet()) {
+            Rater captured = snapshot.raters().get(criterion);
+            Rater rater;
+            if (captured != null) {
+                rater = Objects.requireNonNull(captured.copy(orders), "A copied rater cannot be copied again");
+            } else {
+                rater = raterFactoryMap.get(criterion).create();
+                replayedRaters.add(rater);
+            }
+            addListener(rater);
+            currentRaterMap.put(criterion, rater);
+        }
+
+        lastEvents = new ArrayList<>();
+        if (!replayedRaters.isEmpty()) {
+            EventTranslator events = new EventTranslator(vehicleManager, orders);
+            for (int tick = 0; tick < snapshot.history().size(); tick++) {
+                lastEvents = Collections.unmodifiableList(events.translate(snapshot.history().get(tick)));
+                for (Rater rater : replayedRaters) {
+                    rater.onTick(lastEvents, tick);
+                }
+            }
+        }
+
+        inheritedHistory = snapshot.history();
+        currentTick = snapshot.tick();
+        restored = true;
     }
 
     @Override
     public void runSimulation() {
-        setupNewSimulation();
+        if (restored) {
+            restored = false;
+            terminationRequested = false;
+        } else {
+            setupNewSimulation();
+        }
         isRunning = true;
+        startAsyncDispatcher();
 
-        while (!terminationRequested && (simulationLength == -1 || currentTick < simulationLength)) {
-            if (simulationConfig.isPaused()) {
-                try {
-                    //noinspection BusyWait
-                    Thread.sleep(50);
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
+        try {
+            boolean paused = true;
+            // an interrupted thread ends the simulation like endSimulation(), also if the ticks are not delayed
+            while (!terminationRequested && !Thread.currentThread().isInterrupted()
+                && (simulationLength == -1 || currentTick < simulationLength)) {
+                if (simulationConfig.isPaused()) {
+                    paused = true;
+                    pacer.stop();
+                    try {
+                        //noinspection BusyWait
+                        Thread.sleep(50);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    continue;
+                }
+                if (paused) {
+                    // (re)start the schedule, so that the time spent paused does not count as lag
+                    paused = false;
+                    pacer.start();
                 }
-                continue;
-            }
-            long tickStartTime = System.currentTimeMillis();
 
-            runCurrentTick();
+                runCurrentTick();
 
-            // Wait till next tick is due.
-            long executionTime = System.currentTimeMillis() - tickStartTime;
-            long millisTillNextTick = simulationConfig.getMillisecondsPerTick() - executionTime;
-            if (millisTillNextTick < 0) {
-                System.out.println("\033[0;33m"); //make text yellow
-                System.out.println("WARNING: Can't keep up! Did the system time change, or is the server overloaded?");
-                System.out.println("\033[0m"); // reset text color
-            } else {
+                // Wait till next tick is due or catch up if we are behind. Overruns are reported through getMetrics().
                 try {
-                    //noinspection BusyWait
-                    Thread.sleep(millisTillNextTick);
+                    pacer.awaitNextTick();
                 } catch (InterruptedException e) {
-                    e.printStackTrace();
+                    Thread.currentThread().interrupt();
                 }
             }
+
+            flushFrames();
+            if (asyncDispatcher != null) {
+                asyncDispatcher.awaitConsumed();
+            }
+        } finally {
+            pacer.stop();
+            stopAsyncDispatcher();
+            simulationLength = -1;
+            isRunning = false;
         }
+    }
 
-        simulationLength = -1;
-        isRunning = false;
+    /**
+     * Starts the consumer threads of the asynchronous {@link SimulationListener}s for the current run.
+     */
+    private void startAsyncDispatcher() {
+        if (asyncListeners.isEmpty()) {
+            return;
+        }
+        asyncDispatcher = new AsyncListenerDispatcher();
+        asyncListeners.forEach(asyncDispatcher::addListener);
+        listeners.add(asyncDispatcher);
+    }
+
+    /**
+     * Stops the consumer threads of the asynchronous {@link SimulationListener}s, even if the run failed.
+     */
+    private void stopAsyncDispatcher() {
+        if (asyncDispatcher == null) {
+            return;
+        }
+        listeners.remove(asyncDispatcher);
+        profiler.removeListenerStatistics(asyncDispatcher);
+        asyncDispatcher.close();
+        asyncDispatcher = null;
+    }
+
+    /**
+     * Notifies all {@link FrameListener}s of the {@link Event}s of the ticks whose frames have been dropped.
+     */
+    private void flushFrames() {
+        if (pendingFrameEvents.isEmpty()) {
+            return;
+        }
+        List<Event> frameEvents = Collections.unmodifiableList(pendingFrameEvents);
+        pendingFrameEvents = new ArrayList<>();
+        for (SimulationListener listener : listeners) {
+            if (listener instanceof FrameListener) {
+                listener.onTick(frameEvents, getCurrentTick() - 1);
+            }
+        }
     }
 
     @Override
@@ -125,13 +276,40 @@ public class BasicDeliverySimulation implements Simulation {
 
     @Override
     public void runCurrentTick() {
-        getDeliveryService().deliver(currentOrderGenerator.generateOrders(getCurrentTick()));
+        profiler.startTick(getCurrentTick());
+
+        List<ConfirmedOrder> newOrders = currentOrderGenerator.generateOrders(getCurrentTick());
+        profiler.endPhase(SimulationMetrics.Phase.ORDER_GENERATION);
+
+        getDeliveryService().deliver(newOrders);
         lastEvents = Collections.unmodifiableList(deliveryService.tick(getCurrentTick()));
+        profiler.endPhase(SimulationMetrics.Phase.DISPATCH);
+
+        // frames are dropped before ticks are delayed
+        boolean dropFrame = pacer.isBehindSchedule();
+        List<Event> frameEvents = lastEvents;
+        if (dropFrame) {
+            pacer.frameDropped();
+            pendingFrameEvents.addAll(lastEvents);
+        } else if (!pendingFrameEvents.isEmpty()) {
+            pendingFrameEvents.addAll(lastEvents);
+            frameEvents = Collections.unmodifiableList(pendingFrameEvents);
+            pendingFrameEvents = new ArrayList<>();
+        }
 
         for (SimulationListener listener : listeners) {
-            listener.onTick(lastEvents, getCurrentTick());
+            if (listener instanceof FrameListener) {
+                if (dropFrame) {
+                    continue;
+                }
+                listener.onTick(frameEvents, getCurrentTick());
+            } else {
+                listener.onTick(lastEvents, getCurrentTick());
+            }
+            profiler.endListener(listener);
         }
 
+        profiler.endTick();
         currentTick++;
     }
 
@@ -140,17 +318,106 @@ public class BasicDeliverySimulation implements Simulation {
         listeners.add(listener);
     }
 
+    /**
+     * Adds a {@link SimulationListener} that is notified on its own thread instead of the simulating thread.<p>
+     *
+     * The ticks are passed to the {@link SimulationListener} through the ring buffer of an
+     * {@link AsyncListenerDispatcher} whose consumer threads only live as long as a call to {@link #runSimulation()}.
+     * {@link #runSimulation()} returns only after all asynchronous {@link SimulationListener}s have consumed the
+     * published ticks and throws an {@link IllegalStateException} if one of them failed.
+     *
+     * @param listener The {@link SimulationListener} to add.
+     * @param policy The {@link AsyncListenerDispatcher.Policy} used when the {@link SimulationListener} falls behind.
+     */
+    public void addListener(SimulationListener listener, AsyncListenerDispatcher.Policy policy) {
+        asyncListeners.put(listener, policy);
+        if (asyncDispatcher != null) {
+            asyncDispatcher.addListener(listener, policy);
+        }
+    }
+
     @Override
     public boolean removeListener(SimulationListener listener) {
+        profiler.removeListenerStatistics(listener);
+        if (asyncListeners.remove(listener) != null) {
+            if (asyncDispatcher != null) {
+                asyncDispatcher.removeListener(listener);
+            }
+            return true;
+        }
         return listeners.remove(listener);
     }
 
+    @Override
+    public SimulationMetrics getMetrics() {
+        return profiler;
+    }
+
     @Override
     public DeliveryService getDeliveryService() {
         return deliveryService;
     }
 
+    @Override
+    public SimulationSnapshot snapshot() {
+        if (currentOrderGenerator == null) {
+            throw new IllegalStateException("The simulation has not been started yet");
+        }
+
+        OrderTranslator orders = OrderTranslator.capturing();
+        VehicleManager vehicleManager = deliveryService.getVehicleManager();
+        VehicleManagerSnapshot vehicleManagerSnapshot = vehicleManager.snapshot(orders);
+        List<ConfirmedOrder> pendingOrders = deliveryService.getPendingOrders().stream().map(orders).toList();
+
+        Map<RatingCriteria, Rater> raters = new HashMap<>();
+        for (Map.Entry<RatingCriteria, Rater> entry : currentRaterMap.entrySet()) {
+            Rater copy = entry.getValue().copy(orders);
+            if (copy != null) {
+                raters.put(entry.getKey(), copy);
+            }
+        }
+        // the events are only needed to replay the raters that cannot be copied
+        List<List<Event>> history = raters.size() == currentRaterMap.size() ? List.of() : captureHistory(orders);
+
+        return new SimulationSnapshot(
+            currentTick,
+            vehicleManagerSnapshot,
+            pendingOrders,
+            orders.getTranslatedOrders(),
+            raters,
+            history,
+            raterFactoryMap,
+            currentOrderGeneratorFactory
+        );
+    }
+
+    /**
+     * Returns the {@link Event}s of all executed ticks, indexed by tick, whose orders are translated by the given
+     * {@link OrderTranslator}.
+     * @throws IllegalStateException If a tick has been dropped from the log by the
+     *                               {@link projekt.delivery.event.EventRetention}.
+     */
+    private List<List<Event>> captureHistory(OrderTranslator orders) {
+        Map<Long, List<Event>> log = deliveryService.getVehicleManager().getEventBus().getLog();
+        List<List<Event>> history = new ArrayList<>(inheritedHistory);
+        for (long tick = history.size(); tick < currentTick; tick++) {
+            // every popped tick is logged, even without events, so a missing tick has been dropped
+            List<Event> events = log.get(tick);
+            if (events == null) {
+                throw new IllegalStateException("Tick " + tick + " has been dropped from the event log, "
+                    + "the raters that cannot be copied cannot be replayed");
+            }
+            for (Event event : events) {
+                EventTranslator.forEachOrder(event, orders::apply);
+            }
+            history.add(events);
+        }
+        return history;
+    }
+
     private void setupNewSimulation() {
+        inheritedHistory = List.of();
+        pendingFrameEvents = new ArrayList<>();
         currentTick = 0;
         terminationRequested = false;
         lastEvents = new ArrayList<>();
@@ -175,6 +442,32 @@ public class BasicDeliverySimulation implements Simulation {
     }
 
     private void setupOrderGenerator() {
-        currentOrderGenerator = orderGeneratorFactory.create();
+        // an unseeded factory gets a fixed seed, so that the forks of this run can create an equal generator
+        currentOrderGeneratorFactory = orderGeneratorFactory.withDefaultSeed(
+            ThreadLocalRandom.current().nextInt(Integer.MAX_VALUE));
+        startOrderGenerator();
+    }
+
+    private void startOrderGenerator() {
+        OrderGenerator orderGenerator = currentOrderGeneratorFactory.create();
+        VehicleManager vehicleManager = deliveryService.getVehicleManager();
+        currentOrderGenerator = tick -> rebind(orderGenerator.generateOrders(tick), vehicleManager);
+    }
+
+    /**
+     * Moves orders that were placed at a restaurant of another {@link VehicleManager} to the corresponding restaurant of
+     * the given {@link VehicleManager}. This happens if the {@link OrderGenerator.Factory} belongs to a problem whose
+     * {@link VehicleManager} is shared by multiple runs and each run simulates its own {@link VehicleManager}.
+     */
+    private static List<ConfirmedOrder> rebind(List<ConfirmedOrder> orders, VehicleManager vehicleManager) {
+        for (ConfirmedOrder order : orders) {
+            if (order.getRestaurant().getVehicleManager() != vehicleManager) {
+                return orders.stream()
+                    .map(o -> o.getRestaurant().getVehicleManager() == vehicleManager ? o
+                        : o.copy(vehicleManager.getOccupiedRestaurant(o.getRestaurant().getComponent())))
+                    .toList();
+            }
+        }
+        return orders;
     }
 }
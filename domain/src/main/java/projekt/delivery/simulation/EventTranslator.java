@@ -0,0 +1,96 @@
+package projekt.delivery.simulation;
+
+import projekt.delivery.event.*;
+import projekt.delivery.routing.ConfirmedOrder;
+import projekt.delivery.routing.Vehicle;
+import projekt.delivery.routing.VehicleManager;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Translates {@link Event}s of one simulation into equivalent {@link Event}s of another simulation of the same
+ * {@link projekt.delivery.routing.Region}.<p>
+ *
+ * {@link Vehicle}s are matched by their ID and {@link ConfirmedOrder}s are translated with an {@link OrderTranslator}.
+ * {@link Event}s of unknown types are not translated.
+ */
+class EventTranslator {
+
+    private final VehicleManager vehicleManager;
+    private final List<Vehicle> vehicles;
+    private final OrderTranslator orders;
+
+    /**
+     * Creates a new {@link EventTranslator} instance.
+     * @param vehicleManager The {@link VehicleManager} of the target simulation.
+     * @param orders The {@link OrderTranslator} used to translate {@link ConfirmedOrder}s.
+     */
+    EventTranslator(VehicleManager vehicleManager, OrderTranslator orders) {
+        this.vehicleManager = vehicleManager;
+        this.vehicles = new ArrayList<>(vehicleManager.getAllVehicles());
+        this.vehicles.sort(Comparator.comparingInt(Vehicle::getId));
+        this.orders = orders;
+    }
+
+    /**
+     * Translates all given {@link Event}s.
+     * @param events The {@link Event}s to translate.
+     * @return A {@link List} containing the translated {@link Event}s in the same order.
+     */
+    List<Event> translate(List<Event> events) {
+        List<Event> translated = new ArrayList<>(events.size());
+        for (Event event : events) {
+            translated.add(translate(event));
+        }
+        return translated;
+    }
+
+    /**
+     * Translates the given {@link Event}.
+     * @param event The {@link Event} to translate.
+     * @return The translated {@link Event}.
+     */
+    Event translate(Event event) {
+        if (event instanceof ArrivedAtRestaurantEvent e) {
+            return ArrivedAtRestaurantEvent.of(e.getTick(), vehicle(e),
+                vehicleManager.getOccupiedRestaurant(e.getNode()), e.getLastEdge());
+        } else if (event instanceof ArrivedAtNeighborhoodEvent e) {
+            return ArrivedAtNeighborhoodEvent.of(e.getTick(), vehicle(e), e.getNode(), e.getLastEdge());
+        } else if (event instanceof ArrivedAtNodeEvent e) {
+            return ArrivedAtNodeEvent.of(e.getTick(), vehicle(e), e.getNode(), e.getLastEdge());
+        } else if (event instanceof ArrivedAtEdgeEvent e) {
+            return ArrivedAtEdgeEvent.of(e.getTick(), vehicle(e), e.getEdge(), e.getLastNode());
+        } else if (event instanceof SpawnEvent e) {
+            return SpawnEvent.of(e.getTick(), vehicle(e), e.getNode());
+        } else if (event instanceof LoadOrderEvent e) {
+            return LoadOrderEvent.of(e.getTick(), vehicle(e), orders.apply(e.getOrder()), e.getRestaurant());
+        } else if (event instanceof DeliverOrderEvent e) {
+            return DeliverOrderEvent.of(e.getTick(), vehicle(e), e.getNode(), orders.apply(e.getOrder()));
+        } else if (event instanceof OrderReceivedEvent e) {
+            return OrderReceivedEvent.of(e.getTick(), orders.apply(e.getOrder()));
+        }
+        return event;
+    }
+
+    private Vehicle vehicle(VehicleEvent event) {
+        return vehicles.get(event.getVehicle().getId());
+    }
+
+    /**
+     * Passes every {@link ConfirmedOrder} referenced by the given {@link Event} to the given {@link Consumer}.
+     * @param event The {@link Event} to inspect.
+     * @param action The {@link Consumer} to call.
+     */
+    static void forEachOrder(Event event, Consumer<ConfirmedOrder> action) {
+        if (event instanceof LoadOrderEvent e) {
+            action.accept(e.getOrder());
+        } else if (event instanceof DeliverOrderEvent e) {
+            action.accept(e.getOrder());
+        } else if (event instanceof OrderReceivedEvent e) {
+            action.accept(e.getOrder());
+        }
+    }
+}
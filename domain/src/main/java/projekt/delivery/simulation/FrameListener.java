@@ -0,0 +1,16 @@
+package projekt.delivery.simulation;
+
+import projekt.delivery.event.Event;
+
+import java.util.List;
+
+/**
+ * A {@link SimulationListener} that only presents the state of a {@link Simulation}, e.g. a GUI.<p>
+ *
+ * When a {@link Simulation} falls behind its schedule, it skips the notification of {@link FrameListener}s before it
+ * delays any ticks. The {@link Event}s of skipped ticks are not lost: they are passed to the next call to
+ * {@link #onTick(List, long)} together with the {@link Event}s of the notified tick.
+ */
+@FunctionalInterface
+public interface FrameListener extends SimulationListener {
+}
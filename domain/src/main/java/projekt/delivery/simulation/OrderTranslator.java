@@ -0,0 +1,81 @@
+package projekt.delivery.simulation;
+
+import projekt.delivery.routing.ConfirmedOrder;
+import projekt.delivery.routing.VehicleManager;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+/**
+ * Translates {@link ConfirmedOrder}s into copies that are not shared with any other simulation.<p>
+ *
+ * Exactly one copy is created for every order ID, so all references to an order stay consistent after the translation.
+ */
+class OrderTranslator implements UnaryOperator<ConfirmedOrder> {
+
+    private final Map<Integer, ConfirmedOrder> translated = new HashMap<>();
+    private final Map<Integer, ConfirmedOrder> captured;
+    private final VehicleManager vehicleManager;
+
+    private OrderTranslator(Map<Integer, ConfirmedOrder> captured, VehicleManager vehicleManager) {
+        this.captured = captured;
+        this.vehicleManager = vehicleManager;
+    }
+
+    /**
+     * Creates a new {@link OrderTranslator} that captures the current state of the translated orders.
+     * The copies keep the restaurant of the original order.
+     * @return The created {@link OrderTranslator}.
+     */
+    static OrderTranslator capturing() {
+        return new OrderTranslator(Map.of(), null);
+    }
+
+    /**
+     * Creates a new {@link OrderTranslator} that moves orders into the given {@link VehicleManager}.<p>
+     *
+     * Orders contained in {@code captured} are restored to their captured state. All other orders have been created
+     * after the state was captured and are therefore treated as not delivered yet.
+     *
+     * @param captured The captured orders mapped by their ID.
+     * @param vehicleManager The {@link VehicleManager} the orders are moved into.
+     * @return The created {@link OrderTranslator}.
+     */
+    static OrderTranslator restoring(Map<Integer, ConfirmedOrder> captured, VehicleManager vehicleManager) {
+        return new OrderTranslator(captured, vehicleManager);
+    }
+
+    @Override
+    public ConfirmedOrder apply(ConfirmedOrder order) {
+        ConfirmedOrder copy = translated.get(order.getOrderID());
+        if (copy == null) {
+            copy = translate(order);
+            translated.put(order.getOrderID(), copy);
+        }
+        return copy;
+    }
+
+    private ConfirmedOrder translate(ConfirmedOrder order) {
+        if (vehicleManager == null) {
+            return order.copy(order.getRestaurant());
+        }
+        ConfirmedOrder source = captured.get(order.getOrderID());
+        VehicleManager.OccupiedRestaurant restaurant = vehicleManager.getOccupiedRestaurant(
+            (source == null ? order : source).getRestaurant().getComponent());
+        if (source != null) {
+            return source.copy(restaurant);
+        }
+        ConfirmedOrder copy = order.copy(restaurant);
+        copy.setActualDeliveryTick(0);
+        return copy;
+    }
+
+    /**
+     * Returns all translated orders mapped by their ID.
+     * @return All translated orders mapped by their ID.
+     */
+    Map<Integer, ConfirmedOrder> getTranslatedOrders() {
+        return translated;
+    }
+}
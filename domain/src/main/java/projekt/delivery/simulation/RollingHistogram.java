@@ -0,0 +1,78 @@
+package projekt.delivery.simulation;
+
+import java.util.Arrays;
+
+/**
+ * Stores the most recent measurements of a phase in a ring buffer and computes {@link SimulationMetrics.Statistics}
+ * over them.<p>
+ *
+ * Recording does not allocate. All methods are thread-safe.
+ */
+class RollingHistogram {
+
+    private final long[] nanos;
+    private final long[] allocatedBytes;
+    private int next = 0;
+    private int size = 0;
+
+    /**
+     * Creates a new {@link RollingHistogram} instance.
+     * @param window The number of measurements that are kept.
+     */
+    RollingHistogram(int window) {
+        if (window <= 0) {
+            throw new IllegalArgumentException("window must be positive");
+        }
+        nanos = new long[window];
+        allocatedBytes = new long[window];
+    }
+
+    /**
+     * Records a measurement. If the window is full, the oldest measurement is discarded.
+     * @param nanos The execution time in nanoseconds.
+     * @param allocatedBytes The number of allocated bytes or -1 if unknown.
+     */
+    synchronized void record(long nanos, long allocatedBytes) {
+        this.nanos[next] = nanos;
+        this.allocatedBytes[next] = allocatedBytes;
+        next = (next + 1) % this.nanos.length;
+        size = Math.min(size + 1, this.nanos.length);
+    }
+
+    /**
+     * Computes the {@link SimulationMetrics.Statistics} over the stored measurements.
+     * @return The computed {@link SimulationMetrics.Statistics}.
+     */
+    SimulationMetrics.Statistics getStatistics() {
+        long[] sorted;
+        long bytes = 0;
+        boolean bytesKnown = true;
+        synchronized (this) {
+            if (size == 0) {
+                return SimulationMetrics.Statistics.EMPTY;
+            }
+            sorted = Arrays.copyOf(nanos, size);
+            for (int i = 0; i < size; i++) {
+                if (allocatedBytes[i] < 0) {
+                    bytesKnown = false;
+                }
+                bytes += allocatedBytes[i];
+            }
+        }
+        Arrays.sort(sorted);
+
+        long sum = 0;
+        for (long value : sorted) {
+            sum += value;
+        }
+        int count = sorted.length;
+        return new SimulationMetrics.Statistics(
+            count,
+            (double) sum / count,
+            sorted[(count - 1) / 2],
+            sorted[(int) Math.ceil(count * 0.99) - 1],
+            sorted[count - 1],
+            bytesKnown ? (double) bytes / count : -1
+        );
+    }
+}
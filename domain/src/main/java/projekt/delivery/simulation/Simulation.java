@@ -93,4 +93,29 @@ public interface Simulation {
     @SuppressWarnings("UnusedReturnValue")
     boolean toggleRunning();
 
+    /**
+     * Returns the {@link SimulationMetrics} containing the execution times of the phases of the recent ticks.
+     * @return The {@link SimulationMetrics} of this {@link Simulation}.
+     * @throws UnsupportedOperationException If this {@link Simulation} does not collect metrics.
+     */
+    default SimulationMetrics getMetrics() {
+        throw new UnsupportedOperationException("metrics are not collected by " + getClass().getName());
+    }
+
+    /**
+     * Creates an immutable {@link SimulationSnapshot} of the current state of this {@link Simulation}.<p>
+     *
+     * The snapshot has to be taken between two ticks, i.e. from the simulating thread or while the simulation is paused.
+     * The returned snapshot may be shared with other threads.
+     *
+     * @return The created {@link SimulationSnapshot}.
+     * @throws IllegalStateException If the simulation has not been started yet, a vehicle has a pending arrival
+     *                               action, see {@link projekt.delivery.routing.VehicleManager#snapshot}, or a rater
+     *                               has to be replayed from ticks that have been dropped from the event log.
+     * @throws UnsupportedOperationException If this {@link Simulation} does not support snapshots.
+     */
+    default SimulationSnapshot snapshot() {
+        throw new UnsupportedOperationException("snapshots are not supported by " + getClass().getName());
+    }
+
 }
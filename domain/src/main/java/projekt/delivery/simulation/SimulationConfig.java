@@ -5,11 +5,19 @@ import java.util.concurrent.atomic.AtomicInteger;
 /**
  * A config for a {@link Simulation}.<p>
  *
- * It contains the length of a tick and whether the {@link Simulation} is paused.
+ * It contains the length of a tick, whether the {@link Simulation} is paused and how far the {@link Simulation}
+ * may fall behind its schedule before it stops catching up.
  */
 public class SimulationConfig {
+
+    /**
+     * The default value of {@link #getMaxCatchUpTicks()}.
+     */
+    public static final int DEFAULT_MAX_CATCH_UP_TICKS = 10;
+
     private final AtomicInteger millisecondsPerTick;
     private volatile boolean paused = false;
+    private volatile int maxCatchUpTicks = DEFAULT_MAX_CATCH_UP_TICKS;
 
     /**
      * Creates a new {@link Simulation} instance.<p>
@@ -53,4 +61,28 @@ public class SimulationConfig {
     public void setPaused(boolean paused) {
         this.paused = paused;
     }
+
+    /**
+     * Returns the maximum number of ticks the {@link Simulation} may fall behind its schedule.<p>
+     *
+     * While the {@link Simulation} is behind, it executes ticks without waiting in between to catch up.
+     * If it falls behind by more ticks, the remaining delay is given up and the schedule restarts at the current time.
+     *
+     * @return The maximum number of ticks the {@link Simulation} may fall behind its schedule.
+     */
+    public int getMaxCatchUpTicks() {
+        return maxCatchUpTicks;
+    }
+
+    /**
+     * Sets the maximum number of ticks the {@link Simulation} may fall behind its schedule.
+     * @param maxCatchUpTicks The new maximum number of ticks. Zero disables catching up.
+     * @throws IllegalArgumentException If the given value is negative.
+     */
+    public void setMaxCatchUpTicks(int maxCatchUpTicks) {
+        if (maxCatchUpTicks < 0) {
+            throw new IllegalArgumentException("maxCatchUpTicks must not be negative");
+        }
+        this.maxCatchUpTicks = maxCatchUpTicks;
+    }
 }
@@ -1,6 +1,7 @@
 package projekt.delivery.simulation;
 
 import projekt.delivery.event.Event;
+import projekt.delivery.event.EventSubscriptions;
 
 import java.util.List;
 
@@ -18,4 +19,14 @@ public interface SimulationListener {
      * @param tick The executed tick.
      */
     void onTick(List<Event> events, long tick);
+
+    /**
+     * Returns a {@link SimulationListener} that dispatches the {@link Event}s of every tick to the given
+     * {@link EventSubscriptions}.
+     * @param subscriptions The {@link EventSubscriptions} receiving the {@link Event}s.
+     * @return The created {@link SimulationListener}.
+     */
+    static SimulationListener dispatching(EventSubscriptions subscriptions) {
+        return (events, tick) -> subscriptions.dispatch(events);
+    }
 }
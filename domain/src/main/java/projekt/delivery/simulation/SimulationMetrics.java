@@ -0,0 +1,158 @@
+package projekt.delivery.simulation;
+
+import projekt.delivery.generator.OrderGenerator;
+import projekt.delivery.routing.VehicleManager;
+import projekt.delivery.service.DeliveryService;
+
+import java.util.Map;
+
+/**
+ * Provides the execution times and allocations of the phases of the ticks executed by a {@link Simulation}.<p>
+ *
+ * The statistics are computed over a rolling window of the most recent ticks and can either be polled or
+ * received after every tick by adding a {@link Listener}.
+ */
+public interface SimulationMetrics {
+
+    /**
+     * Returns the {@link Statistics} of the given {@link Phase} over the recent ticks.
+     * @param phase The {@link Phase} to return the {@link Statistics} for.
+     * @return The {@link Statistics} of the given {@link Phase}.
+     */
+    Statistics getStatistics(Phase phase);
+
+    /**
+     * Returns the {@link Statistics} of every {@link SimulationListener} that has been notified during the recent ticks.
+     * @return The {@link Statistics} of every {@link SimulationListener}.
+     */
+    Map<SimulationListener, Statistics> getListenerStatistics();
+
+    /**
+     * Returns the {@link Pacing} statistics describing how well the {@link Simulation} keeps up with its schedule.
+     * @return The {@link Pacing} statistics.
+     */
+    Pacing getPacing();
+
+    /**
+     * Adds a {@link Listener} that receives a {@link TickMeasurement} after every tick.
+     * @param listener The {@link Listener} to add.
+     */
+    void addListener(Listener listener);
+
+    /**
+     * Removes the given {@link Listener}.
+     * @param listener The {@link Listener} to remove.
+     * @return True, if the given {@link Listener} has been added before.
+     */
+    @SuppressWarnings("UnusedReturnValue")
+    boolean removeListener(Listener listener);
+
+    /**
+     * The measured phases of a tick.
+     */
+    enum Phase {
+
+        /**
+         * The call to {@link OrderGenerator#generateOrders(long)}.
+         */
+        ORDER_GENERATION,
+
+        /**
+         * The call to {@link DeliveryService#tick(long)} without the time spent in {@link VehicleManager#tick(long)}.
+         */
+        DISPATCH,
+
+        /**
+         * The call to {@link VehicleManager#tick(long)}.
+         */
+        VEHICLE_MANAGER,
+
+        /**
+         * All calls to {@link SimulationListener#onTick(java.util.List, long)}.
+         */
+        LISTENERS,
+
+        /**
+         * The whole tick.
+         */
+        TICK
+    }
+
+    /**
+     * The measurement of a single phase.
+     *
+     * @param nanos The execution time in nanoseconds.
+     * @param allocatedBytes The number of bytes allocated by the executing thread or -1 if it is not supported by the JVM.
+     */
+    record Sample(long nanos, long allocatedBytes) {
+    }
+
+    /**
+     * The measurements of a single tick.
+     *
+     * @param tick The measured tick.
+     * @param phases The {@link Sample} of every {@link Phase}.
+     * @param listeners The {@link Sample} of every notified {@link SimulationListener}.
+     */
+    record TickMeasurement(long tick, Map<Phase, Sample> phases, Map<SimulationListener, Sample> listeners) {
+
+        /**
+         * Returns the {@link Sample} of the given {@link Phase}.
+         * @param phase The {@link Phase} to return the {@link Sample} for.
+         * @return The {@link Sample} of the given {@link Phase}.
+         */
+        public Sample get(Phase phase) {
+            return phases.get(phase);
+        }
+    }
+
+    /**
+     * Statistics over the recent measurements of a phase.
+     *
+     * @param count The number of measurements the statistics are computed from.
+     * @param meanNanos The mean execution time in nanoseconds.
+     * @param medianNanos The median execution time in nanoseconds.
+     * @param p99Nanos The 99th percentile of the execution time in nanoseconds.
+     * @param maxNanos The maximum execution time in nanoseconds.
+     * @param meanAllocatedBytes The mean number of allocated bytes or -1 if it is not supported by the JVM.
+     */
+    record Statistics(long count, double meanNanos, long medianNanos, long p99Nanos, long maxNanos, double meanAllocatedBytes) {
+
+        /**
+         * Statistics without any measurements.
+         */
+        public static final Statistics EMPTY = new Statistics(0, 0, 0, 0, 0, 0);
+    }
+
+    /**
+     * Statistics about the pacing of a {@link Simulation}.
+     *
+     * @param lagNanos The time in nanoseconds the {@link Simulation} is currently behind its schedule.
+     * @param maxLagNanos The largest lag in nanoseconds observed so far.
+     * @param driftNanos The total delay in nanoseconds that was given up because the {@link Simulation} fell behind by
+     *                   more than {@link SimulationConfig#getMaxCatchUpTicks()} ticks.
+     * @param catchUpTicks The number of ticks that were executed without waiting to catch up with the schedule.
+     * @param droppedFrames The number of ticks {@link FrameListener}s were not notified of because the {@link Simulation}
+     *                      was behind its schedule.
+     * @param overruns The number of times the {@link Simulation} fell behind by more than
+     *                 {@link SimulationConfig#getMaxCatchUpTicks()} ticks after it had been on schedule.
+     */
+    record Pacing(long lagNanos, long maxLagNanos, long driftNanos, long catchUpTicks, long droppedFrames,
+                  long overruns) {
+    }
+
+    /**
+     * A listener that receives the {@link TickMeasurement} of every executed tick.<p>
+     *
+     * It is called on the simulating thread, so it should return quickly.
+     */
+    @FunctionalInterface
+    interface Listener {
+
+        /**
+         * Signals this {@link Listener} that a tick has been measured.
+         * @param measurement The {@link TickMeasurement} of the tick.
+         */
+        void onTickMeasured(TickMeasurement measurement);
+    }
+}
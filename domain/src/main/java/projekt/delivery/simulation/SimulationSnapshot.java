@@ -0,0 +1,72 @@
+package projekt.delivery.simulation;
+
+import projekt.delivery.event.Event;
+import projekt.delivery.generator.OrderGenerator;
+import projekt.delivery.rating.Rater;
+import projekt.delivery.rating.RatingCriteria;
+import projekt.delivery.routing.ConfirmedOrder;
+import projekt.delivery.routing.VehicleManagerSnapshot;
+import projekt.delivery.service.DeliveryService;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable checkpoint of a {@link Simulation} that can be forked into any number of independent simulations.<p>
+ *
+ * Only the mutable state is copied when the snapshot is taken: the positions, move queues and loaded orders of all
+ * vehicles, the pending orders of the {@link DeliveryService}, the state of all {@link ConfirmedOrder}s and the state
+ * of all {@link Rater}s that can be copied. The {@link projekt.delivery.routing.Region} and the factories are shared
+ * with the original simulation and all forks. Each fork copies the state it modifies when it is created, so forks can
+ * be executed on different threads and creating a fork does not depend on the number of executed ticks.<p>
+ *
+ * Every fork creates its own {@link OrderGenerator} with {@link #orderGeneratorFactory()}. The factory has a fixed
+ * seed, see {@link OrderGenerator.Factory#withDefaultSeed(int)}, so all forks receive the same orders as the original
+ * simulation, since an {@link OrderGenerator} always returns the same orders for the same tick. Forks of a simulation
+ * whose factory ignores the seed are not reproducible.<p>
+ *
+ * {@link Rater}s whose {@link Rater#copy(java.util.function.UnaryOperator)} returns null are restored by replaying
+ * the recorded {@link Event}s. Only in this case the {@link Event}s of all executed ticks are recorded.
+ *
+ * @param tick The tick that is executed next.
+ * @param vehicleManager The state of the {@link projekt.delivery.routing.VehicleManager}.
+ * @param pendingOrders The pending orders of the {@link DeliveryService}.
+ * @param orders The captured state of all known {@link ConfirmedOrder}s mapped by their ID.
+ * @param raters The copied {@link Rater}s mapped by their {@link RatingCriteria}. They are never notified of ticks.
+ * @param history The {@link Event}s of all executed ticks, indexed by tick, or an empty list if all {@link Rater}s
+ *                could be copied.
+ * @param raterFactoryMap The {@link Rater.Factory}s used to rate the simulation.
+ * @param orderGeneratorFactory The seeded {@link OrderGenerator.Factory} the {@link OrderGenerator} of the simulation
+ *                              was created by.
+ * @see Simulation#snapshot()
+ */
+public record SimulationSnapshot(
+    long tick,
+    VehicleManagerSnapshot vehicleManager,
+    List<ConfirmedOrder> pendingOrders,
+    Map<Integer, ConfirmedOrder> orders,
+    Map<RatingCriteria, Rater> raters,
+    List<List<Event>> history,
+    Map<RatingCriteria, Rater.Factory> raterFactoryMap,
+    OrderGenerator.Factory orderGeneratorFactory) {
+
+    public SimulationSnapshot {
+        pendingOrders = List.copyOf(pendingOrders);
+        orders = Map.copyOf(orders);
+        raters = Map.copyOf(raters);
+        history = List.copyOf(history);
+        raterFactoryMap = Map.copyOf(raterFactoryMap);
+    }
+
+    /**
+     * Creates a new {@link BasicDeliverySimulation} that continues from this snapshot.
+     *
+     * @param simulationConfig The {@link SimulationConfig} of the created simulation.
+     * @param deliveryServiceFactory The {@link DeliveryService.Factory} used to create the simulated {@link DeliveryService}.
+     *                               It does not have to be the same as in the original simulation.
+     * @return The created {@link BasicDeliverySimulation}.
+     */
+    public BasicDeliverySimulation fork(SimulationConfig simulationConfig, DeliveryService.Factory deliveryServiceFactory) {
+        return new BasicDeliverySimulation(this, simulationConfig, deliveryServiceFactory);
+    }
+}
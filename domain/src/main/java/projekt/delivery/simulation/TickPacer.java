@@ -0,0 +1,125 @@
+package projekt.delivery.simulation;
+
+/**
+ * Schedules the ticks of a {@link Simulation} according to its {@link SimulationConfig}.<p>
+ *
+ * Every tick has a deadline that is one tick length after the deadline of the previous tick. If a tick finishes
+ * before its deadline, the pacer waits until the deadline is reached. If the simulation is behind its schedule,
+ * the next tick is executed immediately to catch up. Once the simulation is behind by more than
+ * {@link SimulationConfig#getMaxCatchUpTicks()} ticks, the remaining delay is given up and counted as drift.
+ */
+class TickPacer {
+
+    private final SimulationConfig simulationConfig;
+    private long deadline;
+    private boolean started = false;
+    private boolean overloaded = false;
+    private volatile long lagNanos;
+    private volatile long maxLagNanos;
+    private volatile long driftNanos;
+    private volatile long catchUpTicks;
+    private volatile long droppedFrames;
+    private volatile long overruns;
+
+    /**
+     * Creates a new {@link TickPacer} instance.
+     * @param simulationConfig The {@link SimulationConfig} containing the length of a tick.
+     */
+    TickPacer(SimulationConfig simulationConfig) {
+        this.simulationConfig = simulationConfig;
+    }
+
+    /**
+     * Starts a new schedule at the current time, e.g. when the simulation is started or resumed.
+     */
+    void start() {
+        deadline = System.nanoTime();
+        lagNanos = 0;
+        overloaded = false;
+        started = true;
+    }
+
+    /**
+     * Stops the schedule. {@link #isBehindSchedule()} returns false until {@link #start()} is called again.
+     */
+    void stop() {
+        started = false;
+        lagNanos = 0;
+    }
+
+    /**
+     * Returns true, if the schedule is running and the next tick is already due.
+     * An unpaced simulation, i.e. one with a tick length of zero, is never behind its schedule.
+     * @return True, if the schedule is running and the next tick is already due.
+     */
+    boolean isBehindSchedule() {
+        long tickNanos = tickNanos();
+        return started && tickNanos > 0 && System.nanoTime() - (deadline + tickNanos) > 0;
+    }
+
+    /**
+     * Counts a frame that was skipped because the simulation is behind its schedule.
+     */
+    void frameDropped() {
+        droppedFrames++;
+    }
+
+    /**
+     * Waits until the next tick is due.
+     * @return True, if the simulation fell behind by more than the allowed number of ticks for the first time since it
+     * was last on schedule. The schedule is restarted in this case and the overrun is counted in
+     * {@link SimulationMetrics.Pacing#overruns()}.
+     * @throws InterruptedException If the current thread is interrupted while waiting.
+     */
+    boolean awaitNextTick() throws InterruptedException {
+        long tickNanos = tickNanos();
+        long now = System.nanoTime();
+        if (tickNanos == 0) {
+            // unpaced: execute the ticks as fast as possible
+            deadline = now;
+            return false;
+        }
+        deadline += tickNanos;
+        long lag = now - deadline;
+
+        if (lag <= 0) {
+            lagNanos = 0;
+            overloaded = false;
+            if (lag < 0) {
+                Thread.sleep(-lag / 1_000_000, (int) (-lag % 1_000_000));
+            }
+            return false;
+        }
+
+        lagNanos = lag;
+        maxLagNanos = Math.max(maxLagNanos, lag);
+        if (lag <= tickNanos * simulationConfig.getMaxCatchUpTicks()) {
+            catchUpTicks++;
+            return false;
+        }
+
+        // too far behind: give up the delay instead of executing an unbounded burst of ticks
+        driftNanos += lag;
+        deadline = now;
+        lagNanos = 0;
+        if (overloaded) {
+            return false;
+        }
+        overloaded = true;
+        overruns++;
+        return true;
+    }
+
+    private long tickNanos() {
+        return Math.max(0, simulationConfig.getMillisecondsPerTick()) * 1_000_000L;
+    }
+
+    /**
+     * Returns the current {@link SimulationMetrics.Pacing} statistics.
+     * @return The current {@link SimulationMetrics.Pacing} statistics.
+     */
+    SimulationMetrics.Pacing getPacing() {
+        return new SimulationMetrics.Pacing(lagNanos, maxLagNanos, driftNanos, catchUpTicks, droppedFrames,
+            overruns);
+    }
+}
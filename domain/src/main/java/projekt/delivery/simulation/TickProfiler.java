@@ -0,0 +1,208 @@
+package projekt.delivery.simulation;
+
+import projekt.delivery.routing.VehicleManager;
+
+import java.lang.management.ManagementFactory;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Measures the phases of the ticks executed by a {@link BasicDeliverySimulation}.<p>
+ *
+ * The phases are measured by marking the end of each phase on the simulating thread. The time spent in
+ * {@link VehicleManager#tick(long)} is measured separately by registering this profiler as
+ * {@link VehicleManager.TickObserver} and is subtracted from {@link SimulationMetrics.Phase#DISPATCH}.
+ */
+class TickProfiler implements SimulationMetrics, VehicleManager.TickObserver {
+
+    /**
+     * The default number of ticks the statistics are computed over.
+     */
+    static final int DEFAULT_WINDOW = 1024;
+
+    private static final Phase[] PHASES = Phase.values();
+
+    private final int window;
+    private final EnumMap<Phase, RollingHistogram> histograms = new EnumMap<>(Phase.class);
+    private final Map<SimulationListener, RollingHistogram> listenerHistograms = Collections.synchronizedMap(new IdentityHashMap<>());
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final com.sun.management.ThreadMXBean threadMXBean;
+    private final TickPacer pacer;
+
+    private final long[] phaseNanos = new long[PHASES.length];
+    private final long[] phaseBytes = new long[PHASES.length];
+    private final Map<SimulationListener, Sample> listenerSamples = new LinkedHashMap<>();
+    private long tick;
+    private long tickStartNanos;
+    private long tickStartBytes;
+    private long markNanos;
+    private long markBytes;
+    private long vehicleManagerStartNanos;
+    private long vehicleManagerStartBytes;
+
+    /**
+     * Creates a new {@link TickProfiler} instance.
+     * @param window The number of ticks the statistics are computed over.
+     * @param pacer The {@link TickPacer} providing the {@link Pacing} statistics.
+     */
+    TickProfiler(int window, TickPacer pacer) {
+        this.window = window;
+        this.pacer = pacer;
+        for (Phase phase : PHASES) {
+            histograms.put(phase, new RollingHistogram(window));
+        }
+        threadMXBean = getThreadMXBean();
+    }
+
+    private static com.sun.management.ThreadMXBean getThreadMXBean() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threadMXBean
+            && threadMXBean.isThreadAllocatedMemorySupported()) {
+            threadMXBean.setThreadAllocatedMemoryEnabled(true);
+            return threadMXBean;
+        }
+        return null;
+    }
+
+    private long allocatedBytes() {
+        return threadMXBean == null ? -1 : threadMXBean.getCurrentThreadAllocatedBytes();
+    }
+
+    private static long delta(long end, long start) {
+        return end < 0 || start < 0 ? -1 : end - start;
+    }
+
+    /**
+     * Starts the measurement of the given tick.
+     * @param tick The tick that is executed.
+     */
+    void startTick(long tick) {
+        this.tick = tick;
+        Arrays.fill(phaseNanos, 0);
+        Arrays.fill(phaseBytes, 0);
+        if (!listenerSamples.isEmpty()) {
+            listenerSamples.clear();
+        }
+        tickStartNanos = markNanos = System.nanoTime();
+        tickStartBytes = markBytes = allocatedBytes();
+    }
+
+    /**
+     * Ends the given {@link Phase}. It started at the end of the previous phase.
+     * @param phase The {@link Phase} that ended.
+     */
+    void endPhase(Phase phase) {
+        long nanos = System.nanoTime();
+        long bytes = allocatedBytes();
+        phaseNanos[phase.ordinal()] += nanos - markNanos;
+        phaseBytes[phase.ordinal()] += delta(bytes, markBytes);
+        markNanos = nanos;
+        markBytes = bytes;
+    }
+
+    /**
+     * Ends the notification of the given {@link SimulationListener}. It started at the end of the previous phase.
+     * @param listener The notified {@link SimulationListener}.
+     */
+    void endListener(SimulationListener listener) {
+        long nanos = System.nanoTime();
+        long bytes = allocatedBytes();
+        long listenerNanos = nanos - markNanos;
+        long listenerBytes = delta(bytes, markBytes);
+        phaseNanos[Phase.LISTENERS.ordinal()] += listenerNanos;
+        phaseBytes[Phase.LISTENERS.ordinal()] += listenerBytes;
+        // a capturing computeIfAbsent lambda would allocate for every listener in every tick
+        RollingHistogram histogram = listenerHistograms.get(listener);
+        if (histogram == null) {
+            histogram = new RollingHistogram(window);
+            listenerHistograms.put(listener, histogram);
+        }
+        histogram.record(listenerNanos, sanitize(listenerBytes));
+        if (!listeners.isEmpty()) {
+            listenerSamples.put(listener, new Sample(listenerNanos, sanitize(listenerBytes)));
+        }
+        markNanos = nanos;
+        markBytes = bytes;
+    }
+
+    /**
+     * Ends the measurement of the current tick and publishes the results.
+     */
+    void endTick() {
+        phaseNanos[Phase.TICK.ordinal()] = markNanos - tickStartNanos;
+        phaseBytes[Phase.TICK.ordinal()] = delta(markBytes, tickStartBytes);
+
+        for (Phase phase : PHASES) {
+            histograms.get(phase).record(phaseNanos[phase.ordinal()], sanitize(phaseBytes[phase.ordinal()]));
+        }
+        if (!listeners.isEmpty()) {
+            EnumMap<Phase, Sample> phases = new EnumMap<>(Phase.class);
+            for (Phase phase : PHASES) {
+                phases.put(phase, new Sample(phaseNanos[phase.ordinal()], sanitize(phaseBytes[phase.ordinal()])));
+            }
+            TickMeasurement measurement = new TickMeasurement(tick,
+                Collections.unmodifiableMap(phases),
+                Collections.unmodifiableMap(new LinkedHashMap<>(listenerSamples)));
+            for (Listener listener : listeners) {
+                listener.onTickMeasured(measurement);
+            }
+        }
+    }
+
+    private long sanitize(long bytes) {
+        return threadMXBean == null ? -1 : Math.max(bytes, 0);
+    }
+
+    /**
+     * Removes the {@link Statistics} of the given {@link SimulationListener}.
+     * @param listener The removed {@link SimulationListener}.
+     */
+    void removeListenerStatistics(SimulationListener listener) {
+        listenerHistograms.remove(listener);
+    }
+
+    @Override
+    public void beforeTick(long currentTick) {
+        vehicleManagerStartNanos = System.nanoTime();
+        vehicleManagerStartBytes = allocatedBytes();
+    }
+
+    @Override
+    public void afterTick(long currentTick) {
+        long nanos = System.nanoTime() - vehicleManagerStartNanos;
+        long bytes = delta(allocatedBytes(), vehicleManagerStartBytes);
+        phaseNanos[Phase.VEHICLE_MANAGER.ordinal()] += nanos;
+        phaseBytes[Phase.VEHICLE_MANAGER.ordinal()] += bytes;
+        // the vehicle manager is ticked by the delivery service, so its time is excluded from the dispatch phase
+        phaseNanos[Phase.DISPATCH.ordinal()] -= nanos;
+        phaseBytes[Phase.DISPATCH.ordinal()] -= bytes;
+    }
+
+    @Override
+    public Statistics getStatistics(Phase phase) {
+        return histograms.get(phase).getStatistics();
+    }
+
+    @Override
+    public Map<SimulationListener, Statistics> getListenerStatistics() {
+        Map<SimulationListener, Statistics> statistics = new IdentityHashMap<>();
+        synchronized (listenerHistograms) {
+            listenerHistograms.forEach((listener, histogram) -> statistics.put(listener, histogram.getStatistics()));
+        }
+        return Collections.unmodifiableMap(statistics);
+    }
+
+    @Override
+    public Pacing getPacing() {
+        return pacer.getPacing();
+    }
+
+    @Override
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public boolean removeListener(Listener listener) {
+        return listeners.remove(listener);
+    }
+}
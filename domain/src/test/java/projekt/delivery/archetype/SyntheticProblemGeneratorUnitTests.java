@@ -0,0 +1,103 @@
+package projekt.delivery.archetype;
+
+import org.junit.jupiter.api.Test;
+import projekt.base.Location;
+import projekt.delivery.routing.Region;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SyntheticProblemGeneratorUnitTests {
+
+    private static Region generate(SyntheticProblemGenerator.Topology topology, int nodeCount, long seed) {
+        return SyntheticProblemGenerator.builder()
+            .setTopology(topology)
+            .setNodeCount(nodeCount)
+            .setRestaurantRatio(0.02)
+            .setNeighborhoodRatio(0.4)
+            .setSeed(seed)
+            .build()
+            .generateRegion();
+    }
+
+    private static boolean isConnected(Region region) {
+        Map<Location, Set<Location>> adjacency = new HashMap<>();
+        for (Region.Edge edge : region.getEdges()) {
+            adjacency.computeIfAbsent(edge.getNodeA().getLocation(), location -> new HashSet<>()).add(edge.getNodeB().getLocation());
+            adjacency.computeIfAbsent(edge.getNodeB().getLocation(), location -> new HashSet<>()).add(edge.getNodeA().getLocation());
+        }
+        Location start = region.getNodes().iterator().next().getLocation();
+        Set<Location> visited = new HashSet<>(List.of(start));
+        Deque<Location> queue = new ArrayDeque<>(visited);
+        while (!queue.isEmpty()) {
+            for (Location neighbor : adjacency.getOrDefault(queue.poll(), Set.of())) {
+                if (visited.add(neighbor)) {
+                    queue.add(neighbor);
+                }
+            }
+        }
+        return visited.size() == region.getNodes().size();
+    }
+
+    @Test
+    public void testEveryTopologyIsConnectedAndHasAllNodes() {
+        for (SyntheticProblemGenerator.Topology topology : SyntheticProblemGenerator.Topology.values()) {
+            for (int nodeCount : new int[]{2, 17, 1000, 5000}) {
+                Region region = generate(topology, nodeCount, 7);
+
+                assertEquals(nodeCount, region.getNodes().size(), "%s with %d nodes".formatted(topology, nodeCount));
+                assertTrue(isConnected(region), "%s with %d nodes is not connected".formatted(topology, nodeCount));
+                assertTrue(region.getNodes().stream().anyMatch(Region.Restaurant.class::isInstance));
+                assertTrue(region.getNodes().stream().anyMatch(Region.Neighborhood.class::isInstance));
+            }
+        }
+    }
+
+    @Test
+    public void testSameSeedGeneratesSameRegion() {
+        for (SyntheticProblemGenerator.Topology topology : SyntheticProblemGenerator.Topology.values()) {
+            Region first = generate(topology, 2000, 42);
+            Region second = generate(topology, 2000, 42);
+
+            assertEquals(names(first.getNodes()), names(second.getNodes()));
+            assertEquals(names(first.getEdges()), names(second.getEdges()));
+        }
+    }
+
+    @Test
+    public void testDifferentSeedsGenerateDifferentRegions() {
+        Region first = generate(SyntheticProblemGenerator.Topology.RANDOM_GEOMETRIC, 2000, 1);
+        Region second = generate(SyntheticProblemGenerator.Topology.RANDOM_GEOMETRIC, 2000, 2);
+
+        assertNotEquals(locations(first), locations(second));
+    }
+
+    @Test
+    public void testRatiosAreRespected() {
+        Region region = generate(SyntheticProblemGenerator.Topology.GRID, 10_000, 3);
+        long neighborhoods = region.getNodes().stream().filter(Region.Neighborhood.class::isInstance).count();
+        long restaurants = region.getNodes().stream().filter(Region.Restaurant.class::isInstance).count();
+
+        assertEquals(4000, neighborhoods, 300);
+        assertEquals(200, restaurants, 60);
+    }
+
+    @Test
+    public void testInvalidConfiguration() {
+        assertThrows(IllegalArgumentException.class, () -> SyntheticProblemGenerator.builder().setNodeCount(1).build());
+        assertThrows(IllegalArgumentException.class, () -> SyntheticProblemGenerator.builder()
+            .setRestaurantRatio(0.6)
+            .setNeighborhoodRatio(0.6)
+            .build());
+    }
+
+    private static Set<String> names(Collection<? extends Region.Component<?>> components) {
+        return components.stream().map(Region.Component::getName).collect(Collectors.toSet());
+    }
+
+    private static Set<Location> locations(Region region) {
+        return region.getNodes().stream().map(Region.Node::getLocation).collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,179 @@
+package projekt.delivery.event;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AsyncEventLogWriterUnitTests {
+
+    private static final Event ORDER_RECEIVED = OrderReceivedEvent.of(1, null);
+    private static final Event TICK = Event.of(1);
+
+    @Test
+    public void testLevelFiltersEvents() {
+        StringWriter writer = new StringWriter();
+        try (AsyncEventLogWriter eventLog = new AsyncEventLogWriter(writer, AsyncEventLogWriter.Level.INFO)) {
+            eventLog.accept(0, List.of(TICK));
+            eventLog.accept(1, List.of(TICK, ORDER_RECEIVED));
+        }
+
+        assertEquals("Tick: 1 - [%s]%n".formatted(ORDER_RECEIVED), writer.toString());
+    }
+
+    @Test
+    public void testTraceWritesEveryTick() {
+        StringWriter writer = new StringWriter();
+        try (AsyncEventLogWriter eventLog = new AsyncEventLogWriter(writer, AsyncEventLogWriter.Level.TRACE)) {
+            eventLog.accept(0, List.of());
+            eventLog.accept(1, List.of(TICK, ORDER_RECEIVED));
+        }
+
+        assertEquals("Tick: 0 - []%nTick: 1 - [%s, %s]%n".formatted(TICK, ORDER_RECEIVED), writer.toString());
+    }
+
+    @Test
+    public void testOffWritesNothing() {
+        StringWriter writer = new StringWriter();
+        try (AsyncEventLogWriter eventLog = new AsyncEventLogWriter(writer, AsyncEventLogWriter.Level.OFF)) {
+            eventLog.accept(1, List.of(TICK, ORDER_RECEIVED));
+        }
+
+        assertEquals("", writer.toString());
+    }
+
+    @Test
+    public void testBlockedWriterDropsTicks() {
+        CountDownLatch release = new CountDownLatch(1);
+        StringWriter output = new StringWriter();
+        Writer blockingWriter = blockingWriter(release, output);
+
+        long droppedTicks;
+        try (AsyncEventLogWriter eventLog = new AsyncEventLogWriter(blockingWriter, AsyncEventLogWriter.Level.TRACE, 4)) {
+            try {
+                // the writer thread blocks in the first batch, so at most the capacity can be queued afterwards
+                for (int tick = 0; tick < 100; tick++) {
+                    eventLog.accept(tick, List.of());
+                }
+                droppedTicks = eventLog.getDroppedTicks();
+            } finally {
+                release.countDown();
+            }
+        }
+
+        assertTrue(droppedTicks > 0);
+
+        assertTrue(output.toString().contains("Dropped the events of"));
+        assertTrue(output.toString().contains("Tick: 0 - []"));
+    }
+
+    @Test
+    public void testEventBusPassesPoppedEventsToSink() {
+        EventBus eventBus = new EventBus();
+        StringWriter writer = new StringWriter();
+        try (AsyncEventLogWriter eventLog = new AsyncEventLogWriter(writer, AsyncEventLogWriter.Level.TRACE)) {
+            eventBus.setSink(eventLog);
+            eventBus.queuePost(TICK);
+            eventBus.popEvents(3);
+        }
+
+        assertEquals("Tick: 3 - [%s]%n".formatted(TICK), writer.toString());
+    }
+
+    @Test
+    public void testEventsShowTheStateOfTheirTick() {
+        List<String> orders = new ArrayList<>(List.of("first"));
+        // like a vehicle, whose orders change in the following ticks
+        Event event = new Event() {
+            @Override
+            public long getTick() {
+                return 1;
+            }
+
+            @Override
+            public String toString() {
+                return "Loaded" + orders;
+            }
+        };
+        CountDownLatch release = new CountDownLatch(1);
+        StringWriter output = new StringWriter();
+
+        try (AsyncEventLogWriter eventLog = new AsyncEventLogWriter(blockingWriter(release, output), AsyncEventLogWriter.Level.TRACE)) {
+            try {
+                eventLog.accept(1, List.of(event));
+                orders.add("second");
+                eventLog.accept(2, List.of(event));
+                orders.clear();
+            } finally {
+                release.countDown();
+            }
+        }
+
+        assertEquals("Tick: 1 - [Loaded[first]]%nTick: 2 - [Loaded[first, second]]%n".formatted(), output.toString());
+    }
+
+    @Test
+    public void testFailingWriterClosesLog() throws InterruptedException {
+        Writer failingWriter = new Writer() {
+            @Override
+            public void write(char[] buffer, int offset, int length) throws IOException {
+                throw new IOException("broken writer");
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+
+        AsyncEventLogWriter eventLog = new AsyncEventLogWriter(failingWriter, AsyncEventLogWriter.Level.TRACE);
+        eventLog.accept(0, List.of(TICK));
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!eventLog.isClosed()) {
+            assertTrue(System.currentTimeMillis() < deadline, "the event log was not closed");
+            Thread.sleep(1);
+        }
+
+        // the following ticks are ignored instead of filling the queue
+        for (int tick = 1; tick < 10_000; tick++) {
+            eventLog.accept(tick, List.of(TICK));
+        }
+        assertEquals(0, eventLog.getDroppedTicks());
+        // the failure is reported to the owner of the writer instead of the simulating thread
+        UncheckedIOException exception = assertThrows(UncheckedIOException.class, eventLog::close);
+        assertEquals("broken writer", exception.getCause().getMessage());
+        assertDoesNotThrow(eventLog::close);
+    }
+
+    private static Writer blockingWriter(CountDownLatch release, StringWriter output) {
+        return new Writer() {
+            @Override
+            public void write(char[] buffer, int offset, int length) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+                output.write(buffer, offset, length);
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+}
@@ -0,0 +1,248 @@
+package projekt.delivery.event;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import projekt.base.EuclideanDistanceCalculator;
+import projekt.base.Location;
+import projekt.base.TickInterval;
+import projekt.delivery.routing.ConfirmedOrder;
+import projekt.delivery.routing.Region;
+import projekt.delivery.routing.Vehicle;
+import projekt.delivery.routing.VehicleManager;
+import projekt.delivery.simulation.SimulationListener;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static projekt.delivery.event.EventFixtures.*;
+
+public class BinaryEventLogUnitTests {
+
+    private Region region;
+    private EventDictionary dictionary;
+    private Vehicle vehicle;
+    private VehicleManager.OccupiedRestaurant restaurant;
+
+    @BeforeEach
+    public void initialize() {
+        region = region();
+        vehicle = vehicle(7);
+        restaurant = restaurant(region);
+        dictionary = new EventDictionary(region, List.of(vehicle), List.of(restaurant));
+    }
+
+    @Test
+    public void testReplayReproducesEvents() {
+        Map<Long, List<Event>> recorded = record();
+
+        byte[] log = write(recorded);
+        Map<Long, List<Event>> replayed = new TreeMap<>();
+        long ticks;
+        try (BinaryEventReader reader = new BinaryEventReader(new ByteArrayInputStream(log), dictionary)) {
+            ticks = reader.replay(List.of((events, tick) -> replayed.put(tick, events)));
+        }
+
+        assertEquals(recorded.size(), ticks);
+        assertEquals(recorded.toString(), replayed.toString());
+
+        ArrivedAtNodeEvent arrivedEvent = (ArrivedAtNodeEvent) replayed.get(2L).get(0);
+        assertSame(vehicle, arrivedEvent.getVehicle());
+        assertSame(region.getNode(NEIGHBORHOOD), arrivedEvent.getNode());
+        DeliverOrderEvent deliverEvent = (DeliverOrderEvent) replayed.get(2L).get(1);
+        assertSame(((OrderReceivedEvent) replayed.get(0L).get(0)).getOrder(), deliverEvent.getOrder());
+        assertEquals(2, deliverEvent.getOrder().getActualDeliveryTick());
+    }
+
+    @Test
+    public void testLogIsSmallerThanText() {
+        Map<Long, List<Event>> recorded = new TreeMap<>();
+        Region.Edge edge = region.getEdge(RESTAURANT, NEIGHBORHOOD);
+        for (long tick = 0; tick < 1000; tick++) {
+            recorded.put(tick, List.of(
+                ArrivedAtEdgeEvent.of(tick, vehicle, edge, region.getNode(RESTAURANT)),
+                Event.of(tick)
+            ));
+        }
+        StringBuilder text = new StringBuilder();
+        recorded.forEach((tick, events) -> text.append("Tick: %s - %s%n".formatted(tick, events)));
+
+        assertTrue(write(recorded).length * 10 < text.length());
+    }
+
+    @Test
+    public void testOtherRegionIsRejected() {
+        byte[] log = write(record());
+        Region otherRegion = Region.builder()
+            .distanceCalculator(new EuclideanDistanceCalculator())
+            .addRestaurant(RESTAURANT, Region.Restaurant.JAVA_HUT)
+            .addNeighborhood("N", new Location(4, 3))
+            .addEdge("RN", RESTAURANT, new Location(4, 3))
+            .build();
+        EventDictionary otherDictionary = new EventDictionary(otherRegion, List.of(vehicle), List.of());
+
+        assertThrows(IllegalArgumentException.class,
+            () -> new BinaryEventReader(new ByteArrayInputStream(log), otherDictionary));
+    }
+
+    @Test
+    public void testRepeatedRoutesAreCompressed() {
+        Map<Long, List<Event>> recorded = route(10_000);
+
+        byte[] plain = write(recorded, 1, false);
+        byte[] segmented = write(recorded, BinaryEventWriter.DEFAULT_SEGMENT_TICKS, false);
+        byte[] deflated = write(recorded, BinaryEventWriter.DEFAULT_SEGMENT_TICKS, true);
+        assertTrue(segmented.length * 2 < plain.length);
+        assertTrue(deflated.length * 10 < segmented.length);
+
+        for (byte[] log : List.of(plain, segmented, deflated)) {
+            Map<Long, List<Event>> replayed = new TreeMap<>();
+            try (BinaryEventReader reader = new BinaryEventReader(new ByteArrayInputStream(log), dictionary)) {
+                reader.replay(List.of((events, tick) -> replayed.put(tick, events)));
+            }
+            assertEquals(recorded.toString(), replayed.toString());
+        }
+    }
+
+    @Test
+    public void testSeekDecodesFromTick() throws IOException {
+        Map<Long, List<Event>> recorded = route(1000);
+        Path file = Files.createTempFile("events", ".events");
+        try {
+            Files.write(file, write(recorded, 16, true));
+            try (BinaryEventReader reader = BinaryEventReader.open(file, dictionary)) {
+                List<Long> ticks = new ArrayList<>();
+                List<SimulationListener> listeners = List.of((events, tick) -> ticks.add(tick));
+
+                reader.seek(701);
+                assertTrue(reader.replayTick(listeners));
+                assertTrue(reader.replayTick(listeners));
+                reader.seek(4);
+                reader.replayTick(listeners);
+                reader.seek(0);
+                reader.replayTick(listeners);
+                reader.seek(998);
+                assertEquals(2, reader.replay(listeners));
+                reader.seek(5000);
+                assertFalse(reader.replayTick(listeners));
+
+                // the ticks ending with 1 and 3 are missing, so the replay continues at the following tick
+                assertEquals(List.of(702L, 704L, 4L, 0L, 998L, 999L), ticks);
+            }
+        } finally {
+            Files.delete(file);
+        }
+        assertThrows(IllegalStateException.class,
+            () -> new BinaryEventReader(new ByteArrayInputStream(write(recorded)), dictionary).seek(0));
+    }
+
+    @Test
+    public void testSeekBackwardResetsOrders() throws IOException {
+        Path file = Files.createTempFile("events", ".events");
+        try {
+            Files.write(file, write(record(), 2, true));
+            try (BinaryEventReader reader = BinaryEventReader.open(file, dictionary)) {
+                Map<Long, List<Event>> replayed = new TreeMap<>();
+                List<SimulationListener> listeners = List.of((events, tick) -> replayed.put(tick, events));
+                reader.replay(listeners);
+                ConfirmedOrder delivered = ((DeliverOrderEvent) replayed.get(2L).get(1)).getOrder();
+                assertEquals(2, delivered.getActualDeliveryTick());
+
+                // the order of tick 0 must not know that it is delivered in tick 2
+                reader.seek(0);
+                reader.replayTick(listeners);
+                ConfirmedOrder received = ((OrderReceivedEvent) replayed.get(0L).get(0)).getOrder();
+                assertNotSame(delivered, received);
+                assertEquals(0, received.getActualDeliveryTick());
+
+                reader.seek(2);
+                reader.replayTick(listeners);
+                ConfirmedOrder redelivered = ((DeliverOrderEvent) replayed.get(2L).get(1)).getOrder();
+                assertEquals(2, redelivered.getActualDeliveryTick());
+                assertEquals(delivered.getOrderID(), redelivered.getOrderID());
+                assertEquals(0, received.getActualDeliveryTick());
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testOrdersStayIdenticalAcrossSegments() {
+        Map<Long, List<Event>> replayed = new TreeMap<>();
+        try (BinaryEventReader reader = new BinaryEventReader(new ByteArrayInputStream(write(record(), 1, true)),
+            dictionary)) {
+            reader.replay(List.of((events, tick) -> replayed.put(tick, events)));
+        }
+
+        DeliverOrderEvent deliverEvent = (DeliverOrderEvent) replayed.get(2L).get(1);
+        assertSame(((OrderReceivedEvent) replayed.get(0L).get(0)).getOrder(), deliverEvent.getOrder());
+        assertEquals(List.of("Rigatoni", "Rigatoni", "Pizza Margherita"), deliverEvent.getOrder().getFoodList());
+    }
+
+    private Map<Long, List<Event>> route(int ticks) {
+        Region.Node restaurantNode = region.getNode(RESTAURANT);
+        Region.Neighborhood neighborhood = (Region.Neighborhood) region.getNode(NEIGHBORHOOD);
+        Region.Edge edge = region.getEdge(RESTAURANT, NEIGHBORHOOD);
+
+        // the vehicle shuttles between the restaurant and the neighborhood, some ticks are not recorded
+        Map<Long, List<Event>> recorded = new TreeMap<>();
+        for (long tick = 0; tick < ticks; tick++) {
+            if (tick % 10 == 1 || tick % 10 == 3) {
+                continue;
+            }
+            recorded.put(tick, switch ((int) (tick % 10)) {
+                case 0 -> List.of(ArrivedAtEdgeEvent.of(tick, vehicle, edge, restaurantNode));
+                case 5 -> List.of(ArrivedAtNeighborhoodEvent.of(tick, vehicle, neighborhood, edge));
+                case 6 -> List.of(ArrivedAtEdgeEvent.of(tick, vehicle, edge, neighborhood));
+                case 9 -> List.of(ArrivedAtRestaurantEvent.of(tick, vehicle, restaurant, edge), Event.of(tick));
+                default -> List.of();
+            });
+        }
+        return recorded;
+    }
+
+    private Map<Long, List<Event>> record() {
+        ConfirmedOrder order = new ConfirmedOrder(NEIGHBORHOOD, restaurant, new TickInterval(1, 5),
+            List.of("Rigatoni", "Rigatoni", "Pizza Margherita"), 1.5);
+        Region.Node restaurantNode = region.getNode(RESTAURANT);
+        Region.Neighborhood neighborhood = (Region.Neighborhood) region.getNode(NEIGHBORHOOD);
+        Region.Edge edge = region.getEdge(RESTAURANT, NEIGHBORHOOD);
+
+        Map<Long, List<Event>> recorded = new TreeMap<>();
+        recorded.put(0L, List.of(
+            OrderReceivedEvent.of(0, order),
+            SpawnEvent.of(0, vehicle, restaurantNode),
+            ArrivedAtRestaurantEvent.of(0, vehicle, restaurant, null),
+            LoadOrderEvent.of(0, vehicle, order, (Region.Restaurant) restaurantNode)
+        ));
+        recorded.put(1L, List.of(ArrivedAtEdgeEvent.of(1, vehicle, edge, restaurantNode)));
+        order.setActualDeliveryTick(2);
+        recorded.put(2L, List.of(
+            ArrivedAtNeighborhoodEvent.of(2, vehicle, neighborhood, edge),
+            DeliverOrderEvent.of(2, vehicle, neighborhood, order)
+        ));
+        recorded.put(5L, List.of());
+        recorded.put(6L, List.of(Event.of(6)));
+        return recorded;
+    }
+
+    private byte[] write(Map<Long, List<Event>> recorded) {
+        return write(recorded, BinaryEventWriter.DEFAULT_SEGMENT_TICKS, true);
+    }
+
+    private byte[] write(Map<Long, List<Event>> recorded, int segmentTicks, boolean deflate) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (BinaryEventWriter writer = new BinaryEventWriter(bytes, dictionary, segmentTicks, deflate)) {
+            recorded.forEach((tick, events) -> writer.onTick(new ArrayList<>(events), tick));
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,100 @@
+package projekt.delivery.event;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import projekt.base.EuclideanDistanceCalculator;
+import projekt.base.Location;
+import projekt.delivery.routing.Region;
+import projekt.delivery.routing.Vehicle;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EventBatchUnitTests {
+
+    private static final Location A = new Location(0, 0);
+    private static final Location B = new Location(0, 1);
+
+    private Region region;
+    private Vehicle vehicle;
+    private EventDictionary dictionary;
+
+    @BeforeEach
+    public void initialize() {
+        region = Region.builder()
+            .distanceCalculator(new EuclideanDistanceCalculator())
+            .addNode("A", A)
+            .addNode("B", B)
+            .addEdge("AB", A, B)
+            .build();
+        vehicle = EventFixtures.vehicle(3);
+        dictionary = new EventDictionary(region, List.of(vehicle), List.of());
+    }
+
+    @Test
+    public void testEventsAreEncodedIntoColumns() {
+        Region.Edge edge = region.getEdge(A, B);
+        EventBatch batch = new EventBatch(dictionary);
+        batch.addAll(List.of(
+            SpawnEvent.of(4, vehicle, region.getNode(A)),
+            ArrivedAtEdgeEvent.of(5, vehicle, edge, region.getNode(A)),
+            ArrivedAtNodeEvent.of(6, vehicle, region.getNode(B), edge),
+            Event.of(6)
+        ));
+
+        assertEquals(4, batch.size());
+        assertEquals(EventBatch.SPAWN, batch.getType(0));
+        assertEquals(4, batch.getTick(0));
+        assertEquals(3, batch.getVehicleId(0));
+        assertEquals(-1, batch.getPreviousComponentId(0));
+        assertEquals(EventBatch.ARRIVED_AT_EDGE, batch.getType(1));
+        assertEquals(batch.getComponentId(0), batch.getPreviousComponentId(1));
+        assertEquals(EventBatch.EVENT, batch.getType(3));
+        assertEquals(-1, batch.getVehicleId(3));
+        assertThrows(IndexOutOfBoundsException.class, () -> batch.getType(4));
+
+        EventBatch.Cursor cursor = batch.cursor();
+        List<Region.Component<?>> components = new ArrayList<>();
+        List<Region.Component<?>> previousComponents = new ArrayList<>();
+        while (cursor.next()) {
+            components.add(cursor.getComponent());
+            previousComponents.add(cursor.getPreviousComponent());
+        }
+        assertEquals(List.of(region.getNode(A), edge, region.getNode(B)), components.subList(0, 3));
+        assertNull(components.get(3));
+        assertEquals(region.getNode(A), previousComponents.get(1));
+        assertEquals(edge, previousComponents.get(2));
+        assertSame(vehicle, cursor.moveTo(2).getVehicle());
+    }
+
+    @Test
+    public void testColumnsGrowAndAreReused() {
+        EventBatch batch = new EventBatch(dictionary);
+        for (int i = 0; i < 1000; i++) {
+            batch.add(EventBatch.EVENT, i, -1, -1, -1, -1);
+        }
+        assertEquals(1000, batch.size());
+        assertEquals(999, batch.getTick(999));
+
+        batch.clear();
+        assertEquals(0, batch.size());
+        assertFalse(batch.cursor().next());
+    }
+
+    @Test
+    public void testListenerReusesBatch() {
+        List<EventBatch> batches = new ArrayList<>();
+        List<Integer> sizes = new ArrayList<>();
+        var listener = EventBatch.listener(dictionary, (batch, tick) -> {
+            batches.add(batch);
+            sizes.add(batch.size());
+        });
+        listener.onTick(List.of(Event.of(0), Event.of(0)), 0);
+        listener.onTick(List.of(Event.of(1)), 1);
+
+        assertEquals(List.of(2, 1), sizes);
+        assertSame(batches.get(0), batches.get(1));
+    }
+}
@@ -0,0 +1,208 @@
+package projekt.delivery.event;
+
+import org.junit.jupiter.api.Test;
+import projekt.base.EuclideanDistanceCalculator;
+import projekt.base.Location;
+import projekt.base.TickInterval;
+import projekt.delivery.routing.ConfirmedOrder;
+import projekt.delivery.routing.Region;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.ref.WeakReference;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EventBusUnitTests {
+
+    private static final int PRODUCERS = 4;
+    private static final int EVENTS_PER_PRODUCER = 20_000;
+
+    private final EventBus eventBus = new EventBus();
+
+    @Test
+    public void testEventsArePoppedInPostOrder() {
+        List<Event> events = List.of(Event.of(0), Event.of(1), Event.of(2), Event.of(3));
+        eventBus.queuePost(events.get(0));
+        eventBus.queuePost(events.subList(1, 3));
+        eventBus.queuePost(List.of());
+        eventBus.queuePost(events.get(3));
+
+        assertEquals(events, eventBus.popEvents(0));
+        assertEquals(List.of(), eventBus.popEvents(1));
+        assertEquals(events, eventBus.getLog().get(0L));
+        assertEquals(List.of(), eventBus.getLog().get(1L));
+    }
+
+    @Test
+    public void testClearRemovesQueuedEvents() {
+        eventBus.queuePost(Event.of(0));
+        eventBus.clear();
+        Event event = Event.of(1);
+        eventBus.queuePost(event);
+
+        assertEquals(List.of(event), eventBus.popEvents(1));
+    }
+
+    @Test
+    public void testConcurrentPostsAreNotLost() throws InterruptedException {
+        Event[][] events = new Event[PRODUCERS][EVENTS_PER_PRODUCER];
+        List<Thread> producers = new ArrayList<>();
+        CountDownLatch start = new CountDownLatch(1);
+        for (int producer = 0; producer < PRODUCERS; producer++) {
+            Event[] producerEvents = events[producer];
+            for (int i = 0; i < EVENTS_PER_PRODUCER; i++) {
+                producerEvents[i] = Event.of(i);
+            }
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+                for (int i = 0; i < producerEvents.length; i += 2) {
+                    eventBus.queuePost(producerEvents[i]);
+                    eventBus.queuePost(List.of(producerEvents[i + 1]));
+                }
+            });
+            thread.start();
+            producers.add(thread);
+        }
+
+        // pop while the producers are posting
+        start.countDown();
+        List<Event> popped = new ArrayList<>();
+        long tick = 0;
+        while (producers.stream().anyMatch(Thread::isAlive)) {
+            popped.addAll(eventBus.popEvents(tick++));
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        popped.addAll(eventBus.popEvents(tick));
+
+        assertEquals(PRODUCERS * EVENTS_PER_PRODUCER, popped.size());
+        // the events of every producer keep their order
+        int[] next = new int[PRODUCERS];
+        for (Event event : popped) {
+            int producer = 0;
+            while (next[producer] == EVENTS_PER_PRODUCER || events[producer][next[producer]] != event) {
+                producer++;
+            }
+            next[producer]++;
+        }
+        for (int producer = 0; producer < PRODUCERS; producer++) {
+            assertEquals(EVENTS_PER_PRODUCER, next[producer]);
+        }
+    }
+
+    @Test
+    public void testDroppingRetentionKeepsRecentTicks() {
+        eventBus.setRetention(EventRetention.dropping(3));
+        for (long tick = 0; tick < 10; tick++) {
+            eventBus.queuePost(Event.of(tick));
+            eventBus.popEvents(tick);
+        }
+
+        Map<Long, List<Event>> log = eventBus.getLog();
+        assertEquals(3, log.size());
+        assertNull(log.get(6L));
+        assertEquals(List.of(7L, 8L, 9L), new ArrayList<>(log.keySet()));
+    }
+
+    @Test
+    public void testSpilledTicksArePagedIn() throws IOException {
+        Path directory = Files.createTempDirectory("event-bus");
+        Region.Node node = Region.builder()
+            .distanceCalculator(new EuclideanDistanceCalculator())
+            .addNode("A", new Location(0, 0))
+            .build()
+            .getNode(new Location(0, 0));
+        eventBus.setRetention(new EventRetention(4, 3, directory));
+
+        List<List<Event>> posted = new ArrayList<>();
+        for (long tick = 0; tick < 20; tick++) {
+            List<Event> events = List.of(Event.of(tick), SpawnEvent.of(tick, null, node), OrderReceivedEvent.of(tick, null));
+            eventBus.queuePost(events);
+            eventBus.popEvents(tick);
+            posted.add(events);
+        }
+
+        Map<Long, List<Event>> log = eventBus.getLog();
+        assertEquals(20, log.size());
+        // spilled ticks are new lists of new events referring to the same objects
+        assertNotSame(posted.get(0), log.get(0L));
+        for (long tick = 19; tick >= 0; tick--) {
+            List<Event> events = log.get(tick);
+            assertEquals(3, events.size());
+            assertEquals(tick, events.get(0).getTick());
+            assertSame(node, ((SpawnEvent) events.get(1)).getNode());
+            assertTrue(events.get(2) instanceof OrderReceivedEvent);
+        }
+        assertEquals(new ArrayList<>(new TreeSet<>(log.keySet())), new ArrayList<>(log.keySet()));
+    }
+
+    @Test
+    public void testSpilledOrdersAreCopies() throws IOException, InterruptedException {
+        eventBus.setRetention(new EventRetention(1, 1, Files.createTempDirectory("event-bus")));
+        ConfirmedOrder order = new ConfirmedOrder(new Location(1, 2), null, new TickInterval(3, 5), List.of(), 1.5);
+        order.setActualDeliveryTick(4);
+        int orderID = order.getOrderID();
+        eventBus.queuePost(List.of(OrderReceivedEvent.of(4, order), DeliverOrderEvent.of(4, null, null, order)));
+        eventBus.popEvents(4);
+        eventBus.popEvents(5);
+
+        List<Event> events = eventBus.getLog().get(4L);
+        ConfirmedOrder spilled = ((OrderReceivedEvent) events.get(0)).getOrder();
+        assertNotSame(order, spilled);
+        assertSame(spilled, ((DeliverOrderEvent) events.get(1)).getOrder());
+        assertEquals(orderID, spilled.getOrderID());
+        assertEquals(new Location(1, 2), spilled.getLocation());
+        assertEquals(new TickInterval(3, 5), spilled.getDeliveryInterval());
+        assertEquals(1.5, spilled.getWeight());
+        assertEquals(4, spilled.getActualDeliveryTick());
+
+        // the log must not keep the spilled order reachable
+        WeakReference<ConfirmedOrder> reference = new WeakReference<>(order);
+        //noinspection UnusedAssignment
+        order = null;
+        for (int i = 0; i < 10 && reference.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull(reference.get());
+    }
+
+    @Test
+    public void testUnknownEventsAreNotSpilled() throws IOException {
+        eventBus.setRetention(new EventRetention(1, 1, Files.createTempDirectory("event-bus")));
+        Event custom = () -> 0;
+        eventBus.queuePost(custom);
+        eventBus.popEvents(0);
+
+        PrintStream err = System.err;
+        ByteArrayOutputStream warnings = new ByteArrayOutputStream();
+        System.setErr(new PrintStream(warnings, true));
+        try {
+            for (long tick = 1; tick < 10; tick++) {
+                eventBus.queuePost(Event.of(tick));
+                eventBus.popEvents(tick);
+            }
+        } finally {
+            System.setErr(err);
+        }
+
+        // spilling is given up after the first rejected segment, so all ticks stay in memory
+        assertEquals(1, warnings.toString().lines().count(), warnings.toString());
+        assertEquals(List.of(custom), eventBus.getLog().get(0L));
+        assertEquals(10, eventBus.getLog().size());
+    }
+}
@@ -0,0 +1,54 @@
+package projekt.delivery.event;
+
+import projekt.base.EuclideanDistanceCalculator;
+import projekt.base.Location;
+import projekt.delivery.routing.Region;
+import projekt.delivery.routing.Vehicle;
+import projekt.delivery.routing.VehicleManager;
+
+import java.util.Map;
+
+import static projekt.TestProxies.proxy;
+
+/**
+ * A region and fakes of vehicles and restaurants for the event tests that do not depend on the routing
+ * implementations.<p>
+ *
+ * The region consists of a restaurant at {@link #RESTAURANT} and a neighborhood at {@link #NEIGHBORHOOD} connected by a
+ * single edge.
+ */
+final class EventFixtures {
+
+    static final Location RESTAURANT = new Location(0, 0);
+    static final Location NEIGHBORHOOD = new Location(3, 4);
+
+    private EventFixtures() {
+    }
+
+    /**
+     * Returns a new region with a restaurant and a neighborhood connected by an edge.
+     */
+    static Region region() {
+        return Region.builder()
+            .distanceCalculator(new EuclideanDistanceCalculator())
+            .addRestaurant(RESTAURANT, Region.Restaurant.JAVA_HUT)
+            .addNeighborhood("N", NEIGHBORHOOD)
+            .addEdge("RN", RESTAURANT, NEIGHBORHOOD)
+            .build();
+    }
+
+    /**
+     * Returns a vehicle that only knows its ID.
+     */
+    static Vehicle vehicle(int id) {
+        return proxy(Vehicle.class, Map.of("getId", id, "toString", "vehicle " + id));
+    }
+
+    /**
+     * Returns an occupied restaurant that only knows the restaurant of the given region.
+     */
+    static VehicleManager.OccupiedRestaurant restaurant(Region region) {
+        return proxy(VehicleManager.OccupiedRestaurant.class,
+            Map.of("getComponent", region.getNode(RESTAURANT), "toString", "restaurant"));
+    }
+}
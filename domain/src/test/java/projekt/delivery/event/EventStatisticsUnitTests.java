@@ -0,0 +1,144 @@
+package projekt.delivery.event;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import projekt.base.Location;
+import projekt.base.TickInterval;
+import projekt.delivery.routing.ConfirmedOrder;
+import projekt.delivery.routing.Region;
+import projekt.delivery.routing.Vehicle;
+import projekt.delivery.routing.VehicleManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static projekt.TestProxies.proxy;
+import static projekt.delivery.event.EventFixtures.*;
+
+public class EventStatisticsUnitTests {
+
+    private Region region;
+    private Region.Restaurant restaurantNode;
+    private Region.Neighborhood neighborhood;
+    private Region.Edge edge;
+    private List<Vehicle> vehicles;
+    private VehicleManager.OccupiedRestaurant restaurant;
+    private EventStatistics statistics;
+    private EventBus bus;
+
+    @BeforeEach
+    public void initialize() {
+        region = region();
+        restaurantNode = (Region.Restaurant) region.getNode(RESTAURANT);
+        neighborhood = (Region.Neighborhood) region.getNode(NEIGHBORHOOD);
+        edge = region.getEdge(RESTAURANT, NEIGHBORHOOD);
+        vehicles = List.of(vehicle(4), vehicle(2));
+        restaurant = restaurant(region);
+        statistics = new EventStatistics(new EventDictionary(region, vehicles, List.of(restaurant)));
+        bus = new EventBus();
+        bus.setStatistics(statistics);
+    }
+
+    @Test
+    public void testPoppedTicksAreAggregated() {
+        Vehicle vehicle = vehicles.get(0);
+        ConfirmedOrder early = order(10, 20);
+        ConfirmedOrder inTime = order(0, 5);
+
+        bus.queuePost(List.of(
+            OrderReceivedEvent.of(0, early),
+            OrderReceivedEvent.of(0, inTime),
+            LoadOrderEvent.of(0, vehicle, early, restaurantNode),
+            LoadOrderEvent.of(0, vehicle, inTime, restaurantNode)
+        ));
+        bus.popEvents(0);
+        bus.queuePost(ArrivedAtEdgeEvent.of(1, vehicle, edge, restaurantNode));
+        bus.popEvents(1);
+        early.setActualDeliveryTick(3);
+        inTime.setActualDeliveryTick(3);
+        bus.queuePost(List.of(
+            ArrivedAtNeighborhoodEvent.of(3, vehicle, neighborhood, edge),
+            DeliverOrderEvent.of(3, vehicle, neighborhood, early),
+            DeliverOrderEvent.of(3, vehicle, neighborhood, inTime)
+        ));
+        bus.popEvents(3);
+
+        assertEquals(3, statistics.getTickCount());
+        assertEquals(3, statistics.getLastTick());
+        assertEquals(8, statistics.getEventCount());
+        assertEquals(2, statistics.getOrdersReceived());
+        assertEquals(2, statistics.getOrdersReceived(restaurantNode));
+        assertEquals(2, statistics.getOrdersLoaded(vehicle));
+        assertEquals(2, statistics.getOrdersLoaded(restaurantNode));
+        assertEquals(2, statistics.getDeliveries());
+        assertEquals(2, statistics.getDeliveries(vehicle));
+        assertEquals(2, statistics.getDeliveries(neighborhood));
+        assertEquals(1, statistics.getDeliveriesInTime(neighborhood));
+        assertEquals(7, statistics.getTicksOff(neighborhood));
+        assertEquals(7, statistics.getTicksOff());
+        assertEquals(1, statistics.getTraversals(edge));
+        assertEquals(1, statistics.getArrivals(neighborhood));
+        assertEquals(0, statistics.getArrivals(restaurantNode));
+        assertEquals(edge.getDuration(), statistics.getDistance(vehicle));
+        assertEquals(edge.getDuration(), statistics.getDistance());
+        assertEquals(1, statistics.getEdgeCount(vehicle));
+        assertEquals(0, statistics.getEdgeCount(vehicles.get(1)));
+    }
+
+    @Test
+    public void testStatisticsAreUpdatedBeforeHandlers() {
+        List<Long> deliveries = new ArrayList<>();
+        bus.subscribe(DeliverOrderEvent.class, event -> deliveries.add(statistics.getDeliveries()));
+
+        bus.queuePost(DeliverOrderEvent.of(0, vehicles.get(1), neighborhood, order(0, 0)));
+        bus.popEvents(0);
+
+        assertEquals(List.of(1L), deliveries);
+        assertSame(statistics, bus.getStatistics());
+    }
+
+    @Test
+    public void testResetClearsStatisticsWithLog() {
+        Vehicle vehicle = vehicles.get(0);
+        bus.queuePost(List.of(
+            ArrivedAtEdgeEvent.of(0, vehicle, edge, restaurantNode),
+            DeliverOrderEvent.of(0, vehicle, neighborhood, order(0, 0))
+        ));
+        bus.popEvents(0);
+        bus.queuePost(ArrivedAtEdgeEvent.of(1, vehicle, edge, restaurantNode));
+
+        bus.reset();
+
+        assertTrue(bus.getLog().isEmpty());
+        assertEquals(0, statistics.getTickCount());
+        assertEquals(-1, statistics.getLastTick());
+        assertEquals(0, statistics.getDeliveries());
+        assertEquals(0, statistics.getDeliveries(neighborhood));
+        assertEquals(0, statistics.getDistance(vehicle));
+        assertEquals(0, statistics.getTraversals(edge));
+
+        // the restarted simulation is aggregated from scratch, without the events queued before the reset
+        bus.queuePost(DeliverOrderEvent.of(0, vehicle, neighborhood, order(0, 0)));
+        bus.popEvents(0);
+
+        assertEquals(List.of(0L), List.copyOf(bus.getLog().keySet()));
+        assertEquals(1, statistics.getTickCount());
+        assertEquals(1, statistics.getDeliveries());
+        assertEquals(0, statistics.getDistance());
+    }
+
+    @Test
+    public void testUnknownComponentsAreRejected() {
+        Vehicle unknown = vehicle(9);
+        Region.Node unknownNode = proxy(Region.Node.class, Map.of("getLocation", new Location(7, 7)));
+
+        assertThrows(IllegalArgumentException.class, () -> statistics.getDistance(unknown));
+        assertThrows(IllegalArgumentException.class, () -> statistics.getArrivals(unknownNode));
+    }
+
+    private ConfirmedOrder order(long start, long end) {
+        return new ConfirmedOrder(NEIGHBORHOOD, restaurant, new TickInterval(start, end), List.of("Rigatoni"), 1);
+    }
+}
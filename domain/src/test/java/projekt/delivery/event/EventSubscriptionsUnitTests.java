@@ -0,0 +1,128 @@
+package projekt.delivery.event;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EventSubscriptionsUnitTests {
+
+    private static final Event TICK = Event.of(1);
+    private static final Event ORDER_RECEIVED = OrderReceivedEvent.of(1, null);
+
+    @Test
+    public void testHandlersReceiveSubtypes() {
+        List<Event> all = new ArrayList<>();
+        List<OrderReceivedEvent> received = new ArrayList<>();
+        new EventSubscriptions()
+            .subscribe(Event.class, all::add)
+            .subscribe(OrderReceivedEvent.class, received::add)
+            .dispatch(List.of(TICK, ORDER_RECEIVED));
+
+        assertEquals(List.of(TICK, ORDER_RECEIVED), all);
+        assertEquals(List.of(ORDER_RECEIVED), received);
+    }
+
+    @Test
+    public void testHandlersRunInSubscriptionOrder() {
+        List<String> calls = new ArrayList<>();
+        new EventSubscriptions()
+            .subscribe(OrderReceivedEvent.class, e -> calls.add("received"))
+            .subscribe(Event.class, e -> calls.add("event " + e.getTick()))
+            .dispatch(List.of(ORDER_RECEIVED, Event.of(2), ORDER_RECEIVED));
+
+        assertEquals(List.of("received", "received", "event 1", "event 2", "event 1"), calls);
+    }
+
+    @Test
+    public void testSubscribeAfterDispatchUpdatesRoutes() {
+        EventSubscriptions subscriptions = new EventSubscriptions();
+        List<Event> all = new ArrayList<>();
+        List<OrderReceivedEvent> received = new ArrayList<>();
+        subscriptions.subscribe(Event.class, all::add);
+        subscriptions.dispatch(List.of(ORDER_RECEIVED));
+        subscriptions.subscribe(OrderReceivedEvent.class, received::add);
+        subscriptions.dispatch(List.of(ORDER_RECEIVED));
+
+        assertEquals(List.of(ORDER_RECEIVED, ORDER_RECEIVED), all);
+        assertEquals(List.of(ORDER_RECEIVED), received);
+    }
+
+    @Test
+    public void testUnsubscribeRemovesHandler() {
+        EventSubscriptions subscriptions = new EventSubscriptions();
+        List<Event> all = new ArrayList<>();
+        Consumer<Event> handler = all::add;
+        subscriptions.subscribe(Event.class, handler);
+
+        assertTrue(subscriptions.unsubscribe(handler));
+        assertTrue(subscriptions.isEmpty());
+        subscriptions.dispatch(List.of(TICK));
+        assertEquals(List.of(), all);
+    }
+
+    @Test
+    public void testHandlerSubscribesDuringDispatch() {
+        EventSubscriptions subscriptions = new EventSubscriptions();
+        List<Event> all = new ArrayList<>();
+        List<Event> late = new ArrayList<>();
+        subscriptions.subscribe(Event.class, event -> {
+            all.add(event);
+            if (all.size() == 1) {
+                subscriptions.subscribe(Event.class, late::add);
+            }
+        });
+
+        subscriptions.dispatch(List.of(TICK, ORDER_RECEIVED));
+        assertEquals(List.of(TICK, ORDER_RECEIVED), all);
+        assertEquals(List.of(), late);
+
+        subscriptions.dispatch(List.of(TICK));
+        assertEquals(List.of(TICK), late);
+    }
+
+    @Test
+    public void testHandlerUnsubscribesDuringDispatch() {
+        EventSubscriptions subscriptions = new EventSubscriptions();
+        List<Event> first = new ArrayList<>();
+        List<Event> second = new ArrayList<>();
+        Consumer<Event> secondHandler = second::add;
+        subscriptions.subscribe(Event.class, event -> {
+            first.add(event);
+            subscriptions.unsubscribe(secondHandler);
+        });
+        subscriptions.subscribe(Event.class, secondHandler);
+
+        subscriptions.dispatch(List.of(TICK, ORDER_RECEIVED));
+
+        assertEquals(List.of(TICK, ORDER_RECEIVED), first);
+        assertEquals(List.of(), second);
+    }
+
+    @Test
+    public void testEventBusHandlerSubscribesDuringDispatch() {
+        EventBus eventBus = new EventBus();
+        List<Event> late = new ArrayList<>();
+        eventBus.subscribe(OrderReceivedEvent.class, event -> eventBus.subscribe(Event.class, late::add));
+        eventBus.queuePost(List.of(TICK, ORDER_RECEIVED));
+        eventBus.popEvents(1);
+        eventBus.queuePost(TICK);
+        eventBus.popEvents(2);
+
+        assertEquals(List.of(TICK), late);
+    }
+
+    @Test
+    public void testEventBusDispatchesPoppedEvents() {
+        EventBus eventBus = new EventBus();
+        List<OrderReceivedEvent> received = new ArrayList<>();
+        eventBus.subscribe(OrderReceivedEvent.class, received::add);
+        eventBus.queuePost(List.of(TICK, ORDER_RECEIVED));
+        eventBus.popEvents(1);
+
+        assertEquals(List.of(ORDER_RECEIVED), received);
+    }
+}
@@ -0,0 +1,112 @@
+package projekt.delivery.event;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import projekt.base.EuclideanDistanceCalculator;
+import projekt.base.Location;
+import projekt.delivery.routing.Region;
+import projekt.delivery.routing.Vehicle;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static projekt.delivery.event.EventFixtures.vehicle;
+
+public class EventTimelineUnitTests {
+
+    private static final int VEHICLES = 6;
+
+    private List<Region.Node> nodes;
+    private List<Region.Edge> edges;
+    private List<Vehicle> vehicles;
+    private EventDictionary dictionary;
+
+    @BeforeEach
+    public void initialize() {
+        Region region = Region.builder()
+            .distanceCalculator(new EuclideanDistanceCalculator())
+            .addNode("A", new Location(0, 0))
+            .addNode("B", new Location(0, 1))
+            .addNode("C", new Location(1, 1))
+            .addEdge("AB", new Location(0, 0), new Location(0, 1))
+            .addEdge("BC", new Location(0, 1), new Location(1, 1))
+            .build();
+        nodes = List.copyOf(region.getNodes());
+        edges = List.copyOf(region.getEdges());
+        vehicles = new ArrayList<>();
+        for (int i = 0; i < VEHICLES; i++) {
+            vehicles.add(vehicle(i));
+        }
+        dictionary = new EventDictionary(region, vehicles, List.of());
+    }
+
+    @Test
+    public void testSeekRestoresEveryTick() {
+        EventTimeline timeline = new EventTimeline(dictionary, EventTimeline.DEFAULT_CAPACITY, 8);
+        Map<Long, Map<Vehicle, Region.Component<?>>> expected = simulate(timeline, 200, new Random(1));
+
+        assertEquals(0, timeline.getFirstTick());
+        assertEquals(199, timeline.getLastTick());
+        for (long tick = 0; tick < 200; tick++) {
+            assertEquals(expected.get(tick), timeline.seek(tick));
+        }
+    }
+
+    @Test
+    public void testFullRingOverwritesOldestTicks() {
+        EventTimeline timeline = new EventTimeline(dictionary, 1024, 5);
+        Map<Long, Map<Vehicle, Region.Component<?>>> expected = simulate(timeline, 5000, new Random(2));
+
+        long firstTick = timeline.getFirstTick();
+        assertTrue(firstTick > 4000);
+        assertEquals(4999, timeline.getLastTick());
+        for (long tick = firstTick; tick < 5000; tick++) {
+            assertEquals(expected.get(tick), timeline.seek(tick));
+        }
+        assertThrows(IllegalArgumentException.class, () -> timeline.seek(firstTick - 1));
+    }
+
+    @Test
+    public void testResetClearsTimeline() {
+        EventTimeline timeline = new EventTimeline(dictionary);
+        simulate(timeline, 10, new Random(3));
+        timeline.onTick(List.of(), 0);
+
+        assertEquals(0, timeline.getFirstTick());
+        assertEquals(0, timeline.getLastTick());
+    }
+
+    private Map<Long, Map<Vehicle, Region.Component<?>>> simulate(EventTimeline timeline, int ticks, Random random) {
+        Map<Long, Map<Vehicle, Region.Component<?>>> expected = new HashMap<>();
+        Map<Vehicle, Region.Component<?>> current = new LinkedHashMap<>();
+        for (long tick = 0; tick < ticks; tick++) {
+            List<Event> events = new ArrayList<>();
+            int eventCount = random.nextInt(4);
+            for (int i = 0; i < eventCount; i++) {
+                Vehicle vehicle = vehicles.get(random.nextInt(VEHICLES));
+                if (!current.containsKey(vehicle)) {
+                    Region.Node node = nodes.get(random.nextInt(nodes.size()));
+                    events.add(SpawnEvent.of(tick, vehicle, node));
+                    current.put(vehicle, node);
+                } else if (random.nextBoolean()) {
+                    Region.Node node = nodes.get(random.nextInt(nodes.size()));
+                    events.add(ArrivedAtNodeEvent.of(tick, vehicle, node, null));
+                    current.put(vehicle, node);
+                } else {
+                    Region.Edge edge = edges.get(random.nextInt(edges.size()));
+                    events.add(ArrivedAtEdgeEvent.of(tick, vehicle, edge, null));
+                    current.put(vehicle, edge);
+                }
+            }
+            if (random.nextInt(10) == 0) {
+                events.add(Event.of(tick));
+            }
+            timeline.onTick(events, tick);
+
+            Map<Vehicle, Region.Component<?>> sorted = new LinkedHashMap<>();
+            vehicles.stream().filter(current::containsKey).forEach(vehicle -> sorted.put(vehicle, current.get(vehicle)));
+            expected.put(tick, sorted);
+        }
+        return expected;
+    }
+}
@@ -0,0 +1,114 @@
+package projekt.delivery.event;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import projekt.base.TickInterval;
+import projekt.delivery.routing.ConfirmedOrder;
+import projekt.delivery.routing.Region;
+import projekt.delivery.routing.Vehicle;
+import projekt.delivery.routing.VehicleManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static projekt.delivery.event.EventFixtures.*;
+
+public class ReplayVerifierUnitTests {
+
+    private Region region;
+    private List<Vehicle> vehicles;
+    private VehicleManager.OccupiedRestaurant restaurant;
+    private EventDictionary dictionary;
+
+    @BeforeEach
+    public void initialize() {
+        region = region();
+        vehicles = List.of(vehicle(0), vehicle(1));
+        restaurant = restaurant(region);
+        dictionary = new EventDictionary(region, vehicles, List.of(restaurant));
+    }
+
+    @Test
+    public void testIdenticalRunIsVerified() {
+        byte[] reference = write(simulate(vehicles.get(1), 20));
+        AtomicInteger divergences = new AtomicInteger();
+
+        // the orders of the second run have other IDs
+        try (ReplayVerifier verifier = verifier(reference, divergences)) {
+            simulate(vehicles.get(1), 20).forEach(tick -> verifier.onTick(tick, tick.get(0).getTick()));
+
+            assertNull(verifier.finish());
+            assertEquals(20, verifier.getVerifiedTicks());
+            assertEquals(0, divergences.get());
+        }
+    }
+
+    @Test
+    public void testFirstDivergentEventIsReported() {
+        byte[] reference = write(simulate(vehicles.get(1), 20));
+        List<List<Event>> run = simulate(vehicles.get(1), 20);
+        run.set(12, List.of(run.get(12).get(0), SpawnEvent.of(12, vehicles.get(0), region.getNode(NEIGHBORHOOD))));
+        AtomicInteger divergences = new AtomicInteger();
+
+        try (ReplayVerifier verifier = verifier(reference, divergences)) {
+            run.forEach(tick -> verifier.onTick(tick, tick.get(0).getTick()));
+
+            ReplayVerifier.Divergence divergence = verifier.finish();
+            assertNotNull(divergence);
+            assertEquals(12, divergence.tick());
+            assertEquals(1, divergence.index());
+            assertSame(vehicles.get(0), ((SpawnEvent) divergence.actual()).getVehicle());
+            assertSame(vehicles.get(1), ((SpawnEvent) divergence.expected()).getVehicle());
+            assertEquals(List.of(run.get(12).get(0)), divergence.context());
+            assertEquals(12, verifier.getVerifiedTicks());
+            assertEquals(1, divergences.get());
+        }
+    }
+
+    @Test
+    public void testShorterRunDiverges() {
+        byte[] reference = write(simulate(vehicles.get(1), 20));
+        AtomicInteger divergences = new AtomicInteger();
+
+        try (ReplayVerifier verifier = verifier(reference, divergences)) {
+            simulate(vehicles.get(1), 10).forEach(tick -> verifier.onTick(tick, tick.get(0).getTick()));
+
+            ReplayVerifier.Divergence divergence = verifier.finish();
+            assertNotNull(divergence);
+            assertEquals(10, divergence.tick());
+            assertNull(divergence.actual());
+            assertEquals(1, divergences.get());
+        }
+    }
+
+    private List<List<Event>> simulate(Vehicle vehicle, int ticks) {
+        List<List<Event>> run = new ArrayList<>();
+        for (long tick = 0; tick < ticks; tick++) {
+            ConfirmedOrder order = new ConfirmedOrder(NEIGHBORHOOD, restaurant, new TickInterval(tick, tick + 5),
+                List.of("Rigatoni"), 1);
+            run.add(List.of(
+                OrderReceivedEvent.of(tick, order),
+                SpawnEvent.of(tick, vehicle, region.getNode(RESTAURANT)),
+                LoadOrderEvent.of(tick, vehicle, order, (Region.Restaurant) region.getNode(RESTAURANT))
+            ));
+        }
+        return run;
+    }
+
+    private byte[] write(List<List<Event>> run) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (BinaryEventWriter writer = new BinaryEventWriter(bytes, dictionary)) {
+            run.forEach(tick -> writer.onTick(tick, tick.get(0).getTick()));
+        }
+        return bytes.toByteArray();
+    }
+
+    private ReplayVerifier verifier(byte[] reference, AtomicInteger divergences) {
+        return new ReplayVerifier(new BinaryEventReader(new ByteArrayInputStream(reference), dictionary), dictionary,
+            divergences::incrementAndGet);
+    }
+}
@@ -0,0 +1,157 @@
+package projekt.delivery.routing;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import projekt.base.EuclideanDistanceCalculator;
+import projekt.base.Location;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CachedPathCalculatorUnitTests {
+
+    private static final int THREADS = 8;
+
+    private final List<Region.Node> nodes = new ArrayList<>();
+    private final Map<Region.Node, AtomicInteger> calculations = new ConcurrentHashMap<>();
+    private PathCalculator delegate;
+
+    @BeforeEach
+    public void initialize() {
+        Region.Builder builder = Region.builder().distanceCalculator(new EuclideanDistanceCalculator());
+        for (int i = 0; i < 4; i++) {
+            builder.addNode("N" + i, new Location(i, 0));
+        }
+        Region region = builder.build();
+        nodes.clear();
+        for (int i = 0; i < 4; i++) {
+            nodes.add(region.getNode(new Location(i, 0)));
+        }
+        calculations.clear();
+
+        // the path from a node to the end visits all nodes between them
+        delegate = new PathCalculator() {
+            @Override
+            public Deque<Region.Node> getPath(Region.Node start, Region.Node end) {
+                return getAllPathsTo(end).get(start);
+            }
+
+            @Override
+            public Map<Region.Node, Deque<Region.Node>> getAllPathsTo(Region.Node end) {
+                calculations.computeIfAbsent(end, node -> new AtomicInteger()).incrementAndGet();
+                return expectedPaths(end);
+            }
+        };
+    }
+
+    @Test
+    public void testPathsAreCalculatedOnce() {
+        CachedPathCalculator calculator = new CachedPathCalculator(delegate);
+
+        for (int i = 0; i < 3; i++) {
+            for (Region.Node end : nodes) {
+                assertEquals(lists(expectedPaths(end)), lists(calculator.getAllPathsTo(end)));
+            }
+        }
+
+        for (Region.Node end : nodes) {
+            assertEquals(1, calculations.get(end).get());
+        }
+    }
+
+    @Test
+    public void testReturnedPathsAreCopies() {
+        CachedPathCalculator calculator = new CachedPathCalculator(delegate);
+        Region.Node start = nodes.get(0);
+        Region.Node end = nodes.get(3);
+
+        Deque<Region.Node> path = calculator.getPath(start, end);
+        path.clear();
+        calculator.getAllPathsTo(end).values().forEach(Deque::clear);
+
+        assertEquals(List.copyOf(expectedPaths(end).get(start)), List.copyOf(calculator.getPath(start, end)));
+        assertEquals(1, calculations.get(end).get());
+    }
+
+    @Test
+    public void testOldestEntryIsEvicted() {
+        CachedPathCalculator calculator = new CachedPathCalculator(delegate, 2);
+
+        calculator.getAllPathsTo(nodes.get(0));
+        calculator.getAllPathsTo(nodes.get(1));
+        calculator.getAllPathsTo(nodes.get(2));
+        calculator.getAllPathsTo(nodes.get(1));
+        calculator.getAllPathsTo(nodes.get(2));
+        assertEquals(1, calculations.get(nodes.get(1)).get());
+        assertEquals(1, calculations.get(nodes.get(2)).get());
+
+        calculator.getAllPathsTo(nodes.get(0));
+        assertEquals(2, calculations.get(nodes.get(0)).get());
+    }
+
+    @Test
+    public void testSharedBetweenThreads() throws Exception {
+        CachedPathCalculator calculator = new CachedPathCalculator(delegate);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CyclicBarrier barrier = new CyclicBarrier(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                int offset = thread;
+                futures.add(executor.submit(() -> {
+                    barrier.await();
+                    for (int i = 0; i < 1000; i++) {
+                        Region.Node start = nodes.get((i + offset) % nodes.size());
+                        Region.Node end = nodes.get((i * 3 + offset) % nodes.size());
+                        Deque<Region.Node> path = calculator.getPath(start, end);
+                        assertEquals(List.copyOf(expectedPaths(end).get(start)), List.copyOf(path));
+                        // every caller owns its path, like a vehicle moving along it
+                        while (!path.isEmpty()) {
+                            path.poll();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // threads may calculate the same paths at the same time, but only one result is kept
+        for (Region.Node end : nodes) {
+            assertTrue(calculations.get(end).get() <= THREADS);
+        }
+        Map<Region.Node, Integer> counts = new HashMap<>();
+        calculations.forEach((node, count) -> counts.put(node, count.get()));
+        for (Region.Node end : nodes) {
+            assertEquals(lists(expectedPaths(end)), lists(calculator.getAllPathsTo(end)));
+            assertEquals((int) counts.get(end), calculations.get(end).get());
+        }
+    }
+
+    private Map<Region.Node, Deque<Region.Node>> expectedPaths(Region.Node end) {
+        int endIndex = nodes.indexOf(end);
+        Map<Region.Node, Deque<Region.Node>> paths = new HashMap<>();
+        for (int startIndex = 0; startIndex < nodes.size(); startIndex++) {
+            Deque<Region.Node> path = new ArrayDeque<>();
+            int step = Integer.signum(endIndex - startIndex);
+            for (int i = startIndex + step; step != 0 && i != endIndex + step; i += step) {
+                path.add(nodes.get(i));
+            }
+            paths.put(nodes.get(startIndex), path);
+        }
+        return paths;
+    }
+
+    private static Map<Region.Node, List<Region.Node>> lists(Map<Region.Node, Deque<Region.Node>> paths) {
+        Map<Region.Node, List<Region.Node>> lists = new HashMap<>();
+        paths.forEach((node, path) -> lists.put(node, List.copyOf(path)));
+        return lists;
+    }
+}
@@ -0,0 +1,151 @@
+package projekt.delivery.routing;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import projekt.base.EuclideanDistanceCalculator;
+import projekt.base.Location;
+import projekt.delivery.event.EventBus;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static projekt.TestProxies.proxy;
+
+public class VehicleMovementAllocationUnitTests {
+
+    private static final int TICKS = 10_000;
+    private static final int VEHICLES = 32;
+    /**
+     * Tolerance for allocations caused by the measurement itself.
+     */
+    private static final long MAX_ALLOCATED_BYTES = 1024;
+    private static final int MOVES = 100;
+
+    private OccupiedRestaurantImpl restaurant;
+    private OccupiedEdgeImpl edge;
+    private final List<VehicleImpl> vehicles = new ArrayList<>();
+
+    @BeforeEach
+    public void initialize() {
+        Location restaurantLocation = new Location(0, 0);
+        Location nodeLocation = new Location(0, 100_000);
+        Region region = Region.builder()
+            .distanceCalculator(new EuclideanDistanceCalculator())
+            .addRestaurant(restaurantLocation, Region.Restaurant.JAVA_HUT)
+            .addNode("B", nodeLocation)
+            .addEdge("AB", restaurantLocation, nodeLocation)
+            .build();
+
+        restaurant = new OccupiedRestaurantImpl((Region.Restaurant) region.getNode(restaurantLocation), null);
+        edge = new OccupiedEdgeImpl(region.getEdge(restaurantLocation, nodeLocation), null);
+
+        vehicles.clear();
+        for (int i = 0; i < VEHICLES; i++) {
+            VehicleImpl vehicle = new VehicleImpl(i, 1, null, restaurant);
+            // park half of the vehicles at the restaurant and put the other half onto the (very long) edge
+            if (i % 2 == 0) {
+                restaurant.putVehicle(vehicle, 0, null);
+                vehicle.setOccupied(restaurant);
+            } else {
+                edge.putVehicle(vehicle, 0, restaurant);
+                vehicle.setOccupied(edge);
+            }
+            vehicles.add(vehicle);
+        }
+    }
+
+    @Test
+    public void testVehicleStatsAreReused() {
+        VehicleImpl vehicle = vehicles.get(0);
+        AbstractOccupied.VehicleStats stats = restaurant.vehicles.get(vehicle);
+
+        restaurant.vehicles.remove(vehicle);
+        edge.putVehicle(vehicle, 5, restaurant);
+        vehicle.setOccupied(edge);
+
+        assertSame(stats, edge.vehicles.get(vehicle));
+        assertEquals(5, edge.vehicles.get(vehicle).arrived);
+        assertSame(restaurant, vehicle.getPreviousOccupied());
+    }
+
+    @Test
+    public void testTickDoesNotAllocate() {
+        com.sun.management.ThreadMXBean threadMXBean = getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        // warm up, so that lazily grown buffers and class initialization are not measured
+        tick(0, TICKS);
+
+        long calibrationStart = threadMXBean.getThreadAllocatedBytes(threadId);
+        long calibration = threadMXBean.getThreadAllocatedBytes(threadId) - calibrationStart;
+
+        long start = threadMXBean.getThreadAllocatedBytes(threadId);
+        tick(TICKS, 2 * TICKS);
+        long allocated = threadMXBean.getThreadAllocatedBytes(threadId) - start - calibration;
+
+        assertTrue(allocated <= MAX_ALLOCATED_BYTES,
+            "Ticking %d occupied components %d times allocated %d bytes".formatted(2, TICKS, allocated));
+        for (VehicleImpl vehicle : vehicles) {
+            assertSame(vehicle.getId() % 2 == 0 ? restaurant : edge, vehicle.getOccupied());
+        }
+    }
+
+    @Test
+    public void testMoveReusesStatsAcrossTicks() {
+        Location restaurantLocation = new Location(0, 0);
+        Location nodeLocation = new Location(0, 1);
+        Region region = Region.builder()
+            .distanceCalculator(new EuclideanDistanceCalculator())
+            .addRestaurant(restaurantLocation, Region.Restaurant.JAVA_HUT)
+            .addNode("B", nodeLocation)
+            .addEdge("AB", restaurantLocation, nodeLocation)
+            .build();
+        EventBus eventBus = new EventBus();
+        VehicleManager vehicleManager = proxy(VehicleManager.class, Map.of("getEventBus", eventBus));
+        OccupiedRestaurantImpl restaurant =
+            new OccupiedRestaurantImpl((Region.Restaurant) region.getNode(restaurantLocation), vehicleManager);
+        OccupiedNodeImpl<Region.Node> node = new OccupiedNodeImpl<>(region.getNode(nodeLocation), vehicleManager);
+        OccupiedEdgeImpl edge = new OccupiedEdgeImpl(region.getEdge(restaurantLocation, nodeLocation), vehicleManager);
+
+        VehicleImpl vehicle = new VehicleImpl(0, 1, null, restaurant);
+        restaurant.putVehicle(vehicle, 0, null);
+        vehicle.setOccupied(restaurant);
+        AbstractOccupied.VehicleStats stats = vehicle.getStats();
+
+        // go back and forth between the restaurant and the node, one component per tick
+        List<AbstractOccupied<?>> route = List.of(edge, node, edge, restaurant);
+        for (long tick = 1; tick <= MOVES; tick++) {
+            AbstractOccupied<?> current = (AbstractOccupied<?>) vehicle.getOccupied();
+            AbstractOccupied<?> next = route.get((int) ((tick - 1) % route.size()));
+            next.addVehicle(vehicle, tick);
+            eventBus.popEvents(tick);
+
+            assertSame(next, vehicle.getOccupied());
+            assertFalse(current.vehicles.containsKey(vehicle));
+            assertSame(stats, next.vehicles.get(vehicle));
+            assertSame(stats, vehicle.getStats());
+            assertEquals(tick, stats.arrived);
+            assertSame(current, stats.previous);
+        }
+    }
+
+    private void tick(long from, long to) {
+        for (long tick = from; tick < to; tick++) {
+            restaurant.tick(tick);
+            edge.tick(tick);
+        }
+    }
+
+    private static com.sun.management.ThreadMXBean getThreadMXBean() {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean,
+            "allocation counting is not supported by this JVM");
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threadMXBean.isThreadAllocatedMemorySupported(), "allocation counting is not supported by this JVM");
+        threadMXBean.setThreadAllocatedMemoryEnabled(true);
+        return threadMXBean;
+    }
+}
@@ -0,0 +1,108 @@
+package projekt.delivery.routing;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import projekt.TestProxies.Answer;
+import projekt.base.EuclideanDistanceCalculator;
+import projekt.base.Location;
+import projekt.delivery.event.EventBus;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static projekt.TestProxies.proxy;
+
+public class VehicleSnapshotUnitTests {
+
+    private static final Location RESTAURANT = new Location(0, 0);
+    private static final Location NODE = new Location(0, 1);
+
+    private Region region;
+
+    @BeforeEach
+    public void initialize() {
+        region = Region.builder()
+            .distanceCalculator(new EuclideanDistanceCalculator())
+            .addRestaurant(RESTAURANT, Region.Restaurant.JAVA_HUT)
+            .addNode("B", NODE)
+            .addEdge("AB", RESTAURANT, NODE)
+            .build();
+    }
+
+    @Test
+    public void testForkReachesEndOfPathWithoutChangingOriginal() {
+        Map<Region.Component<?>, AbstractOccupied<?>> originalComponents = occupiedComponents();
+        Map<Region.Component<?>, AbstractOccupied<?>> forkComponents = occupiedComponents();
+        VehicleImpl original = vehicle(originalComponents, Vehicle.NO_ARRIVAL_ACTION);
+
+        VehicleManagerSnapshot.VehicleState state = original.snapshot(true, order -> order);
+        VehicleImpl fork = vehicle(forkComponents, null);
+        fork.restore(state, order -> order);
+
+        // restaurant -> edge -> node, the finished path is removed in the third tick
+        for (long tick = 1; tick <= 3; tick++) {
+            fork.move(tick);
+        }
+
+        assertSame(forkComponents.get(region.getNode(NODE)), fork.getOccupied());
+        assertFalse(fork.hasQueuedMoves());
+
+        assertSame(originalComponents.get(region.getNode(RESTAURANT)), original.getOccupied());
+        assertEquals(1, original.getPaths().size());
+        assertEquals(List.of(region.getNode(NODE)), new ArrayList<>(original.getPaths().get(0).nodes()));
+        assertSame(Vehicle.NO_ARRIVAL_ACTION, original.getPaths().get(0).arrivalAction());
+        for (AbstractOccupied<?> component : originalComponents.values()) {
+            if (component.getComponent() != region.getNode(RESTAURANT)) {
+                assertTrue(component.getVehicles().isEmpty(), "The fork moved the original vehicle to " + component);
+            }
+        }
+    }
+
+    @Test
+    public void testPathStateRejectsArrivalAction() {
+        List<Region.Node> nodes = List.of(region.getNode(NODE));
+        List<Long> arrivals = new ArrayList<>();
+
+        assertThrows(IllegalArgumentException.class,
+            () -> new VehicleManagerSnapshot.PathState(nodes, (vehicle, tick) -> arrivals.add(tick)));
+        assertSame(Vehicle.NO_ARRIVAL_ACTION, new VehicleManagerSnapshot.PathState(nodes, Vehicle.NO_ARRIVAL_ACTION)
+            .arrivalAction());
+        assertNull(new VehicleManagerSnapshot.PathState(nodes, null).arrivalAction());
+    }
+
+    private Map<Region.Component<?>, AbstractOccupied<?>> occupiedComponents() {
+        Map<Region.Component<?>, AbstractOccupied<?>> components = new HashMap<>();
+        VehicleManager vehicleManager = proxy(VehicleManager.class, Map.of(
+            "getRegion", region,
+            "getEventBus", new EventBus(),
+            "getOccupied", (Answer) args -> components.get((Region.Component<?>) args[0])
+        ));
+        Region.Restaurant restaurant = (Region.Restaurant) region.getNode(RESTAURANT);
+        Region.Node node = region.getNode(NODE);
+        Region.Edge edge = region.getEdge(RESTAURANT, NODE);
+        components.put(restaurant, new OccupiedRestaurantImpl(restaurant, vehicleManager));
+        components.put(node, new OccupiedNodeImpl<>(node, vehicleManager));
+        components.put(edge, new OccupiedEdgeImpl(edge, vehicleManager));
+        return components;
+    }
+
+    private VehicleImpl vehicle(
+        Map<Region.Component<?>, AbstractOccupied<?>> components,
+        BiConsumer<? super Vehicle, Long> arrivalAction
+    ) {
+        OccupiedRestaurantImpl restaurant = (OccupiedRestaurantImpl) components.get(region.getNode(RESTAURANT));
+        VehicleImpl vehicle = new VehicleImpl(0, 1, restaurant.getVehicleManager(), restaurant);
+        restaurant.putVehicle(vehicle, 0, null);
+        vehicle.setOccupied(restaurant);
+        List<VehicleManagerSnapshot.PathState> paths = arrivalAction == null
+            ? List.of()
+            : List.of(new VehicleManagerSnapshot.PathState(List.of(region.getNode(NODE)), arrivalAction));
+        vehicle.restore(new VehicleManagerSnapshot.VehicleState(0, RESTAURANT, 1, true, restaurant.getComponent(), 0,
+            null, paths, List.of()), order -> order);
+        return vehicle;
+    }
+}
@@ -0,0 +1,122 @@
+package projekt.delivery.simulation;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import projekt.delivery.event.Event;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AsyncListenerDispatcherUnitTests {
+
+    private static final int TICKS = 100;
+
+    private final AsyncListenerDispatcher dispatcher = new AsyncListenerDispatcher(4);
+
+    @AfterEach
+    public void close() {
+        dispatcher.close();
+    }
+
+    @Test
+    public void testBlockingListenerReceivesEveryTick() {
+        List<Long> ticks = Collections.synchronizedList(new ArrayList<>());
+        dispatcher.addListener((events, tick) -> {
+            sleep(1);
+            ticks.add(tick);
+        }, AsyncListenerDispatcher.Policy.BLOCK);
+
+        publish(0, TICKS);
+        dispatcher.awaitConsumed();
+
+        assertEquals(TICKS, ticks.size());
+        for (int i = 0; i < TICKS; i++) {
+            assertEquals(i, (long) ticks.get(i));
+        }
+    }
+
+    @Test
+    public void testDropOldestDoesNotBlock() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        List<Long> ticks = Collections.synchronizedList(new ArrayList<>());
+        SimulationListener listener = (events, tick) -> {
+            await(release);
+            ticks.add(tick);
+        };
+        dispatcher.addListener(listener, AsyncListenerDispatcher.Policy.DROP_OLDEST);
+
+        // the listener is stuck in the first tick, so publishing would block if the buffer was not overwritten
+        publish(0, TICKS);
+        release.countDown();
+        dispatcher.awaitConsumed();
+
+        assertEquals(TICKS - 1, (long) ticks.get(ticks.size() - 1));
+        assertTrue(ticks.size() <= 1 + 4, "more ticks were received than the buffer can hold");
+        assertEquals(TICKS - ticks.size(), dispatcher.getDroppedTicks(listener));
+    }
+
+    @Test
+    public void testCoalesceMergesEvents() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        List<Long> ticks = Collections.synchronizedList(new ArrayList<>());
+        List<Integer> sizes = Collections.synchronizedList(new ArrayList<>());
+        dispatcher.addListener((events, tick) -> {
+            await(release);
+            ticks.add(tick);
+            sizes.add(events.size());
+        }, AsyncListenerDispatcher.Policy.COALESCE);
+
+        publish(0, 1);
+        Thread.sleep(20);
+        publish(1, 4);
+        release.countDown();
+        dispatcher.awaitConsumed();
+
+        assertEquals(List.of(0L, 3L), ticks);
+        assertEquals(List.of(1, 3), sizes);
+    }
+
+    @Test
+    public void testFailureIsRethrownOnSimulatingThread() {
+        RuntimeException cause = new RuntimeException("listener failed");
+        List<Long> ticks = Collections.synchronizedList(new ArrayList<>());
+        SimulationListener failing = (events, tick) -> {
+            throw cause;
+        };
+        dispatcher.addListener(failing, AsyncListenerDispatcher.Policy.BLOCK);
+        dispatcher.addListener((events, tick) -> ticks.add(tick), AsyncListenerDispatcher.Policy.BLOCK);
+
+        publish(0, 1);
+        IllegalStateException exception = assertThrows(IllegalStateException.class, dispatcher::awaitConsumed);
+        assertSame(cause, exception.getCause());
+        assertThrows(IllegalStateException.class, () -> publish(1, 2));
+        assertEquals(List.of(0L), ticks);
+    }
+
+    private void publish(long from, long to) {
+        for (long tick = from; tick < to; tick++) {
+            dispatcher.onTick(List.of(Event.of(tick)), tick);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package projekt.delivery.simulation;
+
+import org.junit.jupiter.api.Test;
+import projekt.base.EuclideanDistanceCalculator;
+import projekt.base.Location;
+import projekt.base.TickInterval;
+import projekt.delivery.event.Event;
+import projekt.delivery.event.EventBus;
+import projekt.delivery.event.EventRetention;
+import projekt.delivery.event.OrderReceivedEvent;
+import projekt.delivery.generator.OrderGenerator;
+import projekt.delivery.rating.Rater;
+import projekt.delivery.rating.RatingCriteria;
+import projekt.delivery.routing.*;
+import projekt.delivery.service.DeliveryService;
+
+import java.util.*;
+import java.util.function.UnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static projekt.TestProxies.proxy;
+
+public class SimulationForkUnitTests {
+
+    private static final RatingCriteria CRITERION = RatingCriteria.AMOUNT_DELIVERED;
+    private static final Location RESTAURANT = new Location(0, 0);
+    private static final Region REGION = Region.builder()
+        .distanceCalculator(new EuclideanDistanceCalculator())
+        .addRestaurant(RESTAURANT, Region.Restaurant.JAVA_HUT)
+        .build();
+    private static final VehicleManager.Factory VEHICLE_MANAGERS = new VehicleManager.Factory() {
+        @Override
+        public VehicleManager create() {
+            return vehicleManager();
+        }
+
+        @Override
+        public Region getRegion() {
+            return REGION;
+        }
+
+        @Override
+        public PathCalculator getPathCalculator() {
+            throw new UnsupportedOperationException();
+        }
+    };
+    private static final long SNAPSHOT_TICK = 5;
+    private static final long SIMULATION_LENGTH = 10;
+
+    @Test
+    public void testForksAreDeterministic() {
+        // the generator of the original simulation is unseeded, so the snapshot has to pin its seed
+        SimulationSnapshot snapshot = runUntilSnapshot(WeightRater::new);
+
+        BasicDeliverySimulation first = fork(snapshot);
+        BasicDeliverySimulation second = fork(snapshot);
+        first.runSimulation(SIMULATION_LENGTH);
+        second.runSimulation(SIMULATION_LENGTH);
+
+        assertEquals(SIMULATION_LENGTH, first.getCurrentTick());
+        assertEquals(weights(first), weights(second));
+        assertEquals(SIMULATION_LENGTH, weights(first).size());
+        assertEquals(first.getRatingForCriterion(CRITERION), second.getRatingForCriterion(CRITERION));
+    }
+
+    @Test
+    public void testForksAreIndependent() {
+        BasicDeliverySimulation original = simulation(WeightRater::new);
+        original.runSimulation(SNAPSHOT_TICK);
+        SimulationSnapshot snapshot = original.snapshot();
+        double rating = original.getRatingForCriterion(CRITERION);
+        List<Double> weights = weights(original);
+
+        BasicDeliverySimulation first = fork(snapshot);
+        BasicDeliverySimulation second = fork(snapshot);
+        assertEquals(rating, first.getRatingForCriterion(CRITERION));
+        first.runSimulation(SIMULATION_LENGTH);
+
+        // the order received in the last tick before the snapshot is delivered by the first fork only
+        assertEquals(SNAPSHOT_TICK, lastOrderBeforeSnapshot(first).getActualDeliveryTick());
+        assertEquals(0, lastOrderBeforeSnapshot(second).getActualDeliveryTick());
+        assertEquals(0, lastOrderBeforeSnapshot(original).getActualDeliveryTick());
+        assertNotSame(lastOrderBeforeSnapshot(first), lastOrderBeforeSnapshot(original));
+
+        assertEquals(rating, second.getRatingForCriterion(CRITERION));
+        assertEquals(rating, original.getRatingForCriterion(CRITERION));
+        assertEquals(weights, weights(second));
+        assertEquals(weights, weights(original));
+        assertEquals(SNAPSHOT_TICK, second.getCurrentTick());
+    }
+
+    @Test
+    public void testCopiedRatersDoNotNeedHistory() {
+        SimulationSnapshot snapshot = runUntilSnapshot(WeightRater::new);
+
+        assertTrue(snapshot.history().isEmpty());
+        assertEquals(Set.of(CRITERION), snapshot.raters().keySet());
+    }
+
+    @Test
+    public void testRatersWithoutCopyAreReplayed() {
+        BasicDeliverySimulation original = simulation(ReplayedWeightRater::new);
+        original.runSimulation(SNAPSHOT_TICK);
+        SimulationSnapshot snapshot = original.snapshot();
+
+        assertEquals(SNAPSHOT_TICK, snapshot.history().size());
+        assertTrue(snapshot.raters().isEmpty());
+
+        BasicDeliverySimulation first = fork(snapshot);
+        BasicDeliverySimulation second = fork(snapshot);
+        assertEquals(original.getRatingForCriterion(CRITERION), first.getRatingForCriterion(CRITERION));
+        first.runSimulation(SIMULATION_LENGTH);
+        second.runSimulation(SIMULATION_LENGTH);
+        assertEquals(weights(first), weights(second));
+    }
+
+    @Test
+    public void testDroppedTicksAreNotReplayed() {
+        BasicDeliverySimulation original = simulation(ReplayedWeightRater::new);
+        original.getDeliveryService().getVehicleManager().getEventBus().setRetention(EventRetention.dropping(1));
+        original.runSimulation(SNAPSHOT_TICK);
+
+        assertThrows(IllegalStateException.class, original::snapshot);
+    }
+
+    private static SimulationSnapshot runUntilSnapshot(Rater.Factory raterFactory) {
+        BasicDeliverySimulation simulation = simulation(raterFactory);
+        simulation.runSimulation(SNAPSHOT_TICK);
+        return simulation.snapshot();
+    }
+
+    private static BasicDeliverySimulation simulation(Rater.Factory raterFactory) {
+        VehicleManager vehicleManager = vehicleManager();
+        return new BasicDeliverySimulation(new SimulationConfig(0), Map.of(CRITERION, raterFactory),
+            new ReceivingDeliveryService(vehicleManager),
+            new WeightGenerator.Factory(vehicleManager.getOccupiedRestaurant(REGION.getNode(RESTAURANT)), -1));
+    }
+
+    private static BasicDeliverySimulation fork(SimulationSnapshot snapshot) {
+        return snapshot.fork(new SimulationConfig(0), ReceivingDeliveryService::new);
+    }
+
+    private static List<Double> weights(Simulation simulation) {
+        return ((WeightRater) ((BasicDeliverySimulation) simulation).currentRaterMap.get(CRITERION)).orders.stream()
+            .map(ConfirmedOrder::getWeight)
+            .toList();
+    }
+
+    private static ConfirmedOrder lastOrderBeforeSnapshot(Simulation simulation) {
+        return ((WeightRater) ((BasicDeliverySimulation) simulation).currentRaterMap.get(CRITERION)).orders
+            .get((int) SNAPSHOT_TICK - 1);
+    }
+
+    /**
+     * Returns a {@link VehicleManager} without vehicles whose snapshots create new {@link VehicleManager}s.
+     */
+    private static VehicleManager vehicleManager() {
+        Map<String, Object> results = new HashMap<>();
+        results.put("getRegion", REGION);
+        results.put("getAllVehicles", List.of());
+        results.put("getEventBus", new EventBus());
+        results.put("setTickObserver", null);
+        results.put("snapshot", new VehicleManagerSnapshot(VEHICLE_MANAGERS, List.of()));
+        results.put("restore", null);
+        VehicleManager vehicleManager = proxy(VehicleManager.class, results);
+        results.put("getOccupiedRestaurant", proxy(VehicleManager.OccupiedRestaurant.class, Map.of(
+            "getComponent", REGION.getNode(RESTAURANT),
+            "getVehicleManager", vehicleManager
+        )));
+        return vehicleManager;
+    }
+
+    /**
+     * Creates one order per tick whose weight is drawn from a single generator, so the weights depend on the seed.
+     */
+    private static class WeightGenerator implements OrderGenerator {
+
+        private final List<ConfirmedOrder> orders = new ArrayList<>();
+        private final VehicleManager.OccupiedRestaurant restaurant;
+        private final Random random;
+
+        WeightGenerator(VehicleManager.OccupiedRestaurant restaurant, int seed) {
+            this.restaurant = restaurant;
+            random = new Random(seed);
+        }
+
+        @Override
+        public List<ConfirmedOrder> generateOrders(long tick) {
+            while (orders.size() <= tick) {
+                orders.add(new ConfirmedOrder(RESTAURANT, restaurant,
+                    new TickInterval(orders.size(), orders.size() + 1), List.of(), random.nextDouble()));
+            }
+            return List.of(orders.get((int) tick));
+        }
+
+        record Factory(VehicleManager.OccupiedRestaurant restaurant, int seed) implements OrderGenerator.Factory {
+
+            @Override
+            public OrderGenerator create() {
+                return new WeightGenerator(restaurant, seed < 0 ? new Random().nextInt(Integer.MAX_VALUE) : seed);
+            }
+
+            @Override
+            public OrderGenerator.Factory withDefaultSeed(int seed) {
+                return this.seed < 0 ? new Factory(restaurant, seed) : this;
+            }
+        }
+    }
+
+    /**
+     * Averages the weights of the received orders and keeps the received orders.
+     */
+    private static class WeightRater implements Rater {
+
+        final List<ConfirmedOrder> orders = new ArrayList<>();
+        long ticks = 0;
+
+        @Override
+        public void onTick(List<Event> events, long tick) {
+            for (Event event : events) {
+                if (event instanceof OrderReceivedEvent receivedEvent) {
+                    orders.add(receivedEvent.getOrder());
+                }
+            }
+            ticks++;
+        }
+
+        @Override
+        public double getScore() {
+            return ticks == 0 ? 0 : orders.stream().mapToDouble(ConfirmedOrder::getWeight).sum() / ticks;
+        }
+
+        @Override
+        public RatingCriteria getRatingCriteria() {
+            return CRITERION;
+        }
+
+        @Override
+        public Rater copy(UnaryOperator<ConfirmedOrder> orderMapper) {
+            WeightRater copy = new WeightRater();
+            orders.stream().map(orderMapper).forEach(copy.orders::add);
+            copy.ticks = ticks;
+            return copy;
+        }
+    }
+
+    private static class ReplayedWeightRater extends WeightRater {
+
+        @Override
+        public Rater copy(UnaryOperator<ConfirmedOrder> orderMapper) {
+            return null;
+        }
+    }
+
+    /**
+     * Posts an {@link OrderReceivedEvent} for every order and delivers it in the next tick.
+     */
+    private static class ReceivingDeliveryService implements DeliveryService {
+
+        private final VehicleManager vehicleManager;
+        private final List<ConfirmedOrder> pendingOrders = new ArrayList<>();
+
+        ReceivingDeliveryService(VehicleManager vehicleManager) {
+            this.vehicleManager = vehicleManager;
+        }
+
+        @Override
+        public void deliver(List<ConfirmedOrder> confirmedOrders) {
+            for (ConfirmedOrder order : pendingOrders) {
+                order.setActualDeliveryTick(order.getDeliveryInterval().end());
+            }
+            pendingOrders.clear();
+            pendingOrders.addAll(confirmedOrders);
+        }
+
+        @Override
+        public List<Event> tick(long currentTick) {
+            for (ConfirmedOrder order : pendingOrders) {
+                vehicleManager.getEventBus().queuePost(OrderReceivedEvent.of(currentTick, order));
+            }
+            return vehicleManager.getEventBus().popEvents(currentTick);
+        }
+
+        @Override
+        public VehicleManager getVehicleManager() {
+            return vehicleManager;
+        }
+
+        @Override
+        public List<ConfirmedOrder> getPendingOrders() {
+            return pendingOrders;
+        }
+
+        @Override
+        public void reset() {
+            pendingOrders.clear();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package projekt.delivery.simulation;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TickPacerUnitTests {
+
+    @Test
+    public void testUnpacedSimulationIsNeverBehind() throws InterruptedException {
+        TickPacer pacer = new TickPacer(new SimulationConfig(0));
+        pacer.start();
+        Thread.sleep(2);
+
+        assertFalse(pacer.isBehindSchedule());
+        assertFalse(pacer.awaitNextTick());
+        assertEquals(new SimulationMetrics.Pacing(0, 0, 0, 0, 0, 0), pacer.getPacing());
+    }
+
+    @Test
+    public void testCatchUpWithinBound() throws InterruptedException {
+        SimulationConfig config = new SimulationConfig(1);
+        config.setMaxCatchUpTicks(1000);
+        TickPacer pacer = new TickPacer(config);
+        pacer.start();
+        Thread.sleep(5);
+
+        assertTrue(pacer.isBehindSchedule());
+        assertFalse(pacer.awaitNextTick());
+
+        SimulationMetrics.Pacing pacing = pacer.getPacing();
+        assertEquals(1, pacing.catchUpTicks());
+        assertTrue(pacing.lagNanos() > 0);
+        assertEquals(0, pacing.driftNanos());
+    }
+
+    @Test
+    public void testOverloadGivesUpDelayAndWarnsOnce() throws InterruptedException {
+        SimulationConfig config = new SimulationConfig(1);
+        config.setMaxCatchUpTicks(0);
+        TickPacer pacer = new TickPacer(config);
+        pacer.start();
+
+        Thread.sleep(5);
+        assertTrue(pacer.awaitNextTick());
+        Thread.sleep(5);
+        assertFalse(pacer.awaitNextTick(), "the overload has already been reported");
+
+        SimulationMetrics.Pacing pacing = pacer.getPacing();
+        assertEquals(0, pacing.lagNanos());
+        assertTrue(pacing.driftNanos() >= 6_000_000);
+        assertTrue(pacing.maxLagNanos() > 0);
+        assertEquals(1, pacing.overruns());
+    }
+
+    @Test
+    public void testStoppedPacerIsNotBehind() throws InterruptedException {
+        TickPacer pacer = new TickPacer(new SimulationConfig(1));
+        pacer.start();
+        Thread.sleep(5);
+        pacer.stop();
+
+        assertFalse(pacer.isBehindSchedule());
+    }
+}
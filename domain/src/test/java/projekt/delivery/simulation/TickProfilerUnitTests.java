@@ -0,0 +1,64 @@
+package projekt.delivery.simulation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TickProfilerUnitTests {
+
+    @Test
+    public void testRollingHistogramStatistics() {
+        RollingHistogram histogram = new RollingHistogram(4);
+        assertEquals(SimulationMetrics.Statistics.EMPTY, histogram.getStatistics());
+
+        // the first measurement is discarded once the window is full
+        for (long nanos : new long[]{1000, 10, 40, 20, 30}) {
+            histogram.record(nanos, 8);
+        }
+
+        SimulationMetrics.Statistics statistics = histogram.getStatistics();
+        assertEquals(4, statistics.count());
+        assertEquals(25.0, statistics.meanNanos());
+        assertEquals(20, statistics.medianNanos());
+        assertEquals(40, statistics.p99Nanos());
+        assertEquals(40, statistics.maxNanos());
+        assertEquals(8.0, statistics.meanAllocatedBytes());
+    }
+
+    @Test
+    public void testPhasesAreAttributed() throws InterruptedException {
+        TickProfiler profiler = new TickProfiler(TickProfiler.DEFAULT_WINDOW, new TickPacer(new SimulationConfig(0)));
+        SimulationListener listener = (events, tick) -> { };
+        List<SimulationMetrics.TickMeasurement> measurements = new ArrayList<>();
+        profiler.addListener(measurements::add);
+
+        profiler.startTick(3);
+        profiler.endPhase(SimulationMetrics.Phase.ORDER_GENERATION);
+        profiler.beforeTick(3);
+        Thread.sleep(5);
+        profiler.afterTick(3);
+        profiler.endPhase(SimulationMetrics.Phase.DISPATCH);
+        profiler.endListener(listener);
+        profiler.endTick();
+
+        assertEquals(1, measurements.size());
+        SimulationMetrics.TickMeasurement measurement = measurements.get(0);
+        assertEquals(3, measurement.tick());
+        long vehicleManager = measurement.get(SimulationMetrics.Phase.VEHICLE_MANAGER).nanos();
+        assertTrue(vehicleManager >= 5_000_000, "the vehicle manager phase does not contain the sleep");
+        assertTrue(measurement.get(SimulationMetrics.Phase.DISPATCH).nanos() < vehicleManager,
+            "the vehicle manager phase has not been subtracted from the dispatch phase");
+        assertEquals(
+            measurement.get(SimulationMetrics.Phase.ORDER_GENERATION).nanos()
+                + measurement.get(SimulationMetrics.Phase.DISPATCH).nanos()
+                + vehicleManager
+                + measurement.get(SimulationMetrics.Phase.LISTENERS).nanos(),
+            measurement.get(SimulationMetrics.Phase.TICK).nanos());
+        assertTrue(measurement.listeners().containsKey(listener));
+        assertEquals(1, profiler.getListenerStatistics().get(listener).count());
+        assertEquals(1, profiler.getStatistics(SimulationMetrics.Phase.TICK).count());
+    }
+}
@@ -0,0 +1,53 @@
+package projekt;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+
+/**
+ * Fakes of interfaces for the tests of all modules, so that tests do not depend on the implementations that are not
+ * under test.
+ */
+public final class TestProxies {
+
+    private TestProxies() {
+    }
+
+    /**
+     * Returns a proxy of the given interface whose methods return the value mapped by their name and throw an
+     * {@link UnsupportedOperationException} otherwise. Mapped {@link Answer}s are called with the arguments instead. Proxies are only equal to themselves and are represented by the
+     * value mapped by {@code toString} or the simple name of the interface.
+     * @param type The interface to implement.
+     * @param results The return values of the methods by their name.
+     * @param <T> The type of the interface.
+     * @return The created proxy.
+     */
+    public static <T> T proxy(Class<T> type, Map<String, Object> results) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type},
+            (proxy, method, args) -> switch (method.getName()) {
+                case "equals" -> proxy == args[0];
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "toString" -> results.getOrDefault("toString", type.getSimpleName());
+                default -> {
+                    if (!results.containsKey(method.getName())) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    Object result = results.get(method.getName());
+                    yield result instanceof Answer answer ? answer.answer(args) : result;
+                }
+            }));
+    }
+
+    /**
+     * The result of a proxy method that depends on the arguments of the call.
+     */
+    @FunctionalInterface
+    public interface Answer {
+
+        /**
+         * Returns the result of the call.
+         * @param args The arguments of the call.
+         * @return The result of the call.
+         */
+        Object answer(Object[] args);
+    }
+}
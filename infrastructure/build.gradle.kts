@@ -13,4 +13,12 @@ dependencies {
     implementation(project(":application"))
     implementation(libs.annotations)
     implementation(libs.flatlaf)
+    testImplementation(libs.junit.core)
+    testImplementation(testFixtures(project(":domain")))
+}
+
+tasks {
+    test {
+        useJUnitPlatform()
+    }
 }
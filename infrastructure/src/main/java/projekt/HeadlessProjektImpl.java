@@ -0,0 +1,448 @@
+package projekt;
+
+import projekt.delivery.archetype.ProblemArchetype;
+import projekt.delivery.archetype.ProblemGroup;
+import projekt.delivery.archetype.ProblemGroupImpl;
+import projekt.delivery.archetype.SyntheticProblemGenerator;
+import projekt.delivery.event.AsyncEventLogWriter;
+import projekt.delivery.event.BinaryEventReader;
+import projekt.delivery.event.BinaryEventWriter;
+import projekt.delivery.event.EventBus;
+import projekt.delivery.event.EventDictionary;
+import projekt.delivery.event.EventRetention;
+import projekt.delivery.event.EventSink;
+import projekt.delivery.event.ReplayVerifier;
+import projekt.delivery.rating.Rater;
+import projekt.delivery.rating.RatingCriteria;
+import projekt.delivery.simulation.Simulation;
+import projekt.delivery.simulation.SimulationConfig;
+import projekt.io.IOHelper;
+import projekt.runner.CachingRunner;
+import projekt.runner.ParallelRunnerImpl;
+import projekt.runner.ProcessRunnerImpl;
+import projekt.runner.ResultCache;
+import projekt.runner.Runner;
+import projekt.runner.RunnerWorker;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * An implementation of the {@link Projekt} interface for scripted batch evaluations that never loads JavaFX classes.<p>
+ *
+ * The problems are read from the given files and directories, generated with a {@link SyntheticProblemGenerator} or
+ * read from {@link IOHelper#PROBLEMS_DIR} if neither is given. All problems are
+ * executed as a single {@link ProblemGroup} and the average ratings are written as a single JSON object.
+ * Instead of simulating, a log recorded with {@code --record} can be replayed to the raters of its problem, and the
+ * simulations can be verified against logs recorded with the same options and seed.
+ */
+public class HeadlessProjektImpl implements Projekt {
+
+    /**
+     * The usage message printed for invalid arguments.
+     */
+    public static final String USAGE = """
+        usage: --headless [options] [problem file or directory]...
+          --service <name>      the simulated delivery service, one of %s (default: BASIC)
+          --runs <n>            the number of runs of every problem (default: 1)
+          --threads <n>         the number of simulation threads (default: number of processors)
+          --workers <n>         distribute the runs over n worker JVMs instead of threads
+          --seed <n>            the seed of the unseeded order generators and synthetic problems (default: 0)
+          --synthetic <t>:<n>   add a generated problem with topology t, one of %s, and n nodes
+          --clock <fast|ms>     run the ticks without delay or with the given milliseconds per tick (default: fast)
+          --output <file>       the file the JSON result is written to (default: standard output)
+          --event-log <level>   write the events to standard error, one of %s (default: OFF, ignored by --workers)
+          --retain-ticks <n>    keep only the events of the last n ticks of every simulation in memory, older ticks are dropped
+          --spill <directory>   with --retain-ticks, write older ticks to a temporary file in the given directory instead of dropping them
+          --cache <file>        reuse the ratings of identical previous executions stored in the given file
+          --record <directory>  write a binary event log of every simulation to the given directory (ignored by --workers and cached results)
+          --replay <file>       rate a log written by --record for the single given problem instead of simulating
+          --verify <directory>  compare every simulation with the log written by --record and report the first divergence
+        """.formatted(
+        String.join(", ", new TreeSet<>(RunnerWorker.DELIVERY_SERVICES.keySet())),
+        Stream.of(SyntheticProblemGenerator.Topology.values()).map(Enum::name).collect(Collectors.joining(", ")),
+        Stream.of(AsyncEventLogWriter.Level.values()).map(Enum::name).collect(Collectors.joining(", "))
+    );
+
+    /**
+     * The exit code returned by {@link #run(String[], PrintStream)} for invalid arguments.
+     */
+    public static final int EXIT_USAGE = 2;
+
+    /**
+     * The maximum number of entries of the file given by {@code --cache}.
+     */
+    private static final int CACHE_ENTRIES = 1024;
+
+    private final List<Path> problemPaths = new ArrayList<>();
+    private final List<String> syntheticProblems = new ArrayList<>();
+    private String deliveryService = "BASIC";
+    private int runs = 1;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private int workers = 0;
+    private long seed = 0;
+    private int millisecondsPerTick = 0;
+    private Path output = null;
+    private Path cache = null;
+    private Path recordDirectory = null;
+    private Path replay = null;
+    private Path verifyDirectory = null;
+    private AsyncEventLogWriter.Level eventLogLevel = AsyncEventLogWriter.Level.OFF;
+    private int retainedTicks = 0;
+    private Path spillDirectory = null;
+
+    /**
+     * Creates a new {@link HeadlessProjektImpl} instance.
+     * @param args The command line arguments. A leading {@code --headless} is ignored.
+     * @throws IllegalArgumentException If the arguments are invalid.
+     */
+    public HeadlessProjektImpl(String[] args) {
+        Iterator<String> iterator = Arrays.asList(args).iterator();
+        while (iterator.hasNext()) {
+            String arg = iterator.next();
+            switch (arg) {
+                case "--headless" -> {
+                }
+                case "--service" -> {
+                    deliveryService = value(iterator, arg).toUpperCase(Locale.ROOT);
+                    if (!RunnerWorker.DELIVERY_SERVICES.containsKey(deliveryService)) {
+                        throw new IllegalArgumentException("Unknown delivery service: %s".formatted(deliveryService));
+                    }
+                }
+                case "--runs" -> runs = positive(iterator, arg);
+                case "--threads" -> threads = positive(iterator, arg);
+                case "--workers" -> workers = positive(iterator, arg);
+                case "--seed" -> seed = Long.parseLong(value(iterator, arg));
+                case "--synthetic" -> {
+                    String synthetic = value(iterator, arg);
+                    // validated early, the problem itself is generated with the final seed
+                    createSyntheticProblem(synthetic, 0);
+                    syntheticProblems.add(synthetic);
+                }
+                case "--clock" -> {
+                    String clock = value(iterator, arg);
+                    millisecondsPerTick = clock.equals("fast") ? 0 : Integer.parseInt(clock);
+                    if (millisecondsPerTick < 0) {
+                        throw new IllegalArgumentException("--clock must not be negative");
+                    }
+                }
+                case "--output" -> output = Path.of(value(iterator, arg));
+                case "--cache" -> cache = Path.of(value(iterator, arg));
+                case "--record" -> recordDirectory = Path.of(value(iterator, arg));
+                case "--replay" -> replay = Path.of(value(iterator, arg));
+                case "--verify" -> verifyDirectory = Path.of(value(iterator, arg));
+                case "--retain-ticks" -> retainedTicks = positive(iterator, arg);
+                case "--spill" -> spillDirectory = Path.of(value(iterator, arg));
+                case "--event-log" -> {
+                    String level = value(iterator, arg);
+                    try {
+                        eventLogLevel = AsyncEventLogWriter.Level.valueOf(level.toUpperCase(Locale.ROOT));
+                    } catch (IllegalArgumentException e) {
+                        throw new IllegalArgumentException("Unknown event log level: %s".formatted(level));
+                    }
+                }
+                default -> {
+                    if (arg.startsWith("--")) {
+                        throw new IllegalArgumentException("Unknown option: %s".formatted(arg));
+                    }
+                    problemPaths.add(Path.of(arg));
+                }
+            }
+        }
+        if (verifyDirectory != null && (workers > 0 || cache != null)) {
+            throw new IllegalArgumentException("--verify can not be combined with --workers or --cache");
+        }
+        if (spillDirectory != null && retainedTicks == 0) {
+            throw new IllegalArgumentException("--spill requires --retain-ticks");
+        }
+    }
+
+    private static String value(Iterator<String> iterator, String option) {
+        if (!iterator.hasNext()) {
+            throw new IllegalArgumentException("Missing value of %s".formatted(option));
+        }
+        return iterator.next();
+    }
+
+    private static int positive(Iterator<String> iterator, String option) {
+        int value = Integer.parseInt(value(iterator, option));
+        if (value <= 0) {
+            throw new IllegalArgumentException("%s must be positive".formatted(option));
+        }
+        return value;
+    }
+
+    private static SyntheticProblemGenerator createSyntheticProblem(String synthetic, long seed) {
+        int separator = synthetic.indexOf(':');
+        if (separator < 0) {
+            throw new IllegalArgumentException("--synthetic must have the form <topology>:<nodes>");
+        }
+        SyntheticProblemGenerator.Topology topology;
+        try {
+            topology = SyntheticProblemGenerator.Topology.valueOf(synthetic.substring(0, separator).toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown topology: %s".formatted(synthetic.substring(0, separator)));
+        }
+        return SyntheticProblemGenerator.builder()
+            .setTopology(topology)
+            .setNodeCount(Integer.parseInt(synthetic.substring(separator + 1)))
+            .setSeed(seed)
+            .build();
+    }
+
+    /**
+     * Parses the given arguments and runs the selected problems.<p>
+     *
+     * If the arguments are invalid or do not select a suitable set of problems, the reason and the {@link #USAGE} are
+     * printed to the given stream and nothing is run. Failures of the execution itself are not caught.
+     * @param args The command line arguments. A leading {@code --headless} is ignored.
+     * @param err The stream the usage is printed to.
+     * @return 0 if the problems were run or {@link #EXIT_USAGE} if the arguments are invalid.
+     */
+    public static int run(String[] args, PrintStream err) {
+        HeadlessProjektImpl projekt;
+        List<ProblemArchetype> problems;
+        try {
+            projekt = new HeadlessProjektImpl(args);
+            problems = projekt.readProblems();
+        } catch (IllegalArgumentException e) {
+            err.println(e.getMessage());
+            err.print(USAGE);
+            return EXIT_USAGE;
+        }
+        projekt.start(problems);
+        return 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @throws IllegalArgumentException If the arguments do not select a suitable set of problems.
+     */
+    @Override
+    public void start() {
+        start(readProblems());
+    }
+
+    private void start(List<ProblemArchetype> problems) {
+        if (replay != null) {
+            long start = System.nanoTime();
+            Map<RatingCriteria, Double> ratings = replay(problems.get(0));
+            writeResult(problems, ratings, (System.nanoTime() - start) / 1_000_000, null);
+            return;
+        }
+
+        // only the criteria every problem can be rated with
+        EnumSet<RatingCriteria> criteria = EnumSet.allOf(RatingCriteria.class);
+        problems.forEach(problem -> criteria.retainAll(problem.raterFactoryMap().keySet()));
+        ProblemGroup problemGroup = new ProblemGroupImpl(problems, List.copyOf(criteria));
+
+        Map<RatingCriteria, Double> ratings = new EnumMap<>(RatingCriteria.class);
+        long start = System.nanoTime();
+        // the simulations of the parallel runner are set up and finished concurrently
+        Map<Simulation, BinaryEventWriter> recorders = Collections.synchronizedMap(new IdentityHashMap<>());
+        Map<Simulation, ReplayVerifier> verifiers = Collections.synchronizedMap(new IdentityHashMap<>());
+        List<String> divergences = Collections.synchronizedList(new ArrayList<>());
+        // every simulation creates its own event bus, so the sink only has to be set before the first run
+        ParallelRunnerImpl parallelRunner = workers > 0 ? null : ParallelRunnerImpl.withThreads(threads, seed);
+        try (parallelRunner;
+             AsyncEventLogWriter eventLog = new AsyncEventLogWriter(new OutputStreamWriter(System.err), eventLogLevel)) {
+            Runner runner = parallelRunner == null ? new ProcessRunnerImpl(workers, seed) : parallelRunner;
+            if (cache != null) {
+                runner = new CachingRunner(runner, seed, RunnerWorker.DELIVERY_SERVICES, new ResultCache(cache, CACHE_ENTRIES));
+            }
+            EventBus.setDefaultSink(eventLog);
+            EventBus.setDefaultRetention(retainedTicks == 0 ? EventRetention.unbounded()
+                : spillDirectory == null ? EventRetention.dropping(retainedTicks)
+                : EventRetention.spilling(retainedTicks, spillDirectory));
+            runner.run(
+                problemGroup,
+                new SimulationConfig(millisecondsPerTick),
+                runs,
+                RunnerWorker.DELIVERY_SERVICES.get(deliveryService),
+                (simulation, problem, i) -> {
+                    if (recordDirectory != null) {
+                        BinaryEventWriter recorder = createRecorder(simulation, problem, i);
+                        recorders.put(simulation, recorder);
+                        simulation.addListener(recorder);
+                    }
+                    if (verifyDirectory != null) {
+                        ReplayVerifier verifier = createVerifier(simulation, problem, i);
+                        verifiers.put(simulation, verifier);
+                        simulation.addListener(verifier);
+                    }
+                },
+                (simulation, problem) -> {
+                    BinaryEventWriter recorder = recorders.remove(simulation);
+                    if (recorder != null) {
+                        simulation.removeListener(recorder);
+                        recorder.close();
+                    }
+                    ReplayVerifier verifier = verifiers.remove(simulation);
+                    if (verifier != null) {
+                        simulation.removeListener(verifier);
+                        ReplayVerifier.Divergence divergence = verifier.finish();
+                        verifier.close();
+                        if (divergence != null) {
+                            divergences.add("%s: %s".formatted(problem.name(), divergence));
+                        }
+                    }
+                    return false;
+                },
+                ratings::putAll);
+        } finally {
+            EventBus.setDefaultSink(EventSink.NONE);
+            EventBus.setDefaultRetention(EventRetention.unbounded());
+            synchronized (recorders) {
+                recorders.values().forEach(BinaryEventWriter::close);
+            }
+            synchronized (verifiers) {
+                verifiers.values().forEach(ReplayVerifier::close);
+            }
+        }
+        divergences.forEach(System.err::println);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        writeResult(problems, ratings, elapsedMillis, verifyDirectory == null ? null : divergences.isEmpty());
+    }
+
+    private static Path eventLogFile(Path directory, ProblemArchetype problem, int run) {
+        String name = problem.name().replaceAll("[^A-Za-z0-9._-]", "_");
+        return directory.resolve("%s-%d.events".formatted(name, run));
+    }
+
+    private BinaryEventWriter createRecorder(Simulation simulation, ProblemArchetype problem, int run) {
+        try {
+            Files.createDirectories(recordDirectory);
+            return new BinaryEventWriter(
+                Files.newOutputStream(eventLogFile(recordDirectory, problem, run)),
+                EventDictionary.of(simulation.getDeliveryService().getVehicleManager())
+            );
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private ReplayVerifier createVerifier(Simulation simulation, ProblemArchetype problem, int run) {
+        EventDictionary dictionary = EventDictionary.of(simulation.getDeliveryService().getVehicleManager());
+        BinaryEventReader reference = BinaryEventReader.open(eventLogFile(verifyDirectory, problem, run), dictionary);
+        // the first divergence is reported, so the rest of the simulation is not needed
+        return new ReplayVerifier(reference, dictionary, simulation::endSimulation);
+    }
+
+    private Map<RatingCriteria, Double> replay(ProblemArchetype problem) {
+        List<Rater> raters = problem.raterFactoryMap().values().stream()
+            .map(Rater.Factory::create)
+            .toList();
+        EventDictionary dictionary = EventDictionary.of(problem.vehicleManagerFactory().create());
+        try (BinaryEventReader reader = BinaryEventReader.open(replay, dictionary)) {
+            reader.replay(raters);
+        }
+        Map<RatingCriteria, Double> ratings = new EnumMap<>(RatingCriteria.class);
+        raters.forEach(rater -> ratings.put(rater.getRatingCriteria(), rater.getScore()));
+        return ratings;
+    }
+
+    /**
+     * Returns the problems selected by the arguments.
+     * @throws IllegalArgumentException If no problem or, with {@code --replay}, more than one problem is selected.
+     */
+    private List<ProblemArchetype> readProblems() {
+        List<ProblemArchetype> problems = readAllProblems();
+        if (problems.isEmpty()) {
+            throw new IllegalArgumentException("No problems found");
+        }
+        if (replay != null && problems.size() != 1) {
+            throw new IllegalArgumentException("--replay requires exactly one problem");
+        }
+        return problems;
+    }
+
+    private List<ProblemArchetype> readAllProblems() {
+        List<ProblemArchetype> syntheticProblems = this.syntheticProblems.stream()
+            .map(synthetic -> createSyntheticProblem(synthetic, seed).generate())
+            .toList();
+        if (problemPaths.isEmpty() && !syntheticProblems.isEmpty()) {
+            return syntheticProblems;
+        }
+        if (problemPaths.isEmpty()) {
+            IOHelper.initProblemPresets();
+            List<ProblemArchetype> problems = new ArrayList<>(IOHelper.readProblems());
+            problems.sort(Comparator.comparing(ProblemArchetype::name));
+            return problems;
+        }
+
+        List<File> files = new ArrayList<>();
+        for (Path path : problemPaths) {
+            if (Files.isDirectory(path)) {
+                try (Stream<Path> children = Files.list(path)) {
+                    children.filter(Files::isRegularFile).sorted().map(Path::toFile).forEach(files::add);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            } else {
+                files.add(path.toFile());
+            }
+        }
+        List<ProblemArchetype> problems = new ArrayList<>(IOHelper.readProblemsInFiles(files));
+        problems.addAll(syntheticProblems);
+        return problems;
+    }
+
+    private void writeResult(List<ProblemArchetype> problems, Map<RatingCriteria, Double> ratings, long elapsedMillis,
+                             Boolean verified) {
+        StringBuilder json = new StringBuilder("{");
+        json.append("\"service\":").append(quote(deliveryService));
+        json.append(",\"runs\":").append(runs);
+        json.append(",\"seed\":").append(seed);
+        json.append(",\"millisecondsPerTick\":").append(millisecondsPerTick);
+        json.append(",\"elapsedMillis\":").append(elapsedMillis);
+        json.append(",\"problems\":[");
+        for (int i = 0; i < problems.size(); i++) {
+            json.append(i == 0 ? "" : ",").append(quote(problems.get(i).name()));
+        }
+        json.append("],\"ratings\":{");
+        String separator = "";
+        for (Map.Entry<RatingCriteria, Double> entry : ratings.entrySet()) {
+            json.append(separator).append(quote(entry.getKey().name())).append(':').append(entry.getValue());
+            separator = ",";
+        }
+        json.append('}');
+        if (verified != null) {
+            json.append(",\"verified\":").append(verified);
+        }
+        json.append('}');
+
+        if (output == null) {
+            System.out.println(json);
+            return;
+        }
+        try {
+            Files.writeString(output, json + System.lineSeparator(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String quote(String value) {
+        StringBuilder quoted = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '"' -> quoted.append("\\\"");
+                case '\\' -> quoted.append("\\\\");
+                default -> {
+                    if (c < 0x20) {
+                        quoted.append("\\u%04x".formatted((int) c));
+                    } else {
+                        quoted.append(c);
+                    }
+                }
+            }
+        }
+        return quoted.append('"').toString();
+    }
+}
@@ -3,11 +3,16 @@ package projekt.gui.pane;
 import javafx.geometry.Insets;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
+import javafx.scene.control.ProgressBar;
 import javafx.scene.control.Slider;
 import javafx.scene.layout.*;
 import projekt.delivery.archetype.ProblemArchetype;
+import projekt.delivery.event.EventTimeline;
 import projekt.delivery.simulation.Simulation;
 import projekt.delivery.simulation.SimulationConfig;
+import projekt.runner.SimulationRunService;
+
+import java.util.concurrent.TimeUnit;
 
 public class ControlsPane extends BorderPane {
 
@@ -18,13 +23,23 @@ public class ControlsPane extends BorderPane {
     private final Slider tickIntervalSlider = new Slider();
     private final Label tickIntervalSliderLabel = new Label();
     private final Label tickLabel = new Label();
+    private final Label statisticsLabel = new Label();
+    private final Slider timelineSlider = new Slider();
+    private final Label timelineLabel = new Label();
+    private final Button cancelButton = new Button("Cancel");
+    private final ProgressBar progressBar = new ProgressBar(0);
+    private final Label progressLabel = new Label();
 
     private final long simulationLength;
+    private final EventTimeline timeline;
+    private final MapPane mapPane;
 
-    public ControlsPane(Simulation simulation, ProblemArchetype problem, int run, int simulationRuns, long simulationLength, MapPane mapPane) {
+    public ControlsPane(Simulation simulation, ProblemArchetype problem, int run, int simulationRuns, long simulationLength, MapPane mapPane, EventTimeline timeline) {
         this.simulationLength = simulationLength;
         this.simulation = simulation;
         this.simulationConfig = simulation.getSimulationConfig();
+        this.timeline = timeline;
+        this.mapPane = mapPane;
         initComponents(problem, run, simulationRuns, mapPane);
         updateText();
         setPadding(new Insets(5));
@@ -51,23 +66,84 @@ public class ControlsPane extends BorderPane {
         });
         VBox sliderBox = new VBox(tickIntervalSlider, tickIntervalSliderLabel);
 
+        //the timeline can only be scrubbed while the simulation is paused
+        timelineSlider.setMin(0);
+        timelineSlider.setMax(simulationLength);
+        timelineSlider.setMajorTickUnit(1);
+        timelineSlider.setSnapToTicks(true);
+        timelineSlider.setDisable(true);
+        timelineSlider.valueProperty().addListener((obs, oldValue, newValue) -> {
+            if (simulationConfig.isPaused()) {
+                seek(newValue.longValue());
+            }
+        });
+        VBox timelineBox = new VBox(timelineSlider, timelineLabel);
+
+        //enabled as soon as the run of the simulation is known
+        cancelButton.setDisable(true);
+        VBox progressBox = new VBox(progressBar, progressLabel);
+
         Label problemLabel = new Label("Simulating Problem: %s".formatted(problem.name()));
         Label runLabel = new Label("Run: %d/%d".formatted(run + 1, simulationRuns));
-        VBox labels = new VBox(problemLabel, runLabel, tickLabel);
+        VBox labels = new VBox(problemLabel, runLabel, tickLabel, statisticsLabel);
 
         Region intermediateRegion = new Region();
         intermediateRegion.setMinWidth(0);
         HBox.setHgrow(intermediateRegion, Priority.ALWAYS);
 
-        HBox box = new HBox(playPauseButton, singleStepButton, centerButton, sliderBox, intermediateRegion, labels);
+        HBox box = new HBox(playPauseButton, singleStepButton, centerButton, cancelButton, sliderBox, timelineBox, progressBox, intermediateRegion, labels);
         box.setPadding(new Insets(0, 10, 0, 10));
         box.setSpacing(10);
 
         setCenter(box);
     }
 
+    /**
+     * Enables the cancel button and sets the action executed when it is pressed.
+     * @param onCancel The action cancelling the simulation.
+     */
+    public void setOnCancel(Runnable onCancel) {
+        cancelButton.setOnAction(e -> {
+            cancelButton.setDisable(true);
+            onCancel.run();
+        });
+        cancelButton.setDisable(false);
+    }
+
+    /**
+     * Shows the executed fraction of the simulation and how far it is behind its schedule.
+     * @param progress The current {@link SimulationRunService.Progress} of the simulation.
+     */
+    public void updateProgress(SimulationRunService.Progress progress) {
+        progressBar.setProgress(progress.fraction());
+        if (progress.pacing() == null) {
+            progressLabel.setText("   %d%%".formatted(Math.round(progress.fraction() * 100)));
+        } else {
+            progressLabel.setText("   %d%%, lag: %d ms".formatted(Math.round(progress.fraction() * 100),
+                TimeUnit.NANOSECONDS.toMillis(progress.pacing().lagNanos())));
+        }
+    }
+
+    public void updateStatisticsLabel(long deliveries, long deliveriesInTime, long distance) {
+        statisticsLabel.setText("Delivered: %d (%d in time), Distance: %d".formatted(deliveries, deliveriesInTime, distance));
+    }
+
     public void updateTickLabel(long tick) {
         tickLabel.setText("Tick: %d/%d".formatted(tick, simulationLength));
+        if (!simulationConfig.isPaused()) {
+            timelineSlider.setValue(tick);
+            timelineLabel.setText("   Timeline: live");
+        }
+    }
+
+    private void seek(long tick) {
+        long firstTick = timeline.getFirstTick();
+        if (firstTick < 0) {
+            return;
+        }
+        long seekTick = Math.max(firstTick, Math.min(tick, timeline.getLastTick()));
+        mapPane.showVehicles(timeline.seek(seekTick));
+        timelineLabel.setText("   Timeline: tick %d".formatted(seekTick));
     }
 
     private void updateText() {
@@ -80,6 +156,12 @@ public class ControlsPane extends BorderPane {
     private void togglePaused() {
         simulationConfig.setPaused(!simulationConfig.isPaused());
         singleStepButton.setDisable(!singleStepButton.isDisabled());
+        timelineSlider.setDisable(!simulationConfig.isPaused());
+        if (!simulationConfig.isPaused()) {
+            //leave the recorded tick and show the live state again
+            mapPane.redrawVehicles();
+            timelineLabel.setText("   Timeline: live");
+        }
         updateText();
     }
 }
@@ -448,6 +448,29 @@ public class MapPane extends Pane {
         ImageView imageView = vehicles.get(vehicle);
         imageView.setX(transformedMidPoint.getX() - imageView.getImage().getWidth() / 2);
         imageView.setY(transformedMidPoint.getY() - imageView.getImage().getHeight() / 2);
+        imageView.setVisible(true);
+    }
+
+    /**
+     * Displays the {@link Vehicle}s of this {@link MapPane} at the given positions instead of their current ones, e.g.
+     * to show a recorded tick. {@link Vehicle}s without a position are hidden until they are redrawn.
+     *
+     * @param positions The {@link Region.Node} or {@link Region.Edge} of every {@link Vehicle} to display.
+     */
+    public void showVehicles(Map<Vehicle, Region.Component<?>> positions) {
+        for (Map.Entry<Vehicle, ImageView> entry : vehicles.entrySet()) {
+            Region.Component<?> component = positions.get(entry.getKey());
+            ImageView imageView = entry.getValue();
+            imageView.setVisible(component != null);
+            if (component == null) {
+                continue;
+            }
+            Point2D transformedMidPoint = transform(component instanceof Region.Edge edge
+                ? midPoint(edge)
+                : midPoint((Region.Node) component));
+            imageView.setX(transformedMidPoint.getX() - imageView.getImage().getWidth() / 2);
+            imageView.setY(transformedMidPoint.getY() - imageView.getImage().getHeight() / 2);
+        }
     }
 
     // --- Other Util --- //
@@ -3,6 +3,7 @@ package projekt.gui.scene;
 import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
+import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
 import javafx.scene.control.ChoiceBox;
 import javafx.scene.control.Label;
@@ -18,17 +19,22 @@ import projekt.delivery.service.BasicDeliveryService;
 import projekt.delivery.service.BogoDeliveryService;
 import projekt.delivery.service.DeliveryService;
 import projekt.delivery.service.OurDeliveryService;
+import projekt.delivery.simulation.Simulation;
 import projekt.delivery.simulation.SimulationConfig;
 import projekt.gui.controller.MainMenuSceneController;
 import projekt.io.IOHelper;
 import projekt.runner.RunnerImpl;
+import projekt.runner.SimulationRunService;
 
-import java.util.Arrays;
-import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.*;
 
 public class MainMenuScene extends MenuScene<MainMenuSceneController> {
 
+    /**
+     * Executes the simulations started from the GUI and reports their progress on the javafx application thread.
+     */
+    private static final SimulationRunService RUN_SERVICE = SimulationRunService.withDaemonThreads(Platform::runLater);
+
     private int simulationRuns = 1;
     private DeliveryService.Factory deliveryServiceFactory;
     private final Insets preferredPadding = new Insets(20, 20, 20, 20);
@@ -77,56 +83,113 @@ public class MainMenuScene extends MenuScene<MainMenuSceneController> {
     private Button createStartSimulationButton() {
         Button startSimulationButton = new Button("Start Simulation");
         startSimulationButton.setOnAction((e) -> {
-            //store the SimulationScene
-            AtomicReference<SimulationScene> simulationScene = new AtomicReference<>();
-            //Execute the GUIRunner in a separate Thread to prevent it from blocking the GUI
-            new Thread(() -> {
-                ProblemGroup problemGroup = new ProblemGroupImpl(problems, Arrays.stream(RatingCriteria.values()).toList());
-                new RunnerImpl().run(
-                    problemGroup,
-                    new SimulationConfig(20),
-                    simulationRuns,
-                    deliveryServiceFactory,
-                    (simulation, problem, i) -> {
-                        //CountDownLatch to check if the SimulationScene got created
-                        CountDownLatch countDownLatch = new CountDownLatch(1);
-                        //execute the scene switching on the javafx application thread
-                        Platform.runLater(() -> {
-                            //switch to the SimulationScene and set everything up
-                            SimulationScene scene = (SimulationScene) SceneSwitcher.loadScene(SceneSwitcher.SceneType.SIMULATION, getController().getStage());
-                            scene.init(simulation, problem, i, simulationRuns);
-                            simulation.addListener(scene);
-                            simulationScene.set(scene);
-                            countDownLatch.countDown();
-                        });
-
-                        try {
-                            //wait for the SimulationScene to be set
-                            countDownLatch.await();
-                        } catch (InterruptedException exc) {
-                            throw new RuntimeException(exc);
-                        }
-                    },
-                    (simulation, problem) -> {
-                        //remove the scene from the list of listeners
-                        simulation.removeListener(simulationScene.get());
-
-                        //check if gui got stopped
-                        return simulationScene.get().isClosed();
-                    },
-                    result -> {
-                        //execute the scene switching on the javafx thread
-                        Platform.runLater(() -> {
-                            RaterScene raterScene = (RaterScene) SceneSwitcher.loadScene(SceneSwitcher.SceneType.RATING, getController().getStage());
-                            raterScene.init(problemGroup.problems(), result);
-                        });
-                    });
-            }).start();
+            ProblemGroup problemGroup = new ProblemGroupImpl(problems, Arrays.stream(RatingCriteria.values()).toList());
+            new SimulationSequence(problemGroup, simulationRuns, deliveryServiceFactory).startNext();
         });
 
         return startSimulationButton;
     }
 
+    /**
+     * Shows the simulations of all runs of a {@link ProblemGroup} one after another and the average ratings at the end.
+     * The simulations are executed by the {@link SimulationRunService}, all other methods are called on the javafx
+     * application thread.
+     */
+    private class SimulationSequence implements SimulationRunService.Listener {
+
+        private final ProblemGroup problemGroup;
+        private final int simulationRuns;
+        private final DeliveryService.Factory deliveryServiceFactory;
+        private final Map<RatingCriteria, Double> ratingSums = new EnumMap<>(RatingCriteria.class);
+        private final Map<RatingCriteria, Integer> ratingCounts = new EnumMap<>(RatingCriteria.class);
+
+        private int run = 0;
+        private Iterator<ProblemArchetype> remainingProblems;
+        private Map<ProblemArchetype, Simulation> simulations;
+        private Simulation simulation;
+        private SimulationScene scene;
+
+        SimulationSequence(ProblemGroup problemGroup, int simulationRuns, DeliveryService.Factory deliveryServiceFactory) {
+            this.problemGroup = problemGroup;
+            this.simulationRuns = simulationRuns;
+            this.deliveryServiceFactory = deliveryServiceFactory;
+            remainingProblems = problemGroup.problems().iterator();
+        }
+
+        void startNext() {
+            if (!remainingProblems.hasNext()) {
+                if (++run == simulationRuns) {
+                    showRatings();
+                    return;
+                }
+                remainingProblems = problemGroup.problems().iterator();
+                simulations = null;
+            }
+            ProblemArchetype problem = remainingProblems.next();
+            try {
+                if (simulations == null) {
+                    simulations = new RunnerImpl().createSimulations(problemGroup, new SimulationConfig(20), deliveryServiceFactory);
+                }
+                simulation = simulations.get(problem);
+                scene = (SimulationScene) SceneSwitcher.loadScene(SceneSwitcher.SceneType.SIMULATION, getController().getStage());
+                scene.init(simulation, problem, run, simulationRuns);
+                scene.addListeners();
+            } catch (RuntimeException exc) {
+                onFailed(exc);
+                return;
+            }
+            scene.setRun(RUN_SERVICE.submit(simulation, problem, this));
+        }
+
+        @Override
+        public void onProgress(SimulationRunService.Progress progress) {
+            scene.updateProgress(progress);
+        }
+
+        @Override
+        public void onFinished(Map<RatingCriteria, Double> ratings) {
+            scene.removeListeners();
+            ratings.forEach((criterion, rating) -> {
+                ratingSums.merge(criterion, rating, Double::sum);
+                ratingCounts.merge(criterion, 1, Integer::sum);
+            });
+            startNext();
+        }
+
+        @Override
+        public void onCancelled() {
+            scene.removeListeners();
+            //the window is being closed, so there is no menu to return to
+            if (!scene.isClosed()) {
+                showMainMenu();
+            }
+        }
+
+        @Override
+        public void onFailed(Throwable throwable) {
+            if (scene != null) {
+                scene.removeListeners();
+            }
+            Alert alert = new Alert(Alert.AlertType.ERROR, "The simulation failed: %s".formatted(throwable.getMessage()));
+            alert.setHeaderText("Simulation failed");
+            alert.initOwner(getController().getStage());
+            alert.showAndWait();
+            showMainMenu();
+        }
+
+        private void showRatings() {
+            Map<RatingCriteria, Double> result = new EnumMap<>(RatingCriteria.class);
+            ratingSums.forEach((criterion, sum) -> result.put(criterion, sum / ratingCounts.get(criterion)));
+            RaterScene raterScene = (RaterScene) SceneSwitcher.loadScene(SceneSwitcher.SceneType.RATING, getController().getStage());
+            raterScene.init(problemGroup.problems(), result);
+        }
+
+        private void showMainMenu() {
+            MainMenuScene mainMenuScene = (MainMenuScene) SceneSwitcher.loadScene(SceneSwitcher.SceneType.MAIN_MENU, getController().getStage());
+            mainMenuScene.init(new ArrayList<>(problemGroup.problems()));
+        }
+    }
+
     private HBox createSimulationRunsHBox() {
         HBox simulationRunsHBox = new HBox();
         simulationRunsHBox.setMaxWidth(200);
@@ -8,25 +8,35 @@ import projekt.delivery.archetype.ProblemArchetype;
 import projekt.delivery.event.ArrivedAtEdgeEvent;
 import projekt.delivery.event.ArrivedAtNodeEvent;
 import projekt.delivery.event.Event;
+import projekt.delivery.event.EventDictionary;
+import projekt.delivery.event.EventStatistics;
+import projekt.delivery.event.EventSubscriptions;
+import projekt.delivery.event.EventTimeline;
 import projekt.delivery.event.SpawnEvent;
 import projekt.delivery.routing.Region;
 import projekt.delivery.routing.VehicleManager;
 import projekt.delivery.simulation.Simulation;
-import projekt.delivery.simulation.SimulationListener;
+import projekt.delivery.simulation.FrameListener;
 import projekt.gui.controller.ControlledScene;
 import projekt.gui.controller.SimulationSceneController;
 import projekt.gui.pane.ControlsPane;
 import projekt.gui.pane.MapPane;
+import projekt.runner.SimulationRunService;
 
 import java.util.List;
 
-public class SimulationScene extends Scene implements SimulationListener, ControlledScene<SimulationSceneController> {
+public class SimulationScene extends Scene implements FrameListener, ControlledScene<SimulationSceneController> {
 
     private final BorderPane root;
     private final SimulationSceneController controller;
+    // only dispatched on the javafx application thread
+    private final EventSubscriptions subscriptions = new EventSubscriptions();
 
+    private Simulation simulation;
     private MapPane mapPane;
     private ControlsPane controlsPane;
+    private EventTimeline timeline;
+    private EventStatistics statistics;
 
     private boolean closed;
 
@@ -37,49 +47,85 @@ public class SimulationScene extends Scene implements SimulationListener, Contro
 
         root.setPrefSize(700, 700);
         root.getStylesheets().addAll("projekt/gui/darkMode.css", "projekt/gui/simulationStyle.css");
+
+        subscriptions
+            .subscribe(SpawnEvent.class, spawnEvent -> mapPane.addVehicle(spawnEvent.getVehicle()))
+            .subscribe(ArrivedAtNodeEvent.class, arrivedAtNodeEvent -> mapPane.redrawVehicle(arrivedAtNodeEvent.getVehicle()))
+            .subscribe(ArrivedAtEdgeEvent.class, arrivedAtEdgeEvent -> mapPane.redrawVehicle(arrivedAtEdgeEvent.getVehicle()));
     }
 
     public void init(Simulation simulation, ProblemArchetype problem, int run, int simulationRuns) {
+        this.simulation = simulation;
         VehicleManager vehicleManager = simulation.getDeliveryService().getVehicleManager();
         Region region = vehicleManager.getRegion();
 
         mapPane = new MapPane(region.getNodes(), region.getEdges(), vehicleManager.getVehicles());
 
-        controlsPane = new ControlsPane(simulation, problem, run, simulationRuns, problem.simulationLength(), mapPane);
+        timeline = new EventTimeline(EventDictionary.of(vehicleManager));
+        statistics = EventStatistics.attach(vehicleManager);
+        controlsPane = new ControlsPane(simulation, problem, run, simulationRuns, problem.simulationLength(), mapPane, timeline);
         TitledPane titledControlsPane = new TitledPane("Controls", controlsPane);
         titledControlsPane.setCollapsible(false);
 
         root.setCenter(mapPane);
         root.setBottom(titledControlsPane);
         //TODO H11.4
+    }
+
+    /**
+     * Registers the timeline and this scene as listeners of the shown simulation. The timeline is notified of every
+     * tick, while this scene only renders and may be notified of several ticks at once.
+     */
+    public void addListeners() {
+        simulation.addListener(timeline);
+        simulation.addListener(this);
+    }
+
+    /**
+     * Removes the listeners registered by {@link #addListeners()}. Does nothing if this scene has not been initialized.
+     */
+    public void removeListeners() {
+        if (simulation != null) {
+            simulation.removeListener(this);
+            simulation.removeListener(timeline);
+        }
+    }
+
+    /**
+     * Sets the {@link SimulationRunService.Run} executing the shown simulation, so it can be cancelled from this scene.
+     * @param run The {@link SimulationRunService.Run} of the shown simulation.
+     */
+    public void setRun(SimulationRunService.Run run) {
+        controlsPane.setOnCancel(run::cancel);
 
         //stop the simulation when closing the window
         controller.getStage().setOnCloseRequest(e -> {
-            simulation.endSimulation();
             closed = true;
+            run.cancel();
         });
     }
 
+    /**
+     * Shows the given progress of the simulation. Has to be called on the javafx application thread.
+     * @param progress The current {@link SimulationRunService.Progress} of the simulation.
+     */
+    public void updateProgress(SimulationRunService.Progress progress) {
+        controlsPane.updateProgress(progress);
+    }
+
     @Override
     public void onTick(List<Event> events, long tick) {
+        //the statistics are updated by the simulating thread, so they are read before switching threads
+        long deliveries = statistics.getDeliveries();
+        long deliveriesInTime = statistics.getDeliveriesInTime();
+        long distance = statistics.getDistance();
+
         //Execute GUI updates on the javafx application thread
         Platform.runLater(() -> {
-            events.stream()
-                .filter(SpawnEvent.class::isInstance)
-                .map(SpawnEvent.class::cast)
-                .forEach(spawnEvent -> mapPane.addVehicle(spawnEvent.getVehicle()));
-
-            events.stream()
-                .filter(ArrivedAtNodeEvent.class::isInstance)
-                .map(ArrivedAtNodeEvent.class::cast)
-                .forEach(arrivedAtNodeEvent -> mapPane.redrawVehicle(arrivedAtNodeEvent.getVehicle()));
-
-            events.stream()
-                .filter(ArrivedAtEdgeEvent.class::isInstance)
-                .map(ArrivedAtEdgeEvent.class::cast)
-                .forEach(arrivedAtEdgeEvent -> mapPane.redrawVehicle(arrivedAtEdgeEvent.getVehicle()));
+            subscriptions.dispatch(events);
 
             controlsPane.updateTickLabel(tick);
+            controlsPane.updateStatisticsLabel(deliveries, deliveriesInTime, distance);
         });
 
     }
@@ -60,7 +60,13 @@ public class IOHelper {
         return new HashSet<>(Arrays.asList(Objects.requireNonNull(dir.listFiles())));
     }
 
-    private static List<ProblemArchetype> readProblemsInFiles(Set<File> files) {
+    /**
+     * Reads a single {@link ProblemArchetype} from each of the given {@link File}s.
+     *
+     * @param files The {@link File}s to read.
+     * @return The read {@link ProblemArchetype}s in the iteration order of the given {@link File}s.
+     */
+    public static List<ProblemArchetype> readProblemsInFiles(Collection<File> files) {
         List<ProblemArchetype> problems = new ArrayList<>();
 
         for (File file : files) {
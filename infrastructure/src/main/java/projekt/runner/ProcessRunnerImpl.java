@@ -0,0 +1,438 @@
+package projekt.runner;
+
+import projekt.delivery.archetype.ProblemArchetype;
+import projekt.delivery.archetype.ProblemGroup;
+import projekt.delivery.rating.RatingCriteria;
+import projekt.delivery.service.DeliveryService;
+import projekt.delivery.simulation.Simulation;
+import projekt.delivery.simulation.SimulationConfig;
+import projekt.io.ProblemArchetypeIO;
+import projekt.runner.handler.ResultHandler;
+import projekt.runner.handler.SimulationFinishedHandler;
+import projekt.runner.handler.SimulationSetupHandler;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * A {@link Runner} that distributes the runs of a {@link ProblemGroup} over several local worker JVMs.<p>
+ *
+ * The coordinator serializes the problems with {@link ProblemArchetypeIO} and sends them to every worker over a
+ * socket on the loopback interface. Every worker requests its next run from a shared queue as soon as it is idle, so
+ * fast workers take over the work of slow ones. If a worker crashes or its connection breaks, the run it was executing
+ * is put back into the queue and the worker is replaced. A worker that does not answer a run within the task timeout
+ * is treated as lost as well. A run fails permanently after {@link #MAX_ATTEMPTS} attempts or if its simulation throws
+ * an exception. If the coordinating thread is interrupted, all workers are stopped.<p>
+ *
+ * The seeds of the runs and the order in which the ratings are summed up are the same as in {@link ParallelRunnerImpl},
+ * so both runners calculate the same averages. Only the {@link DeliveryService.Factory}s known by
+ * {@link RunnerWorker} can be simulated.<p>
+ *
+ * Since the simulations are executed in other JVMs, the {@link SimulationSetupHandler} and the
+ * {@link SimulationFinishedHandler} passed to
+ * {@link #run(ProblemGroup, SimulationConfig, int, DeliveryService.Factory, SimulationSetupHandler, SimulationFinishedHandler, ResultHandler)}
+ * are never called. They can neither attach listeners to the simulations nor end them early, so executions that
+ * depend on them, e.g. to show the simulations in the GUI, have to use a {@link ParallelRunnerImpl} instead. Only the
+ * {@link ResultHandler} is called once all runs are finished.
+ */
+public class ProcessRunnerImpl implements Runner {
+
+    /**
+     * The maximum number of times a run is started before the whole execution fails.
+     */
+    public static final int MAX_ATTEMPTS = 3;
+
+    /**
+     * The default number of milliseconds a worker may take to accept the problems or to answer a single run.
+     */
+    public static final int DEFAULT_TASK_TIMEOUT_MILLIS = 10 * 60_000;
+
+    private static final int ACCEPT_TIMEOUT_MILLIS = 30_000;
+
+    private final int workers;
+    private final long seed;
+    private final WorkerLauncher launcher;
+    private final int taskTimeoutMillis;
+
+    /**
+     * Creates a new {@link ProcessRunnerImpl} instance.
+     * @param workers The number of workers executing runs at the same time.
+     * @param seed The seed used to derive the seeds of the unseeded order generators.
+     * @param launcher The {@link WorkerLauncher} used to start the workers.
+     * @param taskTimeoutMillis The number of milliseconds a worker may take to accept the problems or to answer a
+     *                          single run before it is treated as lost.
+     */
+    public ProcessRunnerImpl(int workers, long seed, WorkerLauncher launcher, int taskTimeoutMillis) {
+        if (workers <= 0) {
+            throw new IllegalArgumentException("workers must be positive");
+        }
+        if (taskTimeoutMillis <= 0) {
+            throw new IllegalArgumentException("taskTimeoutMillis must be positive");
+        }
+        this.workers = workers;
+        this.seed = seed;
+        this.launcher = Objects.requireNonNull(launcher, "launcher");
+        this.taskTimeoutMillis = taskTimeoutMillis;
+    }
+
+    /**
+     * Creates a new {@link ProcessRunnerImpl} with a task timeout of {@link #DEFAULT_TASK_TIMEOUT_MILLIS}.
+     * @param workers The number of workers executing runs at the same time.
+     * @param seed The seed used to derive the seeds of the unseeded order generators.
+     * @param launcher The {@link WorkerLauncher} used to start the workers.
+     */
+    public ProcessRunnerImpl(int workers, long seed, WorkerLauncher launcher) {
+        this(workers, seed, launcher, DEFAULT_TASK_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * Creates a new {@link ProcessRunnerImpl} that starts every worker in a new JVM with the class path of the
+     * current JVM.
+     * @param workers The number of worker JVMs.
+     * @param seed The seed used to derive the seeds of the unseeded order generators.
+     */
+    public ProcessRunnerImpl(int workers, long seed) {
+        this(workers, seed, WorkerLauncher.jvm());
+    }
+
+    /**
+     * Starts a worker that connects to the coordinator.
+     */
+    @FunctionalInterface
+    public interface WorkerLauncher {
+
+        /**
+         * Starts a worker that executes {@link RunnerWorker#main(String[])} with the given port.
+         * @param port The port the coordinator listens on.
+         * @return A handle that forcibly stops the worker when it is closed.
+         * @throws IOException If the worker could not be started.
+         */
+        AutoCloseable launch(int port) throws IOException;
+
+        /**
+         * Returns a {@link WorkerLauncher} that starts every worker in a new JVM with the class path of the current JVM.
+         * The standard output of the workers is discarded.
+         * @return The created {@link WorkerLauncher}.
+         */
+        static WorkerLauncher jvm() {
+            String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+            String classPath = System.getProperty("java.class.path");
+            return port -> {
+                Process process = new ProcessBuilder(java, "-cp", classPath, RunnerWorker.class.getName(),
+                    Integer.toString(port))
+                    .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                    .redirectError(ProcessBuilder.Redirect.INHERIT)
+                    .start();
+                return process::destroyForcibly;
+            };
+        }
+
+        /**
+         * Returns a {@link WorkerLauncher} that starts every worker on a new daemon thread of the current JVM,
+         * e.g. to test the coordinator without starting other processes.
+         * @return The created {@link WorkerLauncher}.
+         */
+        static WorkerLauncher inProcess() {
+            return port -> {
+                Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+                Thread thread = new Thread(() -> {
+                    try (socket;
+                         BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                         BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+                        RunnerWorker.serve(reader, writer);
+                    } catch (IOException ignored) {
+                        // the coordinator closed the connection
+                    }
+                }, "runner-worker-" + port);
+                thread.setDaemon(true);
+                thread.start();
+                return socket::close;
+            };
+        }
+    }
+
+    @Override
+    public void run(ProblemGroup problemGroup,
+                    SimulationConfig simulationConfig,
+                    int simulationRuns,
+                    DeliveryService.Factory deliveryServiceFactory,
+                    SimulationSetupHandler simulationSetupHandler,
+                    SimulationFinishedHandler simulationFinishedHandler,
+                    ResultHandler resultHandler) {
+
+        List<ProblemArchetype> problems = problemGroup.problems();
+        List<RatingCriteria> criteria = problemGroup.ratingCriteria();
+        String setup = createSetup(problems, criteria, simulationConfig, deliveryServiceFactory);
+
+        double[][][] ratings = new double[simulationRuns][problems.size()][];
+        BlockingDeque<Task> queue = new LinkedBlockingDeque<>();
+        for (int run = 0; run < simulationRuns; run++) {
+            for (int problemIndex = 0; problemIndex < problems.size(); problemIndex++) {
+                queue.add(new Task(problemIndex, run, ParallelRunnerImpl.taskSeed(seed, problemIndex, run)));
+            }
+        }
+        AtomicInteger remaining = new AtomicInteger(queue.size());
+        Map<Task, Integer> attempts = new ConcurrentHashMap<>();
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+
+        List<WorkerSlot> slots = new ArrayList<>(workers);
+        List<Thread> threads = new ArrayList<>(workers);
+        for (int i = 0; i < Math.min(workers, queue.size()); i++) {
+            WorkerSlot slot = new WorkerSlot(setup, criteria.size(), queue, remaining, ratings, attempts, failure);
+            Thread thread = new Thread(slot, "runner-coordinator-" + i);
+            thread.setDaemon(true);
+            slots.add(slot);
+            threads.add(thread);
+            thread.start();
+        }
+
+        try {
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        } catch (InterruptedException e) {
+            // the slots may be blocked in reading a response, which only returns once the connection is closed
+            threads.forEach(Thread::interrupt);
+            slots.forEach(WorkerSlot::abort);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+
+        Map<RatingCriteria, Double> result = new HashMap<>();
+        for (int i = 0; i < criteria.size(); i++) {
+            double sum = 0;
+            for (double[][] run : ratings) {
+                for (double[] problemRatings : run) {
+                    sum += problemRatings[i];
+                }
+            }
+            result.put(criteria.get(i), sum / (simulationRuns * problems.size()));
+        }
+        resultHandler.accept(result);
+    }
+
+    @Override
+    public Map<ProblemArchetype, Simulation> createSimulations(ProblemGroup problemGroup,
+                                                                SimulationConfig simulationConfig,
+                                                                DeliveryService.Factory deliveryServiceFactory) {
+        Map<ProblemArchetype, Simulation> simulations = new HashMap<>();
+        List<ProblemArchetype> problems = problemGroup.problems();
+        for (int problemIndex = 0; problemIndex < problems.size(); problemIndex++) {
+            ProblemArchetype problem = problems.get(problemIndex);
+            simulations.put(problem, ParallelRunnerImpl.createSimulation(problem,
+                ParallelRunnerImpl.taskSeed(seed, problemIndex, 0), simulationConfig, deliveryServiceFactory));
+        }
+        return simulations;
+    }
+
+    private static String createSetup(List<ProblemArchetype> problems,
+                                      List<RatingCriteria> criteria,
+                                      SimulationConfig simulationConfig,
+                                      DeliveryService.Factory deliveryServiceFactory) {
+        String deliveryService = RunnerWorker.DELIVERY_SERVICES.entrySet().stream()
+            .filter(entry -> entry.getValue() == deliveryServiceFactory)
+            .map(Map.Entry::getKey)
+            .findFirst()
+            .orElseThrow(() -> new IllegalArgumentException("The delivery service factory is not known by the workers"));
+
+        StringWriter setup = new StringWriter();
+        try (BufferedWriter writer = new BufferedWriter(setup)) {
+            writer.write("SETUP %d %s %s %d\n".formatted(
+                simulationConfig.getMillisecondsPerTick(),
+                deliveryService,
+                criteria.stream().map(RatingCriteria::name).collect(Collectors.joining(",")),
+                problems.size()
+            ));
+            for (ProblemArchetype problem : problems) {
+                ProblemArchetypeIO.writeProblemArchetype(writer, problem);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return setup.toString();
+    }
+
+    private record Task(int problemIndex, int run, int seed) {
+    }
+
+    /**
+     * Thrown if a worker crashed or its connection broke, so the current run can be retried by another worker.
+     */
+    private static class WorkerLostException extends Exception {
+
+        private static final long serialVersionUID = 1L;
+
+        WorkerLostException(Throwable cause) {
+            super(cause);
+        }
+    }
+
+    /**
+     * Keeps a single worker busy and replaces it whenever it is lost.
+     */
+    private class WorkerSlot implements Runnable {
+
+        private final String setup;
+        private final int criteria;
+        private final BlockingDeque<Task> queue;
+        private final AtomicInteger remaining;
+        private final double[][][] ratings;
+        private final Map<Task, Integer> attempts;
+        private final AtomicReference<RuntimeException> failure;
+
+        private volatile AutoCloseable worker;
+        private volatile Socket socket;
+        private BufferedReader reader;
+        private BufferedWriter writer;
+
+        WorkerSlot(String setup,
+                   int criteria,
+                   BlockingDeque<Task> queue,
+                   AtomicInteger remaining,
+                   double[][][] ratings,
+                   Map<Task, Integer> attempts,
+                   AtomicReference<RuntimeException> failure) {
+            this.setup = setup;
+            this.criteria = criteria;
+            this.queue = queue;
+            this.remaining = remaining;
+            this.ratings = ratings;
+            this.attempts = attempts;
+            this.failure = failure;
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (remaining.get() > 0 && failure.get() == null && !Thread.currentThread().isInterrupted()) {
+                    // tasks of lost workers may be put back, so an empty queue does not mean that all runs are done
+                    Task task = queue.poll(100, TimeUnit.MILLISECONDS);
+                    if (task == null) {
+                        continue;
+                    }
+                    try {
+                        execute(task);
+                        remaining.decrementAndGet();
+                    } catch (WorkerLostException e) {
+                        stopWorker();
+                        if (attempts.merge(task, 1, Integer::sum) >= MAX_ATTEMPTS) {
+                            failure.compareAndSet(null, new RuntimeException(
+                                "Run %d of problem %d failed %d times".formatted(task.run(), task.problemIndex(), MAX_ATTEMPTS),
+                                e.getCause()));
+                        } else {
+                            queue.offerFirst(task);
+                        }
+                    } catch (RuntimeException e) {
+                        failure.compareAndSet(null, e);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                if (writer != null) {
+                    try {
+                        writer.write("EXIT\n");
+                        writer.flush();
+                    } catch (IOException ignored) {
+                        // the worker is stopped anyway
+                    }
+                }
+                stopWorker();
+            }
+        }
+
+        private void execute(Task task) throws WorkerLostException {
+            try {
+                if (socket == null) {
+                    startWorker();
+                }
+                writer.write("RUN %d %d\n".formatted(task.problemIndex(), task.seed()));
+                writer.flush();
+
+                String response = readResponse();
+                if (response == null) {
+                    throw new EOFException("The worker closed the connection");
+                }
+                if (response.startsWith("ERROR")) {
+                    throw new RuntimeException("Run %d of problem %d failed: %s".formatted(task.run(),
+                        task.problemIndex(), response.substring("ERROR".length()).trim()));
+                }
+                String[] values = response.split(" ");
+                if (!values[0].equals("RESULT") || values.length != criteria + 1) {
+                    throw new IOException("Illegal response: %s".formatted(response));
+                }
+                double[] result = new double[criteria];
+                for (int i = 0; i < criteria; i++) {
+                    result[i] = Double.parseDouble(values[i + 1]);
+                }
+                ratings[task.run()][task.problemIndex()] = result;
+            } catch (IOException e) {
+                throw new WorkerLostException(e);
+            }
+        }
+
+        private void startWorker() throws IOException {
+            try (ServerSocket serverSocket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+                serverSocket.setSoTimeout(ACCEPT_TIMEOUT_MILLIS);
+                worker = launcher.launch(serverSocket.getLocalPort());
+                socket = serverSocket.accept();
+            }
+            // a worker that does not answer in time is lost, so a hanging run is retried like a crashed one
+            socket.setSoTimeout(taskTimeoutMillis);
+            reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            writer = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+            writer.write(setup);
+            writer.flush();
+            if (!Objects.equals(readResponse(), "READY")) {
+                throw new IOException("The worker did not accept the problems");
+            }
+        }
+
+        private String readResponse() throws IOException {
+            // the connection is closed after the interrupt, so a read started before the interrupt cannot block forever
+            if (Thread.currentThread().isInterrupted()) {
+                throw new InterruptedIOException("The coordinator has been interrupted");
+            }
+            return reader.readLine();
+        }
+
+        /**
+         * Closes the connection and stops the current worker from another thread, so that a blocked read returns.
+         */
+        void abort() {
+            AutoCloseable worker = this.worker;
+            Socket socket = this.socket;
+            try {
+                if (socket != null) {
+                    socket.close();
+                }
+                if (worker != null) {
+                    worker.close();
+                }
+            } catch (Exception ignored) {
+                // the worker is replaced or the slot terminates anyway
+            }
+        }
+
+        private void stopWorker() {
+            abort();
+            worker = null;
+            socket = null;
+            reader = null;
+            writer = null;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package projekt.runner;
+
+import projekt.delivery.archetype.ProblemArchetype;
+import projekt.delivery.rating.RatingCriteria;
+import projekt.delivery.service.DeliveryService;
+import projekt.delivery.simulation.Simulation;
+import projekt.delivery.simulation.SimulationConfig;
+import projekt.io.ProblemArchetypeIO;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The entry point of a worker JVM started by a {@link ProcessRunnerImpl}.<p>
+ *
+ * The worker connects to the coordinator on the loopback interface and executes the simulation runs it receives until
+ * the connection is closed. The protocol is line based:
+ * <ul>
+ *     <li>{@code SETUP <millisecondsPerTick> <deliveryService> <criteria> <problemCount>} followed by the problems
+ *     in the format of {@link ProblemArchetypeIO}, answered with {@code READY}.</li>
+ *     <li>{@code RUN <problemIndex> <seed>}, answered with {@code RESULT <rating>...} in the order of the criteria
+ *     or {@code ERROR <message>} if the simulation failed.</li>
+ *     <li>{@code EXIT}, which terminates the worker.</li>
+ * </ul>
+ */
+public final class RunnerWorker {
+
+    /**
+     * The {@link DeliveryService.Factory}s a worker can simulate, by the name used in the protocol.
+     */
+    public static final Map<String, DeliveryService.Factory> DELIVERY_SERVICES = Map.of(
+        "BASIC", DeliveryService.BASIC,
+        "BOGO", DeliveryService.BOGO,
+        "OUR", DeliveryService.OUR
+    );
+
+    private RunnerWorker() {
+    }
+
+    /**
+     * Connects to the coordinator listening on the given port of the loopback interface.
+     * @param args The port of the coordinator.
+     */
+    public static void main(String[] args) {
+        if (args.length != 1) {
+            throw new IllegalArgumentException("usage: RunnerWorker <port>");
+        }
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), Integer.parseInt(args[0]));
+             BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+            serve(reader, writer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Executes the requests read from the given reader until {@code EXIT} is read or the input ends.
+     * @param reader The reader the requests are read from.
+     * @param writer The writer the responses are written to.
+     * @throws IOException If an I/O error occurs.
+     */
+    static void serve(BufferedReader reader, BufferedWriter writer) throws IOException {
+        List<ProblemArchetype> problems = List.of();
+        List<RatingCriteria> criteria = List.of();
+        SimulationConfig simulationConfig = null;
+        DeliveryService.Factory deliveryServiceFactory = null;
+
+        String line;
+        while ((line = reader.readLine()) != null && !line.equals("EXIT")) {
+            String[] parts = line.split(" ");
+
+            if (parts[0].equals("SETUP")) {
+                simulationConfig = new SimulationConfig(Integer.parseInt(parts[1]));
+                deliveryServiceFactory = DELIVERY_SERVICES.get(parts[2]);
+                if (deliveryServiceFactory == null) {
+                    throw new IllegalArgumentException("Unknown delivery service: %s".formatted(parts[2]));
+                }
+                criteria = parts[3].isEmpty() ? List.of() : Arrays.stream(parts[3].split(","))
+                    .map(RatingCriteria::valueOf)
+                    .toList();
+                int problemCount = Integer.parseInt(parts[4]);
+                problems = new ArrayList<>(problemCount);
+                for (int i = 0; i < problemCount; i++) {
+                    problems.add(ProblemArchetypeIO.readProblemArchetype(reader));
+                }
+                writer.write("READY\n");
+            } else if (parts[0].equals("RUN")) {
+                if (simulationConfig == null) {
+                    throw new IllegalStateException("RUN received before SETUP");
+                }
+                ProblemArchetype problem = problems.get(Integer.parseInt(parts[1]));
+                writer.write(run(problem, Integer.parseInt(parts[2]), criteria, simulationConfig, deliveryServiceFactory));
+                writer.write("\n");
+            } else {
+                throw new IllegalArgumentException("Illegal line read: %s".formatted(line));
+            }
+            writer.flush();
+        }
+    }
+
+    private static String run(ProblemArchetype problem,
+                              int seed,
+                              List<RatingCriteria> criteria,
+                              SimulationConfig simulationConfig,
+                              DeliveryService.Factory deliveryServiceFactory) {
+        try {
+            Simulation simulation = ParallelRunnerImpl.createSimulation(problem, seed, simulationConfig,
+                deliveryServiceFactory);
+            simulation.runSimulation(problem.simulationLength());
+
+            StringBuilder result = new StringBuilder("RESULT");
+            for (RatingCriteria criterion : criteria) {
+                result.append(' ').append(simulation.getRatingForCriterion(criterion));
+            }
+            return result.toString();
+        } catch (RuntimeException e) {
+            return "ERROR " + String.valueOf(e).replace('\n', ' ');
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package projekt;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HeadlessProjektImplUnitTests {
+
+    private final ByteArrayOutputStream err = new ByteArrayOutputStream();
+    private Path directory;
+    private Path output;
+
+    @BeforeEach
+    public void initialize() throws IOException {
+        directory = Files.createTempDirectory("headless");
+        output = directory.resolve("result.json");
+    }
+
+    @AfterEach
+    public void cleanUp() throws IOException {
+        Files.deleteIfExists(output);
+        Files.delete(directory);
+    }
+
+    @Test
+    public void testInvalidOptionsPrintUsage() {
+        assertUsage("Unknown option: --speed", "--headless", "--speed", "1");
+        assertUsage("Missing value of --runs", "--headless", "--runs");
+        assertUsage("--runs must be positive", "--runs", "0");
+        assertUsage("--threads must be positive", "--threads", "-1");
+        assertUsage("Unknown delivery service: FASTEST", "--service", "fastest");
+        assertUsage("Unknown event log level: loud", "--event-log", "loud");
+        assertUsage("--clock must not be negative", "--clock", "-5");
+        assertUsage("Unknown topology: ring", "--synthetic", "ring:10");
+        assertUsage("--synthetic must have the form <topology>:<nodes>", "--synthetic", "grid");
+        assertUsage("--verify can not be combined with --workers or --cache", "--verify", "logs", "--workers", "2");
+    }
+
+    @Test
+    public void testMalformedNumbersPrintUsage() {
+        assertEquals(HeadlessProjektImpl.EXIT_USAGE, run("--seed", "forty-two"));
+        assertTrue(err().contains("usage:"));
+    }
+
+    @Test
+    public void testMissingProblemsPrintUsage() {
+        // the directory is empty, so no problems are selected
+        assertUsage("No problems found", "--headless", "--output", output.toString(), directory.toString());
+        assertFalse(Files.exists(output));
+    }
+
+    @Test
+    public void testConstructorRejectsInvalidOptions() {
+        assertThrows(IllegalArgumentException.class, () -> new HeadlessProjektImpl(new String[] {"--runs", "0"}));
+        assertDoesNotThrow(() -> new HeadlessProjektImpl(new String[] {"--headless", "--runs", "3", "--seed", "7",
+            "--clock", "fast", "--retain-ticks", "10", "--spill", directory.toString(), directory.toString()}));
+        assertThrows(IllegalArgumentException.class,
+            () -> new HeadlessProjektImpl(new String[] {"--spill", directory.toString(), directory.toString()}));
+    }
+
+    @Test
+    public void testStartRejectsMissingProblems() {
+        HeadlessProjektImpl projekt = new HeadlessProjektImpl(new String[] {directory.toString()});
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, projekt::start);
+        assertEquals("No problems found", exception.getMessage());
+    }
+
+    private void assertUsage(String message, String... args) {
+        err.reset();
+        assertEquals(HeadlessProjektImpl.EXIT_USAGE, run(args));
+        assertEquals(message + System.lineSeparator() + HeadlessProjektImpl.USAGE, err());
+    }
+
+    private int run(String... args) {
+        return HeadlessProjektImpl.run(args, new PrintStream(err, true, StandardCharsets.UTF_8));
+    }
+
+    private String err() {
+        return err.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,283 @@
+package projekt.runner;
+
+import org.junit.jupiter.api.Test;
+import projekt.base.EuclideanDistanceCalculator;
+import projekt.base.Location;
+import projekt.delivery.archetype.ProblemArchetype;
+import projekt.delivery.archetype.ProblemArchetypeImpl;
+import projekt.delivery.archetype.ProblemGroup;
+import projekt.delivery.archetype.ProblemGroupImpl;
+import projekt.delivery.generator.EmptyOrderGenerator;
+import projekt.delivery.rating.AmountDeliveredRater;
+import projekt.delivery.rating.RatingCriteria;
+import projekt.delivery.routing.PathCalculator;
+import projekt.delivery.routing.Region;
+import projekt.delivery.routing.VehicleManager;
+import projekt.delivery.service.DeliveryService;
+import projekt.delivery.simulation.SimulationConfig;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static projekt.TestProxies.proxy;
+
+public class ProcessRunnerImplUnitTests {
+
+    private static final long SEED = 42;
+    private static final int RUNS = 3;
+    private static final RatingCriteria CRITERION = RatingCriteria.AMOUNT_DELIVERED;
+    private static final ProblemGroup PROBLEM_GROUP = new ProblemGroupImpl(
+        List.of(problem("first"), problem("second")), List.of(CRITERION));
+
+    /**
+     * What a fake worker does.
+     */
+    private enum Behavior {
+        /**
+         * Answers every run with {@link #rating(int, int)}.
+         */
+        WORK,
+        /**
+         * Closes the connection instead of accepting the problems.
+         */
+        CRASH_DURING_SETUP,
+        /**
+         * Closes the connection instead of answering its first run.
+         */
+        CRASH_DURING_RUN,
+        /**
+         * Answers every run with an error, like a simulation that throws an exception.
+         */
+        FAIL,
+        /**
+         * Accepts the problems, but never answers a run, like a simulation that does not terminate.
+         */
+        HANG
+    }
+
+    private final AtomicInteger launches = new AtomicInteger();
+
+    @Test
+    public void testResultMatchesSequentialRuns() {
+        assertEquals(expectedRating(), run(2, launch -> Behavior.WORK), 0);
+        assertEquals(2, launches.get());
+    }
+
+    @Test
+    public void testLostWorkerIsReplacedAndRunIsRetried() {
+        // a single worker, so the crashing worker is guaranteed to receive a run
+        assertEquals(expectedRating(), run(1, launch -> launch == 0 ? Behavior.CRASH_DURING_RUN : Behavior.WORK), 0);
+        assertEquals(2, launches.get());
+    }
+
+    @Test
+    public void testWorkerLostDuringSetupIsReplaced() {
+        assertEquals(expectedRating(), run(1, launch -> launch == 0 ? Behavior.CRASH_DURING_SETUP : Behavior.WORK), 0);
+        assertEquals(2, launches.get());
+    }
+
+    @Test
+    public void testRunFailsAfterMaxAttempts() {
+        RuntimeException exception = assertThrows(RuntimeException.class,
+            () -> run(1, launch -> Behavior.CRASH_DURING_RUN));
+
+        assertTrue(exception.getMessage().contains("failed %d times".formatted(ProcessRunnerImpl.MAX_ATTEMPTS)),
+            exception.getMessage());
+        assertEquals(ProcessRunnerImpl.MAX_ATTEMPTS, launches.get());
+    }
+
+    @Test
+    public void testFailedSimulationIsNotRetried() {
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> run(1, launch -> Behavior.FAIL));
+
+        assertTrue(exception.getMessage().contains("simulation failed"), exception.getMessage());
+        assertEquals(1, launches.get());
+    }
+
+    @Test
+    public void testHangingWorkerIsReplacedAfterTimeout() {
+        assertEquals(expectedRating(), run(1, 100, launch -> launch == 0 ? Behavior.HANG : Behavior.WORK), 0);
+        assertEquals(2, launches.get());
+    }
+
+    @Test
+    public void testTimeoutsCountAsAttempts() {
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> run(1, 100, launch -> Behavior.HANG));
+
+        assertTrue(exception.getCause() instanceof SocketTimeoutException, String.valueOf(exception.getCause()));
+        assertEquals(ProcessRunnerImpl.MAX_ATTEMPTS, launches.get());
+    }
+
+    @Test
+    public void testInterruptStopsWorkers() throws InterruptedException {
+        Set<Integer> stopped = ConcurrentHashMap.newKeySet();
+        AtomicReference<Throwable> thrown = new AtomicReference<>();
+        CountDownLatch launched = new CountDownLatch(2);
+        Thread coordinator = new Thread(() -> {
+            try {
+                new ProcessRunnerImpl(2, SEED, port -> {
+                    AutoCloseable worker = launch(port, Behavior.HANG);
+                    launched.countDown();
+                    return () -> {
+                        stopped.add(port);
+                        worker.close();
+                    };
+                }).run(PROBLEM_GROUP, new SimulationConfig(0), RUNS, DeliveryService.BASIC,
+                    (simulation, problem, run) -> {}, (simulation, problem) -> false,
+                    result -> fail("the execution must not finish"));
+            } catch (Throwable throwable) {
+                thrown.set(throwable);
+            }
+        });
+        coordinator.start();
+        assertTrue(launched.await(10, TimeUnit.SECONDS));
+
+        coordinator.interrupt();
+        coordinator.join(10_000);
+
+        assertFalse(coordinator.isAlive());
+        assertTrue(thrown.get() instanceof RuntimeException, String.valueOf(thrown.get()));
+        assertTrue(thrown.get().getCause() instanceof InterruptedException);
+        // the workers are stopped instead of being left behind, a slot that is still starting its worker stops it itself
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (stopped.size() < 2) {
+            assertTrue(System.currentTimeMillis() < deadline, "stopped workers: " + stopped.size());
+            Thread.sleep(1);
+        }
+    }
+
+    @Test
+    public void testUnknownDeliveryServiceIsRejected() {
+        DeliveryService.Factory unknown = vehicleManager -> {
+            throw new UnsupportedOperationException();
+        };
+
+        assertThrows(IllegalArgumentException.class, () -> new ProcessRunnerImpl(1, SEED, this::launchWorking)
+            .run(PROBLEM_GROUP, new SimulationConfig(0), RUNS, unknown, (simulation, problem, run) -> {},
+                (simulation, problem) -> false, result -> fail("the execution must not start")));
+        assertEquals(0, launches.get());
+    }
+
+    private double run(int workers, IntFunction<Behavior> behaviors) {
+        return run(workers, ProcessRunnerImpl.DEFAULT_TASK_TIMEOUT_MILLIS, behaviors);
+    }
+
+    private double run(int workers, int taskTimeoutMillis, IntFunction<Behavior> behaviors) {
+        List<Map<RatingCriteria, Double>> results = new ArrayList<>();
+        new ProcessRunnerImpl(workers, SEED, port -> launch(port, behaviors.apply(launches.getAndIncrement())),
+            taskTimeoutMillis)
+            .run(PROBLEM_GROUP, new SimulationConfig(0), RUNS, DeliveryService.BASIC, (simulation, problem, run) -> {},
+                (simulation, problem) -> false, results::add);
+        assertEquals(1, results.size());
+        return results.get(0).get(CRITERION);
+    }
+
+    private AutoCloseable launchWorking(int port) throws IOException {
+        launches.incrementAndGet();
+        return launch(port, Behavior.WORK);
+    }
+
+    /**
+     * Starts a fake worker that speaks the protocol of {@link RunnerWorker} without simulating anything.
+     */
+    private static AutoCloseable launch(int port, Behavior behavior) throws IOException {
+        Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+        Thread thread = new Thread(() -> {
+            try (socket;
+                 BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                 BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+                serve(reader, writer, behavior);
+            } catch (IOException ignored) {
+                // the coordinator closed the connection
+            }
+        }, "fake-worker-" + port);
+        thread.setDaemon(true);
+        thread.start();
+        return socket::close;
+    }
+
+    private static void serve(BufferedReader reader, BufferedWriter writer, Behavior behavior) throws IOException {
+        String setupLine = reader.readLine();
+        if (setupLine == null) {
+            // the coordinator stopped the worker before sending the problems
+            return;
+        }
+        String[] setup = setupLine.split(" ");
+        int problems = Integer.parseInt(setup[4]);
+        for (int read = 0; read < problems; ) {
+            if (reader.readLine().equals("END PROBLEM ARCHETYPE")) {
+                read++;
+            }
+        }
+        if (behavior == Behavior.CRASH_DURING_SETUP) {
+            return;
+        }
+        writer.write("READY\n");
+        writer.flush();
+
+        String line;
+        while ((line = reader.readLine()) != null && !line.equals("EXIT")) {
+            String[] parts = line.split(" ");
+            if (behavior == Behavior.HANG) {
+                continue;
+            }
+            switch (behavior) {
+                case CRASH_DURING_RUN -> {
+                    return;
+                }
+                case FAIL -> writer.write("ERROR simulation failed\n");
+                default -> writer.write("RESULT %s\n".formatted(
+                    rating(Integer.parseInt(parts[1]), Integer.parseInt(parts[2]))));
+            }
+            writer.flush();
+        }
+    }
+
+    private static double rating(int problemIndex, int seed) {
+        return problemIndex + (seed & 0xFFFF) / 65536.0;
+    }
+
+    private static double expectedRating() {
+        double sum = 0;
+        for (int run = 0; run < RUNS; run++) {
+            for (int problemIndex = 0; problemIndex < PROBLEM_GROUP.problems().size(); problemIndex++) {
+                sum += rating(problemIndex, ParallelRunnerImpl.taskSeed(SEED, problemIndex, run));
+            }
+        }
+        return sum / (RUNS * PROBLEM_GROUP.problems().size());
+    }
+
+    private static ProblemArchetype problem(String name) {
+        Location restaurant = new Location(0, 0);
+        Region region = Region.builder()
+            .distanceCalculator(new EuclideanDistanceCalculator())
+            .addRestaurant(restaurant, Region.Restaurant.JAVA_HUT)
+            .build();
+        VehicleManager vehicleManager = proxy(VehicleManager.class, Map.of(
+            "getRegion", region,
+            "getAllVehicles", List.of(),
+            "getPathCalculator", proxy(PathCalculator.class, Map.of())
+        ));
+        return new ProblemArchetypeImpl(
+            new EmptyOrderGenerator.FactoryBuilder().build(),
+            vehicleManager,
+            Map.of(CRITERION, AmountDeliveredRater.Factory.builder().setFactor(0.5).build()),
+            10,
+            name
+        );
+    }
+}
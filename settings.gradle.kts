@@ -18,5 +18,6 @@ pluginManagement {
 
 rootProject.name = "FOP-2223-Projekt-Student"
 include("application")
+include("benchmarks")
 include("domain")
 include("infrastructure")
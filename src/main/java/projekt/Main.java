@@ -1,16 +1,83 @@
 package projekt;
 
+import projekt.delivery.event.AsyncEventLogWriter;
+import projekt.delivery.event.EventBus;
+import projekt.delivery.event.EventSink;
+
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.lang.reflect.InvocationTargetException;
+import java.util.Arrays;
+import java.util.Locale;
+
 public class Main {
 
-    public static void main(String[] args) throws ClassNotFoundException, InstantiationException, IllegalAccessException {
-        startWithGUI();
+    public static void main(String[] args) throws ReflectiveOperationException {
+        if (Arrays.asList(args).contains("--headless")) {
+            startHeadless(args);
+            return;
+        }
+        startWithGUI(args);
         //startWithoutGUI(); //can bew used instead to run a simulation without a gui
     }
 
-    private static void startWithGUI() throws ClassNotFoundException, InstantiationException, IllegalAccessException {
+    /**
+     * Starts the GUI. The events of the simulations are only logged to the console if the arguments contain
+     * {@code --event-log <level>}, because formatting them slows down the simulating thread.
+     */
+    private static void startWithGUI(String[] args) throws ClassNotFoundException, InstantiationException, IllegalAccessException {
+        AsyncEventLogWriter.Level eventLogLevel = eventLogLevel(args);
         @SuppressWarnings("deprecation") //used to avoid incompatibilities with jagr when using reflections to create a new instance.
         Projekt projekt = (Projekt) Class.forName("projekt.GUIProjektImpl").newInstance();
-        projekt.start();
+        // log the events of the simulations to the console without slowing them down, until the GUI is closed
+        try (AsyncEventLogWriter eventLog = new AsyncEventLogWriter(new OutputStreamWriter(System.out), eventLogLevel)) {
+            EventBus.setDefaultSink(eventLog);
+            projekt.start();
+        } finally {
+            EventBus.setDefaultSink(EventSink.NONE);
+        }
+    }
+
+    /**
+     * Returns the {@link AsyncEventLogWriter.Level} following {@code --event-log} in the given arguments.
+     * @param args The arguments of the program.
+     * @return The given {@link AsyncEventLogWriter.Level} or {@link AsyncEventLogWriter.Level#OFF} if none is given.
+     * @throws IllegalArgumentException If the level is missing or unknown.
+     */
+    private static AsyncEventLogWriter.Level eventLogLevel(String[] args) {
+        int index = Arrays.asList(args).indexOf("--event-log");
+        if (index == -1) {
+            return AsyncEventLogWriter.Level.OFF;
+        }
+        if (index + 1 == args.length) {
+            throw new IllegalArgumentException("--event-log requires a level");
+        }
+        return AsyncEventLogWriter.Level.valueOf(args[index + 1].toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * Runs the problems given by the arguments without loading any JavaFX class.
+     * Invalid arguments terminate the JVM with exit code 2 after printing the usage.
+     */
+    private static void startHeadless(String[] args) throws ReflectiveOperationException {
+        int exitCode;
+        try {
+            exitCode = (int) Class.forName("projekt.HeadlessProjektImpl")
+                .getMethod("run", String[].class, PrintStream.class)
+                .invoke(null, args, System.err);
+        } catch (InvocationTargetException e) {
+            // failures of the execution are reported like without reflection
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+        if (exitCode != 0) {
+            System.exit(exitCode);
+        }
     }
 
     @SuppressWarnings("unused")